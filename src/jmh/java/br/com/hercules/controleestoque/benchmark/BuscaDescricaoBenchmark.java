@@ -0,0 +1,154 @@
+package br.com.hercules.controleestoque.benchmark;
+
+import br.com.hercules.controleestoque.ControleestoqueApplication;
+import br.com.hercules.controleestoque.busca.IndiceTrigramas;
+import br.com.hercules.controleestoque.busca.NormalizadorTexto;
+import br.com.hercules.controleestoque.model.Produto;
+import br.com.hercules.controleestoque.repository.ProdutoRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Busca por descrição no {@link IndiceTrigramas} comparada à varredura linear com
+ * {@code contains}, que é o que o banco faz sem índice. A varredura para nas primeiras
+ * ocorrências sem ordenar por relevância, então só leva vantagem em termos muito frequentes;
+ * o índice avalia todas as ocorrências para devolver as mais relevantes.
+ * <p>
+ * {@code consultaLike} é a busca que o serviço fazia antes do índice,
+ * {@code findByDescricaoContainingIgnoreCase} no banco do parâmetro {@code jdbc}, e
+ * {@code indiceTrigramasComCarga} soma ao índice a leitura dos produtos encontrados por id,
+ * como faz o serviço; os dois devolvem as mesmas entidades. O banco recebe as mesmas descrições
+ * com ids de 1 a {@code quantidade} e, se já tiver essa carga, ela é reaproveitada.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class BuscaDescricaoBenchmark {
+
+    private static final int LIMITE = 50;
+
+    @Param({"100000", "1000000"})
+    private int quantidade;
+
+    @Param({"pa", "parafuso", "latao 7"})
+    private String termo;
+
+    private IndiceTrigramas indice;
+
+    private String[] normalizadas;
+
+    @Setup
+    public void preparar() {
+        DescricoesSinteticas descricoes = new DescricoesSinteticas(42);
+        indice = new IndiceTrigramas();
+        normalizadas = new String[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            String descricao = descricoes.proxima();
+            indice.indexar((long) i + 1, descricao);
+            normalizadas[i] = NormalizadorTexto.normalizar(descricao);
+        }
+    }
+
+    @Benchmark
+    public List<Long> indiceTrigramas() {
+        return indice.buscar(termo, LIMITE);
+    }
+
+    @Benchmark
+    public List<Long> varreduraLinear() {
+        String consulta = NormalizadorTexto.normalizar(termo);
+        List<Long> encontrados = new ArrayList<>(LIMITE);
+        for (int i = 0; i < normalizadas.length && encontrados.size() < LIMITE; i++) {
+            if (normalizadas[i].contains(consulta)) {
+                encontrados.add((long) i + 1);
+            }
+        }
+        return encontrados;
+    }
+
+    @Benchmark
+    public List<Produto> consultaLike(Banco banco) {
+        return banco.produtoRepository.findByDescricaoContainingIgnoreCase(termo, Limit.of(LIMITE));
+    }
+
+    @Benchmark
+    public List<Produto> indiceTrigramasComCarga(Banco banco) {
+        return banco.produtoRepository.findAllById(indice.buscar(termo, LIMITE));
+    }
+
+    @State(Scope.Benchmark)
+    public static class Banco {
+
+        @Param({"jdbc:h2:mem:busca;MODE=PostgreSQL;DB_CLOSE_DELAY=-1"})
+        private String jdbc;
+
+        private ConfigurableApplicationContext contexto;
+
+        private ProdutoRepository produtoRepository;
+
+        @Setup
+        public void preparar(BuscaDescricaoBenchmark benchmark) {
+            List<String> argumentos = new ArrayList<>(List.of("--spring.main.banner-mode=off",
+                    "--logging.level.root=WARN",
+                    "--spring.datasource.url=" + jdbc,
+                    "--estoque.busca.indice.habilitado=false"));
+            if (jdbc.startsWith("jdbc:h2")) {
+                argumentos.addAll(List.of("--spring.datasource.username=sa", "--spring.datasource.password=",
+                        "--spring.flyway.enabled=false", "--spring.jpa.hibernate.ddl-auto=create-drop"));
+            }
+            contexto = new SpringApplicationBuilder(ControleestoqueApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .run(argumentos.toArray(String[]::new));
+            produtoRepository = contexto.getBean(ProdutoRepository.class);
+
+            int quantidade = benchmark.quantidade;
+            JdbcTemplate jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+            Long carregados = jdbcTemplate.queryForObject("select count(*) from produto where id between 1 and ?",
+                    Long.class, quantidade);
+            Long existentes = jdbcTemplate.queryForObject("select count(*) from produto", Long.class);
+            if (carregados == quantidade && existentes == quantidade) {
+                return;
+            }
+            if (existentes > 0) {
+                jdbcTemplate.execute("truncate table produto cascade");
+            }
+            DescricoesSinteticas descricoes = new DescricoesSinteticas(42);
+            List<Object[]> lote = new ArrayList<>(10_000);
+            for (int i = 0; i < quantidade; i++) {
+                lote.add(new Object[]{(long) i + 1, descricoes.proxima()});
+                if (lote.size() == 10_000 || i == quantidade - 1) {
+                    jdbcTemplate.batchUpdate("insert into produto (id, descricao, quantidade, preco, ponto_reposicao, " +
+                            "versao, quantidade_reservada) values (?, ?, 1000000, 10.0, 0, 0, 0)", lote);
+                    lote.clear();
+                }
+            }
+        }
+
+        @TearDown
+        public void encerrar() {
+            contexto.close();
+        }
+    }
+}
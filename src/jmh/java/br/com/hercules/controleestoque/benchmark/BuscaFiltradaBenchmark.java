@@ -0,0 +1,127 @@
+package br.com.hercules.controleestoque.benchmark;
+
+import br.com.hercules.controleestoque.ControleestoqueApplication;
+import br.com.hercules.controleestoque.model.FiltroProdutos;
+import br.com.hercules.controleestoque.model.Produto;
+import br.com.hercules.controleestoque.model.ResumoProduto;
+import br.com.hercules.controleestoque.service.ProdutoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filtros comuns da busca de produtos: {@code buscarProdutos} (uma consulta com filtro, ordem e
+ * limite no banco, projetada em {@link ResumoProduto}) contra carregar todos os produtos com
+ * {@code findAllProdutos} e filtrar em memória, como os clientes faziam. Os índices da migração
+ * V6 que o H2 suporta (preco, id) e (quantidade, id) são criados após a carga.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+public class BuscaFiltradaBenchmark {
+
+    private static final int LIMITE = 50;
+
+    @Param({"1000000"})
+    private int produtos;
+
+    @Param({"faixaPreco", "estoqueBaixo", "descricaoEPreco"})
+    private String filtro;
+
+    private ConfigurableApplicationContext contexto;
+
+    private ProdutoService produtoService;
+
+    private FiltroProdutos filtroProdutos;
+
+    @Setup
+    public void preparar() {
+        contexto = new SpringApplicationBuilder(ControleestoqueApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.flyway.enabled=false",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop");
+        produtoService = contexto.getBean(ProdutoService.class);
+
+        JdbcTemplate jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+        DescricoesSinteticas descricoes = new DescricoesSinteticas(42);
+        Random aleatorio = new Random(42);
+        List<Object[]> lote = new ArrayList<>(10_000);
+        for (int i = 0; i < produtos; i++) {
+            double preco = Math.round(aleatorio.nextDouble() * 100_000) / 100.0;
+            lote.add(new Object[]{(long) i + 1, descricoes.proxima(), aleatorio.nextInt(1000), preco});
+            if (lote.size() == 10_000 || i == produtos - 1) {
+                jdbcTemplate.batchUpdate("insert into produto (id, descricao, quantidade, preco, ponto_reposicao, versao, " +
+                        "quantidade_reservada) values (?, ?, ?, ?, 0, 0, 0)", lote);
+                lote.clear();
+            }
+        }
+        jdbcTemplate.execute("create index idx_produto_preco_id on produto (preco, id)");
+        jdbcTemplate.execute("create index idx_produto_quantidade_id on produto (quantidade, id)");
+        jdbcTemplate.execute("analyze");
+
+        filtroProdutos = switch (filtro) {
+            case "faixaPreco" -> new FiltroProdutos(null, 100.0, 150.0, null, null, FiltroProdutos.Ordenacao.PRECO, false, LIMITE);
+            case "estoqueBaixo" -> new FiltroProdutos(null, null, null, null, 5, FiltroProdutos.Ordenacao.QUANTIDADE, false, LIMITE);
+            case "descricaoEPreco" -> new FiltroProdutos("parafuso", null, 50.0, 1, null, FiltroProdutos.Ordenacao.PRECO, true, LIMITE);
+            default -> throw new IllegalArgumentException(filtro);
+        };
+    }
+
+    @TearDown
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public List<ResumoProduto> buscarProdutos() {
+        return produtoService.buscarProdutos(filtroProdutos);
+    }
+
+    @Benchmark
+    public List<Produto> carregarTodosEFiltrar() {
+        String trecho = filtroProdutos.descricao() == null ? null : filtroProdutos.descricao().toLowerCase();
+        Comparator<Produto> ordem = switch (filtroProdutos.ordenacao()) {
+            case PRECO -> Comparator.comparingDouble(Produto::getPreco);
+            case QUANTIDADE -> Comparator.comparingInt(Produto::getQuantidade);
+            case DESCRICAO -> Comparator.comparing(Produto::getDescricao);
+            case ID -> Comparator.comparing(Produto::getId);
+        };
+        ordem = ordem.thenComparing(Produto::getId);
+        return produtoService.findAllProdutos().stream()
+                .filter(p -> trecho == null || p.getDescricao().toLowerCase().contains(trecho))
+                .filter(p -> filtroProdutos.precoMinimo() == null || p.getPreco() >= filtroProdutos.precoMinimo())
+                .filter(p -> filtroProdutos.precoMaximo() == null || p.getPreco() <= filtroProdutos.precoMaximo())
+                .filter(p -> filtroProdutos.quantidadeMinima() == null || p.getQuantidade() >= filtroProdutos.quantidadeMinima())
+                .filter(p -> filtroProdutos.quantidadeMaxima() == null || p.getQuantidade() <= filtroProdutos.quantidadeMaxima())
+                .sorted(filtroProdutos.decrescente() ? ordem.reversed() : ordem)
+                .limit(LIMITE)
+                .toList();
+    }
+}
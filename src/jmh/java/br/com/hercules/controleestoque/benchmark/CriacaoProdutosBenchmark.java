@@ -0,0 +1,101 @@
+package br.com.hercules.controleestoque.benchmark;
+
+import br.com.hercules.controleestoque.ControleestoqueApplication;
+import br.com.hercules.controleestoque.model.Produto;
+import br.com.hercules.controleestoque.model.ResultadoLote;
+import br.com.hercules.controleestoque.service.ProdutoLoteService;
+import br.com.hercules.controleestoque.service.ProdutoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Criação de produtos um a um com {@code createProduto}, uma transação por produto como no
+ * {@code POST /produtos}, contra {@code criarEmLote} do {@code POST /produtos/lote}, com inserts
+ * em batch JDBC. Cada operação cria {@value #PRODUTOS_POR_OPERACAO} produtos, então o resultado
+ * em ops/s é o número de linhas por segundo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class CriacaoProdutosBenchmark {
+
+    private static final int PRODUTOS_POR_OPERACAO = 1000;
+
+    @Param({"jdbc:h2:mem:criacao;MODE=PostgreSQL;DB_CLOSE_DELAY=-1"})
+    private String jdbc;
+
+    private ConfigurableApplicationContext contexto;
+
+    private ProdutoService produtoService;
+
+    private ProdutoLoteService produtoLoteService;
+
+    private DescricoesSinteticas descricoes;
+
+    @Setup
+    public void preparar() {
+        List<String> argumentos = new ArrayList<>(List.of("--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--spring.datasource.url=" + jdbc));
+        if (jdbc.startsWith("jdbc:h2")) {
+            argumentos.addAll(List.of("--spring.datasource.username=sa", "--spring.datasource.password=",
+                    "--spring.flyway.enabled=false", "--spring.jpa.hibernate.ddl-auto=create-drop"));
+        }
+        contexto = new SpringApplicationBuilder(ControleestoqueApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(argumentos.toArray(String[]::new));
+        produtoService = contexto.getBean(ProdutoService.class);
+        produtoLoteService = contexto.getBean(ProdutoLoteService.class);
+        descricoes = new DescricoesSinteticas(42);
+    }
+
+    @TearDown
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PRODUTOS_POR_OPERACAO)
+    public Produto porProduto() {
+        Produto criado = null;
+        for (Produto produto : novosProdutos()) {
+            criado = produtoService.createProduto(produto);
+        }
+        return criado;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PRODUTOS_POR_OPERACAO)
+    public List<ResultadoLote> emLote() {
+        return produtoLoteService.criarEmLote(novosProdutos());
+    }
+
+    private List<Produto> novosProdutos() {
+        List<Produto> novos = new ArrayList<>(PRODUTOS_POR_OPERACAO);
+        for (int i = 0; i < PRODUTOS_POR_OPERACAO; i++) {
+            novos.add(new Produto(null, descricoes.proxima(), 100, 10.0));
+        }
+        return novos;
+    }
+}
@@ -0,0 +1,31 @@
+package br.com.hercules.controleestoque.benchmark;
+
+import java.util.Random;
+
+/**
+ * Gera descrições de produto determinísticas, combinando palavras de um catálogo de ferragens,
+ * para que todas as execuções dos benchmarks trabalhem sobre os mesmos dados.
+ */
+final class DescricoesSinteticas {
+
+    private static final String[] ITENS = {"Parafuso", "Porca", "Arruela", "Broca", "Chave", "Martelo", "Serrote",
+            "Alicate", "Trena", "Furadeira", "Lixa", "Prego", "Dobradiça", "Fechadura", "Cadeado"};
+
+    private static final String[] DETALHES = {"sextavado", "inox", "galvanizado", "aço carbono", "madeira",
+            "philips", "fenda", "bivolt", "profissional", "3/8", "1/4", "M8", "M10", "10mm", "latão"};
+
+    private final Random random;
+
+    DescricoesSinteticas(long semente) {
+        this.random = new Random(semente);
+    }
+
+    String proxima() {
+        StringBuilder descricao = new StringBuilder(ITENS[random.nextInt(ITENS.length)]);
+        int detalhes = 1 + random.nextInt(3);
+        for (int i = 0; i < detalhes; i++) {
+            descricao.append(' ').append(DETALHES[random.nextInt(DETALHES.length)]);
+        }
+        return descricao.append(' ').append(random.nextInt(1000)).toString();
+    }
+}
@@ -0,0 +1,100 @@
+package br.com.hercules.controleestoque.benchmark;
+
+import br.com.hercules.controleestoque.model.Produto;
+import br.com.hercules.controleestoque.serializacao.ProdutosColunaresHttpMessageConverter;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Custo de CPU e tamanho de uma lista de {@link Produto} em cada formato negociável em
+ * {@code GET /produtos}, sem e com gzip como o Tomcat aplica. Os tamanhos são impressos no setup,
+ * junto com a proporção em relação ao JSON sem compressão.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class FormatoListaProdutoBenchmark {
+
+    @Param({"json", "smile", "cbor", "colunar-json", "colunar-cbor"})
+    private String formato;
+
+    @Param({"10000"})
+    private int tamanho;
+
+    private ObjectMapper objectMapper;
+
+    private JsonFactory fabricaColunar;
+
+    private List<Produto> produtos;
+
+    @Setup
+    public void preparar() throws IOException {
+        objectMapper = switch (formato) {
+            case "smile" -> Jackson2ObjectMapperBuilder.smile().build();
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor().build();
+            default -> Jackson2ObjectMapperBuilder.json().build();
+        };
+        fabricaColunar = formato.equals("colunar-cbor") ? new CBORFactory() : new JsonFactory();
+        DescricoesSinteticas descricoes = new DescricoesSinteticas(42);
+        produtos = new ArrayList<>(tamanho);
+        for (int i = 1; i <= tamanho; i++) {
+            produtos.add(new Produto((long) i, descricoes.proxima(), i % 500, i * 1.25));
+        }
+        int json = Jackson2ObjectMapperBuilder.json().build().writeValueAsBytes(produtos).length;
+        int bytes = serializar().length;
+        int bytesGzip = serializarGzip().length;
+        System.out.printf("%n%s: %d bytes (%d%% do JSON), %d bytes com gzip (%d%% do JSON)%n", formato,
+                bytes, 100L * bytes / json, bytesGzip, 100L * bytesGzip / json);
+    }
+
+    @Benchmark
+    public byte[] serializar() throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream(1 << 16);
+        escrever(saida);
+        return saida.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] serializarGzip() throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream(1 << 14);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(saida, 8192)) {
+            escrever(gzip);
+        }
+        return saida.toByteArray();
+    }
+
+    private void escrever(OutputStream saida) throws IOException {
+        if (formato.startsWith("colunar")) {
+            try (JsonGenerator gerador = fabricaColunar.createGenerator(saida)) {
+                ProdutosColunaresHttpMessageConverter.escrever(produtos, gerador);
+            }
+        } else {
+            objectMapper.writeValue(saida, produtos);
+        }
+    }
+}
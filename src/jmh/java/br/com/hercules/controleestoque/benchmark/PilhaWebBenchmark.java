@@ -0,0 +1,140 @@
+package br.com.hercules.controleestoque.benchmark;
+
+import br.com.hercules.controleestoque.ControleestoqueApplication;
+import br.com.hercules.controleestoque.model.Produto;
+import br.com.hercules.controleestoque.model.ResultadoLote;
+import br.com.hercules.controleestoque.service.ProdutoLoteService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Carga HTTP lado a lado nas duas pilhas: {@code mvc} (Spring MVC, Tomcat e JPA) e {@code reativo}
+ * (WebFlux, Netty e R2DBC), com 64 clientes simultâneos lendo produtos. O cache de produtos fica
+ * desligado para que as duas pilhas vão ao banco em toda leitura, e os limites de requisições
+ * também. Ao final de cada pilha são impressas as threads que atenderam as requisições.
+ * <p>
+ * Por padrão o banco é H2 em memória, sem latência de rede e com um driver R2DBC síncrono, o que
+ * esconde a principal vantagem do event loop; para comparar com o PostgreSQL, informe os parâmetros {@code jdbc} e {@code r2dbc}
+ * (ex.: {@code -p jdbc=jdbc:postgresql://localhost:5432/estoque_db -p r2dbc=r2dbc:postgresql://localhost:5432/estoque_db}).
+ * A pilha reativa só está no classpath com o perfil Maven {@code reativo}: {@code mvn -Preativo,jmh test-compile exec:exec}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Threads(64)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class PilhaWebBenchmark {
+
+    private static final int TAMANHO_PAGINA = 100;
+
+    @Param({"mvc", "reativo"})
+    private String pilha;
+
+    @Param({"10000"})
+    private int produtos;
+
+    @Param({"jdbc:h2:mem:pilha;MODE=PostgreSQL;DB_CLOSE_DELAY=-1"})
+    private String jdbc;
+
+    @Param({"r2dbc:h2:mem:///pilha"})
+    private String r2dbc;
+
+    private ConfigurableApplicationContext contexto;
+
+    private HttpClient cliente;
+
+    private String base;
+
+    private long[] ids;
+
+    @Setup
+    public void preparar() {
+        List<String> argumentos = new ArrayList<>(List.of("--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--server.port=0",
+                "--spring.datasource.url=" + jdbc,
+                "--spring.r2dbc.url=" + r2dbc,
+                "--estoque.cache.produtos.tamanho-maximo=0",
+                "--estoque.limites.habilitado=false"));
+        if (jdbc.startsWith("jdbc:h2")) {
+            argumentos.addAll(List.of("--spring.datasource.username=sa", "--spring.datasource.password=",
+                    "--spring.flyway.enabled=false", "--spring.jpa.hibernate.ddl-auto=create-drop"));
+        }
+        contexto = new SpringApplicationBuilder(ControleestoqueApplication.class)
+                .profiles(pilha.equals("reativo") ? new String[]{"reativo"} : new String[0])
+                .run(argumentos.toArray(String[]::new));
+        base = "http://localhost:" + contexto.getEnvironment().getProperty("local.server.port") + "/produtos";
+        cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        List<Produto> novos = new ArrayList<>(produtos);
+        for (int i = 0; i < produtos; i++) {
+            novos.add(new Produto(null, "Produto " + i, 1_000, 10.0));
+        }
+        List<ResultadoLote> resultados = contexto.getBean(ProdutoLoteService.class).criarEmLote(novos);
+        ids = resultados.stream().mapToLong(ResultadoLote::id).toArray();
+    }
+
+    @TearDown
+    public void encerrar() {
+        long threadsHttp = Thread.getAllStackTraces().keySet().stream()
+                .map(Thread::getName)
+                .filter(nome -> nome.startsWith("http-nio") || nome.startsWith("reactor-http"))
+                .count();
+        System.out.println("Threads HTTP da pilha " + pilha + ": " + threadsHttp);
+        contexto.close();
+    }
+
+    @Benchmark
+    public int produtoPorId() throws IOException, InterruptedException {
+        return get(base + "/" + idAleatorio());
+    }
+
+    @Benchmark
+    public int paginaProdutos() throws IOException, InterruptedException {
+        return get(base + "?limite=" + TAMANHO_PAGINA + "&cursor=" + cursor(idAleatorio()));
+    }
+
+    private int get(String uri) throws IOException, InterruptedException {
+        HttpResponse<byte[]> resposta = cliente.send(HttpRequest.newBuilder(URI.create(uri)).GET().build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        if (resposta.statusCode() != 200) {
+            throw new IllegalStateException("GET " + uri + " respondeu " + resposta.statusCode());
+        }
+        return resposta.body().length;
+    }
+
+    private long idAleatorio() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+
+    private static String cursor(long ultimoId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(("id:" + ultimoId).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,192 @@
+package br.com.hercules.controleestoque.benchmark;
+
+import br.com.hercules.controleestoque.ControleestoqueApplication;
+import br.com.hercules.controleestoque.busca.IndiceDescricaoProduto;
+import br.com.hercules.controleestoque.controller.ProdutoController;
+import br.com.hercules.controleestoque.model.MovimentoEstoque;
+import br.com.hercules.controleestoque.model.Produto;
+import br.com.hercules.controleestoque.service.ProdutoLoteService;
+import br.com.hercules.controleestoque.service.ProdutoService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Operações do {@link ProdutoService} com a aplicação completa (cache, índice de busca e JPA)
+ * sobre H2 em memória, ou sobre o banco informado no parâmetro {@code jdbc}. O cache é aquecido
+ * com até {@code tamanhoCache} produtos antes da medição; com {@code tamanhoCache = 0} toda
+ * leitura por id vai ao banco.
+ * <p>
+ * As listagens comparam o caminho antigo do {@code GET /produtos} ({@code findAll} serializado
+ * de uma vez) com a página por cursor e a exportação NDJSON. O tempo é amostrado por operação
+ * (p99 no relatório); para o heap, rode com {@code -prof gc} e veja também o pico da geração
+ * antiga impresso ao fim de cada rodada, descontado o que já estava ocupado antes da medição.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ProdutoServiceBenchmark {
+
+    private static final int TAMANHO_PAGINA = 100;
+
+    private static final int TAMANHO_LOTE = 10_000;
+
+    @Param({"10000", "100000", "1000000"})
+    private int produtos;
+
+    @Param({"10000", "0"})
+    private int tamanhoCache;
+
+    @Param({"jdbc:h2:mem:benchmark;MODE=PostgreSQL;DB_CLOSE_DELAY=-1"})
+    private String jdbc;
+
+    private ConfigurableApplicationContext contexto;
+
+    private ProdutoService produtoService;
+
+    private ProdutoController produtoController;
+
+    private ObjectMapper objectMapper;
+
+    private long[] ids;
+
+    private MemoryPoolMXBean geracaoAntiga;
+
+    private long geracaoAntigaInicial;
+
+    private long picoGeracaoAntiga;
+
+    @Setup
+    public void preparar() throws InterruptedException {
+        List<String> argumentos = new ArrayList<>(List.of("--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--spring.datasource.url=" + jdbc,
+                "--estoque.cache.produtos.tamanho-maximo=" + tamanhoCache));
+        if (jdbc.startsWith("jdbc:h2")) {
+            argumentos.addAll(List.of("--spring.datasource.username=sa", "--spring.datasource.password=",
+                    "--spring.flyway.enabled=false", "--spring.jpa.hibernate.ddl-auto=create-drop"));
+        }
+        contexto = new SpringApplicationBuilder(ControleestoqueApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(argumentos.toArray(String[]::new));
+        produtoService = contexto.getBean(ProdutoService.class);
+        produtoController = contexto.getBean(ProdutoController.class);
+        objectMapper = contexto.getBean(ObjectMapper.class);
+        IndiceDescricaoProduto indice = contexto.getBean(IndiceDescricaoProduto.class);
+        while (!indice.isPronto()) {
+            Thread.sleep(10);
+        }
+
+        // Num banco persistente a carga da rodada anterior é reaproveitada quando tem o mesmo tamanho.
+        JdbcTemplate jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+        Long existentes = jdbcTemplate.queryForObject("select count(*) from produto", Long.class);
+        if (existentes != produtos) {
+            if (existentes > 0) {
+                jdbcTemplate.execute("truncate table produto restart identity cascade");
+            }
+            ProdutoLoteService loteService = contexto.getBean(ProdutoLoteService.class);
+            DescricoesSinteticas descricoes = new DescricoesSinteticas(42);
+            for (int inicio = 0; inicio < produtos; inicio += TAMANHO_LOTE) {
+                List<Produto> novos = new ArrayList<>(TAMANHO_LOTE);
+                for (int i = inicio; i < Math.min(produtos, inicio + TAMANHO_LOTE); i++) {
+                    novos.add(new Produto(null, descricoes.proxima(), 1_000_000, 10.0));
+                }
+                loteService.criarEmLote(novos);
+            }
+        }
+        ids = jdbcTemplate.queryForList("select id from produto order by id", Long.class).stream()
+                .mapToLong(Long::longValue)
+                .toArray();
+        for (int i = 0; i < Math.min(tamanhoCache, ids.length); i++) {
+            produtoService.produtoGetById(ids[i]);
+        }
+        geracaoAntiga = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .filter(pool -> pool.getName().contains("Old") || pool.getName().contains("Tenured"))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @Setup(Level.Iteration)
+    public void zerarPicoDeHeap() {
+        System.gc();
+        geracaoAntiga.resetPeakUsage();
+        geracaoAntigaInicial = geracaoAntiga.getUsage().getUsed();
+    }
+
+    @TearDown(Level.Iteration)
+    public void registrarPicoDeHeap() {
+        picoGeracaoAntiga = Math.max(picoGeracaoAntiga, geracaoAntiga.getPeakUsage().getUsed() - geracaoAntigaInicial);
+    }
+
+    @TearDown
+    public void encerrar(BenchmarkParams parametros) {
+        System.out.printf("Pico da geração antiga em %s (%d produtos): %d MB%n", parametros.getBenchmark(),
+                produtos, picoGeracaoAntiga / (1024 * 1024));
+        contexto.close();
+    }
+
+    @Benchmark
+    public Produto produtoGetById() {
+        return produtoService.produtoGetById(idAleatorio());
+    }
+
+    @Benchmark
+    public void findAllProdutos() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), produtoService.findAllProdutos());
+    }
+
+    @Benchmark
+    public void findProdutosAposId() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(),
+                produtoService.findProdutosAposId(idAleatorio(), TAMANHO_PAGINA));
+    }
+
+    @Benchmark
+    public void streamProdutos() throws IOException {
+        produtoController.streamProdutos().getBody().writeTo(OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public List<Produto> produtoGetByDescricao() {
+        return produtoService.produtoGetByDescricao("parafuso inox", 50);
+    }
+
+    @Benchmark
+    public Produto movimentarEstoque() {
+        return produtoService.movimentarEstoque(idAleatorio(), new MovimentoEstoque(MovimentoEstoque.Tipo.ENTRADA, 1));
+    }
+
+    private long idAleatorio() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+}
@@ -0,0 +1,68 @@
+package br.com.hercules.controleestoque.benchmark;
+
+import br.com.hercules.controleestoque.model.Produto;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização e desserialização de listas de {@link Produto} com um ObjectMapper configurado
+ * como o da aplicação.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SerializacaoProdutoBenchmark {
+
+    private static final TypeReference<List<Produto>> LISTA_PRODUTOS = new TypeReference<>() {
+    };
+
+    @Param({"1", "100", "10000"})
+    private int tamanho;
+
+    private ObjectMapper objectMapper;
+
+    private List<Produto> produtos;
+
+    private byte[] json;
+
+    @Setup
+    public void preparar() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        DescricoesSinteticas descricoes = new DescricoesSinteticas(42);
+        produtos = new ArrayList<>(tamanho);
+        for (int i = 1; i <= tamanho; i++) {
+            produtos.add(new Produto((long) i, descricoes.proxima(), i % 500, i * 1.25));
+        }
+        json = objectMapper.writeValueAsBytes(produtos);
+    }
+
+    @Benchmark
+    public byte[] serializar() throws IOException {
+        return objectMapper.writeValueAsBytes(produtos);
+    }
+
+    @Benchmark
+    public List<Produto> desserializar() throws IOException {
+        return objectMapper.readValue(json, LISTA_PRODUTOS);
+    }
+}
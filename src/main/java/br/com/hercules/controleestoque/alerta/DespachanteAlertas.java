@@ -0,0 +1,249 @@
+package br.com.hercules.controleestoque.alerta;
+
+import br.com.hercules.controleestoque.model.AlertaEstoque;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Entrega alertas de estoque aos clientes SSE conectados e, se configurado, a um webhook.
+ * <p>
+ * {@link #publicar} só enfileira, para não atrasar as requisições que alteram estoque; uma thread
+ * própria esvazia a fila em lotes e envia cada lote ao webhook como um array JSON em uma única
+ * requisição. Com a fila cheia o alerta é descartado e contado em {@code estoque.alertas.descartados}.
+ * <p>
+ * Aos clientes SSE a thread de despacho também só enfileira: cada assinante tem uma fila limitada
+ * de alertas pendentes, enviada por um executor próprio com no máximo uma tarefa por assinante.
+ * Um cliente que não lê ocupa uma dessas threads até o timeout de escrita do servidor, sem atrasar
+ * os demais nem o webhook; quando sua fila enche, ele é desconectado e contado em
+ * {@code estoque.alertas.assinantes-lentos}.
+ */
+@Component
+public class DespachanteAlertas {
+
+    private static final Logger log = LoggerFactory.getLogger(DespachanteAlertas.class);
+
+    private static final int TAMANHO_LOTE = 100;
+
+    private final BlockingQueue<AlertaEstoque> fila;
+
+    private final List<Assinante> assinantes = new CopyOnWriteArrayList<>();
+
+    private final ThreadPoolTaskExecutor executorSse;
+
+    private final int pendentesPorAssinante;
+
+    private final ObjectMapper objectMapper;
+
+    private final URI webhook;
+
+    private final HttpClient httpClient;
+
+    private final long timeoutSse;
+
+    private final Counter enviados;
+
+    private final Counter descartados;
+
+    private final Counter assinantesLentos;
+
+    private volatile Thread despacho;
+
+    public DespachanteAlertas(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                              @Value("${estoque.alertas.capacidade-fila:10000}") int capacidadeFila,
+                              @Value("${estoque.alertas.webhook.url:}") String webhook,
+                              @Value("${estoque.alertas.sse.timeout-ms:1800000}") long timeoutSse,
+                              @Value("${estoque.alertas.sse.threads:4}") int threadsSse,
+                              @Value("${estoque.alertas.sse.pendentes-por-assinante:1000}") int pendentesPorAssinante) {
+        this.fila = new ArrayBlockingQueue<>(capacidadeFila);
+        this.objectMapper = objectMapper;
+        this.webhook = webhook.isBlank() ? null : URI.create(webhook);
+        this.httpClient = this.webhook == null ? null : HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        this.timeoutSse = timeoutSse;
+        this.pendentesPorAssinante = pendentesPorAssinante;
+        this.executorSse = new ThreadPoolTaskExecutor();
+        executorSse.setCorePoolSize(threadsSse);
+        executorSse.setMaxPoolSize(threadsSse);
+        executorSse.setThreadNamePrefix("alertas-sse-");
+        executorSse.setDaemon(true);
+        executorSse.initialize();
+        this.enviados = Counter.builder("estoque.alertas.enviados").register(meterRegistry);
+        this.descartados = Counter.builder("estoque.alertas.descartados").register(meterRegistry);
+        this.assinantesLentos = Counter.builder("estoque.alertas.assinantes-lentos").register(meterRegistry);
+    }
+
+    public void publicar(AlertaEstoque alerta) {
+        if (!fila.offer(alerta)) {
+            descartados.increment();
+        }
+    }
+
+    public SseEmitter registrar() {
+        SseEmitter emissor = new SseEmitter(timeoutSse);
+        Assinante assinante = new Assinante(emissor);
+        emissor.onCompletion(assinante::encerrar);
+        emissor.onTimeout(assinante::encerrar);
+        emissor.onError(erro -> assinante.encerrar());
+        assinantes.add(assinante);
+        return emissor;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        Thread thread = new Thread(this::despachar, "despachante-alertas");
+        thread.setDaemon(true);
+        despacho = thread;
+        thread.start();
+    }
+
+    @PreDestroy
+    public void parar() {
+        Thread thread = despacho;
+        if (thread != null) {
+            thread.interrupt();
+        }
+        executorSse.shutdown();
+    }
+
+    private void despachar() {
+        List<AlertaEstoque> lote = new ArrayList<>(TAMANHO_LOTE);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                lote.add(fila.take());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            fila.drainTo(lote, TAMANHO_LOTE - 1);
+            try {
+                enviarSse(lote);
+                enviarWebhook(lote);
+                enviados.increment(lote.size());
+            } catch (RuntimeException ex) {
+                log.warn("Falha ao despachar {} alertas de estoque", lote.size(), ex);
+            }
+            lote.clear();
+        }
+    }
+
+    private void enviarSse(List<AlertaEstoque> lote) {
+        for (Assinante assinante : assinantes) {
+            assinante.enfileirar(lote);
+        }
+    }
+
+    private void enviarWebhook(List<AlertaEstoque> lote) {
+        if (webhook == null) {
+            return;
+        }
+        byte[] corpo;
+        try {
+            corpo = objectMapper.writeValueAsBytes(lote);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException(ex);
+        }
+        HttpRequest request = HttpRequest.newBuilder(webhook)
+                .timeout(Duration.ofSeconds(10))
+                .header("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(corpo))
+                .build();
+        int quantidade = lote.size();
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, ex) -> {
+                    if (ex != null) {
+                        log.warn("Falha ao enviar {} alertas de estoque ao webhook {}", quantidade, webhook, ex);
+                    } else if (response.statusCode() >= 300) {
+                        log.warn("Webhook {} respondeu {} a {} alertas de estoque", webhook, response.statusCode(), quantidade);
+                    }
+                });
+    }
+
+    /**
+     * Alertas pendentes de um cliente SSE, enviados em uma tarefa do executor SSE. No máximo uma
+     * tarefa por assinante fica agendada.
+     */
+    private final class Assinante {
+
+        private final SseEmitter emissor;
+
+        private final BlockingQueue<AlertaEstoque> pendentes = new ArrayBlockingQueue<>(pendentesPorAssinante);
+
+        private final AtomicBoolean agendado = new AtomicBoolean();
+
+        private volatile boolean encerrado;
+
+        Assinante(SseEmitter emissor) {
+            this.emissor = emissor;
+        }
+
+        void enfileirar(List<AlertaEstoque> lote) {
+            for (AlertaEstoque alerta : lote) {
+                if (!pendentes.offer(alerta)) {
+                    assinantesLentos.increment();
+                    log.debug("Assinante de alertas desconectado por não acompanhar o envio");
+                    desconectar(new IllegalStateException("Assinante de alertas não acompanhou o envio"));
+                    return;
+                }
+            }
+            agendar();
+        }
+
+        void encerrar() {
+            encerrado = true;
+            assinantes.remove(this);
+            pendentes.clear();
+        }
+
+        private void agendar() {
+            if (!encerrado && agendado.compareAndSet(false, true)) {
+                executorSse.execute(this::enviar);
+            }
+        }
+
+        private void enviar() {
+            try {
+                AlertaEstoque alerta;
+                while (!encerrado && (alerta = pendentes.poll()) != null) {
+                    emissor.send(SseEmitter.event().name("alerta").data(alerta, MediaType.APPLICATION_JSON));
+                }
+            } catch (IOException | IllegalStateException ex) {
+                desconectar(ex);
+            } finally {
+                agendado.set(false);
+            }
+            // Um alerta enfileirado depois do laço e antes de liberar o agendamento não agendou nada.
+            if (!encerrado && !pendentes.isEmpty()) {
+                agendar();
+            }
+        }
+
+        private void desconectar(Exception motivo) {
+            encerrar();
+            emissor.completeWithError(motivo);
+        }
+    }
+}
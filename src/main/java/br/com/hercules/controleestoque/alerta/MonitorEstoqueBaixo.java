@@ -0,0 +1,191 @@
+package br.com.hercules.controleestoque.alerta;
+
+import br.com.hercules.controleestoque.event.ProdutoAlteradoEvent;
+import br.com.hercules.controleestoque.model.AlertaEstoque;
+import br.com.hercules.controleestoque.model.AlteracaoParcialProduto;
+import br.com.hercules.controleestoque.model.Produto;
+import br.com.hercules.controleestoque.model.ProdutoEmRisco;
+import br.com.hercules.controleestoque.repository.ProdutoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Acompanha os produtos abaixo do ponto de reposição a partir dos eventos de alteração, sem
+ * consultar a tabela inteira: a carga inicial lê apenas os produtos já em risco (índice parcial)
+ * e, depois dela, cada alteração é avaliada isoladamente.
+ * <p>
+ * Apenas os produtos em risco ficam em memória, ordenados por criticidade. Uma alteração que não
+ * muda quantidade nem ponto de reposição de um produto fora da visão não toma lock nem aloca.
+ * Alertas são emitidos nas transições e entregues pelo {@link DespachanteAlertas} em outra thread.
+ * Enquanto o produto está na visão, eventos com versão anterior à conhecida são descartados.
+ */
+@Component
+public class MonitorEstoqueBaixo {
+
+    private static final Logger log = LoggerFactory.getLogger(MonitorEstoqueBaixo.class);
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Map<Long, ProdutoEmRisco> emRiscoPorId = new ConcurrentHashMap<>();
+
+    private final ConcurrentSkipListSet<ProdutoEmRisco> emRisco = new ConcurrentSkipListSet<>(ProdutoEmRisco.CRITICIDADE);
+
+    private final Set<Long> alteradosDuranteCarga = ConcurrentHashMap.newKeySet();
+
+    private final ProdutoRepository produtoRepository;
+
+    private final DespachanteAlertas despachante;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final TaskExecutor taskExecutor;
+
+    private final Clock clock;
+
+    private volatile boolean pronto;
+
+    @Autowired
+    public MonitorEstoqueBaixo(ProdutoRepository produtoRepository, DespachanteAlertas despachante,
+                               PlatformTransactionManager transactionManager, TaskExecutor taskExecutor) {
+        this(produtoRepository, despachante, transactionManager, taskExecutor, Clock.systemUTC());
+    }
+
+    MonitorEstoqueBaixo(ProdutoRepository produtoRepository, DespachanteAlertas despachante,
+                        PlatformTransactionManager transactionManager, TaskExecutor taskExecutor, Clock clock) {
+        this.produtoRepository = produtoRepository;
+        this.despachante = despachante;
+        // Transações de escrita vão para a primária: o estado avaliado precisa incluir o commit que gerou o evento.
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.taskExecutor = taskExecutor;
+        this.clock = clock;
+    }
+
+    public boolean isPronto() {
+        return pronto;
+    }
+
+    /**
+     * Produtos em risco, do mais para o menos crítico.
+     */
+    public List<ProdutoEmRisco> listar(int limite) {
+        List<ProdutoEmRisco> produtos = new ArrayList<>(Math.min(limite, emRisco.size()));
+        for (ProdutoEmRisco produto : emRisco) {
+            if (produtos.size() == limite) {
+                break;
+            }
+            produtos.add(produto);
+        }
+        return produtos;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciarCarga() {
+        taskExecutor.execute(this::carregar);
+    }
+
+    void carregar() {
+        try {
+            List<Produto> produtos = transactionTemplate.execute(status -> produtoRepository.findAbaixoDoPontoDeReposicao());
+            for (Produto produto : produtos) {
+                if (!alteradosDuranteCarga.contains(produto.getId())) {
+                    avaliar(produto.getId(), ProdutoEmRisco.de(produto), false);
+                }
+            }
+            pronto = true;
+            alteradosDuranteCarga.clear();
+            log.info("Monitor de estoque baixo carregado com {} produtos abaixo do ponto de reposição", emRisco.size());
+        } catch (RuntimeException ex) {
+            log.error("Falha ao carregar o monitor de estoque baixo", ex);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarProduto(ProdutoAlteradoEvent evento) {
+        if (!pronto) {
+            alteradosDuranteCarga.add(evento.id());
+        }
+        if (evento.tipo() == ProdutoAlteradoEvent.Tipo.REMOCAO) {
+            avaliar(evento.id(), null, false);
+        } else if (evento.atual() != null) {
+            avaliar(evento.id(), ProdutoEmRisco.de(evento.atual()), true);
+        } else if (evento.parcial() != null) {
+            avaliarParcial(evento.id(), evento.parcial());
+        }
+    }
+
+    private void avaliarParcial(Long id, AlteracaoParcialProduto parcial) {
+        if (parcial.quantidade() != null || parcial.pontoReposicao() != null) {
+            // O outro lado da comparação não veio no evento: relê só este produto.
+            transactionTemplate.execute(status -> produtoRepository.findById(id))
+                    .ifPresent(produto -> avaliar(id, ProdutoEmRisco.de(produto), true));
+        } else if (parcial.descricao() != null) {
+            ProdutoEmRisco anterior = emRiscoPorId.get(id);
+            if (anterior != null) {
+                avaliar(id, new ProdutoEmRisco(id, parcial.descricao(), anterior.quantidade(),
+                        anterior.pontoReposicao(), anterior.versao()), false);
+            }
+        }
+    }
+
+    /**
+     * @param estado estado atual do produto, ou {@code null} se ele foi removido
+     */
+    private void avaliar(Long id, ProdutoEmRisco estado, boolean emitirAlerta) {
+        boolean abaixo = estado != null && estado.quantidade() < estado.pontoReposicao();
+        if (!abaixo && !emRiscoPorId.containsKey(id)) {
+            return;
+        }
+        AlertaEstoque alerta = null;
+        lock.lock();
+        try {
+            ProdutoEmRisco anterior = emRiscoPorId.get(id);
+            if (anterior != null && estado != null && desatualizado(estado, anterior)) {
+                return;
+            }
+            if (anterior != null) {
+                emRisco.remove(anterior);
+                emRiscoPorId.remove(id);
+            }
+            if (abaixo) {
+                emRisco.add(estado);
+                emRiscoPorId.put(id, estado);
+                if (anterior == null && emitirAlerta) {
+                    alerta = alerta(AlertaEstoque.Tipo.ABAIXO_DO_PONTO_DE_REPOSICAO, estado);
+                }
+            } else if (anterior != null && estado != null && emitirAlerta) {
+                alerta = alerta(AlertaEstoque.Tipo.NORMALIZADO, estado);
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (alerta != null) {
+            despachante.publicar(alerta);
+        }
+    }
+
+    private static boolean desatualizado(ProdutoEmRisco estado, ProdutoEmRisco anterior) {
+        return estado.versao() != null && anterior.versao() != null && estado.versao() < anterior.versao();
+    }
+
+    private AlertaEstoque alerta(AlertaEstoque.Tipo tipo, ProdutoEmRisco produto) {
+        return new AlertaEstoque(tipo, produto.id(), produto.descricao(), produto.quantidade(),
+                produto.pontoReposicao(), clock.instant());
+    }
+}
@@ -0,0 +1,209 @@
+package br.com.hercules.controleestoque.aquecimento;
+
+import br.com.hercules.controleestoque.config.CacheConfig;
+import br.com.hercules.controleestoque.model.Produto;
+import br.com.hercules.controleestoque.repository.ProdutoRepository;
+import com.github.benmanes.caffeine.cache.Policy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Aquecimento opcional ({@code estoque.aquecimento.habilitado}) executado antes de a aplicação
+ * ser marcada como pronta para receber tráfego.
+ * <p>
+ * Ao encerrar, grava em {@code estoque.aquecimento.arquivo} os ids mais acessados do cache de
+ * produtos, segundo a frequência estimada pelo próprio Caffeine. Na inicialização seguinte esses
+ * produtos são lidos do banco em lotes e colocados no cache; sem o arquivo, são usados os
+ * primeiros ids. Em seguida são feitas requisições HTTP locais aos endpoints de leitura, para que
+ * Tomcat, Spring MVC, Jackson e Hibernate sejam carregados e compilados pelo JIT antes do tráfego real.
+ * <p>
+ * Como roda no {@link ApplicationReadyEvent}, o estado de readiness só passa a
+ * {@code ACCEPTING_TRAFFIC} quando o aquecimento termina.
+ */
+@Component
+public class AquecimentoAplicacao {
+
+    private static final Logger log = LoggerFactory.getLogger(AquecimentoAplicacao.class);
+
+    private static final int TAMANHO_LOTE = 500;
+
+    private final ProdutoRepository produtoRepository;
+
+    private final CacheManager cacheManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean habilitado;
+
+    private final int quantidadeProdutos;
+
+    private final int requisicoes;
+
+    private final Duration tempoMaximo;
+
+    private final Path arquivo;
+
+    public AquecimentoAplicacao(ProdutoRepository produtoRepository, CacheManager cacheManager,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${estoque.aquecimento.habilitado:false}") boolean habilitado,
+                                @Value("${estoque.aquecimento.produtos:1000}") int quantidadeProdutos,
+                                @Value("${estoque.aquecimento.requisicoes:2000}") int requisicoes,
+                                @Value("${estoque.aquecimento.tempo-maximo:30s}") String tempoMaximo,
+                                @Value("${estoque.aquecimento.arquivo:}") String arquivo) {
+        this.produtoRepository = produtoRepository;
+        this.cacheManager = cacheManager;
+        // Lê da primária, como produtoGetById: o resultado vai para o cache e, vindo de uma réplica
+        // atrasada, seria servido desatualizado até o TTL.
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.habilitado = habilitado;
+        this.quantidadeProdutos = quantidadeProdutos;
+        this.requisicoes = requisicoes;
+        this.tempoMaximo = DurationStyle.detectAndParse(tempoMaximo);
+        this.arquivo = arquivo.isBlank() ? null : Path.of(arquivo);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void aquecer(ApplicationReadyEvent evento) {
+        if (!habilitado) {
+            return;
+        }
+        long inicio = System.nanoTime();
+        try {
+            List<Long> ids = carregarCache();
+            int respondidas = 0;
+            if (evento.getApplicationContext() instanceof WebServerApplicationContext contexto && !ids.isEmpty()) {
+                respondidas = exercitarEndpoints(contexto.getWebServer().getPort(), ids);
+            }
+            log.info("Aquecimento concluído em {} ms: {} produtos no cache, {} de {} requisições respondidas",
+                    Duration.ofNanos(System.nanoTime() - inicio).toMillis(), ids.size(), respondidas, requisicoes);
+        } catch (RuntimeException ex) {
+            log.warn("Falha no aquecimento; a aplicação segue sem ele", ex);
+        }
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void gravarChavesQuentes() {
+        if (!habilitado || arquivo == null) {
+            return;
+        }
+        List<String> ids = idsMaisAcessados().stream().map(String::valueOf).toList();
+        if (ids.isEmpty()) {
+            return;
+        }
+        try {
+            Files.write(arquivo, ids);
+        } catch (IOException ex) {
+            log.warn("Não foi possível gravar os produtos mais acessados em {}", arquivo, ex);
+        }
+    }
+
+    private List<Long> carregarCache() {
+        List<Long> ids = lerChavesQuentes();
+        List<Produto> produtos = new ArrayList<>(ids.isEmpty() ? quantidadeProdutos : ids.size());
+        if (ids.isEmpty()) {
+            produtos.addAll(transactionTemplate.execute(status ->
+                    produtoRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(quantidadeProdutos))));
+        } else {
+            for (int i = 0; i < ids.size(); i += TAMANHO_LOTE) {
+                List<Long> lote = ids.subList(i, Math.min(i + TAMANHO_LOTE, ids.size()));
+                produtos.addAll(transactionTemplate.execute(status -> produtoRepository.findAllById(lote)));
+            }
+        }
+        Cache cache = cacheManager.getCache(CacheConfig.CACHE_PRODUTOS);
+        List<Long> carregados = new ArrayList<>(produtos.size());
+        for (Produto produto : produtos) {
+            cache.put(produto.getId(), produto);
+            carregados.add(produto.getId());
+        }
+        return carregados;
+    }
+
+    private List<Long> lerChavesQuentes() {
+        if (arquivo == null || !Files.isReadable(arquivo)) {
+            return List.of();
+        }
+        try (var linhas = Files.lines(arquivo)) {
+            return linhas.map(String::strip)
+                    .filter(linha -> !linha.isEmpty())
+                    .map(Long::valueOf)
+                    .limit(quantidadeProdutos)
+                    .toList();
+        } catch (IOException | NumberFormatException ex) {
+            log.warn("Ignorando o arquivo de produtos mais acessados {}", arquivo, ex);
+            return List.of();
+        }
+    }
+
+    private List<Long> idsMaisAcessados() {
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> caffeine = CacheConfig.caffeineProdutos(cacheManager);
+        if (caffeine == null) {
+            return List.of();
+        }
+        Optional<Policy.Eviction<Object, Object>> eviction = caffeine.policy().eviction();
+        Map<Object, Object> maisAcessados = eviction.map(politica -> politica.hottest(quantidadeProdutos))
+                .orElse(Collections.emptyMap());
+        return maisAcessados.keySet().stream()
+                .filter(Long.class::isInstance)
+                .map(Long.class::cast)
+                .toList();
+    }
+
+    /**
+     * Requisições sequenciais pelos endpoints de leitura, alternando os produtos carregados, até
+     * completar {@code estoque.aquecimento.requisicoes} ou esgotar {@code estoque.aquecimento.tempo-maximo}.
+     */
+    private int exercitarEndpoints(int porta, List<Long> ids) {
+        HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+        String base = "http://localhost:" + porta + "/produtos";
+        int respondidas = 0;
+        long limite = System.nanoTime() + tempoMaximo.toNanos();
+        for (int i = 0; i < requisicoes && System.nanoTime() < limite; i++) {
+            String caminho = switch (i % 10) {
+                case 0 -> "?limite=50";
+                case 1 -> "/resumo";
+                default -> "/" + ids.get(i % ids.size());
+            };
+            HttpRequest request = HttpRequest.newBuilder(URI.create(base + caminho))
+                    .timeout(Duration.ofSeconds(5))
+                    .GET()
+                    .build();
+            try {
+                if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    respondidas++;
+                }
+            } catch (IOException ex) {
+                log.debug("Falha em requisição de aquecimento para {}", caminho, ex);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return respondidas;
+    }
+}
@@ -0,0 +1,134 @@
+package br.com.hercules.controleestoque.busca;
+
+import br.com.hercules.controleestoque.event.ProdutoAlteradoEvent;
+import br.com.hercules.controleestoque.model.DescricaoProduto;
+import br.com.hercules.controleestoque.repository.ProdutoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Mantém um {@link IndiceTrigramas} com as descrições de todos os produtos.
+ * <p>
+ * A carga inicial roda em segundo plano após a aplicação subir; até terminar, {@link #isPronto()}
+ * retorna {@code false} e as buscas devem recorrer ao banco. Alterações feitas pelo
+ * {@code ProdutoService} chegam após o commit e são aplicadas mesmo durante a carga: os ids
+ * alterados nesse intervalo são ignorados pela carga, que poderia trazer um estado anterior. A
+ * conferência e a indexação de cada linha carregada acontecem sob a mesma trava que registra e
+ * aplica as alterações, para que uma alteração não caia entre as duas.
+ */
+@Component
+public class IndiceDescricaoProduto {
+
+    private static final Logger log = LoggerFactory.getLogger(IndiceDescricaoProduto.class);
+
+    private final IndiceTrigramas indice = new IndiceTrigramas();
+
+    private final Object travaCarga = new Object();
+
+    /** Ids alterados desde o início da carga; {@code null} quando não há carga em andamento. Protegido por travaCarga. */
+    private Set<Long> alteradosDuranteCarga = new HashSet<>();
+
+    private final ProdutoRepository produtoRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final TaskExecutor taskExecutor;
+
+    private final boolean habilitado;
+
+    private volatile boolean pronto;
+
+    public IndiceDescricaoProduto(ProdutoRepository produtoRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  TaskExecutor taskExecutor,
+                                  @Value("${estoque.busca.indice.habilitado:true}") boolean habilitado) {
+        this.produtoRepository = produtoRepository;
+        // Carga pela primária: produtos gravados pouco antes e ainda ausentes numa réplica não seriam indexados.
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.taskExecutor = taskExecutor;
+        this.habilitado = habilitado;
+    }
+
+    public boolean isPronto() {
+        return pronto;
+    }
+
+    public List<Long> buscar(String termo, int limite) {
+        return indice.buscar(termo, limite);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciarCarga() {
+        if (habilitado) {
+            taskExecutor.execute(this::carregar);
+        }
+    }
+
+    void carregar() {
+        long inicio = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<DescricaoProduto> descricoes = produtoRepository.streamDescricoes()) {
+                    descricoes.forEach(descricao -> {
+                        synchronized (travaCarga) {
+                            if (!alteradosDuranteCarga.contains(descricao.getId())) {
+                                indice.indexar(descricao.getId(), descricao.getDescricao());
+                            }
+                        }
+                    });
+                }
+            });
+            synchronized (travaCarga) {
+                alteradosDuranteCarga = null;
+                pronto = true;
+            }
+            log.info("Índice de descrições carregado com {} produtos em {} ms",
+                    indice.tamanho(), (System.nanoTime() - inicio) / 1_000_000);
+        } catch (RuntimeException ex) {
+            synchronized (travaCarga) {
+                alteradosDuranteCarga = null;
+            }
+            log.error("Falha ao carregar o índice de descrições; as buscas continuarão no banco", ex);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarProduto(ProdutoAlteradoEvent evento) {
+        if (!habilitado) {
+            return;
+        }
+        if (!pronto) {
+            synchronized (travaCarga) {
+                if (alteradosDuranteCarga != null) {
+                    alteradosDuranteCarga.add(evento.id());
+                    aplicar(evento);
+                    return;
+                }
+            }
+        }
+        aplicar(evento);
+    }
+
+    private void aplicar(ProdutoAlteradoEvent evento) {
+        if (evento.tipo() == ProdutoAlteradoEvent.Tipo.REMOCAO) {
+            indice.remover(evento.id());
+        } else if (evento.atual() != null) {
+            indice.indexar(evento.id(), evento.atual().getDescricao());
+        } else if (evento.parcial() != null && evento.parcial().descricao() != null) {
+            indice.indexar(evento.id(), evento.parcial().descricao());
+        }
+    }
+}
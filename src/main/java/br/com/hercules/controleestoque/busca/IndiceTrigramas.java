@@ -0,0 +1,237 @@
+package br.com.hercules.controleestoque.busca;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido de trigramas sobre textos normalizados por {@link NormalizadorTexto}.
+ * <p>
+ * Cada documento recebe um ordinal crescente e reindexar um id gera um ordinal novo, então as
+ * listas de ordinais por trigrama só recebem valores no fim e permanecem ordenadas. Remoções
+ * apenas marcam o ordinal como morto; o índice é compactado quando há mais ordinais mortos que vivos.
+ * <p>
+ * A busca intersecta as listas dos trigramas da consulta, começando pela menor, confirma a
+ * ocorrência da substring e ordena o resultado por relevância: início do texto, depois início de
+ * palavra, depois posição da ocorrência e textos mais curtos.
+ */
+public class IndiceTrigramas {
+
+    private static final int CAPACIDADE_INICIAL = 1024;
+
+    private static final int COMPACTACAO_MINIMA = 1024;
+
+    private static final Comparator<Candidato> RELEVANCIA = Comparator
+            .comparingInt(Candidato::classe)
+            .thenComparingInt(Candidato::posicao)
+            .thenComparingInt(Candidato::comprimento)
+            .thenComparingLong(Candidato::id);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Integer> ordinalPorId = new HashMap<>();
+
+    private Map<Long, Ordinais> ordinaisPorTrigrama = new HashMap<>();
+
+    private long[] ids = new long[CAPACIDADE_INICIAL];
+
+    private String[] textos = new String[CAPACIDADE_INICIAL];
+
+    private int proximoOrdinal;
+
+    private int removidos;
+
+    public void indexar(Long id, String texto) {
+        String normalizado = NormalizadorTexto.normalizar(texto);
+        lock.writeLock().lock();
+        try {
+            marcarRemovido(id);
+            adicionar(id, normalizado);
+            compactarSeNecessario();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remover(Long id) {
+        lock.writeLock().lock();
+        try {
+            marcarRemovido(id);
+            compactarSeNecessario();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int tamanho() {
+        lock.readLock().lock();
+        try {
+            return ordinalPorId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retorna até {@code limite} ids cujos textos contêm o termo, do mais para o menos relevante.
+     */
+    public List<Long> buscar(String termo, int limite) {
+        String consulta = NormalizadorTexto.normalizar(termo);
+        if (consulta.isEmpty() || limite <= 0) {
+            return List.of();
+        }
+        PriorityQueue<Candidato> melhores = new PriorityQueue<>(RELEVANCIA.reversed());
+        lock.readLock().lock();
+        try {
+            if (consulta.length() < 3) {
+                for (int ordinal = 0; ordinal < proximoOrdinal; ordinal++) {
+                    avaliar(ordinal, consulta, melhores, limite);
+                }
+            } else {
+                buscarPorTrigramas(consulta, melhores, limite);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Candidato> ordenados = new ArrayList<>(melhores);
+        ordenados.sort(RELEVANCIA);
+        List<Long> resultado = new ArrayList<>(ordenados.size());
+        for (Candidato candidato : ordenados) {
+            resultado.add(candidato.id());
+        }
+        return resultado;
+    }
+
+    private void buscarPorTrigramas(String consulta, PriorityQueue<Candidato> melhores, int limite) {
+        long[] trigramas = trigramas(consulta);
+        Ordinais[] listas = new Ordinais[trigramas.length];
+        for (int i = 0; i < trigramas.length; i++) {
+            listas[i] = ordinaisPorTrigrama.get(trigramas[i]);
+            if (listas[i] == null) {
+                return;
+            }
+        }
+        Arrays.sort(listas, Comparator.comparingInt(Ordinais::tamanho));
+        Ordinais menor = listas[0];
+        proximo:
+        for (int i = 0; i < menor.tamanho; i++) {
+            int ordinal = menor.valores[i];
+            if (textos[ordinal] == null) {
+                continue;
+            }
+            for (int j = 1; j < listas.length; j++) {
+                if (!listas[j].contem(ordinal)) {
+                    continue proximo;
+                }
+            }
+            avaliar(ordinal, consulta, melhores, limite);
+        }
+    }
+
+    private void avaliar(int ordinal, String consulta, PriorityQueue<Candidato> melhores, int limite) {
+        String texto = textos[ordinal];
+        if (texto == null) {
+            return;
+        }
+        int posicao = texto.indexOf(consulta);
+        if (posicao < 0) {
+            return;
+        }
+        int classe = posicao == 0 ? 0 : texto.charAt(posicao - 1) == ' ' ? 1 : 2;
+        melhores.offer(new Candidato(ids[ordinal], classe, posicao, texto.length()));
+        if (melhores.size() > limite) {
+            melhores.poll();
+        }
+    }
+
+    private void adicionar(Long id, String normalizado) {
+        if (proximoOrdinal == ids.length) {
+            ids = Arrays.copyOf(ids, ids.length * 2);
+            textos = Arrays.copyOf(textos, textos.length * 2);
+        }
+        int ordinal = proximoOrdinal++;
+        ids[ordinal] = id;
+        textos[ordinal] = normalizado;
+        ordinalPorId.put(id, ordinal);
+        for (long trigrama : trigramas(normalizado)) {
+            ordinaisPorTrigrama.computeIfAbsent(trigrama, chave -> new Ordinais()).adicionar(ordinal);
+        }
+    }
+
+    private void marcarRemovido(Long id) {
+        Integer ordinal = ordinalPorId.remove(id);
+        if (ordinal != null) {
+            textos[ordinal] = null;
+            removidos++;
+        }
+    }
+
+    private void compactarSeNecessario() {
+        if (removidos < COMPACTACAO_MINIMA || removidos < ordinalPorId.size()) {
+            return;
+        }
+        long[] idsAntigos = ids;
+        String[] textosAntigos = textos;
+        int total = proximoOrdinal;
+        int capacidade = Math.max(CAPACIDADE_INICIAL, ordinalPorId.size() * 2);
+        ids = new long[capacidade];
+        textos = new String[capacidade];
+        ordinaisPorTrigrama = new HashMap<>();
+        ordinalPorId.clear();
+        proximoOrdinal = 0;
+        removidos = 0;
+        for (int ordinal = 0; ordinal < total; ordinal++) {
+            if (textosAntigos[ordinal] != null) {
+                adicionar(idsAntigos[ordinal], textosAntigos[ordinal]);
+            }
+        }
+    }
+
+    static long[] trigramas(String texto) {
+        if (texto.length() < 3) {
+            return new long[0];
+        }
+        long[] trigramas = new long[texto.length() - 2];
+        for (int i = 0; i < trigramas.length; i++) {
+            trigramas[i] = ((long) texto.charAt(i) << 32) | ((long) texto.charAt(i + 1) << 16) | texto.charAt(i + 2);
+        }
+        Arrays.sort(trigramas);
+        int distintos = 0;
+        for (int i = 0; i < trigramas.length; i++) {
+            if (i == 0 || trigramas[i] != trigramas[i - 1]) {
+                trigramas[distintos++] = trigramas[i];
+            }
+        }
+        return Arrays.copyOf(trigramas, distintos);
+    }
+
+    private record Candidato(long id, int classe, int posicao, int comprimento) {
+    }
+
+    private static final class Ordinais {
+
+        private int[] valores = new int[4];
+
+        private int tamanho;
+
+        void adicionar(int ordinal) {
+            if (tamanho == valores.length) {
+                valores = Arrays.copyOf(valores, tamanho * 2);
+            }
+            valores[tamanho++] = ordinal;
+        }
+
+        boolean contem(int ordinal) {
+            return Arrays.binarySearch(valores, 0, tamanho, ordinal) >= 0;
+        }
+
+        int tamanho() {
+            return tamanho;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package br.com.hercules.controleestoque.busca;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normaliza textos para busca: remove acentos, converte para minúsculas e colapsa espaços,
+ * de forma que "Violão  Acústico" e "violao acustico" sejam equivalentes.
+ */
+public final class NormalizadorTexto {
+
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+
+    private static final Pattern ESPACOS = Pattern.compile("\\s+");
+
+    private NormalizadorTexto() {
+    }
+
+    public static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String semAcentos = MARCAS_DIACRITICAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return ESPACOS.matcher(semAcentos.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+}
@@ -0,0 +1,171 @@
+package br.com.hercules.controleestoque.cache;
+
+import br.com.hercules.controleestoque.config.CacheConfig;
+import br.com.hercules.controleestoque.event.ProdutoAlteradoEvent;
+import br.com.hercules.controleestoque.model.Produto;
+import br.com.hercules.controleestoque.repository.ProdutoRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Busca vários produtos por id com uma consulta {@code IN} para os que não estão no cache, e
+ * agrupa buscas concorrentes: um id já sendo carregado por outra requisição não é consultado de
+ * novo, a requisição espera o resultado dela. Cada requisição consulta os ids que reservou antes
+ * de esperar os alheios, então duas requisições com ids cruzados não se bloqueiam.
+ * <p>
+ * Os produtos carregados vão para o cache. Para não gravar um valor lido antes de uma alteração
+ * cujo evict pós-commit já passou, toda alteração marca a carga em andamento do produto, que então
+ * não é gravada, e remove a chave do cache depois do commit.
+ */
+@Component
+public class CargaAgrupadaProdutos {
+
+    private static final int TAMANHO_CONSULTA = 1000;
+
+    private final ConcurrentHashMap<Long, Carga> emAndamento = new ConcurrentHashMap<>();
+
+    private final ProdutoRepository produtoRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Cache<Object, Object> cache;
+
+    public CargaAgrupadaProdutos(ProdutoRepository produtoRepository, PlatformTransactionManager transactionManager,
+                                 CacheManager cacheManager) {
+        this.produtoRepository = produtoRepository;
+        // Lê da primária, como produtoGetById: o resultado vai para o cache.
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cache = CacheConfig.caffeineProdutos(cacheManager);
+    }
+
+    /**
+     * @return os produtos encontrados, na ordem da primeira ocorrência de cada id; ids inexistentes são omitidos
+     */
+    public List<Produto> buscar(Collection<Long> ids) {
+        LinkedHashSet<Long> unicos = new LinkedHashSet<>(ids);
+        Map<Long, Produto> encontrados = new HashMap<>(unicos.size() * 2);
+        Map<Long, Carga> proprias = new LinkedHashMap<>();
+        Map<Long, Carga> alheias = new HashMap<>();
+        for (Long id : unicos) {
+            if (cache != null && cache.getIfPresent(id) instanceof Produto emCache) {
+                encontrados.put(id, emCache);
+                continue;
+            }
+            Carga nova = new Carga();
+            Carga existente = emAndamento.putIfAbsent(id, nova);
+            if (existente == null) {
+                proprias.put(id, nova);
+            } else {
+                alheias.put(id, existente);
+            }
+        }
+        if (!proprias.isEmpty()) {
+            carregar(proprias, encontrados);
+        }
+        alheias.forEach((id, carga) -> {
+            Produto produto = aguardar(carga);
+            if (produto != null) {
+                encontrados.put(id, produto);
+            }
+        });
+        return unicos.stream().map(encontrados::get).filter(Objects::nonNull).toList();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarProduto(ProdutoAlteradoEvent evento) {
+        Carga carga = emAndamento.get(evento.id());
+        if (carga != null) {
+            carga.invalidar();
+        }
+        if (cache != null) {
+            cache.invalidate(evento.id());
+        }
+    }
+
+    private void carregar(Map<Long, Carga> proprias, Map<Long, Produto> encontrados) {
+        try {
+            List<Long> ids = new ArrayList<>(proprias.keySet());
+            Map<Long, Produto> carregados = new HashMap<>(ids.size() * 2);
+            for (int i = 0; i < ids.size(); i += TAMANHO_CONSULTA) {
+                List<Long> parte = ids.subList(i, Math.min(i + TAMANHO_CONSULTA, ids.size()));
+                List<Produto> produtos = transactionTemplate.execute(status -> produtoRepository.findAllById(parte));
+                if (produtos != null) {
+                    produtos.forEach(produto -> carregados.put(produto.getId(), produto));
+                }
+            }
+            proprias.forEach((id, carga) -> {
+                Produto produto = carregados.get(id);
+                if (produto != null) {
+                    carga.gravarSeValida(cache, id, produto);
+                    encontrados.put(id, produto);
+                }
+                emAndamento.remove(id, carga);
+                carga.futuro.complete(produto);
+            });
+        } catch (RuntimeException ex) {
+            proprias.forEach((id, carga) -> {
+                emAndamento.remove(id, carga);
+                carga.futuro.completeExceptionally(ex);
+            });
+            throw ex;
+        }
+    }
+
+    private static Produto aguardar(Carga carga) {
+        try {
+            return carga.futuro.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw ex;
+        }
+    }
+
+    private static final class Carga {
+
+        private final CompletableFuture<Produto> futuro = new CompletableFuture<>();
+
+        // Sem synchronized: as buscas por id rodam em threads virtuais.
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private boolean invalidada;
+
+        void invalidar() {
+            lock.lock();
+            try {
+                invalidada = true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void gravarSeValida(Cache<Object, Object> cache, Long id, Produto produto) {
+            lock.lock();
+            try {
+                if (cache != null && !invalidada) {
+                    cache.put(id, produto);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package br.com.hercules.controleestoque.config;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String CACHE_PRODUTOS = "produtos";
+
+    /**
+     * Cache Caffeine (eviction W-TinyLFU) limitado por tamanho e TTL, com estatísticas
+     * publicadas pelo actuator em cache.gets e cache.evictions.
+     * <p>
+     * O proxy transacional adia puts e evicts para depois do commit. Somado ao
+     * {@code sync = true} das leituras, uma leitura concorrente que carregou o valor
+     * antigo termina antes do evict pós-commit, que então remove esse valor.
+     * <p>
+     * Com threads virtuais o cache passa para o modo assíncrono: no modo síncrono o
+     * {@code sync = true} executa a consulta ao banco dentro do {@code compute} do
+     * ConcurrentHashMap, um bloco {@code synchronized} que prende a thread portadora durante
+     * todo o JDBC. No modo assíncrono o lock só cobre a criação do future, a carga roda em
+     * outra thread virtual e as leituras concorrentes da mesma chave esperam o future.
+     */
+    @Bean
+    public CacheManager cacheManager(@Value("${estoque.cache.produtos.tamanho-maximo:10000}") long tamanhoMaximo,
+                                     @Value("${estoque.cache.produtos.ttl:10m}") String ttl,
+                                     @Value("${spring.threads.virtual.enabled:false}") boolean threadsVirtuais) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(CACHE_PRODUTOS);
+        cacheManager.setAllowNullValues(false);
+        Caffeine<Object, Object> caffeine = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(DurationStyle.detectAndParse(ttl))
+                .recordStats();
+        if (threadsVirtuais) {
+            caffeine.executor(new VirtualThreadTaskExecutor("cache-produtos-"));
+            cacheManager.setAsyncCacheMode(true);
+        }
+        cacheManager.setCaffeine(caffeine);
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+
+    /**
+     * Cache Caffeine por trás do cache de produtos (a visão síncrona, no modo assíncrono), ou
+     * {@code null} se ele não existir. Operações nele não passam pelo proxy transacional, que adia
+     * puts e evicts para o commit.
+     */
+    @SuppressWarnings("unchecked")
+    public static com.github.benmanes.caffeine.cache.Cache<Object, Object> caffeineProdutos(CacheManager cacheManager) {
+        Cache cache = cacheManager.getCache(CACHE_PRODUTOS);
+        Object nativo = cache == null ? null : cache.getNativeCache();
+        if (nativo instanceof AsyncCache<?, ?> assincrono) {
+            return (com.github.benmanes.caffeine.cache.Cache<Object, Object>) assincrono.synchronous();
+        }
+        if (nativo instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> sincrono) {
+            return (com.github.benmanes.caffeine.cache.Cache<Object, Object>) sincrono;
+        }
+        return null;
+    }
+}
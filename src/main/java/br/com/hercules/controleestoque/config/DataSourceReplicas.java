@@ -0,0 +1,166 @@
+package br.com.hercules.controleestoque.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Distribui as conexões somente leitura entre as réplicas, por rodízio ou pela menor latência
+ * medida, e recorre à primária quando nenhuma réplica está disponível.
+ * <p>
+ * Uma réplica que falha ao entregar conexão fica de quarentena pelo tempo configurado, e as
+ * demais são tentadas na mesma chamada. {@link #medirLatencias()} deve ser agendado: ele atualiza
+ * a latência de cada réplica (média móvel exponencial do tempo para obter e validar uma conexão)
+ * e libera antes do prazo as réplicas de quarentena que voltarem a responder. Só a obtenção da
+ * conexão é protegida; uma consulta que falha no meio não é repetida na primária.
+ */
+public class DataSourceReplicas extends AbstractDataSource implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(DataSourceReplicas.class);
+
+    /**
+     * Peso da nova medida na média móvel de latência.
+     */
+    private static final double PESO_MEDIDA = 0.2;
+
+    public enum Estrategia {
+        ROUND_ROBIN,
+        MENOR_LATENCIA
+    }
+
+    private final List<Replica> replicas;
+
+    private final DataSource primaria;
+
+    private final Estrategia estrategia;
+
+    private final long quarentenaNanos;
+
+    private final AtomicInteger proxima = new AtomicInteger();
+
+    private final Counter usosPrimaria;
+
+    public DataSourceReplicas(List<DataSource> replicas, DataSource primaria, Estrategia estrategia,
+                              Duration quarentena, MeterRegistry meterRegistry) {
+        this.replicas = new ArrayList<>(replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = new Replica("replica-" + (i + 1), replicas.get(i));
+            this.replicas.add(replica);
+            Gauge.builder("estoque.datasource.replica.latencia", replica, r -> r.latenciaNanos / 1e6)
+                    .tag("replica", replica.nome)
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+        }
+        this.primaria = primaria;
+        this.estrategia = estrategia;
+        this.quarentenaNanos = quarentena.toNanos();
+        this.usosPrimaria = Counter.builder("estoque.datasource.replica.fallback").register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        for (Replica replica : candidatas()) {
+            if (!replica.disponivel()) {
+                continue;
+            }
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException ex) {
+                isolar(replica, ex);
+            }
+        }
+        usosPrimaria.increment();
+        return primaria.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("As réplicas usam as credenciais configuradas");
+    }
+
+    public void medirLatencias() {
+        for (Replica replica : replicas) {
+            long inicio = System.nanoTime();
+            try (Connection conexao = replica.dataSource.getConnection()) {
+                if (!conexao.isValid(2)) {
+                    throw new SQLException("Conexão inválida");
+                }
+                long medida = System.nanoTime() - inicio;
+                replica.latenciaNanos = replica.latenciaNanos == 0
+                        ? medida
+                        : (long) (replica.latenciaNanos * (1 - PESO_MEDIDA) + medida * PESO_MEDIDA);
+                replica.indisponivelAteNanos = 0;
+            } catch (SQLException ex) {
+                isolar(replica, ex);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable fechavel) {
+                fechavel.close();
+            }
+        }
+    }
+
+    private List<Replica> candidatas() {
+        if (estrategia == Estrategia.MENOR_LATENCIA) {
+            List<Replica> ordenadas = new ArrayList<>(replicas);
+            ordenadas.sort(Comparator.comparingLong(replica -> replica.latenciaNanos));
+            return ordenadas;
+        }
+        int inicio = Math.floorMod(proxima.getAndIncrement(), replicas.size());
+        List<Replica> ordenadas = new ArrayList<>(replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            ordenadas.add(replicas.get((inicio + i) % replicas.size()));
+        }
+        return ordenadas;
+    }
+
+    private void isolar(Replica replica, SQLException ex) {
+        if (replica.disponivel()) {
+            log.warn("Réplica {} indisponível; usando as demais ou a primária por {} s", replica.nome,
+                    Duration.ofNanos(quarentenaNanos).toSeconds(), ex);
+        }
+        replica.indisponivelAteNanos = System.nanoTime() + quarentenaNanos;
+    }
+
+    private static final class Replica {
+
+        private final String nome;
+
+        private final DataSource dataSource;
+
+        private volatile long latenciaNanos;
+
+        /**
+         * {@code System.nanoTime()} até o qual a réplica fica de quarentena; 0 quando disponível.
+         */
+        private volatile long indisponivelAteNanos;
+
+        Replica(String nome, DataSource dataSource) {
+            this.nome = nome;
+            this.dataSource = dataSource;
+        }
+
+        boolean disponivel() {
+            long ate = indisponivelAteNanos;
+            return ate == 0 || System.nanoTime() - ate >= 0;
+        }
+    }
+}
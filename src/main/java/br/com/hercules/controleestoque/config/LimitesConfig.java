@@ -0,0 +1,36 @@
+package br.com.hercules.controleestoque.config;
+
+import br.com.hercules.controleestoque.limite.LimitesRequisicaoInterceptor;
+import br.com.hercules.controleestoque.limite.PropriedadesLimites;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Registra os limites de requisições antes dos demais interceptors, para que requisições
+ * rejeitadas custem o mínimo possível.
+ */
+@Configuration
+@EnableConfigurationProperties(PropriedadesLimites.class)
+public class LimitesConfig implements WebMvcConfigurer {
+
+    private final PropriedadesLimites propriedades;
+
+    private final MeterRegistry meterRegistry;
+
+    public LimitesConfig(PropriedadesLimites propriedades, MeterRegistry meterRegistry) {
+        this.propriedades = propriedades;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (propriedades.habilitado() && !propriedades.endpoints().isEmpty()) {
+            registry.addInterceptor(new LimitesRequisicaoInterceptor(propriedades, meterRegistry))
+                    .order(Ordered.HIGHEST_PRECEDENCE);
+        }
+    }
+}
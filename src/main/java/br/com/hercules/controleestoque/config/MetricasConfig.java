@@ -0,0 +1,36 @@
+package br.com.hercules.controleestoque.config;
+
+import br.com.hercules.controleestoque.metricas.ConsultasPorRequisicaoInterceptor;
+import br.com.hercules.controleestoque.metricas.ContadorConsultas;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Liga a contagem de comandos SQL do Hibernate às requisições HTTP. Os tempos por endpoint
+ * ({@code http.server.requests}) e a espera por conexão ({@code hikaricp.connections.acquire})
+ * já são publicados pelo actuator.
+ */
+@Configuration
+public class MetricasConfig implements WebMvcConfigurer {
+
+    private final MeterRegistry meterRegistry;
+
+    public MetricasConfig(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer contadorConsultasCustomizer() {
+        return propriedades -> propriedades.put(AvailableSettings.STATEMENT_INSPECTOR, new ContadorConsultas());
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ConsultasPorRequisicaoInterceptor(meterRegistry));
+    }
+}
@@ -0,0 +1,78 @@
+package br.com.hercules.controleestoque.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.TaskScheduler;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Envia as transações somente leitura às réplicas de {@code estoque.datasource.replicas.urls}.
+ * Sem réplicas configuradas esta configuração não é aplicada e o Spring Boot cria o DataSource
+ * da primária como antes.
+ * <p>
+ * O {@link LazyConnectionDataSourceProxy} só obtém a conexão física no primeiro comando, depois
+ * que a transação já marcou a conexão como somente leitura; com isso ele escolhe entre a
+ * primária e as réplicas. Leituras feitas pelos repositórios fora de uma transação do serviço
+ * também são somente leitura e vão para as réplicas; quem precisa ler o próprio commit abre uma
+ * transação de escrita.
+ */
+@Configuration
+@ConditionalOnProperty("estoque.datasource.replicas.urls")
+public class ReplicasConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSourcePrimaria(DataSourceProperties propriedades) {
+        return propriedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public DataSourceReplicas dataSourceReplicas(HikariDataSource dataSourcePrimaria, MeterRegistry meterRegistry,
+                                                 TaskScheduler taskScheduler,
+                                                 @Value("${estoque.datasource.replicas.urls}") List<String> urls,
+                                                 @Value("${estoque.datasource.replicas.username:${spring.datasource.username:}}") String usuario,
+                                                 @Value("${estoque.datasource.replicas.password:${spring.datasource.password:}}") String senha,
+                                                 @Value("${estoque.datasource.replicas.maximum-pool-size:20}") int tamanhoPool,
+                                                 @Value("${estoque.datasource.replicas.estrategia:ROUND_ROBIN}") DataSourceReplicas.Estrategia estrategia,
+                                                 @Value("${estoque.datasource.replicas.quarentena:30s}") String quarentena,
+                                                 @Value("${estoque.datasource.replicas.medicao-latencia:5s}") String medicaoLatencia) {
+        List<DataSource> replicas = new ArrayList<>(urls.size());
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (i + 1));
+            replica.setJdbcUrl(urls.get(i).strip());
+            replica.setUsername(usuario);
+            replica.setPassword(senha);
+            replica.setMaximumPoolSize(tamanhoPool);
+            replica.setConnectionTimeout(dataSourcePrimaria.getConnectionTimeout());
+            replica.setReadOnly(true);
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.add(replica);
+        }
+        DataSourceReplicas dataSourceReplicas = new DataSourceReplicas(replicas, dataSourcePrimaria, estrategia,
+                DurationStyle.detectAndParse(quarentena), meterRegistry);
+        taskScheduler.scheduleWithFixedDelay(dataSourceReplicas::medirLatencias, DurationStyle.detectAndParse(medicaoLatencia));
+        return dataSourceReplicas;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource dataSourcePrimaria, DataSourceReplicas dataSourceReplicas) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(dataSourcePrimaria);
+        dataSource.setReadOnlyDataSource(dataSourceReplicas);
+        return dataSource;
+    }
+}
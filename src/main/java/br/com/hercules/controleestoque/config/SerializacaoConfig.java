@@ -0,0 +1,23 @@
+package br.com.hercules.controleestoque.config;
+
+import br.com.hercules.controleestoque.serializacao.ProdutosColunaresHttpMessageConverter;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Formatos de resposta além do JSON: CBOR ({@code application/cbor}) e Smile
+ * ({@code application/x-jackson-smile}) são registrados pelo Spring MVC por estarem no classpath;
+ * aqui entra o formato colunar para listas de produtos. Ele fica antes do conversor JSON, que
+ * também aceitaria {@code application/*+json}.
+ */
+@Configuration
+public class SerializacaoConfig implements WebMvcConfigurer {
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(0, new ProdutosColunaresHttpMessageConverter());
+    }
+}
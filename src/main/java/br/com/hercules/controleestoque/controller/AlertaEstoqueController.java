@@ -0,0 +1,65 @@
+package br.com.hercules.controleestoque.controller;
+
+import br.com.hercules.controleestoque.alerta.DespachanteAlertas;
+import br.com.hercules.controleestoque.alerta.MonitorEstoqueBaixo;
+import br.com.hercules.controleestoque.exception.InvalidRequestException;
+import br.com.hercules.controleestoque.model.AlertaEstoque;
+import br.com.hercules.controleestoque.model.ProdutoEmRisco;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/produtos/alertas")
+@Tag(name = "Alertas de estoque", description = "Endpoints para acompanhar produtos abaixo do ponto de reposição")
+public class AlertaEstoqueController {
+
+    private static final int LIMITE_MAXIMO = 1000;
+
+    private final MonitorEstoqueBaixo monitorEstoqueBaixo;
+
+    private final DespachanteAlertas despachanteAlertas;
+
+    public AlertaEstoqueController(MonitorEstoqueBaixo monitorEstoqueBaixo, DespachanteAlertas despachanteAlertas) {
+        this.monitorEstoqueBaixo = monitorEstoqueBaixo;
+        this.despachanteAlertas = despachanteAlertas;
+    }
+
+    @Operation(summary = "Listar produtos abaixo do ponto de reposição", description = "Retorna os produtos com quantidade " +
+            "abaixo do ponto de reposição, do mais para o menos crítico, a partir da visão mantida em memória")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Produtos em risco",
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = ProdutoEmRisco.class)))),
+            @ApiResponse(responseCode = "400", description = "Limite inválido")
+    })
+    @GetMapping
+    public ResponseEntity<List<ProdutoEmRisco>> listarEmRisco(@RequestParam(defaultValue = "100") int limite){
+        if (limite < 1) {
+            throw new InvalidRequestException("O limite deve ser maior que zero!");
+        }
+        return ResponseEntity.ok(monitorEstoqueBaixo.listar(Math.min(limite, LIMITE_MAXIMO)));
+    }
+
+    @Operation(summary = "Acompanhar alertas de estoque", description = "Abre um stream Server-Sent Events com um evento " +
+            "'alerta' a cada produto que fica abaixo do ponto de reposição ou volta a ficar acima dele")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stream de alertas",
+                    content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                            schema = @Schema(implementation = AlertaEstoque.class)))
+    })
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter acompanharAlertas(){
+        return despachanteAlertas.registrar();
+    }
+}
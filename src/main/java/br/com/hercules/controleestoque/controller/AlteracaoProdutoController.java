@@ -0,0 +1,46 @@
+package br.com.hercules.controleestoque.controller;
+
+import br.com.hercules.controleestoque.event.FeedAlteracoesProduto;
+import br.com.hercules.controleestoque.model.AlteracaoProduto;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/produtos/changes")
+@Tag(name = "Alterações de produtos", description = "Feed das criações, atualizações e remoções de produtos")
+public class AlteracaoProdutoController {
+
+    private final FeedAlteracoesProduto feedAlteracoes;
+
+    public AlteracaoProdutoController(FeedAlteracoesProduto feedAlteracoes) {
+        this.feedAlteracoes = feedAlteracoes;
+    }
+
+    @Operation(summary = "Acompanhar alterações de produtos", description = "Abre um stream Server-Sent Events com um evento " +
+            "'alteracao' por criação, atualização ou remoção confirmada. O id de cada evento é a sua sequência no feed; " +
+            "ao reconectar com o cabeçalho Last-Event-ID o stream continua de onde parou. Se as alterações seguintes " +
+            "já saíram do buffer, é enviado um evento 'reset' e o cliente deve recarregar o catálogo")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stream de alterações",
+                    content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                            schema = @Schema(implementation = AlteracaoProduto.class))),
+            @ApiResponse(responseCode = "400", description = "Last-Event-ID inválido")
+    })
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter acompanharAlteracoes(
+            @Parameter(description = "Id do último evento recebido")
+            @RequestHeader(value = "Last-Event-ID", required = false) Long ultimoEventoRecebido){
+        return feedAlteracoes.assinar(ultimoEventoRecebido);
+    }
+}
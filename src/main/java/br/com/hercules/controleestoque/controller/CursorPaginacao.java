@@ -0,0 +1,38 @@
+package br.com.hercules.controleestoque.controller;
+
+import br.com.hercules.controleestoque.exception.InvalidRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Codifica o último id de uma página como um token opaco, para que os clientes
+ * não dependam do formato da chave usada na paginação por keyset.
+ */
+final class CursorPaginacao {
+
+    private static final String PREFIXO = "id:";
+
+    private CursorPaginacao() {
+    }
+
+    static String codificar(Long ultimoId) {
+        byte[] bytes = (PREFIXO + ultimoId).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    static Long decodificar(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!valor.startsWith(PREFIXO)) {
+                throw new InvalidRequestException("Cursor inválido!");
+            }
+            return Long.valueOf(valor.substring(PREFIXO.length()));
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidRequestException("Cursor inválido!");
+        }
+    }
+}
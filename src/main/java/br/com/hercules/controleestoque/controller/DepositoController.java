@@ -0,0 +1,133 @@
+package br.com.hercules.controleestoque.controller;
+
+import br.com.hercules.controleestoque.exception.InvalidRequestException;
+import br.com.hercules.controleestoque.model.Deposito;
+import br.com.hercules.controleestoque.model.EstoqueDeposito;
+import br.com.hercules.controleestoque.model.EstoqueProdutoDepositos;
+import br.com.hercules.controleestoque.model.MovimentoEstoque;
+import br.com.hercules.controleestoque.model.NovoDeposito;
+import br.com.hercules.controleestoque.model.TransferenciaEstoque;
+import br.com.hercules.controleestoque.service.DepositoService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+import java.util.List;
+
+import static br.com.hercules.controleestoque.controller.ProdutoController.HEADER_PROXIMO_CURSOR;
+
+@RestController
+@Tag(name = "Depósitos", description = "Estoque dos produtos por depósito")
+public class DepositoController {
+
+    private static final int LIMITE_MAXIMO = 1000;
+
+    private final DepositoService depositoService;
+
+    public DepositoController(DepositoService depositoService) {
+        this.depositoService = depositoService;
+    }
+
+    @Operation(summary = "Criar depósito", description = "Cadastra um depósito, com a sua própria partição de estoque")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Depósito criado",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = Deposito.class))),
+            @ApiResponse(responseCode = "400", description = "Nome ausente ou já usado por outro depósito")
+    })
+    @PostMapping("/depositos")
+    public ResponseEntity<Deposito> criarDeposito(@RequestBody NovoDeposito novoDeposito){
+        var deposito = depositoService.criarDeposito(novoDeposito);
+        URI location = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/{id}")
+                .buildAndExpand(deposito.getId())
+                .toUri();
+        return ResponseEntity.created(location).body(deposito);
+    }
+
+    @Operation(summary = "Listar depósitos", description = "Retorna os depósitos ordenados por ID")
+    @ApiResponse(responseCode = "200", description = "Lista de depósitos",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = Deposito.class)))
+    @GetMapping("/depositos")
+    public ResponseEntity<List<Deposito>> listarDepositos(){
+        return ResponseEntity.ok(depositoService.listarDepositos());
+    }
+
+    @Operation(summary = "Estoque do depósito", description = "Retorna uma página das quantidades dos produtos no depósito, " +
+            "ordenada por ID de produto, lendo só a partição do depósito. Quando houver mais resultados, o cabeçalho " +
+            "X-Proximo-Cursor traz o cursor da próxima página.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Quantidades no depósito",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = EstoqueDeposito.class))),
+            @ApiResponse(responseCode = "400", description = "Cursor ou limite inválido"),
+            @ApiResponse(responseCode = "404", description = "Depósito não encontrado")
+    })
+    @GetMapping("/depositos/{id}/estoque")
+    public ResponseEntity<List<EstoqueDeposito>> estoqueDoDeposito(@PathVariable Long id,
+                                                                  @RequestParam(required = false) String cursor,
+                                                                  @RequestParam(defaultValue = "100") int limite){
+        if (limite < 1) {
+            throw new InvalidRequestException("O limite deve ser maior que zero!");
+        }
+        int limiteEfetivo = Math.min(limite, LIMITE_MAXIMO);
+        var estoque = depositoService.estoqueDoDeposito(id, CursorPaginacao.decodificar(cursor), limiteEfetivo);
+        var response = ResponseEntity.ok();
+        if (estoque.size() == limiteEfetivo) {
+            Long ultimoId = estoque.get(estoque.size() - 1).getProdutoId();
+            response.header(HEADER_PROXIMO_CURSOR, CursorPaginacao.codificar(ultimoId));
+        }
+        return response.body(estoque);
+    }
+
+    @Operation(summary = "Movimentar estoque no depósito", description = "Registra uma entrada ou saída do produto no " +
+            "depósito e ajusta, na mesma transação, a quantidade total do produto")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Quantidade do produto no depósito",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = EstoqueDeposito.class))),
+            @ApiResponse(responseCode = "400", description = "Tipo ou quantidade inválidos"),
+            @ApiResponse(responseCode = "404", description = "Depósito ou produto não encontrado"),
+            @ApiResponse(responseCode = "422", description = "Estoque insuficiente no depósito ou comprometido por reservas")
+    })
+    @PostMapping("/depositos/{id}/estoque/{produtoId}/movimentos")
+    public ResponseEntity<EstoqueDeposito> movimentar(@PathVariable Long id, @PathVariable Long produtoId,
+                                                      @RequestBody MovimentoEstoque movimento){
+        return ResponseEntity.ok(depositoService.movimentar(id, produtoId, movimento));
+    }
+
+    @Operation(summary = "Transferir entre depósitos", description = "Move unidades do produto da origem para o destino " +
+            "em uma única transação, sem alterar a quantidade total. Retorna as quantidades na origem e no destino.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Quantidades na origem e no destino",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = EstoqueDeposito.class))),
+            @ApiResponse(responseCode = "400", description = "Origem, destino ou quantidade inválidos"),
+            @ApiResponse(responseCode = "404", description = "Depósito ou produto não encontrado"),
+            @ApiResponse(responseCode = "422", description = "Estoque insuficiente no depósito de origem")
+    })
+    @PostMapping("/depositos/transferencias")
+    public ResponseEntity<List<EstoqueDeposito>> transferir(@RequestBody TransferenciaEstoque transferencia){
+        return ResponseEntity.ok(depositoService.transferir(transferencia));
+    }
+
+    @Operation(summary = "Estoque do produto por depósito", description = "Retorna o total nos depósitos, mantido a cada " +
+            "entrada e saída, a quantidade em cada depósito e a quantidade do produto, que também muda por caminhos sem depósito")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Estoque por depósito",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = EstoqueProdutoDepositos.class))),
+            @ApiResponse(responseCode = "404", description = "Produto não encontrado")
+    })
+    @GetMapping("/produtos/{id}/depositos")
+    public ResponseEntity<EstoqueProdutoDepositos> estoqueDoProduto(@PathVariable Long id){
+        return ResponseEntity.ok(depositoService.estoqueDoProduto(id));
+    }
+}
@@ -0,0 +1,63 @@
+package br.com.hercules.controleestoque.controller;
+
+import br.com.hercules.controleestoque.exception.PreconditionFailedException;
+import br.com.hercules.controleestoque.model.Produto;
+
+/**
+ * ETags fortes derivadas da versão do produto: o id já está na URL e a versão muda a cada
+ * alteração, então a versão basta para identificar a representação.
+ */
+final class EtagProduto {
+
+    private static final String PREFIXO_FRACA = "W/";
+
+    private EtagProduto() {
+    }
+
+    static String de(Produto produto) {
+        return daVersao(produto.getVersao());
+    }
+
+    static String daVersao(Long versao) {
+        return "\"" + versao + "\"";
+    }
+
+    /**
+     * Comparação fraca de {@code If-None-Match}, como exige a RFC 9110: {@code W/"3"} corresponde a {@code "3"}.
+     */
+    static boolean corresponde(String ifNoneMatch, Produto produto) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String etag = de(produto);
+        for (String candidata : ifNoneMatch.split(",")) {
+            String valor = candidata.trim();
+            if (valor.startsWith(PREFIXO_FRACA)) {
+                valor = valor.substring(PREFIXO_FRACA.length());
+            }
+            if (valor.equals("*") || valor.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Versão exigida por um {@code If-Match}, ou {@code null} quando não há pré-condição de versão.
+     * A comparação é forte, então ETags fracas ou malformadas nunca correspondem.
+     */
+    static Long versaoEsperada(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String valor = ifMatch.trim();
+        if (valor.length() < 3 || !valor.startsWith("\"") || !valor.endsWith("\"")) {
+            throw new PreconditionFailedException("If-Match inválido!");
+        }
+        try {
+            return Long.valueOf(valor.substring(1, valor.length() - 1));
+        } catch (NumberFormatException ex) {
+            throw new PreconditionFailedException("If-Match inválido!");
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package br.com.hercules.controleestoque.controller;
+
+import br.com.hercules.controleestoque.exception.InvalidRequestException;
+import br.com.hercules.controleestoque.model.FormatoArquivo;
+import br.com.hercules.controleestoque.service.ExportacaoProdutoService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Locale;
+
+@RestController
+@RequestMapping("/produtos/export")
+@Tag(name = "Exportação de produtos", description = "Endpoints para exportar o catálogo completo")
+public class ExportacaoProdutoController {
+
+    private final ExportacaoProdutoService exportacaoProdutoService;
+
+    public ExportacaoProdutoController(ExportacaoProdutoService exportacaoProdutoService) {
+        this.exportacaoProdutoService = exportacaoProdutoService;
+    }
+
+    @Operation(summary = "Exportar todos os produtos", description = "Exporta o catálogo completo em CSV ou NDJSON, lido do banco " +
+            "por cursor e escrito diretamente na resposta. A resposta é comprimida com gzip quando o cliente aceita.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Arquivo de exportação"),
+            @ApiResponse(responseCode = "400", description = "Formato inválido")
+    })
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> exportarProdutos(@RequestParam(name = "format", defaultValue = "csv") String formato,
+                                                                  @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding){
+        FormatoArquivo formatoArquivo = formatoArquivo(formato);
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+        StreamingResponseBody corpo = saida -> exportacaoProdutoService.exportar(formatoArquivo, gzip, saida);
+
+        var response = ResponseEntity.ok()
+                .contentType(formatoArquivo == FormatoArquivo.CSV
+                        ? MediaType.parseMediaType(ImportacaoProdutoController.MEDIA_TYPE_CSV + ";charset=UTF-8")
+                        : MediaType.parseMediaType(ProdutoController.MEDIA_TYPE_NDJSON))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("produtos." + formatoArquivo.name().toLowerCase(Locale.ROOT))
+                        .build().toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(corpo);
+    }
+
+    private static FormatoArquivo formatoArquivo(String formato) {
+        try {
+            return FormatoArquivo.valueOf(formato.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidRequestException("Formato inválido! Use csv ou ndjson.");
+        }
+    }
+}
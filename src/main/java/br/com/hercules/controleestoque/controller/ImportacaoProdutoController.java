@@ -0,0 +1,49 @@
+package br.com.hercules.controleestoque.controller;
+
+import br.com.hercules.controleestoque.model.FormatoArquivo;
+import br.com.hercules.controleestoque.model.RelatorioImportacao;
+import br.com.hercules.controleestoque.service.ImportacaoProdutoService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/produtos/importacao")
+@Tag(name = "Importação de produtos", description = "Endpoints para importar catálogos de fornecedores")
+public class ImportacaoProdutoController {
+
+    static final String MEDIA_TYPE_CSV = "text/csv";
+
+    private final ImportacaoProdutoService importacaoProdutoService;
+
+    public ImportacaoProdutoController(ImportacaoProdutoService importacaoProdutoService) {
+        this.importacaoProdutoService = importacaoProdutoService;
+    }
+
+    @Operation(summary = "Importar produtos", description = "Importa produtos de um CSV (com cabeçalho descricao, quantidade e preco) " +
+            "ou NDJSON enviado no corpo, lido de forma incremental. Retorna as contagens e as linhas rejeitadas.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Relatório da importação",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = RelatorioImportacao.class))),
+            @ApiResponse(responseCode = "400", description = "Cabeçalho CSV inválido"),
+            @ApiResponse(responseCode = "415", description = "Formato não suportado")
+    })
+    @PostMapping(consumes = {MEDIA_TYPE_CSV, ProdutoController.MEDIA_TYPE_NDJSON})
+    public ResponseEntity<RelatorioImportacao> importarProdutos(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                                InputStream corpo){
+        var formato = contentType.isCompatibleWith(MediaType.parseMediaType(MEDIA_TYPE_CSV))
+                ? FormatoArquivo.CSV
+                : FormatoArquivo.NDJSON;
+        return ResponseEntity.ok(importacaoProdutoService.importar(corpo, formato));
+    }
+}
@@ -0,0 +1,44 @@
+package br.com.hercules.controleestoque.controller;
+
+import br.com.hercules.controleestoque.livro.LivroEstoque;
+import br.com.hercules.controleestoque.model.EstoqueEmInstante;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Instant;
+
+@RestController
+@RequestMapping("/produtos/{id}/estoque")
+@Tag(name = "Livro de estoque", description = "Histórico de quantidades dos produtos")
+public class LivroEstoqueController {
+
+    private final LivroEstoque livroEstoque;
+
+    public LivroEstoqueController(LivroEstoque livroEstoque) {
+        this.livroEstoque = livroEstoque;
+    }
+
+    @Operation(summary = "Estoque em um instante", description = "Retorna a quantidade do produto no instante informado " +
+            "(ISO-8601, ex.: 2024-05-01T12:00:00Z), a partir da fotografia mais próxima e dos lançamentos seguintes do " +
+            "livro de estoque. Sem o instante, usa o atual; alterações dos últimos instantes podem ainda não ter sido gravadas.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Quantidade no instante",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = EstoqueEmInstante.class))),
+            @ApiResponse(responseCode = "400", description = "Instante inválido"),
+            @ApiResponse(responseCode = "404", description = "Produto inexistente ou removido no instante informado")
+    })
+    @GetMapping
+    public ResponseEntity<EstoqueEmInstante> estoqueEm(@PathVariable Long id, @RequestParam(required = false) Instant em){
+        return ResponseEntity.ok(livroEstoque.estoqueEm(id, em == null ? Instant.now() : em));
+    }
+}
@@ -0,0 +1,63 @@
+package br.com.hercules.controleestoque.controller;
+
+import br.com.hercules.controleestoque.exception.InvalidRequestException;
+import br.com.hercules.controleestoque.model.AlteracaoParcialProduto;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Converte um JSON Merge Patch (RFC 7396) de produto nos campos a alterar. Como nenhum campo de
+ * produto é opcional, um {@code null} no patch, que pela RFC removeria o campo, é rejeitado.
+ */
+final class MergePatchProduto {
+
+    static final String MEDIA_TYPE_MERGE_PATCH = "application/merge-patch+json";
+
+    private MergePatchProduto() {
+    }
+
+    static AlteracaoParcialProduto converter(JsonNode patch) {
+        if (patch == null || !patch.isObject()) {
+            throw new InvalidRequestException("O patch deve ser um objeto JSON!");
+        }
+        String descricao = null;
+        Integer quantidade = null;
+        Double preco = null;
+        Integer pontoReposicao = null;
+        Iterator<Map.Entry<String, JsonNode>> campos = patch.fields();
+        while (campos.hasNext()) {
+            Map.Entry<String, JsonNode> campo = campos.next();
+            JsonNode valor = campo.getValue();
+            switch (campo.getKey()) {
+                case "descricao" -> {
+                    if (!valor.isTextual()) {
+                        throw new InvalidRequestException("A descrição deve ser um texto!");
+                    }
+                    descricao = valor.textValue();
+                }
+                case "quantidade" -> {
+                    if (!valor.isIntegralNumber() || !valor.canConvertToInt()) {
+                        throw new InvalidRequestException("A quantidade deve ser um número inteiro!");
+                    }
+                    quantidade = valor.intValue();
+                }
+                case "preco" -> {
+                    if (!valor.isNumber()) {
+                        throw new InvalidRequestException("O preço deve ser um número!");
+                    }
+                    preco = valor.doubleValue();
+                }
+                case "pontoReposicao" -> {
+                    if (!valor.isIntegralNumber() || !valor.canConvertToInt()) {
+                        throw new InvalidRequestException("O ponto de reposição deve ser um número inteiro!");
+                    }
+                    pontoReposicao = valor.intValue();
+                }
+                default -> throw new InvalidRequestException("Campo não pode ser alterado: " + campo.getKey());
+            }
+        }
+        return new AlteracaoParcialProduto(descricao, quantidade, preco, pontoReposicao);
+    }
+}
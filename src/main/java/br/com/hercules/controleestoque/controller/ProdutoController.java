@@ -1,7 +1,16 @@
 package br.com.hercules.controleestoque.controller;
 
+import br.com.hercules.controleestoque.model.FiltroProdutos;
+import br.com.hercules.controleestoque.model.MovimentoEstoque;
 import br.com.hercules.controleestoque.model.Produto;
+import br.com.hercules.controleestoque.model.ResumoProduto;
+import br.com.hercules.controleestoque.exception.InvalidRequestException;
 import br.com.hercules.controleestoque.service.ProdutoService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -10,61 +19,198 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.Servlet;
 import jdk.jfr.ContentType;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.util.List;
 
+import static br.com.hercules.controleestoque.serializacao.ProdutosColunaresHttpMessageConverter.COLUNAR_CBOR_VALUE;
+import static br.com.hercules.controleestoque.serializacao.ProdutosColunaresHttpMessageConverter.COLUNAR_JSON_VALUE;
+
 @RestController
 @RequestMapping("/produtos")
 @Tag(name = "Produtos", description = "Endpoints para gerenciar produtos")
 public class ProdutoController {
 
+    static final String HEADER_PROXIMO_CURSOR = "X-Proximo-Cursor";
+
+    static final String MEDIA_TYPE_NDJSON = "application/x-ndjson";
+
+    static final String MEDIA_TYPE_SMILE = "application/x-jackson-smile";
+
+    private static final int LIMITE_MAXIMO = 1000;
+
+    private static final int LIMITE_IDS_CONSULTA = 10_000;
+
     private final ProdutoService produtoService;
 
+    private final ObjectMapper objectMapper;
 
-    public ProdutoController(ProdutoService produtoService) {
+
+    public ProdutoController(ProdutoService produtoService, ObjectMapper objectMapper) {
         this.produtoService = produtoService;
+        this.objectMapper = objectMapper;
     }
 
-    @Operation(summary = "Listar todos os produtos", description = "Retorna uma lista de produtos cadastrados")
+    @Operation(summary = "Listar produtos paginados", description = "Retorna uma página de produtos ordenada por ID. " +
+            "Quando houver mais resultados, o cabeçalho X-Proximo-Cursor traz o cursor da próxima página. " +
+            "Além de JSON, responde em CBOR, Smile e no formato colunar (um array por campo) conforme o Accept.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Lista de Produtos",
             content = @Content(mediaType = "application/json",
-            schema = @Schema(implementation = Produto.class)))
+            schema = @Schema(implementation = Produto.class))),
+            @ApiResponse(responseCode = "400", description = "Cursor ou limite inválido")
+    })
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, COLUNAR_JSON_VALUE, COLUNAR_CBOR_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE, MEDIA_TYPE_SMILE})
+    public ResponseEntity<List<Produto>> getProdutos(@RequestParam(required = false) String cursor,
+                                                     @RequestParam(defaultValue = "100") int limite){
+        if (limite < 1) {
+            throw new InvalidRequestException("O limite deve ser maior que zero!");
+        }
+        int limiteEfetivo = Math.min(limite, LIMITE_MAXIMO);
+        var listaProdutos = produtoService.findProdutosAposId(CursorPaginacao.decodificar(cursor), limiteEfetivo);
+        var response = ResponseEntity.ok();
+        if (listaProdutos.size() == limiteEfetivo) {
+            Long ultimoId = listaProdutos.get(listaProdutos.size() - 1).getId();
+            response.header(HEADER_PROXIMO_CURSOR, CursorPaginacao.codificar(ultimoId));
+        }
+        return response.body(listaProdutos);
+    }
+
+    @Operation(summary = "Buscar vários produtos por ID", description = "Retorna os produtos dos IDs informados, na ordem " +
+            "pedida e sem repetições, com uma única consulta para os que não estão em cache. IDs inexistentes são omitidos. " +
+            "Aceita até 1000 IDs; para mais, use POST /produtos/consulta.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lista de Produtos",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Produto.class))),
+            @ApiResponse(responseCode = "400", description = "Lista de IDs vazia ou acima do limite")
+    })
+    @GetMapping(params = "ids", produces = {MediaType.APPLICATION_JSON_VALUE, COLUNAR_JSON_VALUE, COLUNAR_CBOR_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE, MEDIA_TYPE_SMILE})
+    public ResponseEntity<List<Produto>> getProdutosByIds(@RequestParam List<Long> ids){
+        return ResponseEntity.ok(buscarPorIds(ids, LIMITE_MAXIMO));
+    }
+
+    @Operation(summary = "Consultar vários produtos por ID", description = "Variante de GET /produtos?ids= para listas " +
+            "grandes: recebe um array JSON com até 10000 IDs")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lista de Produtos",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Produto.class))),
+            @ApiResponse(responseCode = "400", description = "Lista de IDs vazia ou acima do limite")
+    })
+    @PostMapping(value = "/consulta", produces = {MediaType.APPLICATION_JSON_VALUE, COLUNAR_JSON_VALUE, COLUNAR_CBOR_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE, MEDIA_TYPE_SMILE})
+    public ResponseEntity<List<Produto>> consultarProdutosByIds(@RequestBody List<Long> ids){
+        return ResponseEntity.ok(buscarPorIds(ids, LIMITE_IDS_CONSULTA));
+    }
+
+    @Operation(summary = "Exportar todos os produtos em streaming", description = "Retorna todos os produtos em NDJSON " +
+            "(um produto por linha), lidos do banco por cursor sem carregar o catálogo inteiro em memória")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Produtos em NDJSON",
+                    content = @Content(mediaType = MEDIA_TYPE_NDJSON,
+                            schema = @Schema(implementation = Produto.class)))
     })
-    @GetMapping
-    public ResponseEntity<List<Produto>> getProdutos(){
-        var listaProdutos = produtoService.findAllProdutos();
-        return ResponseEntity.ok(listaProdutos);
+    @GetMapping(value = "/stream", produces = MEDIA_TYPE_NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamProdutos(){
+        ObjectWriter escritor = objectMapper.writerFor(Produto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody corpo = outputStream -> {
+            try (JsonGenerator gerador = objectMapper.getFactory().createGenerator(outputStream)) {
+                gerador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                gerador.setRootValueSeparator(null);
+                produtoService.percorrerProdutos(produto -> {
+                    try {
+                        escritor.writeValue(gerador, produto);
+                        gerador.writeRaw('\n');
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().body(corpo);
     }
-    @Operation(summary = "Buscar um produto pelo ID", description = "Retorna os detalhes de um produto específico")
+    @Operation(summary = "Buscar um produto pelo ID", description = "Retorna os detalhes de um produto específico com o ETag " +
+            "da versão atual. Com If-None-Match igual à versão atual, responde 304 sem corpo.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Produto encontrado!",
                 content = @Content(mediaType = "application/json",
                     schema = @Schema(implementation = Produto.class))),
+            @ApiResponse(responseCode = "304", description = "Produto não modificado"),
             @ApiResponse(responseCode = "404", description = "Produto não encontrado!")
     })
     @GetMapping("/{id}")
-    public ResponseEntity<Produto> getProdutoById(Long id){
+    public ResponseEntity<Produto> getProdutoById(@PathVariable Long id,
+                                                  @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch){
         var produto = produtoService.produtoGetById(id);
-        return ResponseEntity.ok(produto);
+        if (EtagProduto.corresponde(ifNoneMatch, produto)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(EtagProduto.de(produto)).build();
+        }
+        return ResponseEntity.ok().eTag(EtagProduto.de(produto)).body(produto);
     }
 
-    @Operation(summary = "Buscar produtos por descrição", description = "Retorna uma lista de produtos a partir de sua descrição")
+    @Operation(summary = "Buscar produtos por descrição", description = "Retorna uma lista de produtos a partir de sua descrição, " +
+            "ignorando acentos e ordenada por relevância")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Lista de Produtos",
                     content = @Content(mediaType = "application/json",
-                            schema = @Schema(implementation = Produto.class)))
+                            schema = @Schema(implementation = Produto.class))),
+            @ApiResponse(responseCode = "400", description = "Limite inválido")
     })
-    @GetMapping("/descricao")
-    public ResponseEntity<List<Produto>>getProdutosByDescricao(@RequestParam String descricao){
-        var listaProdutosDescricao = produtoService.produtoGetByDescricao(descricao);
+    @GetMapping(value = "/descricao", produces = {MediaType.APPLICATION_JSON_VALUE, COLUNAR_JSON_VALUE, COLUNAR_CBOR_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE, MEDIA_TYPE_SMILE})
+    public ResponseEntity<List<Produto>>getProdutosByDescricao(@RequestParam String descricao,
+                                                              @RequestParam(defaultValue = "50") int limite){
+        if (limite < 1) {
+            throw new InvalidRequestException("O limite deve ser maior que zero!");
+        }
+        var listaProdutosDescricao = produtoService.produtoGetByDescricao(descricao, Math.min(limite, LIMITE_MAXIMO));
         return ResponseEntity.ok(listaProdutosDescricao);
     }
 
+    @Operation(summary = "Buscar produtos com filtros", description = "Filtra por faixa de preço, faixa de quantidade e " +
+            "trecho da descrição, combináveis, ordena por id, descricao, preco ou quantidade e retorna até o limite " +
+            "informado um resumo de cada produto, em uma única consulta")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lista de resumos de produtos",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ResumoProduto.class))),
+            @ApiResponse(responseCode = "400", description = "Faixa, ordenação, direção ou limite inválidos")
+    })
+    @GetMapping("/busca")
+    public ResponseEntity<List<ResumoProduto>> buscarProdutos(@RequestParam(required = false) String descricao,
+                                                              @RequestParam(required = false) Double precoMinimo,
+                                                              @RequestParam(required = false) Double precoMaximo,
+                                                              @RequestParam(required = false) Integer quantidadeMinima,
+                                                              @RequestParam(required = false) Integer quantidadeMaxima,
+                                                              @RequestParam(defaultValue = "id") String ordenacao,
+                                                              @RequestParam(defaultValue = "asc") String direcao,
+                                                              @RequestParam(defaultValue = "50") int limite){
+        if (limite < 1) {
+            throw new InvalidRequestException("O limite deve ser maior que zero!");
+        }
+        boolean decrescente = switch (direcao.toLowerCase()) {
+            case "asc" -> false;
+            case "desc" -> true;
+            default -> throw new InvalidRequestException("A direção deve ser asc ou desc!");
+        };
+        var filtro = new FiltroProdutos(descricao, precoMinimo, precoMaximo, quantidadeMinima, quantidadeMaxima,
+                ordenacao(ordenacao), decrescente, Math.min(limite, LIMITE_MAXIMO));
+        return ResponseEntity.ok(produtoService.buscarProdutos(filtro));
+    }
+
     @Operation(summary = "Criar um novo produto", description = "Cria um novo produto e retorna os dados do produto criado")
     @ApiResponses(value = {
             @ApiResponse(responseCode ="201", description = "Produto criado com sucesso",
@@ -80,20 +226,47 @@ public class ProdutoController {
                 .path("/{id}")
                 .buildAndExpand(produtoCreated.getId())
                 .toUri();
-        return ResponseEntity.created(location).body(produtoCreated);
+        return ResponseEntity.created(location).eTag(EtagProduto.de(produtoCreated)).body(produtoCreated);
     }
 
-    @Operation(summary = "Atualizar produto", description = "Atualiza um produto existentes e retorna os detalhes do produto atualizado.")
+    @Operation(summary = "Atualizar produto", description = "Atualiza um produto existentes e retorna os detalhes do produto atualizado. " +
+            "Com If-Match, a atualização só é aplicada se o ETag corresponder à versão atual.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Produto atualizado com sucesso",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = Produto.class))),
             @ApiResponse(responseCode = "404", description = "Produto não encontrado!"),
+            @ApiResponse(responseCode = "409", description = "Produto alterado por outra requisição durante a atualização"),
+            @ApiResponse(responseCode = "412", description = "If-Match não corresponde à versão atual"),
             @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
     })
     @PutMapping("/{id}")
-    public ResponseEntity<Produto> atualizarProduto(@PathVariable Long id, @RequestBody Produto produto){
-        return ResponseEntity.ok(produtoService.atualizarProduto(id, produto));
+    public ResponseEntity<Produto> atualizarProduto(@PathVariable Long id, @RequestBody Produto produto,
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+        var produtoAtualizado = produtoService.atualizarProduto(id, produto, EtagProduto.versaoEsperada(ifMatch));
+        return ResponseEntity.ok().eTag(EtagProduto.de(produtoAtualizado)).body(produtoAtualizado);
+    }
+
+    @Operation(summary = "Atualizar produto parcialmente", description = "Aplica um JSON Merge Patch com os campos descricao, " +
+            "quantidade, preco e/ou pontoReposicao em um único UPDATE só dessas colunas, sem ler o produto antes. Com If-Match, " +
+            "a alteração só é aplicada se o ETag corresponder à versão atual, e a resposta traz o ETag da nova versão.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Produto atualizado com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Patch inválido"),
+            @ApiResponse(responseCode = "404", description = "Produto não encontrado!"),
+            @ApiResponse(responseCode = "422", description = "Quantidade abaixo das unidades reservadas"),
+            @ApiResponse(responseCode = "412", description = "If-Match não corresponde à versão atual")
+    })
+    @PatchMapping(value = "/{id}", consumes = {MergePatchProduto.MEDIA_TYPE_MERGE_PATCH, "application/json"})
+    public ResponseEntity<Void> atualizarProdutoParcialmente(@PathVariable Long id, @RequestBody JsonNode patch,
+                                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+        Long versaoEsperada = EtagProduto.versaoEsperada(ifMatch);
+        produtoService.atualizarParcialmente(id, MergePatchProduto.converter(patch), versaoEsperada);
+        var response = ResponseEntity.noContent();
+        if (versaoEsperada != null) {
+            response.eTag(EtagProduto.daVersao(versaoEsperada + 1));
+        }
+        return response.build();
     }
 
     @Operation(summary = "Deletar produto", description = "Deleta um produto a partir de sua ID.")
@@ -108,4 +281,39 @@ public class ProdutoController {
         produtoService.deletarProduto(id);
         return ResponseEntity.noContent().build();
     }
+
+    @Operation(summary = "Movimentar estoque", description = "Aplica uma entrada ou saída à quantidade do produto de forma atômica " +
+            "e retorna o produto atualizado. Saídas que deixariam o estoque negativo são rejeitadas.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Estoque movimentado com sucesso",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Produto.class))),
+            @ApiResponse(responseCode = "400", description = "Movimento inválido"),
+            @ApiResponse(responseCode = "404", description = "Produto não encontrado"),
+            @ApiResponse(responseCode = "422", description = "Estoque insuficiente")
+    })
+    @PostMapping("/{id}/movimentos")
+    public ResponseEntity<Produto> movimentarEstoque(@PathVariable Long id, @RequestBody MovimentoEstoque movimento){
+        var produto = produtoService.movimentarEstoque(id, movimento);
+        return ResponseEntity.ok().eTag(EtagProduto.de(produto)).body(produto);
+    }
+
+    private List<Produto> buscarPorIds(List<Long> ids, int limite) {
+        if (ids == null || ids.isEmpty() || ids.contains(null)) {
+            throw new InvalidRequestException("Informe ao menos um ID válido!");
+        }
+        if (ids.size() > limite) {
+            throw new InvalidRequestException("Informe no máximo " + limite + " IDs!");
+        }
+        return produtoService.produtosGetByIds(ids);
+    }
+
+    private static FiltroProdutos.Ordenacao ordenacao(String campo) {
+        for (FiltroProdutos.Ordenacao ordenacao : FiltroProdutos.Ordenacao.values()) {
+            if (ordenacao.atributo().equalsIgnoreCase(campo)) {
+                return ordenacao;
+            }
+        }
+        throw new InvalidRequestException("Ordenação inválida: use id, descricao, preco ou quantidade!");
+    }
 }
@@ -0,0 +1,74 @@
+package br.com.hercules.controleestoque.controller;
+
+import br.com.hercules.controleestoque.model.PrecoProduto;
+import br.com.hercules.controleestoque.model.Produto;
+import br.com.hercules.controleestoque.model.ResultadoLote;
+import br.com.hercules.controleestoque.service.ProdutoLoteService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/produtos/lote")
+@Tag(name = "Produtos em lote", description = "Endpoints para criar, atualizar e deletar produtos em lote")
+public class ProdutoLoteController {
+
+    private final ProdutoLoteService produtoLoteService;
+
+    public ProdutoLoteController(ProdutoLoteService produtoLoteService) {
+        this.produtoLoteService = produtoLoteService;
+    }
+
+    @Operation(summary = "Criar produtos em lote", description = "Cria os produtos informados e retorna o resultado de cada item")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resultado por item",
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = ResultadoLote.class))))
+    })
+    @PostMapping
+    public ResponseEntity<List<ResultadoLote>> criarProdutos(@RequestBody List<Produto> produtos){
+        return ResponseEntity.ok(produtoLoteService.criarEmLote(produtos));
+    }
+
+    @Operation(summary = "Atualizar produtos em lote", description = "Atualiza os produtos informados pelo id e retorna o resultado de cada item")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resultado por item",
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = ResultadoLote.class))))
+    })
+    @PutMapping
+    public ResponseEntity<List<ResultadoLote>> atualizarProdutos(@RequestBody List<Produto> produtos){
+        return ResponseEntity.ok(produtoLoteService.atualizarEmLote(produtos));
+    }
+
+    @Operation(summary = "Deletar produtos em lote", description = "Deleta os produtos com os ids informados e retorna o resultado de cada item")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resultado por item",
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = ResultadoLote.class))))
+    })
+    @DeleteMapping
+    public ResponseEntity<List<ResultadoLote>> deletarProdutos(@RequestBody List<Long> ids){
+        return ResponseEntity.ok(produtoLoteService.deletarEmLote(ids));
+    }
+
+    @Operation(summary = "Reprecificar produtos em lote", description = "Altera apenas o preço dos produtos informados, " +
+            "sem lê-los antes do UPDATE, e retorna o resultado de cada item. Um id repetido fica com o último preço.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resultado por item",
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = ResultadoLote.class))))
+    })
+    @PatchMapping("/precos")
+    public ResponseEntity<List<ResultadoLote>> reprecificarProdutos(@RequestBody List<PrecoProduto> precos){
+        return ResponseEntity.ok(produtoLoteService.reprecificarEmLote(precos));
+    }
+}
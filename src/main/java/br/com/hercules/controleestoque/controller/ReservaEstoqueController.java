@@ -0,0 +1,103 @@
+package br.com.hercules.controleestoque.controller;
+
+import br.com.hercules.controleestoque.model.DisponibilidadeProduto;
+import br.com.hercules.controleestoque.model.NovaReserva;
+import br.com.hercules.controleestoque.model.Produto;
+import br.com.hercules.controleestoque.model.ReservaEstoque;
+import br.com.hercules.controleestoque.service.ReservaEstoqueService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/produtos/{id}")
+@Tag(name = "Reservas de estoque", description = "Reserva de unidades com expiração automática")
+public class ReservaEstoqueController {
+
+    private final ReservaEstoqueService reservaEstoqueService;
+
+    public ReservaEstoqueController(ReservaEstoqueService reservaEstoqueService) {
+        this.reservaEstoqueService = reservaEstoqueService;
+    }
+
+    @Operation(summary = "Reservar estoque", description = "Separa unidades do disponível (quantidade menos reservas ativas) " +
+            "sem baixar a quantidade. A reserva expira após ttlSegundos, ou o TTL padrão, e as unidades voltam ao disponível.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Reserva criada",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ReservaEstoque.class))),
+            @ApiResponse(responseCode = "400", description = "Quantidade ou TTL inválidos"),
+            @ApiResponse(responseCode = "404", description = "Produto não encontrado"),
+            @ApiResponse(responseCode = "422", description = "Estoque disponível insuficiente")
+    })
+    @PostMapping("/reservas")
+    public ResponseEntity<ReservaEstoque> reservar(@PathVariable Long id, @RequestBody NovaReserva novaReserva){
+        var reserva = reservaEstoqueService.reservar(id, novaReserva);
+        URI location = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/{reservaId}")
+                .buildAndExpand(reserva.getId())
+                .toUri();
+        return ResponseEntity.created(location).body(reserva);
+    }
+
+    @Operation(summary = "Consultar reserva", description = "Retorna uma reserva ativa do produto")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Reserva ativa",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ReservaEstoque.class))),
+            @ApiResponse(responseCode = "404", description = "Reserva não encontrada, já confirmada, cancelada ou expirada")
+    })
+    @GetMapping("/reservas/{reservaId}")
+    public ResponseEntity<ReservaEstoque> buscar(@PathVariable Long id, @PathVariable UUID reservaId){
+        return ResponseEntity.ok(reservaEstoqueService.buscar(id, reservaId));
+    }
+
+    @Operation(summary = "Confirmar reserva", description = "Converte a reserva em saída, baixando a quantidade do produto " +
+            "de forma atômica, e retorna o produto atualizado")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Reserva confirmada",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = Produto.class))),
+            @ApiResponse(responseCode = "404", description = "Reserva não encontrada, já confirmada, cancelada ou expirada"),
+            @ApiResponse(responseCode = "422", description = "Quantidade do produto reduzida abaixo da reserva")
+    })
+    @PostMapping("/reservas/{reservaId}/confirmacao")
+    public ResponseEntity<Produto> confirmar(@PathVariable Long id, @PathVariable UUID reservaId){
+        var produto = reservaEstoqueService.confirmar(id, reservaId);
+        return ResponseEntity.ok().eTag(EtagProduto.de(produto)).body(produto);
+    }
+
+    @Operation(summary = "Cancelar reserva", description = "Remove a reserva e devolve as unidades ao disponível")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Reserva cancelada"),
+            @ApiResponse(responseCode = "404", description = "Reserva não encontrada, já confirmada, cancelada ou expirada")
+    })
+    @DeleteMapping("/reservas/{reservaId}")
+    public ResponseEntity<Void> cancelar(@PathVariable Long id, @PathVariable UUID reservaId){
+        reservaEstoqueService.cancelar(id, reservaId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Disponibilidade do produto", description = "Retorna a quantidade, o total reservado e o disponível")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Disponibilidade do produto",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = DisponibilidadeProduto.class))),
+            @ApiResponse(responseCode = "404", description = "Produto não encontrado")
+    })
+    @GetMapping("/disponibilidade")
+    public ResponseEntity<DisponibilidadeProduto> disponibilidade(@PathVariable Long id){
+        return ResponseEntity.ok(reservaEstoqueService.disponibilidade(id));
+    }
+}
@@ -0,0 +1,38 @@
+package br.com.hercules.controleestoque.controller;
+
+import br.com.hercules.controleestoque.model.ResumoEstoque;
+import br.com.hercules.controleestoque.resumo.AgregadosEstoque;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/produtos/resumo")
+@Tag(name = "Resumo do estoque", description = "Totais e valorização do estoque")
+public class ResumoEstoqueController {
+
+    private final AgregadosEstoque agregadosEstoque;
+
+    public ResumoEstoqueController(AgregadosEstoque agregadosEstoque) {
+        this.agregadosEstoque = agregadosEstoque;
+    }
+
+    @Operation(summary = "Resumo do estoque", description = "Retorna a quantidade de produtos, a soma das quantidades, " +
+            "o valor total do estoque (quantidade × preço) e as contagens de produtos sem estoque e abaixo do ponto " +
+            "de reposição. Os totais são mantidos em memória e conferidos periodicamente com o banco")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resumo do estoque",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResumoEstoque.class)))
+    })
+    @GetMapping
+    public ResponseEntity<ResumoEstoque> resumo(){
+        return ResponseEntity.ok(agregadosEstoque.resumo());
+    }
+}
@@ -0,0 +1,30 @@
+package br.com.hercules.controleestoque.deposito;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cria a partição de {@code estoque_deposito} de cada depósito novo, na mesma transação que o
+ * insere: se a criação do depósito for desfeita, a partição também é. Criar a partição bloqueia a
+ * tabela por um instante, o que só acontece ao cadastrar depósitos. Só atua no PostgreSQL; nos
+ * demais bancos a tabela não é particionada.
+ */
+@Component
+public class ParticoesEstoqueDeposito {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ParticoesEstoqueDeposito(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void criarParticao(long depositoId) {
+        String banco = jdbcTemplate.execute((ConnectionCallback<String>) conexao -> conexao.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(banco)) {
+            return;
+        }
+        jdbcTemplate.execute(String.format("create table if not exists estoque_deposito_%d partition of estoque_deposito " +
+                "for values in (%d)", depositoId, depositoId));
+    }
+}
@@ -0,0 +1,244 @@
+package br.com.hercules.controleestoque.event;
+
+import br.com.hercules.controleestoque.model.AlteracaoProduto;
+import br.com.hercules.controleestoque.model.Produto;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Feed das alterações de produtos, publicado após o commit, para consumidores que hoje
+ * consultam o catálogo inteiro para descobrir o que mudou.
+ * <p>
+ * As últimas alterações ficam em um buffer circular de tamanho fixo; cada assinante guarda só a
+ * sequência da próxima alteração que deve receber, então um assinante lento não aumenta o consumo
+ * de memória. Quem conecta com um Last-Event-ID que o buffer já descartou recebe um evento
+ * {@code reset} e continua da alteração mais antiga ainda disponível, cabendo a ele recarregar o catálogo.
+ * <p>
+ * Os envios rodam em um executor próprio ({@code estoque.changes.sse.threads}), separado do executor
+ * de tarefas da aplicação, e cada tarefa envia um lote e devolve a thread, para que os assinantes se
+ * revezem. Um cliente que para de ler ocupa uma dessas threads até o timeout de escrita do servidor;
+ * se enquanto isso ficar um buffer inteiro atrasado, é desconectado e, ao reconectar com
+ * Last-Event-ID, recebe o {@code reset}.
+ * <p>
+ * A sequência começa em {@code milissegundos desde a época * 1000} para que ids recebidos antes de
+ * um restart fiquem abaixo dos novos e sejam tratados como perdidos, e não como atuais.
+ */
+@Component
+public class FeedAlteracoesProduto {
+
+    private static final Logger log = LoggerFactory.getLogger(FeedAlteracoesProduto.class);
+
+    private static final int TAMANHO_LOTE = 256;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final AlteracaoProduto[] buffer;
+
+    private final List<Assinante> assinantes = new CopyOnWriteArrayList<>();
+
+    private final TaskExecutor executor;
+
+    private final ThreadPoolTaskExecutor executorProprio;
+
+    private final Clock clock;
+
+    private final long timeoutSse;
+
+    private final long inicial;
+
+    /**
+     * Sequência da próxima alteração; só muda sob o {@link #lock}.
+     */
+    private volatile long proxima;
+
+    @Autowired
+    public FeedAlteracoesProduto(@Value("${estoque.changes.capacidade:4096}") int capacidade,
+                                 @Value("${estoque.changes.sse.timeout-ms:1800000}") long timeoutSse,
+                                 @Value("${estoque.changes.sse.threads:4}") int threads) {
+        this(criarExecutor(threads), capacidade, timeoutSse, Clock.systemUTC());
+    }
+
+    public FeedAlteracoesProduto(TaskExecutor executor, int capacidade, long timeoutSse, Clock clock) {
+        if (capacidade < 1) {
+            throw new IllegalArgumentException("A capacidade do feed de alterações deve ser maior que zero");
+        }
+        this.buffer = new AlteracaoProduto[capacidade];
+        this.executor = executor;
+        this.executorProprio = executor instanceof ThreadPoolTaskExecutor pool ? pool : null;
+        this.timeoutSse = timeoutSse;
+        this.clock = clock;
+        this.inicial = clock.millis() * 1000;
+        this.proxima = inicial;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarProduto(ProdutoAlteradoEvent evento) {
+        Produto produto = evento.atual() == null ? null : new Produto(evento.atual());
+        lock.lock();
+        try {
+            long sequencia = proxima;
+            buffer[indice(sequencia)] = new AlteracaoProduto(sequencia, evento.tipo(), evento.id(), produto,
+                    evento.parcial(), clock.instant());
+            proxima = sequencia + 1;
+        } finally {
+            lock.unlock();
+        }
+        for (Assinante assinante : assinantes) {
+            assinante.agendar();
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        if (executorProprio != null) {
+            executorProprio.shutdown();
+        }
+    }
+
+    /**
+     * Abre um stream com as alterações posteriores a {@code ultimaRecebida}, ou apenas com as
+     * próximas alterações quando ela é {@code null}.
+     */
+    public SseEmitter assinar(Long ultimaRecebida) {
+        SseEmitter emissor = new SseEmitter(timeoutSse);
+        Assinante assinante = new Assinante(emissor, ultimaRecebida == null ? proxima : ultimaRecebida + 1);
+        emissor.onCompletion(() -> assinantes.remove(assinante));
+        emissor.onTimeout(() -> assinantes.remove(assinante));
+        emissor.onError(erro -> assinantes.remove(assinante));
+        assinantes.add(assinante);
+        assinante.agendar();
+        return emissor;
+    }
+
+    /**
+     * Lê até {@code maximo} alterações a partir da sequência {@code desde}. Se parte delas já saiu
+     * do buffer, ou se {@code desde} é de outra execução, a leitura começa na mais antiga
+     * disponível e {@link Leitura#perdidas()} é verdadeiro.
+     */
+    public Leitura ler(long desde, int maximo) {
+        lock.lock();
+        try {
+            long maisAntiga = Math.max(proxima - buffer.length, inicial);
+            boolean perdidas = desde < maisAntiga || desde > proxima;
+            long inicio = perdidas ? maisAntiga : desde;
+            int quantidade = (int) Math.min(maximo, proxima - inicio);
+            List<AlteracaoProduto> alteracoes = new ArrayList<>(quantidade);
+            for (long sequencia = inicio; sequencia < inicio + quantidade; sequencia++) {
+                alteracoes.add(buffer[indice(sequencia)]);
+            }
+            return new Leitura(alteracoes, perdidas, inicio + quantidade);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long proximaSequencia() {
+        return proxima;
+    }
+
+    private static ThreadPoolTaskExecutor criarExecutor(int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("feed-alteracoes-");
+        executor.setDaemon(true);
+        executor.initialize();
+        return executor;
+    }
+
+    private int indice(long sequencia) {
+        return (int) Math.floorMod(sequencia, (long) buffer.length);
+    }
+
+    /**
+     * @param proxima sequência a partir da qual a próxima leitura deve continuar
+     */
+    public record Leitura(List<AlteracaoProduto> alteracoes, boolean perdidas, long proxima) {
+    }
+
+    /**
+     * Envia as alterações a um cliente em tarefas do executor do feed, um lote por tarefa. No máximo
+     * uma tarefa por assinante fica agendada, então um cliente lento ocupa uma thread, e não memória.
+     */
+    private final class Assinante {
+
+        private final SseEmitter emissor;
+
+        private final AtomicBoolean agendado = new AtomicBoolean();
+
+        private volatile long cursor;
+
+        /** Verdadeiro após o primeiro lote; antes disso o cursor pode vir de um Last-Event-ID antigo. */
+        private volatile boolean iniciado;
+
+        private volatile boolean encerrado;
+
+        Assinante(SseEmitter emissor, long cursor) {
+            this.emissor = emissor;
+            this.cursor = cursor;
+        }
+
+        void agendar() {
+            if (encerrado) {
+                return;
+            }
+            if (iniciado && proxima - cursor > buffer.length) {
+                desconectar(new IllegalStateException("Assinante do feed de alterações ficou um buffer inteiro atrasado"));
+                return;
+            }
+            if (agendado.compareAndSet(false, true)) {
+                executor.execute(this::enviar);
+            }
+        }
+
+        private void enviar() {
+            try {
+                if (!encerrado && cursor < proxima) {
+                    Leitura leitura = ler(cursor, TAMANHO_LOTE);
+                    if (leitura.perdidas()) {
+                        emissor.send(SseEmitter.event().name("reset").id(Long.toString(leitura.proxima() - leitura.alteracoes().size() - 1))
+                                .data("Alterações anteriores a esta não estão mais disponíveis; recarregue o catálogo"));
+                    }
+                    for (AlteracaoProduto alteracao : leitura.alteracoes()) {
+                        emissor.send(SseEmitter.event().name("alteracao").id(Long.toString(alteracao.sequencia()))
+                                .data(alteracao, MediaType.APPLICATION_JSON));
+                    }
+                    cursor = leitura.proxima();
+                    iniciado = true;
+                }
+            } catch (IOException | IllegalStateException ex) {
+                desconectar(ex);
+            } finally {
+                agendado.set(false);
+            }
+            // Reagenda o restante, inclusive alterações publicadas antes de liberar o agendamento.
+            if (!encerrado && cursor < proxima) {
+                agendar();
+            }
+        }
+
+        private void desconectar(Exception motivo) {
+            encerrado = true;
+            assinantes.remove(this);
+            log.debug("Assinante do feed de alterações desconectado", motivo);
+            emissor.completeWithError(motivo);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package br.com.hercules.controleestoque.event;
+
+import br.com.hercules.controleestoque.model.AlteracaoParcialProduto;
+import br.com.hercules.controleestoque.model.Produto;
+
+/**
+ * Publicado pelo {@code ProdutoService} a cada criação, atualização ou remoção de produto.
+ * Os ouvintes devem usar {@code @TransactionalEventListener} para reagir apenas após o commit.
+ *
+ * @param tipo     tipo da alteração
+ * @param id       id do produto alterado
+ * @param anterior estado antes da alteração, ou {@code null} quando desconhecido
+ * @param atual    estado após a alteração, ou {@code null} na remoção e quando desconhecido
+ * @param parcial  campos alterados por uma atualização parcial, feita por UPDATE só das colunas
+ *                 informadas; {@code null} nos demais casos
+ */
+public record ProdutoAlteradoEvent(Tipo tipo, Long id, Produto anterior, Produto atual, AlteracaoParcialProduto parcial) {
+
+    public enum Tipo {
+        CRIACAO,
+        ATUALIZACAO,
+        REMOCAO
+    }
+
+    public static ProdutoAlteradoEvent criacao(Produto atual) {
+        return new ProdutoAlteradoEvent(Tipo.CRIACAO, atual.getId(), null, atual, null);
+    }
+
+    public static ProdutoAlteradoEvent atualizacao(Produto anterior, Produto atual) {
+        return new ProdutoAlteradoEvent(Tipo.ATUALIZACAO, atual.getId(), anterior, atual, null);
+    }
+
+    public static ProdutoAlteradoEvent remocao(Long id, Produto anterior) {
+        return new ProdutoAlteradoEvent(Tipo.REMOCAO, id, anterior, null, null);
+    }
+
+    public static ProdutoAlteradoEvent atualizacaoParcial(Produto anterior, Produto atual, AlteracaoParcialProduto parcial) {
+        return new ProdutoAlteradoEvent(Tipo.ATUALIZACAO, atual.getId(), anterior, atual, parcial);
+    }
+}
@@ -0,0 +1,7 @@
+package br.com.hercules.controleestoque.exception;
+
+public class InsufficientStockException extends RuntimeException {
+    public InsufficientStockException(String message){
+        super(message);
+    }
+}
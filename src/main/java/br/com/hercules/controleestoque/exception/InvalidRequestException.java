@@ -0,0 +1,7 @@
+package br.com.hercules.controleestoque.exception;
+
+public class InvalidRequestException extends RuntimeException {
+    public InvalidRequestException(String message){
+        super(message);
+    }
+}
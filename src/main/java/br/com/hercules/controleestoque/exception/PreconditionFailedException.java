@@ -0,0 +1,7 @@
+package br.com.hercules.controleestoque.exception;
+
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message){
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package br.com.hercules.controleestoque.exception;
+
+/**
+ * Endpoint no limite de requisições simultâneas. Lançada a cada requisição descartada, por isso
+ * não preenche a pilha de chamadas.
+ */
+public class ServiceOverloadedException extends RuntimeException {
+    public ServiceOverloadedException(String message){
+        super(message, null, false, false);
+    }
+}
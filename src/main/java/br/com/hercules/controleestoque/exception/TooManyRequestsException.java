@@ -0,0 +1,19 @@
+package br.com.hercules.controleestoque.exception;
+
+/**
+ * Cliente acima da taxa permitida. Lançada a cada requisição rejeitada, por isso não preenche a
+ * pilha de chamadas.
+ */
+public class TooManyRequestsException extends RuntimeException {
+
+    private final long segundosParaNovaTentativa;
+
+    public TooManyRequestsException(String message, long segundosParaNovaTentativa){
+        super(message, null, false, false);
+        this.segundosParaNovaTentativa = segundosParaNovaTentativa;
+    }
+
+    public long getSegundosParaNovaTentativa() {
+        return segundosParaNovaTentativa;
+    }
+}
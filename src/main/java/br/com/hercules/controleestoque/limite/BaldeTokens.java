@@ -0,0 +1,47 @@
+package br.com.hercules.controleestoque.limite;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Balde de tokens sem lock, no formato GCRA: em vez de um contador de tokens reabastecido
+ * periodicamente, guarda só o instante teórico de chegada da próxima requisição. Cada requisição
+ * admitida avança esse instante em {@code 1/taxa}; a requisição é rejeitada quando ele ficaria mais
+ * de {@code rajada} intervalos à frente do relógio. O estado cabe em um único {@link AtomicLong},
+ * atualizado por compare-and-set.
+ */
+public class BaldeTokens {
+
+    private final long intervaloNanos;
+
+    private final long toleranciaNanos;
+
+    private final AtomicLong chegadaTeorica;
+
+    public BaldeTokens(double taxaPorSegundo, int rajada, long agora) {
+        if (taxaPorSegundo <= 0 || rajada < 1) {
+            throw new IllegalArgumentException("Taxa e rajada devem ser positivas");
+        }
+        this.intervaloNanos = Math.max(1, Math.round(1_000_000_000d / taxaPorSegundo));
+        this.toleranciaNanos = intervaloNanos * rajada;
+        this.chegadaTeorica = new AtomicLong(agora);
+    }
+
+    /**
+     * Consome um token se houver.
+     *
+     * @return 0 quando a requisição foi admitida; senão, quantos nanossegundos faltam para o próximo token
+     */
+    public long consumir(long agora) {
+        while (true) {
+            long atual = chegadaTeorica.get();
+            long proxima = Math.max(atual, agora) + intervaloNanos;
+            long espera = proxima - agora - toleranciaNanos;
+            if (espera > 0) {
+                return espera;
+            }
+            if (chegadaTeorica.compareAndSet(atual, proxima)) {
+                return 0;
+            }
+        }
+    }
+}
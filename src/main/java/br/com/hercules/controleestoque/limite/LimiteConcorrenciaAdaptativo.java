@@ -0,0 +1,91 @@
+package br.com.hercules.controleestoque.limite;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limite de requisições simultâneas ajustado pela latência (AIMD): cada requisição concluída
+ * abaixo da latência alvo soma {@code 1/limite} ao limite enquanto ele estiver sendo usado em
+ * pelo menos metade; uma requisição acima do alvo reduz o limite por {@code fatorReducao}, no
+ * máximo uma vez por intervalo igual à latência alvo, para que a rajada de respostas lentas de uma
+ * mesma sobrecarga conte como um único sinal. Quem chega com o limite ocupado é descartado em vez
+ * de esperar.
+ */
+public class LimiteConcorrenciaAdaptativo {
+
+    private final int minimo;
+
+    private final int maximo;
+
+    private final long latenciaAlvoNanos;
+
+    private final double fatorReducao;
+
+    private final AtomicInteger limite;
+
+    private final AtomicInteger emAndamento = new AtomicInteger();
+
+    private final AtomicInteger sucessosDesdeAumento = new AtomicInteger();
+
+    private final AtomicLong proximaReducaoPermitida;
+
+    public LimiteConcorrenciaAdaptativo(int inicial, int minimo, int maximo, long latenciaAlvoNanos,
+                                        double fatorReducao, long agora) {
+        if (minimo < 1 || maximo < minimo || inicial < minimo || inicial > maximo) {
+            throw new IllegalArgumentException("Limites de concorrência inválidos: inicial=" + inicial
+                    + ", minimo=" + minimo + ", maximo=" + maximo);
+        }
+        this.minimo = minimo;
+        this.maximo = maximo;
+        this.latenciaAlvoNanos = latenciaAlvoNanos;
+        this.fatorReducao = fatorReducao;
+        this.limite = new AtomicInteger(inicial);
+        this.proximaReducaoPermitida = new AtomicLong(agora);
+    }
+
+    public boolean adquirir() {
+        while (true) {
+            int atual = emAndamento.get();
+            if (atual >= limite.get()) {
+                return false;
+            }
+            if (emAndamento.compareAndSet(atual, atual + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Devolve a vaga e ajusta o limite pela latência da requisição.
+     */
+    public void liberar(long latenciaNanos, long agora) {
+        int ocupadasAntes = emAndamento.getAndDecrement();
+        int atual = limite.get();
+        if (latenciaNanos > latenciaAlvoNanos) {
+            long permitida = proximaReducaoPermitida.get();
+            if (agora - permitida >= 0 && proximaReducaoPermitida.compareAndSet(permitida, agora + latenciaAlvoNanos)) {
+                limite.updateAndGet(valor -> Math.max(minimo, (int) (valor * fatorReducao)));
+                sucessosDesdeAumento.set(0);
+            }
+        } else if (ocupadasAntes * 2 >= atual && atual < maximo
+                && sucessosDesdeAumento.incrementAndGet() >= atual) {
+            sucessosDesdeAumento.set(0);
+            limite.compareAndSet(atual, atual + 1);
+        }
+    }
+
+    /**
+     * Devolve a vaga sem medir a latência, para respostas que continuam fora da thread da requisição.
+     */
+    public void liberar() {
+        emAndamento.decrementAndGet();
+    }
+
+    public int getLimite() {
+        return limite.get();
+    }
+
+    public int getEmAndamento() {
+        return emAndamento.get();
+    }
+}
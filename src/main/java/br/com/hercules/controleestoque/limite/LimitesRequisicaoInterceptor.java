@@ -0,0 +1,183 @@
+package br.com.hercules.controleestoque.limite;
+
+import br.com.hercules.controleestoque.exception.ServiceOverloadedException;
+import br.com.hercules.controleestoque.exception.TooManyRequestsException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Aplica os limites de {@link PropriedadesLimites} antes do controller: primeiro a taxa do cliente,
+ * identificado pelo cabeçalho de chave de API ou pelo IP, com um {@link BaldeTokens} por cliente e
+ * endpoint; depois o {@link LimiteConcorrenciaAdaptativo} do endpoint. Rejeições viram 429 e 503 no
+ * {@code GlobalExceptionHandler}.
+ * <p>
+ * Publica {@value #METRICA} por endpoint e resultado ({@code admitida}, {@code taxa},
+ * {@code concorrencia}) e os gauges {@code estoque.limite.concorrencia} e
+ * {@code estoque.limite.em.andamento}.
+ */
+public class LimitesRequisicaoInterceptor implements AsyncHandlerInterceptor {
+
+    public static final String METRICA = "estoque.limite.requisicoes";
+
+    private static final String ATRIBUTO_REGRA = LimitesRequisicaoInterceptor.class.getName() + ".regra";
+
+    private static final String ATRIBUTO_INICIO = LimitesRequisicaoInterceptor.class.getName() + ".inicio";
+
+    private final Map<String, Regra> regras = new HashMap<>();
+
+    private final String cabecalhoChave;
+
+    private final LongSupplier relogio;
+
+    public LimitesRequisicaoInterceptor(PropriedadesLimites propriedades, MeterRegistry meterRegistry) {
+        this(propriedades, meterRegistry, System::nanoTime);
+    }
+
+    public LimitesRequisicaoInterceptor(PropriedadesLimites propriedades, MeterRegistry meterRegistry, LongSupplier relogio) {
+        this.cabecalhoChave = propriedades.cabecalhoChave();
+        this.relogio = relogio;
+        for (PropriedadesLimites.Endpoint endpoint : propriedades.endpoints()) {
+            Regra regra = new Regra(endpoint, propriedades, meterRegistry, relogio.getAsLong());
+            if (regras.put(chave(endpoint.metodo(), endpoint.padrao()), regra) != null) {
+                throw new IllegalStateException("Endpoint com limites repetidos: " + endpoint.metodo() + " " + endpoint.padrao());
+            }
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+        Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Regra regra = padrao == null ? null : regras.get(chave(request.getMethod(), padrao.toString()));
+        if (regra == null) {
+            return true;
+        }
+        long agora = relogio.getAsLong();
+        if (regra.baldes != null) {
+            long espera = regra.baldes.get(cliente(request), chave -> regra.novoBalde(agora)).consumir(agora);
+            if (espera > 0) {
+                regra.rejeitadasTaxa.increment();
+                throw new TooManyRequestsException("Limite de requisições excedido, tente novamente mais tarde!",
+                        Math.max(1, TimeUnit.NANOSECONDS.toSeconds(espera + TimeUnit.SECONDS.toNanos(1) - 1)));
+            }
+        }
+        if (regra.concorrencia != null) {
+            if (!regra.concorrencia.adquirir()) {
+                regra.descartadas.increment();
+                throw new ServiceOverloadedException("Serviço sobrecarregado, tente novamente mais tarde!");
+            }
+            request.setAttribute(ATRIBUTO_REGRA, regra);
+            request.setAttribute(ATRIBUTO_INICIO, agora);
+        }
+        regra.admitidas.increment();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Regra regra = (Regra) request.getAttribute(ATRIBUTO_REGRA);
+        if (regra != null) {
+            request.removeAttribute(ATRIBUTO_REGRA);
+            long agora = relogio.getAsLong();
+            regra.concorrencia.liberar(agora - (long) request.getAttribute(ATRIBUTO_INICIO), agora);
+        }
+    }
+
+    /**
+     * Respostas assíncronas (SSE, streaming) liberam a vaga quando o controller retorna, sem
+     * medir latência: a duração delas depende do cliente, não da carga do serviço.
+     */
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Regra regra = (Regra) request.getAttribute(ATRIBUTO_REGRA);
+        if (regra != null) {
+            request.removeAttribute(ATRIBUTO_REGRA);
+            regra.concorrencia.liberar();
+        }
+    }
+
+    private String cliente(HttpServletRequest request) {
+        String chaveApi = request.getHeader(cabecalhoChave);
+        return StringUtils.hasText(chaveApi) ? "chave:" + chaveApi : "ip:" + request.getRemoteAddr();
+    }
+
+    private static String chave(String metodo, String padrao) {
+        return metodo + " " + padrao;
+    }
+
+    private static final class Regra {
+
+        private final double taxa;
+
+        private final int rajada;
+
+        private final Cache<String, BaldeTokens> baldes;
+
+        private final LimiteConcorrenciaAdaptativo concorrencia;
+
+        private final Counter admitidas;
+
+        private final Counter rejeitadasTaxa;
+
+        private final Counter descartadas;
+
+        Regra(PropriedadesLimites.Endpoint endpoint, PropriedadesLimites propriedades, MeterRegistry meterRegistry, long agora) {
+            this.taxa = endpoint.taxa();
+            this.rajada = endpoint.rajada() > 0 ? endpoint.rajada() : Math.max(1, (int) Math.ceil(taxa));
+            this.baldes = taxa > 0
+                    ? Caffeine.newBuilder()
+                    .maximumSize(propriedades.maximoClientes())
+                    .expireAfterAccess(propriedades.expiracaoClientes())
+                    .build()
+                    : null;
+            this.concorrencia = endpoint.concorrenciaMaxima() > 0
+                    ? new LimiteConcorrenciaAdaptativo(endpoint.concorrenciaInicial(), endpoint.concorrenciaMinima(),
+                    endpoint.concorrenciaMaxima(), endpoint.latenciaAlvo().toNanos(), endpoint.fatorReducao(), agora)
+                    : null;
+            this.admitidas = contador(meterRegistry, endpoint, "admitida");
+            this.rejeitadasTaxa = contador(meterRegistry, endpoint, "taxa");
+            this.descartadas = contador(meterRegistry, endpoint, "concorrencia");
+            if (concorrencia != null) {
+                Gauge.builder("estoque.limite.concorrencia", concorrencia, LimiteConcorrenciaAdaptativo::getLimite)
+                        .description("Limite atual de requisições simultâneas do endpoint")
+                        .tag("method", endpoint.metodo())
+                        .tag("uri", endpoint.padrao())
+                        .register(meterRegistry);
+                Gauge.builder("estoque.limite.em.andamento", concorrencia, LimiteConcorrenciaAdaptativo::getEmAndamento)
+                        .description("Requisições do endpoint em andamento")
+                        .tag("method", endpoint.metodo())
+                        .tag("uri", endpoint.padrao())
+                        .register(meterRegistry);
+            }
+        }
+
+        BaldeTokens novoBalde(long agora) {
+            return new BaldeTokens(taxa, rajada, agora);
+        }
+
+        private static Counter contador(MeterRegistry meterRegistry, PropriedadesLimites.Endpoint endpoint, String resultado) {
+            return Counter.builder(METRICA)
+                    .description("Requisições admitidas e rejeitadas pelos limites")
+                    .tag("method", endpoint.metodo())
+                    .tag("uri", endpoint.padrao())
+                    .tag("resultado", resultado)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package br.com.hercules.controleestoque.limite;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Limites por endpoint em {@code estoque.limites.*}. Endpoints fora da lista não são limitados.
+ */
+@ConfigurationProperties("estoque.limites")
+public record PropriedadesLimites(@DefaultValue("true") boolean habilitado,
+                                  @DefaultValue("X-API-Key") String cabecalhoChave,
+                                  @DefaultValue("100000") long maximoClientes,
+                                  @DefaultValue("10m") Duration expiracaoClientes,
+                                  @DefaultValue List<Endpoint> endpoints) {
+
+    /**
+     * @param metodo              método HTTP
+     * @param padrao              padrão da rota como declarado no controller, por exemplo {@code /produtos/{id}}
+     * @param taxa                requisições por segundo por cliente; 0 desliga a limitação por cliente
+     * @param rajada              requisições aceitas de uma vez acima da taxa; 0 equivale a um segundo da taxa
+     * @param concorrenciaInicial requisições simultâneas permitidas na partida
+     * @param concorrenciaMinima  piso do limite adaptativo
+     * @param concorrenciaMaxima  teto do limite adaptativo; 0 desliga o descarte por concorrência
+     * @param latenciaAlvo        latência a partir da qual o limite de concorrência é reduzido
+     * @param fatorReducao        fator aplicado ao limite de concorrência a cada redução
+     */
+    public record Endpoint(String metodo,
+                           String padrao,
+                           @DefaultValue("0") double taxa,
+                           @DefaultValue("0") int rajada,
+                           @DefaultValue("20") int concorrenciaInicial,
+                           @DefaultValue("1") int concorrenciaMinima,
+                           @DefaultValue("0") int concorrenciaMaxima,
+                           @DefaultValue("250ms") Duration latenciaAlvo,
+                           @DefaultValue("0.9") double fatorReducao) {
+    }
+}
@@ -0,0 +1,296 @@
+package br.com.hercules.controleestoque.livro;
+
+import br.com.hercules.controleestoque.event.ProdutoAlteradoEvent;
+import br.com.hercules.controleestoque.exception.ResourceNotFoundException;
+import br.com.hercules.controleestoque.model.EstoqueEmInstante;
+import br.com.hercules.controleestoque.model.LancamentoEstoque;
+import br.com.hercules.controleestoque.model.Produto;
+import br.com.hercules.controleestoque.model.SaldoEstoque;
+import br.com.hercules.controleestoque.repository.LancamentoEstoqueRepository;
+import br.com.hercules.controleestoque.repository.SaldoEstoqueRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Livro de estoque: registra cada alteração de quantidade de produto como um
+ * {@link LancamentoEstoque} e responde a quantidade de um produto em um instante passado.
+ * <p>
+ * O instante do lançamento é lido ainda dentro da transação que altera o produto, logo antes do
+ * commit: alterações do mesmo produto esperam pelo bloqueio da linha, então os instantes seguem a
+ * ordem dos commits, e os empates no mesmo microssegundo são desfeitos pela versão do produto. O
+ * lançamento é montado e enfileirado após o commit, quando a versão gravada já é conhecida; uma
+ * thread própria os grava em lotes, em uma transação por lote, então a alteração do produto não
+ * espera pelo livro. Com a fila cheia o lançamento é gravado na hora, pela própria
+ * requisição, em vez de descartado. Lançamentos ainda na fila não aparecem nas consultas.
+ * <p>
+ * Periodicamente cada produto alterado ganha um {@link SaldoEstoque} com a quantidade do seu último
+ * lançamento. Como cada lançamento guarda a quantidade resultante, a consulta em um instante parte da
+ * fotografia mais próxima anterior a ele e só precisa do último lançamento entre os dois, procurado
+ * nas partições desse intervalo. A fotografia é tirada {@link #ATRASO_MAXIMO_GRAVACAO} atrás do
+ * relógio, para incluir os lançamentos ainda em fila nesta e nas demais instâncias.
+ */
+@Component
+public class LivroEstoque {
+
+    private static final Logger log = LoggerFactory.getLogger(LivroEstoque.class);
+
+    private static final int TAMANHO_LOTE = 500;
+
+    private static final Duration ESPERA_APOS_FALHA = Duration.ofSeconds(5);
+
+    private static final Duration ATRASO_MAXIMO_GRAVACAO = Duration.ofMinutes(5);
+
+    private final BlockingQueue<LancamentoEstoque> fila;
+
+    private final LancamentoEstoqueRepository lancamentoRepository;
+
+    private final SaldoEstoqueRepository saldoRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final TransactionTemplate transactionTemplateLeitura;
+
+    private final Clock clock;
+
+    private final Counter gravados;
+
+    private final Counter gravadosNaRequisicao;
+
+    private volatile Thread gravacao;
+
+    @Autowired
+    public LivroEstoque(LancamentoEstoqueRepository lancamentoRepository, SaldoEstoqueRepository saldoRepository,
+                        PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                        @Value("${estoque.livro.capacidade-fila:100000}") int capacidadeFila) {
+        this(lancamentoRepository, saldoRepository, transactionManager, meterRegistry, capacidadeFila, Clock.systemUTC());
+    }
+
+    public LivroEstoque(LancamentoEstoqueRepository lancamentoRepository, SaldoEstoqueRepository saldoRepository,
+                        PlatformTransactionManager transactionManager, MeterRegistry meterRegistry, int capacidadeFila,
+                        Clock clock) {
+        this.fila = new ArrayBlockingQueue<>(capacidadeFila);
+        this.lancamentoRepository = lancamentoRepository;
+        this.saldoRepository = saldoRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Com a fila cheia a gravação roda no afterCommit da alteração, quando a transação dela ainda
+        // está associada à thread mas já não grava nada.
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplateLeitura = new TransactionTemplate(transactionManager);
+        this.transactionTemplateLeitura.setReadOnly(true);
+        this.clock = clock;
+        this.gravados = Counter.builder("estoque.livro.lancamentos")
+                .description("Lançamentos gravados no livro de estoque")
+                .register(meterRegistry);
+        this.gravadosNaRequisicao = Counter.builder("estoque.livro.lancamentos.fila-cheia")
+                .description("Lançamentos gravados pela própria requisição por falta de espaço na fila")
+                .register(meterRegistry);
+        Gauge.builder("estoque.livro.pendentes", fila, BlockingQueue::size)
+                .description("Lançamentos aguardando gravação nesta instância")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Eventos publicados fora de transação, como os da pilha reativa, chegam já confirmados e têm o
+     * instante lido aqui mesmo.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void aoAlterarProduto(ProdutoAlteradoEvent evento) {
+        Instant ocorridoEm = clock.instant().truncatedTo(ChronoUnit.MICROS);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enfileirar(lancamento(evento, ocorridoEm));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enfileirar(lancamento(evento, ocorridoEm));
+            }
+        });
+    }
+
+    /**
+     * Quantidade do produto em {@code em}: a do último lançamento até o instante, procurado a partir
+     * da fotografia mais próxima, ou a da própria fotografia se não houver lançamento depois dela.
+     */
+    public EstoqueEmInstante estoqueEm(Long produtoId, Instant em) {
+        EstoqueEmInstante estoque = transactionTemplateLeitura.execute(status -> {
+            Optional<SaldoEstoque> saldo = saldoRepository.findFirstByProdutoIdAndInstanteLessThanEqualOrderByInstanteDesc(produtoId, em);
+            Instant desde = saldo.map(SaldoEstoque::getInstante).orElse(Instant.EPOCH);
+            List<LancamentoEstoque> recentes = lancamentoRepository.findRecentes(produtoId, desde, em, Limit.of(1));
+            if (!recentes.isEmpty()) {
+                LancamentoEstoque ultimo = recentes.get(0);
+                return ultimo.getTipo() == LancamentoEstoque.Tipo.REMOCAO
+                        ? null
+                        : new EstoqueEmInstante(produtoId, em, ultimo.getQuantidade(), ultimo.getOcorridoEm());
+            }
+            return saldo.filter(s -> !s.isRemovido())
+                    .map(s -> new EstoqueEmInstante(produtoId, em, s.getQuantidade(), s.getInstante()))
+                    .orElse(null);
+        });
+        if (estoque == null) {
+            throw new ResourceNotFoundException("Produto sem estoque registrado no instante informado!");
+        }
+        return estoque;
+    }
+
+    /**
+     * @return quantos produtos foram fotografados
+     */
+    @Scheduled(fixedDelayString = "${estoque.livro.fotografia-ms:3600000}", initialDelayString = "${estoque.livro.fotografia-ms:3600000}")
+    public int fotografar() {
+        Instant ate = clock.instant().minus(ATRASO_MAXIMO_GRAVACAO).truncatedTo(ChronoUnit.MICROS);
+        Integer fotografados = transactionTemplate.execute(status -> {
+            Instant desde = saldoRepository.findUltimoInstante().orElse(Instant.EPOCH);
+            return ate.isAfter(desde) ? saldoRepository.fotografar(desde, ate) : 0;
+        });
+        return fotografados == null ? 0 : fotografados;
+    }
+
+    /**
+     * Grava o que estiver na fila, na thread de quem chama.
+     */
+    public void gravarPendentes() {
+        List<LancamentoEstoque> lote = new ArrayList<>(TAMANHO_LOTE);
+        while (fila.drainTo(lote, TAMANHO_LOTE) > 0) {
+            gravar(lote);
+            lote.clear();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        Thread thread = new Thread(this::consumir, "livro-estoque");
+        thread.setDaemon(true);
+        gravacao = thread;
+        thread.start();
+    }
+
+    /**
+     * Interrompe a thread de gravação, que grava o lote em andamento e o restante da fila antes de terminar.
+     */
+    @PreDestroy
+    public void parar() {
+        Thread thread = gravacao;
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void consumir() {
+        List<LancamentoEstoque> lote = new ArrayList<>(TAMANHO_LOTE);
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                lote.add(fila.take());
+                fila.drainTo(lote, TAMANHO_LOTE - 1);
+                gravarComNovasTentativas(lote);
+                lote.clear();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            fila.drainTo(lote);
+            if (!lote.isEmpty()) {
+                try {
+                    gravar(lote);
+                } catch (RuntimeException ex) {
+                    log.error("{} lançamentos do livro de estoque não foram gravados no encerramento", lote.size(), ex);
+                }
+            }
+        }
+    }
+
+    private void gravarComNovasTentativas(List<LancamentoEstoque> lote) throws InterruptedException {
+        while (true) {
+            try {
+                gravar(lote);
+                return;
+            } catch (RuntimeException ex) {
+                log.warn("Falha ao gravar {} lançamentos do livro de estoque; nova tentativa em {}", lote.size(), ESPERA_APOS_FALHA, ex);
+                Thread.sleep(ESPERA_APOS_FALHA.toMillis());
+            }
+        }
+    }
+
+    private void enfileirar(LancamentoEstoque lancamento) {
+        if (lancamento != null && !fila.offer(lancamento)) {
+            gravadosNaRequisicao.increment();
+            gravar(List.of(lancamento));
+        }
+    }
+
+    private void gravar(List<LancamentoEstoque> lote) {
+        // Cópias novas a cada tentativa: uma tentativa que falhou já pode ter atribuído ids.
+        List<LancamentoEstoque> novos = lote.stream()
+                .map(l -> new LancamentoEstoque(l.getProdutoId(), l.getTipo(), l.getVariacao(), l.getQuantidade(),
+                        l.getOcorridoEm(), l.getVersao()))
+                .toList();
+        transactionTemplate.executeWithoutResult(status -> lancamentoRepository.saveAll(novos));
+        gravados.increment(novos.size());
+    }
+
+    /**
+     * A remoção não incrementa a versão; o lançamento dela leva a seguinte à do estado removido.
+     *
+     * @return o lançamento da alteração, ou {@code null} se ela não mexeu na quantidade
+     */
+    private static LancamentoEstoque lancamento(ProdutoAlteradoEvent evento, Instant ocorridoEm) {
+        Produto anterior = evento.anterior();
+        Produto atual = evento.atual();
+        return switch (evento.tipo()) {
+            case CRIACAO -> new LancamentoEstoque(evento.id(), LancamentoEstoque.Tipo.CRIACAO, atual.getQuantidade(),
+                    atual.getQuantidade(), ocorridoEm, atual.getVersao());
+            case ATUALIZACAO -> {
+                if (atual != null) {
+                    if (anterior != null && anterior.getQuantidade() == atual.getQuantidade()) {
+                        yield null;
+                    }
+                    Integer variacao = anterior == null ? null : atual.getQuantidade() - anterior.getQuantidade();
+                    yield new LancamentoEstoque(evento.id(), LancamentoEstoque.Tipo.ATUALIZACAO, variacao,
+                            atual.getQuantidade(), ocorridoEm, atual.getVersao());
+                }
+                if (evento.parcial() != null && evento.parcial().quantidade() != null) {
+                    yield new LancamentoEstoque(evento.id(), LancamentoEstoque.Tipo.ATUALIZACAO, null,
+                            evento.parcial().quantidade(), ocorridoEm, null);
+                }
+                yield null;
+            }
+            case REMOCAO -> new LancamentoEstoque(evento.id(), LancamentoEstoque.Tipo.REMOCAO,
+                    anterior == null ? null : -anterior.getQuantidade(), 0, ocorridoEm,
+                    anterior == null || anterior.getVersao() == null ? null : anterior.getVersao() + 1);
+        };
+    }
+}
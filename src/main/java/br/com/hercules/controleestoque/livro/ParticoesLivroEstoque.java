@@ -0,0 +1,55 @@
+package br.com.hercules.controleestoque.livro;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+
+/**
+ * Cria as partições mensais de {@code lancamento_estoque} antes que sejam necessárias: a do mês
+ * corrente e as dos próximos {@link #MESES_A_FRENTE}. Lançamentos fora de qualquer partição caem
+ * na partição padrão, que deve ficar vazia: uma partição não pode ser criada enquanto a padrão
+ * tiver linhas do seu intervalo. Só atua no PostgreSQL; nos demais bancos a tabela não é particionada.
+ */
+@Component
+public class ParticoesLivroEstoque {
+
+    private static final Logger log = LoggerFactory.getLogger(ParticoesLivroEstoque.class);
+
+    private static final int MESES_A_FRENTE = 2;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ParticoesLivroEstoque(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Scheduled(fixedDelayString = "${estoque.livro.particoes-ms:86400000}")
+    public void criarParticoes() {
+        String banco = jdbcTemplate.execute((ConnectionCallback<String>) conexao -> conexao.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(banco)) {
+            return;
+        }
+        YearMonth mes = YearMonth.now(ZoneOffset.UTC);
+        for (int i = 0; i <= MESES_A_FRENTE; i++) {
+            criarParticao(mes.plusMonths(i));
+        }
+    }
+
+    private void criarParticao(YearMonth mes) {
+        String sql = String.format("create table if not exists lancamento_estoque_%d_%02d partition of lancamento_estoque " +
+                        "for values from ('%s-01 00:00:00+00') to ('%s-01 00:00:00+00')",
+                mes.getYear(), mes.getMonthValue(), mes, mes.plusMonths(1));
+        try {
+            jdbcTemplate.execute(sql);
+        } catch (DataAccessException ex) {
+            log.warn("Falha ao criar a partição de {} do livro de estoque", mes, ex);
+        }
+    }
+}
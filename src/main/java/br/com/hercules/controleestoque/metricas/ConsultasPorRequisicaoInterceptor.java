@@ -0,0 +1,57 @@
+package br.com.hercules.controleestoque.metricas;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Publica em {@value #METRICA} quantos comandos SQL cada requisição executou, por método HTTP e
+ * padrão de URI. Consultas feitas fora da thread da requisição, como no corpo de respostas em
+ * streaming, não entram na contagem.
+ */
+public class ConsultasPorRequisicaoInterceptor implements HandlerInterceptor {
+
+    public static final String METRICA = "estoque.http.consultas";
+
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<String, ConcurrentMap<String, DistributionSummary>> resumosPorMetodo = new ConcurrentHashMap<>();
+
+    public ConsultasPorRequisicaoInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ContadorConsultas.zerar();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = padrao == null ? "UNKNOWN" : padrao.toString();
+        resumo(request.getMethod(), uri).record(ContadorConsultas.total());
+    }
+
+    private DistributionSummary resumo(String metodo, String uri) {
+        ConcurrentMap<String, DistributionSummary> resumosPorUri = resumosPorMetodo
+                .computeIfAbsent(metodo, chave -> new ConcurrentHashMap<>());
+        DistributionSummary resumo = resumosPorUri.get(uri);
+        if (resumo == null) {
+            resumo = resumosPorUri.computeIfAbsent(uri, chave -> DistributionSummary.builder(METRICA)
+                    .description("Comandos SQL executados por requisição")
+                    .baseUnit("consultas")
+                    .tag("method", metodo)
+                    .tag("uri", chave)
+                    .register(meterRegistry));
+        }
+        return resumo;
+    }
+}
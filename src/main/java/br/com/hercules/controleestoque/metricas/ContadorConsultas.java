@@ -0,0 +1,26 @@
+package br.com.hercules.controleestoque.metricas;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Conta os comandos SQL preparados pelo Hibernate na thread atual. Um comando enviado em batch
+ * conta uma vez, independentemente do número de linhas.
+ */
+public class ContadorConsultas implements StatementInspector {
+
+    private static final ThreadLocal<int[]> CONTADOR = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        CONTADOR.get()[0]++;
+        return sql;
+    }
+
+    static void zerar() {
+        CONTADOR.get()[0] = 0;
+    }
+
+    static int total() {
+        return CONTADOR.get()[0];
+    }
+}
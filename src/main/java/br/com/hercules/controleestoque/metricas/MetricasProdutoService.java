@@ -0,0 +1,88 @@
+package br.com.hercules.controleestoque.metricas;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registra o tempo de cada método do {@code ProdutoService} no timer {@value #METRICA}, com as
+ * tags {@code metodo} e {@code excecao}.
+ * <p>
+ * Os timers são criados uma vez por método (e por tipo de exceção) e guardados em mapa, então
+ * uma chamada não monta tags nem consulta o registry. O aspecto fica por fora do cache e da
+ * transação, medindo o tempo que o chamador de fato espera.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class MetricasProdutoService {
+
+    public static final String METRICA = "estoque.produto.servico";
+
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<Method, TimersMetodo> timersPorMetodo = new ConcurrentHashMap<>();
+
+    public MetricasProdutoService(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(public * br.com.hercules.controleestoque.service.ProdutoService+.*(..))")
+    public Object medir(ProceedingJoinPoint joinPoint) throws Throwable {
+        TimersMetodo timers = timersDe(((MethodSignature) joinPoint.getSignature()).getMethod());
+        long inicio = System.nanoTime();
+        try {
+            Object resultado = joinPoint.proceed();
+            timers.sucesso.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            return resultado;
+        } catch (Throwable ex) {
+            timers.falha(ex.getClass()).record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            throw ex;
+        }
+    }
+
+    private TimersMetodo timersDe(Method metodo) {
+        TimersMetodo timers = timersPorMetodo.get(metodo);
+        if (timers == null) {
+            timers = timersPorMetodo.computeIfAbsent(metodo, chave -> new TimersMetodo(chave.getName()));
+        }
+        return timers;
+    }
+
+    private final class TimersMetodo {
+
+        private final String metodo;
+
+        private final Timer sucesso;
+
+        private final ConcurrentMap<Class<?>, Timer> falhas = new ConcurrentHashMap<>();
+
+        TimersMetodo(String metodo) {
+            this.metodo = metodo;
+            this.sucesso = timer("none");
+        }
+
+        Timer falha(Class<?> excecao) {
+            return falhas.computeIfAbsent(excecao, tipo -> timer(tipo.getSimpleName()));
+        }
+
+        private Timer timer(String excecao) {
+            return Timer.builder(METRICA)
+                    .description("Tempo dos métodos do ProdutoService")
+                    .tag("metodo", metodo)
+                    .tag("excecao", excecao)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package br.com.hercules.controleestoque.model;
+
+import java.time.Instant;
+
+/**
+ * Emitido quando um produto passa a ficar abaixo do ponto de reposição ou volta a ficar acima dele.
+ */
+public record AlertaEstoque(Tipo tipo, Long produtoId, String descricao, int quantidade, int pontoReposicao, Instant instante) {
+
+    public enum Tipo {
+        ABAIXO_DO_PONTO_DE_REPOSICAO,
+        NORMALIZADO
+    }
+}
@@ -0,0 +1,11 @@
+package br.com.hercules.controleestoque.model;
+
+/**
+ * Campos alterados por uma atualização parcial; {@code null} significa que o campo não foi alterado.
+ */
+public record AlteracaoParcialProduto(String descricao, Integer quantidade, Double preco, Integer pontoReposicao) {
+
+    public boolean vazia() {
+        return descricao == null && quantidade == null && preco == null && pontoReposicao == null;
+    }
+}
@@ -0,0 +1,16 @@
+package br.com.hercules.controleestoque.model;
+
+import br.com.hercules.controleestoque.event.ProdutoAlteradoEvent;
+
+import java.time.Instant;
+
+/**
+ * Entrada do feed de alterações de produtos.
+ *
+ * @param sequencia posição no feed, usada como id do evento SSE
+ * @param produto   estado após a alteração; {@code null} na remoção e nas atualizações parciais
+ * @param parcial   campos alterados por uma atualização parcial; {@code null} nos demais casos
+ */
+public record AlteracaoProduto(long sequencia, ProdutoAlteradoEvent.Tipo tipo, Long id, Produto produto,
+                               AlteracaoParcialProduto parcial, Instant instante) {
+}
@@ -0,0 +1,38 @@
+package br.com.hercules.controleestoque.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+
+/**
+ * Local físico de estoque. A quantidade de cada {@link Produto} no depósito fica em {@link EstoqueDeposito}.
+ */
+@Entity
+public class Deposito {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "deposito_seq")
+    @SequenceGenerator(name = "deposito_seq", sequenceName = "deposito_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, unique = true)
+    private String nome;
+
+    protected Deposito() {
+    }
+
+    public Deposito(String nome) {
+        this.nome = nome;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+}
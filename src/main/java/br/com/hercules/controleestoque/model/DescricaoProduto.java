@@ -0,0 +1,11 @@
+package br.com.hercules.controleestoque.model;
+
+/**
+ * Projeção somente leitura com o id e a descrição de um {@link Produto}.
+ */
+public interface DescricaoProduto {
+
+    Long getId();
+
+    String getDescricao();
+}
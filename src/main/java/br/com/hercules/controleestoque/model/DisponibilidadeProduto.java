@@ -0,0 +1,11 @@
+package br.com.hercules.controleestoque.model;
+
+/**
+ * Estoque de um produto descontadas as reservas ativas.
+ */
+public record DisponibilidadeProduto(Long produtoId, int quantidade, int reservada, int disponivel) {
+
+    public DisponibilidadeProduto(Long produtoId, int quantidade, int reservada) {
+        this(produtoId, quantidade, reservada, quantidade - reservada);
+    }
+}
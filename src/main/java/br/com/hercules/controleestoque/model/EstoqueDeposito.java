@@ -0,0 +1,49 @@
+package br.com.hercules.controleestoque.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+
+import java.io.Serializable;
+
+/**
+ * Quantidade de um {@link Produto} em um {@link Deposito}. A soma das quantidades de um produto
+ * nos depósitos não é calculada na leitura: cada entrada ou saída ajusta também o
+ * {@link TotalDepositosProduto}.
+ */
+@Entity
+@IdClass(EstoqueDeposito.Chave.class)
+public class EstoqueDeposito {
+
+    @Id
+    private Long depositoId;
+
+    @Id
+    private Long produtoId;
+
+    private int quantidade;
+
+    protected EstoqueDeposito() {
+    }
+
+    public EstoqueDeposito(Long depositoId, Long produtoId, int quantidade) {
+        this.depositoId = depositoId;
+        this.produtoId = produtoId;
+        this.quantidade = quantidade;
+    }
+
+    public Long getDepositoId() {
+        return depositoId;
+    }
+
+    public Long getProdutoId() {
+        return produtoId;
+    }
+
+    public int getQuantidade() {
+        return quantidade;
+    }
+
+    public record Chave(Long depositoId, Long produtoId) implements Serializable {
+    }
+}
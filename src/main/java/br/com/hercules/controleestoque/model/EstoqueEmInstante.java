@@ -0,0 +1,11 @@
+package br.com.hercules.controleestoque.model;
+
+import java.time.Instant;
+
+/**
+ * Quantidade de um produto em um instante passado, segundo o livro de estoque.
+ *
+ * @param registradoEm instante do lançamento ou da fotografia de onde a quantidade foi tirada
+ */
+public record EstoqueEmInstante(Long produtoId, Instant em, int quantidade, Instant registradoEm) {
+}
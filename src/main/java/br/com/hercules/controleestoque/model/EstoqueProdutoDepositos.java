@@ -0,0 +1,12 @@
+package br.com.hercules.controleestoque.model;
+
+import java.util.List;
+
+/**
+ * Estoque de um {@link Produto} por depósito. {@code total} é a soma das quantidades nos depósitos,
+ * mantida a cada entrada e saída ({@link TotalDepositosProduto}); {@code quantidadeProduto} é a
+ * quantidade do produto, que também muda por caminhos sem depósito (PUT, PATCH, movimentos, reservas,
+ * importação).
+ */
+public record EstoqueProdutoDepositos(Long produtoId, int total, int quantidadeProduto, List<EstoqueDeposito> depositos) {
+}
@@ -0,0 +1,27 @@
+package br.com.hercules.controleestoque.model;
+
+/**
+ * Filtros da busca de produtos; {@code null} significa sem filtro no campo. Os intervalos são
+ * inclusivos e a descrição é buscada como trecho, sem diferenciar maiúsculas.
+ */
+public record FiltroProdutos(String descricao, Double precoMinimo, Double precoMaximo,
+                             Integer quantidadeMinima, Integer quantidadeMaxima,
+                             Ordenacao ordenacao, boolean decrescente, int limite) {
+
+    public enum Ordenacao {
+        ID("id"),
+        DESCRICAO("descricao"),
+        PRECO("preco"),
+        QUANTIDADE("quantidade");
+
+        private final String atributo;
+
+        Ordenacao(String atributo) {
+            this.atributo = atributo;
+        }
+
+        public String atributo() {
+            return atributo;
+        }
+    }
+}
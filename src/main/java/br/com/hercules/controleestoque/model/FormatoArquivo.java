@@ -0,0 +1,9 @@
+package br.com.hercules.controleestoque.model;
+
+/**
+ * Formatos de arquivo aceitos na importação e na exportação de produtos.
+ */
+public enum FormatoArquivo {
+    CSV,
+    NDJSON
+}
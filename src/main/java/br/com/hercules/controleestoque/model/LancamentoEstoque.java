@@ -0,0 +1,90 @@
+package br.com.hercules.controleestoque.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+
+import java.time.Instant;
+
+/**
+ * Lançamento do livro de estoque: uma alteração da quantidade de um {@link Produto}, nunca
+ * alterada nem removida depois de gravada. Guarda a quantidade resultante, e não só a variação,
+ * porque atualizações parciais não conhecem a quantidade anterior; a variação fica {@code null}
+ * nesses casos. A {@code versao} é a do produto depois da alteração e desempata lançamentos do
+ * mesmo produto com o mesmo {@code ocorridoEm}.
+ */
+@Entity
+public class LancamentoEstoque {
+
+    public enum Tipo {
+        CRIACAO,
+        ATUALIZACAO,
+        REMOCAO
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "lancamento_estoque_seq")
+    @SequenceGenerator(name = "lancamento_estoque_seq", sequenceName = "lancamento_estoque_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long produtoId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Tipo tipo;
+
+    private Integer variacao;
+
+    private int quantidade;
+
+    @Column(nullable = false)
+    private Instant ocorridoEm;
+
+    private Long versao;
+
+    protected LancamentoEstoque() {
+    }
+
+    public LancamentoEstoque(Long produtoId, Tipo tipo, Integer variacao, int quantidade, Instant ocorridoEm, Long versao) {
+        this.produtoId = produtoId;
+        this.tipo = tipo;
+        this.variacao = variacao;
+        this.quantidade = quantidade;
+        this.ocorridoEm = ocorridoEm;
+        this.versao = versao;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getProdutoId() {
+        return produtoId;
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    public Integer getVariacao() {
+        return variacao;
+    }
+
+    public int getQuantidade() {
+        return quantidade;
+    }
+
+    public Instant getOcorridoEm() {
+        return ocorridoEm;
+    }
+
+    public Long getVersao() {
+        return versao;
+    }
+}
@@ -0,0 +1,16 @@
+package br.com.hercules.controleestoque.model;
+
+/**
+ * Entrada ou saída de unidades no estoque de um {@link Produto}.
+ */
+public record MovimentoEstoque(Tipo tipo, int quantidade) {
+
+    public enum Tipo {
+        ENTRADA,
+        SAIDA
+    }
+
+    public int delta() {
+        return tipo == Tipo.SAIDA ? -quantidade : quantidade;
+    }
+}
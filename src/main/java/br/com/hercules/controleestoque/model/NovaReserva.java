@@ -0,0 +1,7 @@
+package br.com.hercules.controleestoque.model;
+
+/**
+ * Pedido de reserva: quantidade e, opcionalmente, por quantos segundos segurá-la.
+ */
+public record NovaReserva(int quantidade, Long ttlSegundos) {
+}
@@ -0,0 +1,7 @@
+package br.com.hercules.controleestoque.model;
+
+/**
+ * Pedido de criação de um {@link Deposito}.
+ */
+public record NovoDeposito(String nome) {
+}
@@ -0,0 +1,4 @@
+package br.com.hercules.controleestoque.model;
+
+public record PrecoProduto(Long id, Double preco) {
+}
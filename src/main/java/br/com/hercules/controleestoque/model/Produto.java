@@ -1,12 +1,18 @@
 package br.com.hercules.controleestoque.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 
 @Entity
+@DynamicUpdate
 public class Produto {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "produto_seq")
+    @SequenceGenerator(name = "produto_seq", sequenceName = "produto_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -16,6 +22,23 @@ public class Produto {
 
     private double preco;
 
+    @Column(nullable = false)
+    private int pontoReposicao;
+
+    /**
+     * Unidades presas em reservas ativas. Só muda pelos UPDATEs de reserva do repositório, nunca
+     * pela entidade, para que um PUT não sobrescreva reservas feitas em paralelo.
+     */
+    @Column(nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    @JsonIgnore
+    private int quantidadeReservada;
+
+    @Version
+    @Column(nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long versao;
+
     public Produto() {
     }
 
@@ -26,6 +49,13 @@ public class Produto {
         this.id = id;
     }
 
+    public Produto(Produto outro) {
+        this(outro.id, outro.descricao, outro.quantidade, outro.preco);
+        this.pontoReposicao = outro.pontoReposicao;
+        this.quantidadeReservada = outro.quantidadeReservada;
+        this.versao = outro.versao;
+    }
+
     public Long getId() {
         return id;
     }
@@ -57,4 +87,24 @@ public class Produto {
     public void setPreco(double preco) {
         this.preco = preco;
     }
+
+    public int getPontoReposicao() {
+        return pontoReposicao;
+    }
+
+    public void setPontoReposicao(int pontoReposicao) {
+        this.pontoReposicao = pontoReposicao;
+    }
+
+    public int getQuantidadeReservada() {
+        return quantidadeReservada;
+    }
+
+    public Long getVersao() {
+        return versao;
+    }
+
+    public void setVersao(Long versao) {
+        this.versao = versao;
+    }
 }
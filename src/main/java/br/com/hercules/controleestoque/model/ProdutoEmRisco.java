@@ -0,0 +1,30 @@
+package br.com.hercules.controleestoque.model;
+
+import java.util.Comparator;
+
+/**
+ * Produto com quantidade abaixo do ponto de reposição.
+ */
+public record ProdutoEmRisco(Long id, String descricao, int quantidade, int pontoReposicao, Long versao) {
+
+    /**
+     * Do mais para o menos crítico: menor cobertura do ponto de reposição, depois maior falta.
+     */
+    public static final Comparator<ProdutoEmRisco> CRITICIDADE = Comparator
+            .comparingDouble(ProdutoEmRisco::cobertura)
+            .thenComparing(Comparator.comparingInt(ProdutoEmRisco::falta).reversed())
+            .thenComparing(ProdutoEmRisco::id);
+
+    public static ProdutoEmRisco de(Produto produto) {
+        return new ProdutoEmRisco(produto.getId(), produto.getDescricao(), produto.getQuantidade(),
+                produto.getPontoReposicao(), produto.getVersao());
+    }
+
+    public int falta() {
+        return pontoReposicao - quantidade;
+    }
+
+    public double cobertura() {
+        return (double) quantidade / pontoReposicao;
+    }
+}
@@ -0,0 +1,19 @@
+package br.com.hercules.controleestoque.model;
+
+import java.util.List;
+
+/**
+ * Resumo de uma importação de produtos.
+ *
+ * @param linhasLidas         linhas de dados lidas (sem cabeçalho e linhas em branco)
+ * @param importados          produtos criados
+ * @param rejeitados          linhas rejeitadas
+ * @param rejeicoes           detalhes das primeiras rejeições
+ * @param rejeicoesTruncadas  {@code true} quando houve mais rejeições do que as detalhadas
+ */
+public record RelatorioImportacao(long linhasLidas, long importados, long rejeitados,
+                                  List<Rejeicao> rejeicoes, boolean rejeicoesTruncadas) {
+
+    public record Rejeicao(long linha, String motivo) {
+    }
+}
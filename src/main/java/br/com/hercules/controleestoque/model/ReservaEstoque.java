@@ -0,0 +1,61 @@
+package br.com.hercules.controleestoque.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Unidades de um {@link Produto} separadas até {@link #getExpiraEm()}, sem baixar a quantidade.
+ * O id é gerado pela aplicação, para que criar a reserva seja um único INSERT.
+ */
+@Entity
+public class ReservaEstoque {
+
+    @Id
+    private UUID id;
+
+    @Column(nullable = false)
+    private Long produtoId;
+
+    private int quantidade;
+
+    @Column(nullable = false)
+    private Instant criadaEm;
+
+    @Column(nullable = false)
+    private Instant expiraEm;
+
+    protected ReservaEstoque() {
+    }
+
+    public ReservaEstoque(UUID id, Long produtoId, int quantidade, Instant criadaEm, Instant expiraEm) {
+        this.id = id;
+        this.produtoId = produtoId;
+        this.quantidade = quantidade;
+        this.criadaEm = criadaEm;
+        this.expiraEm = expiraEm;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public Long getProdutoId() {
+        return produtoId;
+    }
+
+    public int getQuantidade() {
+        return quantidade;
+    }
+
+    public Instant getCriadaEm() {
+        return criadaEm;
+    }
+
+    public Instant getExpiraEm() {
+        return expiraEm;
+    }
+}
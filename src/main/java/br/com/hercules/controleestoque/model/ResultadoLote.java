@@ -0,0 +1,29 @@
+package br.com.hercules.controleestoque.model;
+
+/**
+ * Resultado do processamento de um item de uma operação em lote.
+ *
+ * @param indice   posição do item na requisição
+ * @param id       id do produto, quando conhecido
+ * @param status   resultado do item
+ * @param mensagem detalhe do erro, quando houver
+ */
+public record ResultadoLote(int indice, Long id, Status status, String mensagem) {
+
+    public enum Status {
+        CRIADO,
+        ATUALIZADO,
+        REMOVIDO,
+        INVALIDO,
+        NAO_ENCONTRADO,
+        ERRO
+    }
+
+    public static ResultadoLote sucesso(int indice, Long id, Status status) {
+        return new ResultadoLote(indice, id, status, null);
+    }
+
+    public static ResultadoLote falha(int indice, Long id, Status status, String mensagem) {
+        return new ResultadoLote(indice, id, status, mensagem);
+    }
+}
@@ -0,0 +1,17 @@
+package br.com.hercules.controleestoque.model;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Totais do estoque.
+ *
+ * @param valorTotal                soma de quantidade × preço, com o preço arredondado para centavos
+ * @param reconciliadoEm            última conferência dos totais com o banco, ou {@code null} se ainda não houve
+ * @param pendenteReconciliacao     verdadeiro quando houve alterações cujo efeito nos totais só é
+ *                                  conhecido na próxima conferência com o banco
+ */
+public record ResumoEstoque(long totalProdutos, long quantidadeTotal, BigDecimal valorTotal,
+                            long produtosAbaixoDoPontoDeReposicao, long produtosSemEstoque,
+                            Instant reconciliadoEm, boolean pendenteReconciliacao) {
+}
@@ -0,0 +1,8 @@
+package br.com.hercules.controleestoque.model;
+
+/**
+ * Projeção somente leitura de um {@link Produto} para listagens, montada direto do resultado da
+ * consulta, sem entidade gerenciada.
+ */
+public record ResumoProduto(Long id, String descricao, int quantidade, double preco) {
+}
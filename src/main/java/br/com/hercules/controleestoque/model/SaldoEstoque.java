@@ -0,0 +1,57 @@
+package br.com.hercules.controleestoque.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * Fotografia da quantidade de um {@link Produto} em um instante, tirada a partir dos
+ * {@link LancamentoEstoque lançamentos} anteriores a ele. {@code removido} indica que o produto
+ * já tinha sido removido no instante.
+ */
+@Entity
+@IdClass(SaldoEstoque.Chave.class)
+public class SaldoEstoque {
+
+    @Id
+    private Long produtoId;
+
+    @Id
+    private Instant instante;
+
+    private int quantidade;
+
+    private boolean removido;
+
+    protected SaldoEstoque() {
+    }
+
+    public SaldoEstoque(Long produtoId, Instant instante, int quantidade, boolean removido) {
+        this.produtoId = produtoId;
+        this.instante = instante;
+        this.quantidade = quantidade;
+        this.removido = removido;
+    }
+
+    public Long getProdutoId() {
+        return produtoId;
+    }
+
+    public Instant getInstante() {
+        return instante;
+    }
+
+    public int getQuantidade() {
+        return quantidade;
+    }
+
+    public boolean isRemovido() {
+        return removido;
+    }
+
+    public record Chave(Long produtoId, Instant instante) implements Serializable {
+    }
+}
@@ -0,0 +1,17 @@
+package br.com.hercules.controleestoque.model;
+
+/**
+ * Projeção com os totais do estoque calculados pelo banco. Valores monetários em centavos.
+ */
+public interface TotaisEstoque {
+
+    Long getProdutos();
+
+    Long getQuantidade();
+
+    Long getValorCentavos();
+
+    Long getAbaixoDoPontoDeReposicao();
+
+    Long getSemEstoque();
+}
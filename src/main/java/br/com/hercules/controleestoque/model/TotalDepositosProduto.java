@@ -0,0 +1,33 @@
+package br.com.hercules.controleestoque.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+
+/**
+ * Soma das quantidades de um {@link Produto} em todos os depósitos, ajustada na mesma transação de
+ * cada entrada ou saída em depósito. Transferências não a alteram.
+ */
+@Entity
+public class TotalDepositosProduto {
+
+    @Id
+    private Long produtoId;
+
+    private int quantidade;
+
+    protected TotalDepositosProduto() {
+    }
+
+    public TotalDepositosProduto(Long produtoId, int quantidade) {
+        this.produtoId = produtoId;
+        this.quantidade = quantidade;
+    }
+
+    public Long getProdutoId() {
+        return produtoId;
+    }
+
+    public int getQuantidade() {
+        return quantidade;
+    }
+}
@@ -0,0 +1,7 @@
+package br.com.hercules.controleestoque.model;
+
+/**
+ * Transferência de unidades de um {@link Produto} entre dois {@link Deposito depósitos}.
+ */
+public record TransferenciaEstoque(Long produtoId, Long origemId, Long destinoId, int quantidade) {
+}
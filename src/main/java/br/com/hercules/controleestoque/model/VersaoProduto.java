@@ -0,0 +1,11 @@
+package br.com.hercules.controleestoque.model;
+
+/**
+ * Projeção somente leitura com o id e a versão de um {@link Produto}.
+ */
+public interface VersaoProduto {
+
+    Long getId();
+
+    Long getVersao();
+}
@@ -0,0 +1,31 @@
+package br.com.hercules.controleestoque.repository;
+
+import br.com.hercules.controleestoque.model.AlteracaoParcialProduto;
+import br.com.hercules.controleestoque.model.Produto;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+
+/**
+ * UPDATEs diretos do produto, sem carregar a entidade, que devolvem o estado anterior da linha na
+ * mesma ida ao banco, para que o evento da alteração leve a diferença sem uma leitura antes.
+ */
+public interface AtualizacaoDiretaProdutoRepository {
+
+    /**
+     * Altera só as colunas informadas e incrementa a versão, desde que a versão seja
+     * {@code versaoEsperada}, quando informada, e que a nova quantidade não fique abaixo da reservada.
+     *
+     * @return o produto antes da alteração, ou vazio se nenhuma linha foi alterada
+     */
+    Optional<Produto> atualizarColunas(Long id, AlteracaoParcialProduto alteracao, Long versaoEsperada);
+
+    /**
+     * Troca o preço de cada produto de {@code precos} e incrementa a versão. As linhas são
+     * bloqueadas em ordem de id, para não formar deadlock com outros lotes.
+     *
+     * @return o estado anterior de cada produto alterado, por id; os ids ausentes não existem
+     */
+    Map<Long, Produto> reprecificar(SortedMap<Long, Double> precos);
+}
@@ -0,0 +1,124 @@
+package br.com.hercules.controleestoque.repository;
+
+import br.com.hercules.controleestoque.model.AlteracaoParcialProduto;
+import br.com.hercules.controleestoque.model.Produto;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+
+/**
+ * No PostgreSQL o estado anterior vem de uma CTE que lê e bloqueia as linhas e é devolvido pelo
+ * {@code RETURNING} do próprio UPDATE. Nos demais bancos (o H2 dos testes) vem da tabela
+ * {@code OLD TABLE} sobre o UPDATE. Em ambos é um único comando por UPDATE.
+ */
+public class AtualizacaoDiretaProdutoRepositoryImpl implements AtualizacaoDiretaProdutoRepository {
+
+    private static final RowMapper<Produto> PRODUTO = (rs, linha) -> {
+        Produto produto = new Produto(rs.getLong("id"), rs.getString("descricao"), rs.getInt("quantidade"), rs.getDouble("preco"));
+        produto.setPontoReposicao(rs.getInt("ponto_reposicao"));
+        produto.setVersao(rs.getLong("versao"));
+        return produto;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Boolean bancoPostgresql;
+
+    public AtualizacaoDiretaProdutoRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Optional<Produto> atualizarColunas(Long id, AlteracaoParcialProduto alteracao, Long versaoEsperada) {
+        StringBuilder atribuicoes = new StringBuilder();
+        List<Object> valores = new ArrayList<>();
+        if (alteracao.descricao() != null) {
+            atribuicoes.append("descricao = ?, ");
+            valores.add(alteracao.descricao());
+        }
+        if (alteracao.quantidade() != null) {
+            atribuicoes.append("quantidade = ?, ");
+            valores.add(alteracao.quantidade());
+        }
+        if (alteracao.preco() != null) {
+            atribuicoes.append("preco = ?, ");
+            valores.add(alteracao.preco());
+        }
+        if (alteracao.pontoReposicao() != null) {
+            atribuicoes.append("ponto_reposicao = ?, ");
+            valores.add(alteracao.pontoReposicao());
+        }
+        atribuicoes.append("versao = p.versao + 1");
+        StringBuilder condicoes = new StringBuilder();
+        List<Object> parametrosCondicoes = new ArrayList<>();
+        if (versaoEsperada != null) {
+            condicoes.append(" and p.versao = ?");
+            parametrosCondicoes.add(versaoEsperada);
+        }
+        if (alteracao.quantidade() != null) {
+            condicoes.append(" and p.quantidade_reservada <= ?");
+            parametrosCondicoes.add(alteracao.quantidade());
+        }
+        List<Object> parametros = new ArrayList<>();
+        String sql;
+        if (postgresql()) {
+            sql = "with anterior as (select " + colunas("") + " from produto where id = ? for update) " +
+                    "update produto p set " + atribuicoes + " from anterior a where p.id = a.id" + condicoes +
+                    " returning " + colunas("a.");
+            parametros.add(id);
+            parametros.addAll(valores);
+        } else {
+            sql = "select " + colunas("") + " from old table (update produto p set " + atribuicoes +
+                    " where p.id = ?" + condicoes + ")";
+            parametros.addAll(valores);
+            parametros.add(id);
+        }
+        parametros.addAll(parametrosCondicoes);
+        return jdbcTemplate.query(sql, PRODUTO, parametros.toArray()).stream().findFirst();
+    }
+
+    @Override
+    public Map<Long, Produto> reprecificar(SortedMap<Long, Double> precos) {
+        Map<Long, Produto> anteriores = new HashMap<>(precos.size() * 2);
+        if (precos.isEmpty()) {
+            return anteriores;
+        }
+        if (postgresql()) {
+            String sql = "with novos as (select * from unnest(?::bigint[], ?::float8[]) as n (id, preco)), " +
+                    "anterior as (select " + colunas("p.") + " from produto p join novos n on n.id = p.id order by p.id for update of p) " +
+                    "update produto p set preco = n.preco, versao = p.versao + 1 " +
+                    "from anterior a join novos n on n.id = a.id where p.id = a.id returning " + colunas("a.");
+            Long[] ids = precos.keySet().toArray(Long[]::new);
+            Double[] valores = precos.values().toArray(Double[]::new);
+            jdbcTemplate.query(sql, PRODUTO, ids, valores).forEach(produto -> anteriores.put(produto.getId(), produto));
+            return anteriores;
+        }
+        String sql = "select " + colunas("") + " from old table " +
+                "(update produto p set preco = ?, versao = p.versao + 1 where p.id = ?)";
+        precos.forEach((id, preco) -> jdbcTemplate.query(sql, PRODUTO, preco, id)
+                .forEach(produto -> anteriores.put(produto.getId(), produto)));
+        return anteriores;
+    }
+
+    private static String colunas(String prefixo) {
+        return prefixo + "id, " + prefixo + "descricao, " + prefixo + "quantidade, " + prefixo + "preco, "
+                + prefixo + "ponto_reposicao, " + prefixo + "versao";
+    }
+
+    private boolean postgresql() {
+        Boolean postgresql = bancoPostgresql;
+        if (postgresql == null) {
+            String banco = jdbcTemplate.execute((ConnectionCallback<String>) conexao -> conexao.getMetaData().getDatabaseProductName());
+            postgresql = "PostgreSQL".equals(banco);
+            bancoPostgresql = postgresql;
+        }
+        return postgresql;
+    }
+}
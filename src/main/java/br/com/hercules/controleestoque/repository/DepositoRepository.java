@@ -0,0 +1,11 @@
+package br.com.hercules.controleestoque.repository;
+
+import br.com.hercules.controleestoque.model.Deposito;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DepositoRepository extends JpaRepository<Deposito, Long> {
+
+    public boolean existsByNome(String nome);
+}
@@ -0,0 +1,34 @@
+package br.com.hercules.controleestoque.repository;
+
+import br.com.hercules.controleestoque.model.EstoqueDeposito;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Toda consulta filtra por {@code depositoId} ou por {@code produtoId}: no PostgreSQL, a primeira
+ * lê só a partição do depósito.
+ */
+@Repository
+public interface EstoqueDepositoRepository extends JpaRepository<EstoqueDeposito, EstoqueDeposito.Chave> {
+
+    public List<EstoqueDeposito> findByDepositoIdAndProdutoIdGreaterThanOrderByProdutoIdAsc(Long depositoId, Long produtoId,
+                                                                                           Limit limite);
+
+    public List<EstoqueDeposito> findByProdutoIdOrderByDepositoIdAsc(Long produtoId);
+
+    /**
+     * Soma {@code delta} à quantidade do produto no depósito em um único UPDATE, desde que o
+     * resultado não fique negativo. Retorna 0 quando a linha não existe ou o estoque é insuficiente.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update EstoqueDeposito e set e.quantidade = e.quantidade + :delta " +
+            "where e.depositoId = :depositoId and e.produtoId = :produtoId and e.quantidade + :delta >= 0")
+    public int ajustarQuantidade(@Param("depositoId") Long depositoId, @Param("produtoId") Long produtoId,
+                                 @Param("delta") int delta);
+}
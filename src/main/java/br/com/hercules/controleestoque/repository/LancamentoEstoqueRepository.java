@@ -0,0 +1,25 @@
+package br.com.hercules.controleestoque.repository;
+
+import br.com.hercules.controleestoque.model.LancamentoEstoque;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface LancamentoEstoqueRepository extends JpaRepository<LancamentoEstoque, Long> {
+
+    /**
+     * Lançamentos do produto em {@code (desde, ate]}, do mais recente para o mais antigo; no mesmo
+     * instante, o de maior versão vem primeiro. O intervalo limita a consulta às partições de
+     * {@code ocorrido_em} que o cobrem.
+     */
+    @Query("select l from LancamentoEstoque l where l.produtoId = :produtoId and l.ocorridoEm > :desde " +
+            "and l.ocorridoEm <= :ate order by l.ocorridoEm desc, l.versao desc nulls last, l.id desc")
+    public List<LancamentoEstoque> findRecentes(@Param("produtoId") Long produtoId, @Param("desde") Instant desde,
+                                                @Param("ate") Instant ate, Limit limite);
+}
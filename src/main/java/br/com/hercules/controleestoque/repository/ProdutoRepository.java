@@ -1,13 +1,118 @@
 package br.com.hercules.controleestoque.repository;
 
+import br.com.hercules.controleestoque.model.DescricaoProduto;
+import br.com.hercules.controleestoque.model.DisponibilidadeProduto;
 import br.com.hercules.controleestoque.model.Produto;
+import br.com.hercules.controleestoque.model.TotaisEstoque;
+import br.com.hercules.controleestoque.model.VersaoProduto;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ProdutoRepository  extends JpaRepository<Produto, Long> {
+public interface ProdutoRepository  extends JpaRepository<Produto, Long>, AtualizacaoDiretaProdutoRepository {
 
-    public List<Produto> findByDescricaoContainingIgnoreCase(String descricao);
+    public List<Produto> findByDescricaoContainingIgnoreCase(String descricao, Limit limite);
+
+    public List<Produto> findByIdGreaterThanOrderByIdAsc(Long id, Limit limite);
+
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select p from Produto p order by p.id")
+    public Stream<Produto> streamAllOrderById();
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select p.id as id, p.descricao as descricao from Produto p")
+    public Stream<DescricaoProduto> streamDescricoes();
+
+    @Query("select p from Produto p where p.quantidade < p.pontoReposicao")
+    public List<Produto> findAbaixoDoPontoDeReposicao();
+
+    /**
+     * O preço é arredondado para centavos com {@code round} sobre o double, que arredonda metades
+     * para o par como o {@code Math.rint} usado nos totais incrementais.
+     */
+    @Query(nativeQuery = true, value = "select count(*) as produtos, " +
+            "coalesce(sum(cast(quantidade as bigint)), 0) as quantidade, " +
+            "coalesce(sum(cast(quantidade as bigint) * cast(round(preco * 100) as bigint)), 0) as valorCentavos, " +
+            "coalesce(sum(case when quantidade < ponto_reposicao then 1 else 0 end), 0) as abaixoDoPontoDeReposicao, " +
+            "coalesce(sum(case when quantidade = 0 then 1 else 0 end), 0) as semEstoque " +
+            "from produto")
+    public TotaisEstoque calcularTotais();
+
+    @Query("select p.id from Produto p where p.id in :ids")
+    public List<Long> findIdsExistentes(@Param("ids") List<Long> ids);
+
+    @Query("select p.id as id, p.versao as versao from Produto p where p.id in :ids")
+    public List<VersaoProduto> findVersoes(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Lê e bloqueia o produto até o fim da transação, para que as alterações feitas por UPDATE
+     * direto conheçam o estado anterior sem que outra transação o mude entre a leitura e o UPDATE.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from Produto p where p.id = :id")
+    public Optional<Produto> findByIdParaAlterar(@Param("id") Long id);
+
+    /**
+     * Como {@link #findByIdParaAlterar}, para vários produtos, bloqueados em ordem de id para não
+     * formar deadlock com outros lotes.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from Produto p where p.id in :ids order by p.id")
+    public List<Produto> findAllParaAlterar(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Soma {@code delta} à quantidade em um único UPDATE, sem ler a entidade, desde que o
+     * resultado não fique negativo nem, nas saídas, abaixo do que está reservado, incrementando a
+     * versão. Retorna 0 quando o produto não existe ou o estoque é insuficiente.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Produto p set p.quantidade = p.quantidade + :delta, p.versao = p.versao + 1 " +
+            "where p.id = :id and p.quantidade + :delta >= 0 " +
+            "and (:delta >= 0 or p.quantidade + :delta >= p.quantidadeReservada)")
+    public int ajustarQuantidade(@Param("id") Long id, @Param("delta") int delta);
+
+    @Query("select new br.com.hercules.controleestoque.model.DisponibilidadeProduto(p.id, p.quantidade, p.quantidadeReservada) " +
+            "from Produto p where p.id = :id")
+    public Optional<DisponibilidadeProduto> findDisponibilidade(@Param("id") Long id);
+
+    /**
+     * Prende {@code quantidade} unidades se houver disponível. Não altera a versão: a quantidade do
+     * produto não muda. Retorna 0 quando o produto não existe ou o disponível é insuficiente.
+     */
+    @Modifying
+    @Query("update Produto p set p.quantidadeReservada = p.quantidadeReservada + :quantidade " +
+            "where p.id = :id and p.quantidade - p.quantidadeReservada >= :quantidade")
+    public int reservar(@Param("id") Long id, @Param("quantidade") int quantidade);
+
+    @Modifying
+    @Query("update Produto p set p.quantidadeReservada = p.quantidadeReservada - :quantidade where p.id = :id")
+    public int liberarReserva(@Param("id") Long id, @Param("quantidade") int quantidade);
+
+    /**
+     * Converte unidades reservadas em saída: baixa quantidade e reserva juntas, incrementando a versão.
+     * As atualizações do produto não deixam a quantidade abaixo do reservado, então o 0 aqui indica
+     * uma reserva confirmada por outro caminho.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Produto p set p.quantidade = p.quantidade - :quantidade, " +
+            "p.quantidadeReservada = p.quantidadeReservada - :quantidade, p.versao = p.versao + 1 " +
+            "where p.id = :id and p.quantidade >= :quantidade")
+    public int confirmarReserva(@Param("id") Long id, @Param("quantidade") int quantidade);
 }
@@ -0,0 +1,43 @@
+package br.com.hercules.controleestoque.repository;
+
+import br.com.hercules.controleestoque.model.ReservaEstoque;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ReservaEstoqueRepository extends JpaRepository<ReservaEstoque, UUID> {
+
+    /**
+     * Remove a reserva se ela ainda não venceu. Quem remove a linha é quem ajusta o produto, então
+     * confirmação, cancelamento e expiração concorrentes não liberam a mesma reserva duas vezes.
+     */
+    @Modifying
+    @Query("delete from ReservaEstoque r where r.id = :id and r.expiraEm > :agora")
+    public int removerAtiva(@Param("id") UUID id, @Param("agora") Instant agora);
+
+    /**
+     * Bloqueia as reservas vencidas entre {@code ids}, para removê-las e devolver as unidades
+     * antes que uma confirmação concorrente as alcance.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from ReservaEstoque r where r.id in :ids and r.expiraEm <= :agora order by r.id")
+    public List<ReservaEstoque> bloquearVencidas(@Param("ids") Collection<UUID> ids, @Param("agora") Instant agora);
+
+    @Modifying
+    @Query("delete from ReservaEstoque r where r.id in :ids")
+    public int removerTodas(@Param("ids") Collection<UUID> ids);
+
+    @Query("select r.id from ReservaEstoque r where r.expiraEm <= :agora order by r.expiraEm")
+    public List<UUID> findIdsVencidos(@Param("agora") Instant agora, Limit limite);
+}
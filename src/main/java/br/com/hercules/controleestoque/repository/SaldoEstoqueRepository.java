@@ -0,0 +1,34 @@
+package br.com.hercules.controleestoque.repository;
+
+import br.com.hercules.controleestoque.model.SaldoEstoque;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+public interface SaldoEstoqueRepository extends JpaRepository<SaldoEstoque, SaldoEstoque.Chave> {
+
+    public Optional<SaldoEstoque> findFirstByProdutoIdAndInstanteLessThanEqualOrderByInstanteDesc(Long produtoId, Instant instante);
+
+    @Query("select max(s.instante) from SaldoEstoque s")
+    public Optional<Instant> findUltimoInstante();
+
+    /**
+     * Fotografa em {@code ate} a quantidade de cada produto com lançamentos em {@code (desde, ate]},
+     * tirada do último deles. Produtos sem lançamentos no intervalo continuam representados pela
+     * fotografia anterior.
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = "insert into saldo_estoque (produto_id, instante, quantidade, removido) " +
+            "select produto_id, :ate, quantidade, tipo = 'REMOCAO' from (" +
+            "select produto_id, quantidade, tipo, " +
+            "row_number() over (partition by produto_id order by ocorrido_em desc, versao desc nulls last, id desc) as ordem " +
+            "from lancamento_estoque where ocorrido_em > :desde and ocorrido_em <= :ate) ultimos " +
+            "where ordem = 1")
+    public int fotografar(@Param("desde") Instant desde, @Param("ate") Instant ate);
+}
@@ -0,0 +1,20 @@
+package br.com.hercules.controleestoque.repository;
+
+import br.com.hercules.controleestoque.model.TotalDepositosProduto;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TotalDepositosProdutoRepository extends JpaRepository<TotalDepositosProduto, Long> {
+
+    /**
+     * Soma {@code delta} ao total do produto nos depósitos em um único UPDATE. Retorna 0 quando o
+     * produto ainda não tem a linha do total.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update TotalDepositosProduto t set t.quantidade = t.quantidade + :delta where t.produtoId = :produtoId")
+    public int ajustarQuantidade(@Param("produtoId") Long produtoId, @Param("delta") int delta);
+}
@@ -0,0 +1,194 @@
+package br.com.hercules.controleestoque.reserva;
+
+import br.com.hercules.controleestoque.model.ReservaEstoque;
+import br.com.hercules.controleestoque.repository.ProdutoRepository;
+import br.com.hercules.controleestoque.repository.ReservaEstoqueRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Expira as reservas no vencimento sem consultar o banco: cada reserva criada entra em uma
+ * {@link DelayQueue}, e uma thread retira as vencidas em lotes e devolve as unidades ao disponível
+ * em uma transação por lote.
+ * <p>
+ * Na partida, todas as reservas ativas são carregadas na fila, inclusive as criadas por outras
+ * instâncias; a remoção com lock garante que cada reserva seja liberada uma única vez. Reservas de
+ * uma instância que caiu ficam para a próxima partida ou para a varredura periódica, que só olha
+ * as vencidas há mais de {@link #TOLERANCIA_VARREDURA} pelo índice de {@code expira_em}.
+ */
+@Component
+public class ExpiracaoReservas {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpiracaoReservas.class);
+
+    private static final int TAMANHO_LOTE = 500;
+
+    private static final Duration TOLERANCIA_VARREDURA = Duration.ofSeconds(30);
+
+    private static final Duration ESPERA_APOS_FALHA = Duration.ofSeconds(5);
+
+    private final DelayQueue<Vencimento> fila = new DelayQueue<>();
+
+    private final ReservaEstoqueRepository reservaRepository;
+
+    private final ProdutoRepository produtoRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Clock clock;
+
+    private final Counter expiradas;
+
+    private volatile Thread consumidor;
+
+    @Autowired
+    public ExpiracaoReservas(ReservaEstoqueRepository reservaRepository, ProdutoRepository produtoRepository,
+                             PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this(reservaRepository, produtoRepository, transactionManager, meterRegistry, Clock.systemUTC());
+    }
+
+    public ExpiracaoReservas(ReservaEstoqueRepository reservaRepository, ProdutoRepository produtoRepository,
+                             PlatformTransactionManager transactionManager, MeterRegistry meterRegistry, Clock clock) {
+        this.reservaRepository = reservaRepository;
+        this.produtoRepository = produtoRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+        this.expiradas = Counter.builder("estoque.reservas.expiradas")
+                .description("Reservas removidas por vencimento")
+                .register(meterRegistry);
+        Gauge.builder("estoque.reservas.agendadas", fila, DelayQueue::size)
+                .description("Reservas aguardando vencimento nesta instância")
+                .register(meterRegistry);
+    }
+
+    public void agendar(UUID id, Instant expiraEm) {
+        fila.put(new Vencimento(id, expiraEm.toEpochMilli()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        List<ReservaEstoque> ativas = transactionTemplate.execute(status -> reservaRepository.findAll());
+        if (ativas != null) {
+            ativas.forEach(reserva -> agendar(reserva.getId(), reserva.getExpiraEm()));
+        }
+        Thread thread = new Thread(this::consumir, "expiracao-reservas");
+        thread.setDaemon(true);
+        consumidor = thread;
+        thread.start();
+    }
+
+    @PreDestroy
+    public void parar() {
+        Thread thread = consumidor;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * Remove as reservas vencidas entre {@code ids} e devolve as unidades de cada produto, em ordem
+     * de id para que lotes concorrentes travem os produtos na mesma ordem.
+     *
+     * @return quantas reservas foram expiradas; as já confirmadas, canceladas ou ainda válidas são ignoradas
+     */
+    public int expirar(Collection<UUID> ids) {
+        Instant agora = clock.instant();
+        Integer total = transactionTemplate.execute(status -> {
+            List<ReservaEstoque> vencidas = reservaRepository.bloquearVencidas(ids, agora);
+            if (vencidas.isEmpty()) {
+                return 0;
+            }
+            reservaRepository.removerTodas(vencidas.stream().map(ReservaEstoque::getId).toList());
+            Map<Long, Integer> porProduto = new TreeMap<>();
+            for (ReservaEstoque reserva : vencidas) {
+                porProduto.merge(reserva.getProdutoId(), reserva.getQuantidade(), Integer::sum);
+            }
+            porProduto.forEach(produtoRepository::liberarReserva);
+            return vencidas.size();
+        });
+        int expiradasNoLote = total == null ? 0 : total;
+        expiradas.increment(expiradasNoLote);
+        return expiradasNoLote;
+    }
+
+    @Scheduled(fixedDelayString = "${estoque.reservas.varredura-ms:60000}", initialDelayString = "${estoque.reservas.varredura-ms:60000}")
+    public void varrerVencidas() {
+        List<UUID> ids = reservaRepository.findIdsVencidos(clock.instant().minus(TOLERANCIA_VARREDURA), Limit.of(TAMANHO_LOTE));
+        if (!ids.isEmpty()) {
+            log.info("Expirando {} reservas vencidas fora da fila", ids.size());
+            expirar(ids);
+        }
+    }
+
+    private void consumir() {
+        List<Vencimento> lote = new ArrayList<>(TAMANHO_LOTE);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                lote.add(fila.take());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            fila.drainTo(lote, TAMANHO_LOTE - 1);
+            try {
+                expirar(lote.stream().map(Vencimento::id).toList());
+            } catch (RuntimeException ex) {
+                log.warn("Falha ao expirar {} reservas; nova tentativa em {}", lote.size(), ESPERA_APOS_FALHA, ex);
+                long novaTentativa = clock.millis() + ESPERA_APOS_FALHA.toMillis();
+                lote.forEach(vencimento -> fila.put(new Vencimento(vencimento.id(), novaTentativa)));
+            }
+            lote.clear();
+        }
+    }
+
+    private final class Vencimento implements Delayed {
+
+        private final UUID id;
+
+        private final long instante;
+
+        Vencimento(UUID id, long instante) {
+            this.id = id;
+            this.instante = instante;
+        }
+
+        UUID id() {
+            return id;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(instante - clock.millis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed outro) {
+            return Long.compare(instante, ((Vencimento) outro).instante);
+        }
+    }
+}
@@ -0,0 +1,343 @@
+package br.com.hercules.controleestoque.resumo;
+
+import br.com.hercules.controleestoque.event.ProdutoAlteradoEvent;
+import br.com.hercules.controleestoque.model.Produto;
+import br.com.hercules.controleestoque.model.ResumoEstoque;
+import br.com.hercules.controleestoque.model.TotaisEstoque;
+import br.com.hercules.controleestoque.model.VersaoProduto;
+import br.com.hercules.controleestoque.repository.ProdutoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Mantém os totais do estoque atualizados a cada alteração de produto, para que o resumo seja
+ * respondido sem consultar o banco.
+ * <p>
+ * As alterações do {@code ProdutoService} trazem o estado anterior e o atual, e os totais recebem
+ * só a diferença, depois do commit. Um evento sem estado anterior marca os totais como pendentes,
+ * recalculados pelo banco na próxima verificação, a cada segundo. Mesmo sem pendências, os totais
+ * são conferidos com o banco periodicamente ({@code estoque.resumo.reconciliacao}).
+ * <p>
+ * Valores monetários são somados em centavos ({@code long}), com o preço arredondado por
+ * {@link Math#rint}, para que a soma incremental e a do banco coincidam em qualquer ordem.
+ * <p>
+ * A reconciliação não bloqueia as escritas. A soma do banco é lida em uma transação REPEATABLE READ;
+ * as diferenças confirmadas antes dela já estão na soma e são descartadas, e as confirmadas enquanto
+ * ela roda são registradas. Para essas e para as que estão em commit, que podem ou não ter entrado na
+ * soma, decide a versão do produto lida na mesma fotografia: uma atualização está na soma se a versão
+ * passou da anterior a ela, uma criação se o produto existe, uma remoção se ele não existe mais. As que
+ * estão na soma não são somadas de novo. Eventos publicados fora de transação, como os da pilha
+ * reativa, chegam já confirmados e não têm essa garantia.
+ */
+@Component
+public class AgregadosEstoque {
+
+    private static final Logger log = LoggerFactory.getLogger(AgregadosEstoque.class);
+
+    private static final int TAMANHO_CONSULTA = 1000;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final ReentrantLock reconciliacao = new ReentrantLock();
+
+    private final Set<Alteracao> emCommit = ConcurrentHashMap.newKeySet();
+
+    private final ProdutoRepository produtoRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Duration intervaloReconciliacao;
+
+    private final Clock clock;
+
+    private volatile Totais totais = Totais.ZERO;
+
+    private volatile Instant reconciliadoEm;
+
+    private volatile boolean pendente = true;
+
+    /**
+     * Alterações confirmadas desde o início da reconciliação em andamento, ou {@code null} fora dela.
+     * Protegida por {@link #lock}.
+     */
+    private List<Alteracao> confirmadasDuranteReconciliacao;
+
+    @Autowired
+    public AgregadosEstoque(ProdutoRepository produtoRepository, PlatformTransactionManager transactionManager,
+                            @Value("${estoque.resumo.reconciliacao:5m}") String intervaloReconciliacao) {
+        this(produtoRepository, transactionManager, DurationStyle.detectAndParse(intervaloReconciliacao), Clock.systemUTC());
+    }
+
+    public AgregadosEstoque(ProdutoRepository produtoRepository, PlatformTransactionManager transactionManager,
+                            Duration intervaloReconciliacao, Clock clock) {
+        this.produtoRepository = produtoRepository;
+        // Transação de escrita para consultar a primária; numa réplica atrasada os totais perderiam alterações já somadas.
+        // REPEATABLE READ para que a soma e as versões sejam lidas da mesma fotografia.
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.intervaloReconciliacao = intervaloReconciliacao;
+        this.clock = clock;
+    }
+
+    public ResumoEstoque resumo() {
+        Totais atuais = totais;
+        return new ResumoEstoque(atuais.produtos(), atuais.quantidade(), BigDecimal.valueOf(atuais.valorCentavos(), 2),
+                atuais.abaixoDoPontoDeReposicao(), atuais.semEstoque(), reconciliadoEm, pendente);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void aoAlterarProduto(ProdutoAlteradoEvent evento) {
+        Alteracao alteracao = alteracao(evento);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            confirmar(alteracao);
+            return;
+        }
+        if (alteracao != null) {
+            emCommit.add(alteracao);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                confirmar(alteracao);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (alteracao != null) {
+                    emCommit.remove(alteracao);
+                }
+            }
+        });
+    }
+
+    /**
+     * @return a alteração com a diferença nos totais, ou {@code null} se o evento não permite calculá-la
+     */
+    private static Alteracao alteracao(ProdutoAlteradoEvent evento) {
+        Produto anterior = evento.anterior();
+        Produto atual = evento.atual();
+        return switch (evento.tipo()) {
+            case CRIACAO -> new Alteracao(evento.tipo(), evento.id(), null, Totais.de(atual));
+            case ATUALIZACAO -> anterior != null && atual != null && anterior.getVersao() != null
+                    ? new Alteracao(evento.tipo(), evento.id(), anterior.getVersao(), Totais.de(atual).menos(Totais.de(anterior)))
+                    : null;
+            case REMOCAO -> anterior != null
+                    ? new Alteracao(evento.tipo(), evento.id(), anterior.getVersao(), Totais.ZERO.menos(Totais.de(anterior)))
+                    : null;
+        };
+    }
+
+    private void confirmar(Alteracao alteracao) {
+        if (alteracao == null) {
+            pendente = true;
+            return;
+        }
+        lock.lock();
+        try {
+            if (confirmadasDuranteReconciliacao != null) {
+                confirmadasDuranteReconciliacao.add(alteracao);
+            }
+            if (!alteracao.naSoma) {
+                totais = totais.mais(alteracao.diferenca);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${estoque.resumo.verificacao-ms:1000}")
+    public void reconciliarSeNecessario() {
+        Instant ultima = reconciliadoEm;
+        if (pendente || ultima == null || !clock.instant().isBefore(ultima.plus(intervaloReconciliacao))) {
+            reconciliar();
+        }
+    }
+
+    public void reconciliar() {
+        reconciliacao.lock();
+        try {
+            boolean conferencia = !pendente && reconciliadoEm != null;
+            lock.lock();
+            try {
+                confirmadasDuranteReconciliacao = new ArrayList<>();
+            } finally {
+                lock.unlock();
+            }
+            // Antes da soma: um evento sem diferença confirmado depois dela marca de novo.
+            pendente = false;
+            Instant inicio = clock.instant();
+            Totais banco = transactionTemplate.execute(status -> {
+                Totais soma = Totais.de(produtoRepository.calcularTotais());
+                // Coletadas depois da soma: o que confirmou antes dela está aqui ou já estava nos totais.
+                List<Alteracao> incertas = new ArrayList<>(emCommit);
+                lock.lock();
+                try {
+                    incertas.addAll(confirmadasDuranteReconciliacao);
+                } finally {
+                    lock.unlock();
+                }
+                marcarNaSoma(incertas);
+                return soma;
+            });
+            lock.lock();
+            try {
+                Totais reconciliados = banco;
+                for (Alteracao alteracao : confirmadasDuranteReconciliacao) {
+                    if (!alteracao.naSoma) {
+                        reconciliados = reconciliados.mais(alteracao.diferenca);
+                    }
+                }
+                if (conferencia && !reconciliados.equals(totais)) {
+                    log.debug("Totais incrementais do estoque divergiam do banco: {} -> {}", totais, reconciliados);
+                }
+                totais = reconciliados;
+            } finally {
+                confirmadasDuranteReconciliacao = null;
+                lock.unlock();
+            }
+            reconciliadoEm = inicio;
+        } catch (RuntimeException ex) {
+            pendente = true;
+            lock.lock();
+            try {
+                confirmadasDuranteReconciliacao = null;
+            } finally {
+                lock.unlock();
+            }
+            log.warn("Falha ao reconciliar os totais do estoque com o banco", ex);
+        } finally {
+            reconciliacao.unlock();
+        }
+    }
+
+    /**
+     * Marca as alterações que a soma já inclui, pela versão de cada produto na fotografia da soma.
+     * Um produto ausente foi removido na fotografia, e então todas as suas alterações estão nela, a
+     * menos que a criação dele esteja entre as incertas: aí nenhuma está, ou estão todas e se anulam.
+     */
+    private void marcarNaSoma(List<Alteracao> incertas) {
+        if (incertas.isEmpty()) {
+            return;
+        }
+        Set<Long> criados = new HashSet<>();
+        Set<Long> produtos = new HashSet<>();
+        for (Alteracao alteracao : incertas) {
+            produtos.add(alteracao.id);
+            if (alteracao.tipo == ProdutoAlteradoEvent.Tipo.CRIACAO) {
+                criados.add(alteracao.id);
+            }
+        }
+        List<Long> ids = new ArrayList<>(produtos);
+        Map<Long, Long> versoes = new HashMap<>(ids.size() * 2);
+        for (int i = 0; i < ids.size(); i += TAMANHO_CONSULTA) {
+            for (VersaoProduto versao : produtoRepository.findVersoes(ids.subList(i, Math.min(i + TAMANHO_CONSULTA, ids.size())))) {
+                versoes.put(versao.getId(), versao.getVersao());
+            }
+        }
+        lock.lock();
+        try {
+            for (Alteracao alteracao : incertas) {
+                Long versao = versoes.get(alteracao.id);
+                alteracao.naSoma = versao == null
+                        ? !criados.contains(alteracao.id)
+                        : switch (alteracao.tipo) {
+                            case CRIACAO -> true;
+                            case ATUALIZACAO -> versao > alteracao.versaoAnterior;
+                            case REMOCAO -> false;
+                        };
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Diferença de uma alteração nos totais.
+     */
+    private static final class Alteracao {
+
+        private final ProdutoAlteradoEvent.Tipo tipo;
+
+        private final Long id;
+
+        /**
+         * Versão do produto antes da alteração; nas atualizações, a versão lida só passa dela depois do commit.
+         */
+        private final Long versaoAnterior;
+
+        private final Totais diferenca;
+
+        /**
+         * Já incluída na soma do banco da última reconciliação, e não deve ser somada. Protegido por {@link #lock}.
+         */
+        private boolean naSoma;
+
+        Alteracao(ProdutoAlteradoEvent.Tipo tipo, Long id, Long versaoAnterior, Totais diferenca) {
+            this.tipo = tipo;
+            this.id = id;
+            this.versaoAnterior = versaoAnterior;
+            this.diferenca = diferenca;
+        }
+    }
+
+    /**
+     * Totais em um instante; imutável para que o resumo seja lido sem lock.
+     */
+    record Totais(long produtos, long quantidade, long valorCentavos, long abaixoDoPontoDeReposicao, long semEstoque) {
+
+        static final Totais ZERO = new Totais(0, 0, 0, 0, 0);
+
+        static Totais de(Produto produto) {
+            return new Totais(1, produto.getQuantidade(),
+                    Math.multiplyExact((long) produto.getQuantidade(), centavos(produto.getPreco())),
+                    produto.getQuantidade() < produto.getPontoReposicao() ? 1 : 0,
+                    produto.getQuantidade() == 0 ? 1 : 0);
+        }
+
+        static Totais de(TotaisEstoque totais) {
+            return new Totais(totais.getProdutos(), totais.getQuantidade(), totais.getValorCentavos(),
+                    totais.getAbaixoDoPontoDeReposicao(), totais.getSemEstoque());
+        }
+
+        static long centavos(double preco) {
+            return (long) Math.rint(preco * 100);
+        }
+
+        Totais mais(Totais outros) {
+            return new Totais(produtos + outros.produtos, quantidade + outros.quantidade,
+                    Math.addExact(valorCentavos, outros.valorCentavos),
+                    abaixoDoPontoDeReposicao + outros.abaixoDoPontoDeReposicao, semEstoque + outros.semEstoque);
+        }
+
+        Totais menos(Totais outros) {
+            return new Totais(produtos - outros.produtos, quantidade - outros.quantidade,
+                    Math.subtractExact(valorCentavos, outros.valorCentavos),
+                    abaixoDoPontoDeReposicao - outros.abaixoDoPontoDeReposicao, semEstoque - outros.semEstoque);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package br.com.hercules.controleestoque.serializacao;
+
+import br.com.hercules.controleestoque.model.Produto;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Escreve listas de {@link Produto} em colunas: um array por campo, com o nome de cada campo
+ * uma única vez, em vez de um objeto por produto repetindo todos os nomes.
+ * <pre>
+ * {"total":2,"id":[1,2],"descricao":["Violao","Cabo"],"quantidade":[10,3],"preco":[700.0,5.0],
+ *  "pontoReposicao":[0,5],"versao":[0,2]}
+ * </pre>
+ * Negociado pelo {@code Accept}, em JSON ({@value #COLUNAR_JSON_VALUE}) ou CBOR
+ * ({@value #COLUNAR_CBOR_VALUE}). Só escrita.
+ */
+public class ProdutosColunaresHttpMessageConverter extends AbstractGenericHttpMessageConverter<List<Produto>> {
+
+    public static final String COLUNAR_JSON_VALUE = "application/vnd.estoque.produtos.colunar+json";
+
+    public static final String COLUNAR_CBOR_VALUE = "application/vnd.estoque.produtos.colunar+cbor";
+
+    public static final MediaType COLUNAR_JSON = MediaType.parseMediaType(COLUNAR_JSON_VALUE);
+
+    public static final MediaType COLUNAR_CBOR = MediaType.parseMediaType(COLUNAR_CBOR_VALUE);
+
+    private final JsonFactory json = JsonFactory.builder().disable(StreamWriteFeature.AUTO_CLOSE_TARGET).build();
+
+    private final CBORFactory cbor = CBORFactory.builder().disable(StreamWriteFeature.AUTO_CLOSE_TARGET).build();
+
+    public ProdutosColunaresHttpMessageConverter() {
+        super(COLUNAR_JSON, COLUNAR_CBOR);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return List.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, @Nullable Class<?> contextClass, @Nullable MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, @Nullable MediaType mediaType) {
+        return false;
+    }
+
+    /**
+     * Sem tipo de mídia definido, não se oferece: o formato só é usado nos endpoints que o
+     * declaram em {@code produces}, depois do JSON, e não vira o padrão de {@code Accept: *}{@code /*}.
+     */
+    @Override
+    public boolean canWrite(@Nullable Type type, Class<?> clazz, @Nullable MediaType mediaType) {
+        if (mediaType == null || mediaType.isWildcardType() || mediaType.isWildcardSubtype() || !canWrite(clazz, mediaType)) {
+            return false;
+        }
+        Class<?> elemento = ResolvableType.forType(type != null ? type : clazz).asCollection().resolveGeneric(0);
+        return elemento != null && Produto.class.isAssignableFrom(elemento);
+    }
+
+    @Override
+    protected void writeInternal(List<Produto> produtos, @Nullable Type type, HttpOutputMessage outputMessage) throws IOException {
+        MediaType contentType = outputMessage.getHeaders().getContentType();
+        JsonFactory fabrica = contentType != null && COLUNAR_CBOR.isCompatibleWith(contentType) ? cbor : json;
+        try (JsonGenerator gerador = fabrica.createGenerator(outputMessage.getBody())) {
+            escrever(produtos, gerador);
+        }
+    }
+
+    public static void escrever(List<Produto> produtos, JsonGenerator gerador) throws IOException {
+        gerador.writeStartObject();
+        gerador.writeNumberField("total", produtos.size());
+        gerador.writeArrayFieldStart("id");
+        for (Produto produto : produtos) {
+            gerador.writeNumber(produto.getId());
+        }
+        gerador.writeEndArray();
+        gerador.writeArrayFieldStart("descricao");
+        for (Produto produto : produtos) {
+            gerador.writeString(produto.getDescricao());
+        }
+        gerador.writeEndArray();
+        gerador.writeArrayFieldStart("quantidade");
+        for (Produto produto : produtos) {
+            gerador.writeNumber(produto.getQuantidade());
+        }
+        gerador.writeEndArray();
+        gerador.writeArrayFieldStart("preco");
+        for (Produto produto : produtos) {
+            gerador.writeNumber(produto.getPreco());
+        }
+        gerador.writeEndArray();
+        gerador.writeArrayFieldStart("pontoReposicao");
+        for (Produto produto : produtos) {
+            gerador.writeNumber(produto.getPontoReposicao());
+        }
+        gerador.writeEndArray();
+        gerador.writeArrayFieldStart("versao");
+        for (Produto produto : produtos) {
+            if (produto.getVersao() == null) {
+                gerador.writeNull();
+            } else {
+                gerador.writeNumber(produto.getVersao());
+            }
+        }
+        gerador.writeEndArray();
+        gerador.writeEndObject();
+    }
+
+    @Override
+    public List<Produto> read(Type type, @Nullable Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Formato colunar disponível apenas para respostas", inputMessage);
+    }
+
+    @Override
+    protected List<Produto> readInternal(Class<? extends List<Produto>> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Formato colunar disponível apenas para respostas", inputMessage);
+    }
+}
@@ -0,0 +1,25 @@
+package br.com.hercules.controleestoque.service;
+
+import br.com.hercules.controleestoque.model.Deposito;
+import br.com.hercules.controleestoque.model.EstoqueDeposito;
+import br.com.hercules.controleestoque.model.EstoqueProdutoDepositos;
+import br.com.hercules.controleestoque.model.MovimentoEstoque;
+import br.com.hercules.controleestoque.model.NovoDeposito;
+import br.com.hercules.controleestoque.model.TransferenciaEstoque;
+
+import java.util.List;
+
+public interface DepositoService {
+
+    public Deposito criarDeposito(NovoDeposito novoDeposito);
+
+    public List<Deposito> listarDepositos();
+
+    public List<EstoqueDeposito> estoqueDoDeposito(Long depositoId, Long aposProdutoId, int limite);
+
+    public EstoqueProdutoDepositos estoqueDoProduto(Long produtoId);
+
+    public EstoqueDeposito movimentar(Long depositoId, Long produtoId, MovimentoEstoque movimento);
+
+    public List<EstoqueDeposito> transferir(TransferenciaEstoque transferencia);
+}
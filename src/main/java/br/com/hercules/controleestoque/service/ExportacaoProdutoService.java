@@ -0,0 +1,11 @@
+package br.com.hercules.controleestoque.service;
+
+import br.com.hercules.controleestoque.model.FormatoArquivo;
+
+import java.io.OutputStream;
+
+public interface ExportacaoProdutoService {
+
+    public void exportar(FormatoArquivo formato, boolean gzip, OutputStream saida);
+
+}
@@ -0,0 +1,12 @@
+package br.com.hercules.controleestoque.service;
+
+import br.com.hercules.controleestoque.model.FormatoArquivo;
+import br.com.hercules.controleestoque.model.RelatorioImportacao;
+
+import java.io.InputStream;
+
+public interface ImportacaoProdutoService {
+
+    public RelatorioImportacao importar(InputStream entrada, FormatoArquivo formato);
+
+}
@@ -0,0 +1,19 @@
+package br.com.hercules.controleestoque.service;
+
+import br.com.hercules.controleestoque.model.PrecoProduto;
+import br.com.hercules.controleestoque.model.Produto;
+import br.com.hercules.controleestoque.model.ResultadoLote;
+
+import java.util.List;
+
+public interface ProdutoLoteService {
+
+    public List<ResultadoLote> criarEmLote(List<Produto> produtos);
+
+    public List<ResultadoLote> atualizarEmLote(List<Produto> produtos);
+
+    public List<ResultadoLote> deletarEmLote(List<Long> ids);
+
+    public List<ResultadoLote> reprecificarEmLote(List<PrecoProduto> precos);
+
+}
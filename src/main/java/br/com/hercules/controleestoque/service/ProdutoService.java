@@ -1,24 +1,41 @@
 package br.com.hercules.controleestoque.service;
 
+import br.com.hercules.controleestoque.model.AlteracaoParcialProduto;
+import br.com.hercules.controleestoque.model.FiltroProdutos;
+import br.com.hercules.controleestoque.model.MovimentoEstoque;
 import br.com.hercules.controleestoque.model.Produto;
+import br.com.hercules.controleestoque.model.ResumoProduto;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ProdutoService {
 
 
     public Produto produtoGetById(Long id);
 
+    public List<Produto> produtosGetByIds(List<Long> ids);
+
     public List<Produto> findAllProdutos();
 
+    public List<Produto> findProdutosAposId(Long ultimoId, int limite);
+
+    public void percorrerProdutos(Consumer<Produto> consumidor);
+
     public Produto createProduto(Produto produtoToCreate);
 
-    public List<Produto> produtoGetByDescricao(String descricao);
+    public List<Produto> produtoGetByDescricao(String descricao, int limite);
 
-    public Produto atualizarProduto(Long id, Produto produtoAtualizado);
+    public List<ResumoProduto> buscarProdutos(FiltroProdutos filtro);
+
+    public Produto atualizarProduto(Long id, Produto produtoAtualizado, Long versaoEsperada);
+
+    public void atualizarParcialmente(Long id, AlteracaoParcialProduto alteracao, Long versaoEsperada);
 
     public void deletarProduto(Long id);
 
+    public Produto movimentarEstoque(Long id, MovimentoEstoque movimento);
+
 
 
 }
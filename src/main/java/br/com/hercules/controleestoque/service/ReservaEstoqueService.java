@@ -0,0 +1,21 @@
+package br.com.hercules.controleestoque.service;
+
+import br.com.hercules.controleestoque.model.DisponibilidadeProduto;
+import br.com.hercules.controleestoque.model.NovaReserva;
+import br.com.hercules.controleestoque.model.Produto;
+import br.com.hercules.controleestoque.model.ReservaEstoque;
+
+import java.util.UUID;
+
+public interface ReservaEstoqueService {
+
+    public ReservaEstoque reservar(Long produtoId, NovaReserva novaReserva);
+
+    public ReservaEstoque buscar(Long produtoId, UUID reservaId);
+
+    public Produto confirmar(Long produtoId, UUID reservaId);
+
+    public void cancelar(Long produtoId, UUID reservaId);
+
+    public DisponibilidadeProduto disponibilidade(Long produtoId);
+}
@@ -0,0 +1,250 @@
+package br.com.hercules.controleestoque.service.impl;
+
+import br.com.hercules.controleestoque.deposito.ParticoesEstoqueDeposito;
+import br.com.hercules.controleestoque.exception.InsufficientStockException;
+import br.com.hercules.controleestoque.exception.InvalidRequestException;
+import br.com.hercules.controleestoque.exception.ResourceNotFoundException;
+import br.com.hercules.controleestoque.model.Deposito;
+import br.com.hercules.controleestoque.model.EstoqueDeposito;
+import br.com.hercules.controleestoque.model.EstoqueProdutoDepositos;
+import br.com.hercules.controleestoque.model.MovimentoEstoque;
+import br.com.hercules.controleestoque.model.NovoDeposito;
+import br.com.hercules.controleestoque.model.Produto;
+import br.com.hercules.controleestoque.model.TotalDepositosProduto;
+import br.com.hercules.controleestoque.model.TransferenciaEstoque;
+import br.com.hercules.controleestoque.repository.DepositoRepository;
+import br.com.hercules.controleestoque.repository.EstoqueDepositoRepository;
+import br.com.hercules.controleestoque.repository.ProdutoRepository;
+import br.com.hercules.controleestoque.repository.TotalDepositosProdutoRepository;
+import br.com.hercules.controleestoque.service.DepositoService;
+import br.com.hercules.controleestoque.service.ProdutoService;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Estoque por depósito: entradas, saídas e transferências são UPDATEs condicionais da quantidade,
+ * como nos movimentos de produto, sem ler as linhas antes de alterá-las.
+ * <p>
+ * Entradas e saídas em um depósito passam também pelo {@link ProdutoService#movimentarEstoque},
+ * na mesma transação: a quantidade do produto continua respeitando as reservas, e o cache, os
+ * alertas e o livro de estoque recebem a alteração. Transferências não mudam o total. A linha do
+ * depósito é sempre bloqueada antes da do produto, e numa transferência as duas linhas são
+ * alteradas em ordem de depósito, para que movimentos cruzados não se travem.
+ * <p>
+ * Invariante: o total nos depósitos ({@code total_depositos_produto}) é a soma das linhas do produto
+ * em {@code estoque_deposito}, e só muda por este serviço: cada entrada ou saída ajusta a linha do
+ * depósito e o total na mesma transação, e a leitura não soma as linhas. A quantidade do produto é
+ * outro total: acompanha cada entrada e saída em depósito, mas também muda pelo PUT, PATCH,
+ * movimentos, confirmação de reservas e importação, que não conhecem depósitos. Por isso os dois são
+ * informados separados em {@link EstoqueProdutoDepositos}, e nenhum é deduzido do outro.
+ */
+@Service
+public class DepositoServiceImpl implements DepositoService {
+
+    private static final String SQL_CRIAR = "insert into estoque_deposito (deposito_id, produto_id, quantidade) values (?, ?, 0)";
+
+    private static final String SQL_CRIAR_TOTAL = "insert into total_depositos_produto (produto_id, quantidade) values (?, ?)";
+
+    private final DepositoRepository depositoRepository;
+
+    private final EstoqueDepositoRepository estoqueRepository;
+
+    private final TotalDepositosProdutoRepository totalRepository;
+
+    private final ProdutoRepository produtoRepository;
+
+    private final ProdutoService produtoService;
+
+    private final ParticoesEstoqueDeposito particoes;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Boolean bancoPostgresql;
+
+    public DepositoServiceImpl(DepositoRepository depositoRepository, EstoqueDepositoRepository estoqueRepository,
+                               TotalDepositosProdutoRepository totalRepository, ProdutoRepository produtoRepository,
+                               ProdutoService produtoService, ParticoesEstoqueDeposito particoes, JdbcTemplate jdbcTemplate) {
+        this.depositoRepository = depositoRepository;
+        this.estoqueRepository = estoqueRepository;
+        this.totalRepository = totalRepository;
+        this.produtoRepository = produtoRepository;
+        this.produtoService = produtoService;
+        this.particoes = particoes;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional
+    public Deposito criarDeposito(NovoDeposito novoDeposito) {
+        if (novoDeposito.nome() == null || novoDeposito.nome().isBlank()) {
+            throw new InvalidRequestException("Informe o nome do depósito!");
+        }
+        String nome = novoDeposito.nome().trim();
+        if (depositoRepository.existsByNome(nome)) {
+            throw new InvalidRequestException("Já existe um depósito com esse nome!");
+        }
+        Deposito deposito = depositoRepository.saveAndFlush(new Deposito(nome));
+        particoes.criarParticao(deposito.getId());
+        return deposito;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Deposito> listarDepositos() {
+        return depositoRepository.findAll(Sort.by("id"));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<EstoqueDeposito> estoqueDoDeposito(Long depositoId, Long aposProdutoId, int limite) {
+        exigirDeposito(depositoId);
+        return estoqueRepository.findByDepositoIdAndProdutoIdGreaterThanOrderByProdutoIdAsc(depositoId,
+                aposProdutoId == null ? 0L : aposProdutoId, Limit.of(limite));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public EstoqueProdutoDepositos estoqueDoProduto(Long produtoId) {
+        Produto produto = produtoRepository.findById(produtoId)
+                .orElseThrow(() -> new ResourceNotFoundException("Produto não encontrado!"));
+        int total = totalRepository.findById(produtoId).map(TotalDepositosProduto::getQuantidade).orElse(0);
+        return new EstoqueProdutoDepositos(produtoId, total, produto.getQuantidade(),
+                estoqueRepository.findByProdutoIdOrderByDepositoIdAsc(produtoId));
+    }
+
+    @Override
+    @Transactional
+    public EstoqueDeposito movimentar(Long depositoId, Long produtoId, MovimentoEstoque movimento) {
+        if (movimento.tipo() == null || movimento.quantidade() <= 0) {
+            throw new InvalidRequestException("Informe o tipo e uma quantidade maior que zero!");
+        }
+        exigirDeposito(depositoId);
+        exigirProduto(produtoId);
+        int delta = movimento.delta();
+        if (delta > 0) {
+            criarSeAusente(depositoId, produtoId);
+        }
+        if (estoqueRepository.ajustarQuantidade(depositoId, produtoId, delta) == 0) {
+            throw new InsufficientStockException("Estoque insuficiente no depósito!");
+        }
+        ajustarTotal(produtoId, delta);
+        produtoService.movimentarEstoque(produtoId, movimento);
+        return estoque(depositoId, produtoId);
+    }
+
+    @Override
+    @Transactional
+    public List<EstoqueDeposito> transferir(TransferenciaEstoque transferencia) {
+        if (transferencia.origemId() == null || transferencia.destinoId() == null || transferencia.quantidade() <= 0) {
+            throw new InvalidRequestException("Informe a origem, o destino e uma quantidade maior que zero!");
+        }
+        if (transferencia.origemId().equals(transferencia.destinoId())) {
+            throw new InvalidRequestException("A origem e o destino devem ser depósitos diferentes!");
+        }
+        exigirDeposito(transferencia.origemId());
+        exigirDeposito(transferencia.destinoId());
+        exigirProduto(transferencia.produtoId());
+        Long produtoId = transferencia.produtoId();
+        criarSeAusente(transferencia.destinoId(), produtoId);
+        boolean origemPrimeiro = transferencia.origemId() < transferencia.destinoId();
+        if (origemPrimeiro) {
+            retirar(transferencia);
+        }
+        estoqueRepository.ajustarQuantidade(transferencia.destinoId(), produtoId, transferencia.quantidade());
+        if (!origemPrimeiro) {
+            retirar(transferencia);
+        }
+        return List.of(estoque(transferencia.origemId(), produtoId), estoque(transferencia.destinoId(), produtoId));
+    }
+
+    /**
+     * Cria a linha do produto no depósito com quantidade zero, se ainda não existir, na conexão da
+     * transação corrente: uma transação própria pediria uma segunda conexão ao pool enquanto esta
+     * segura a sua. Se outra transação criar a linha ao mesmo tempo, no PostgreSQL o
+     * {@code on conflict do nothing} espera o commit dela e segue; nos demais bancos só o INSERT
+     * falha, e a transação continua. A consulta antes do INSERT não bloqueia a linha existente,
+     * para não alterar a ordem de bloqueio das transferências.
+     */
+    private void criarSeAusente(Long depositoId, Long produtoId) {
+        if (estoqueRepository.existsById(new EstoqueDeposito.Chave(depositoId, produtoId))) {
+            return;
+        }
+        if (postgresql()) {
+            jdbcTemplate.update(SQL_CRIAR + " on conflict do nothing", depositoId, produtoId);
+            return;
+        }
+        try {
+            jdbcTemplate.update(SQL_CRIAR, depositoId, produtoId);
+        } catch (DuplicateKeyException ex) {
+            // Criada por outra transação.
+        }
+    }
+
+    /**
+     * Soma {@code delta} ao total do produto nos depósitos, entre o bloqueio da linha do depósito e o
+     * da do produto. Uma saída sempre encontra a linha, porque o depósito tinha as unidades. Na
+     * entrada, o PostgreSQL cria a linha no mesmo comando (só com delta positivo: o CHECK vale também
+     * para a linha proposta); nos demais bancos, se o UPDATE não a encontra ela é inserida, e se
+     * outra transação a inserir antes, o UPDATE é repetido.
+     */
+    private void ajustarTotal(Long produtoId, int delta) {
+        if (delta < 0) {
+            totalRepository.ajustarQuantidade(produtoId, delta);
+            return;
+        }
+        if (postgresql()) {
+            jdbcTemplate.update(SQL_CRIAR_TOTAL + " on conflict (produto_id) do update " +
+                    "set quantidade = total_depositos_produto.quantidade + excluded.quantidade", produtoId, delta);
+            return;
+        }
+        if (totalRepository.ajustarQuantidade(produtoId, delta) > 0) {
+            return;
+        }
+        try {
+            jdbcTemplate.update(SQL_CRIAR_TOTAL, produtoId, delta);
+        } catch (DuplicateKeyException ex) {
+            // Criada por outra transação.
+            totalRepository.ajustarQuantidade(produtoId, delta);
+        }
+    }
+
+    private boolean postgresql() {
+        Boolean postgresql = bancoPostgresql;
+        if (postgresql == null) {
+            String banco = jdbcTemplate.execute((ConnectionCallback<String>) conexao -> conexao.getMetaData().getDatabaseProductName());
+            postgresql = "PostgreSQL".equals(banco);
+            bancoPostgresql = postgresql;
+        }
+        return postgresql;
+    }
+
+    private void retirar(TransferenciaEstoque transferencia) {
+        if (estoqueRepository.ajustarQuantidade(transferencia.origemId(), transferencia.produtoId(), -transferencia.quantidade()) == 0) {
+            throw new InsufficientStockException("Estoque insuficiente no depósito de origem!");
+        }
+    }
+
+    private EstoqueDeposito estoque(Long depositoId, Long produtoId) {
+        return estoqueRepository.findById(new EstoqueDeposito.Chave(depositoId, produtoId))
+                .orElseGet(() -> new EstoqueDeposito(depositoId, produtoId, 0));
+    }
+
+    private void exigirDeposito(Long depositoId) {
+        if (depositoId == null || !depositoRepository.existsById(depositoId)) {
+            throw new ResourceNotFoundException("Depósito não encontrado!");
+        }
+    }
+
+    private void exigirProduto(Long produtoId) {
+        if (produtoId == null || !produtoRepository.existsById(produtoId)) {
+            throw new ResourceNotFoundException("Produto não encontrado!");
+        }
+    }
+}
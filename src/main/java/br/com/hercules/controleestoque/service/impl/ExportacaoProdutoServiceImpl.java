@@ -0,0 +1,127 @@
+package br.com.hercules.controleestoque.service.impl;
+
+import br.com.hercules.controleestoque.model.FormatoArquivo;
+import br.com.hercules.controleestoque.service.ExportacaoProdutoService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exporta a tabela de produtos lendo por um cursor JDBC (fetch size configurável, dentro de uma
+ * transação somente leitura para que o driver do PostgreSQL não carregue o resultado inteiro)
+ * e escrevendo cada linha diretamente na saída, sem criar entidades nem usar o contexto de persistência.
+ */
+@Service
+public class ExportacaoProdutoServiceImpl implements ExportacaoProdutoService {
+
+    private static final String SQL_EXPORTACAO = "select id, descricao, quantidade, preco, ponto_reposicao from produto order by id";
+
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    public ExportacaoProdutoServiceImpl(DataSource dataSource, PlatformTransactionManager transactionManager,
+                                        ObjectMapper objectMapper,
+                                        @Value("${estoque.exportacao.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void exportar(FormatoArquivo formato, boolean gzip, OutputStream saida) {
+        try {
+            OutputStream destino = gzip ? new GZIPOutputStream(saida, TAMANHO_BUFFER) : saida;
+            Writer escritor = new BufferedWriter(new OutputStreamWriter(destino, StandardCharsets.UTF_8), TAMANHO_BUFFER);
+            if (formato == FormatoArquivo.CSV) {
+                exportarCsv(escritor);
+            } else {
+                exportarNdjson(escritor);
+            }
+            escritor.flush();
+            if (destino instanceof GZIPOutputStream gzipOutputStream) {
+                gzipOutputStream.finish();
+            }
+            saida.flush();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void exportarCsv(Writer escritor) throws IOException {
+        escritor.write("id,descricao,quantidade,preco,ponto_reposicao\n");
+        percorrer(rs -> {
+            try {
+                escritor.write(Long.toString(rs.getLong(1)));
+                escritor.write(',');
+                escreverCampoCsv(escritor, rs.getString(2));
+                escritor.write(',');
+                escritor.write(Integer.toString(rs.getInt(3)));
+                escritor.write(',');
+                escritor.write(BigDecimal.valueOf(rs.getDouble(4)).toPlainString());
+                escritor.write(',');
+                escritor.write(Integer.toString(rs.getInt(5)));
+                escritor.write('\n');
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+    }
+
+    private void exportarNdjson(Writer escritor) throws IOException {
+        JsonGenerator gerador = objectMapper.getFactory().createGenerator(escritor);
+        gerador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        gerador.setRootValueSeparator(null);
+        percorrer(rs -> {
+            try {
+                gerador.writeStartObject();
+                gerador.writeNumberField("id", rs.getLong(1));
+                gerador.writeStringField("descricao", rs.getString(2));
+                gerador.writeNumberField("quantidade", rs.getInt(3));
+                gerador.writeNumberField("preco", rs.getDouble(4));
+                gerador.writeNumberField("pontoReposicao", rs.getInt(5));
+                gerador.writeEndObject();
+                gerador.writeRaw('\n');
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+        gerador.flush();
+    }
+
+    private void percorrer(RowCallbackHandler linha) {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(SQL_EXPORTACAO, linha));
+    }
+
+    private static void escreverCampoCsv(Writer escritor, String valor) throws IOException {
+        if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+            escritor.write(valor);
+            return;
+        }
+        escritor.write('"');
+        escritor.write(valor.replace("\"", "\"\""));
+        escritor.write('"');
+    }
+}
@@ -0,0 +1,361 @@
+package br.com.hercules.controleestoque.service.impl;
+
+import br.com.hercules.controleestoque.exception.InvalidRequestException;
+import br.com.hercules.controleestoque.model.FormatoArquivo;
+import br.com.hercules.controleestoque.model.Produto;
+import br.com.hercules.controleestoque.model.RelatorioImportacao;
+import br.com.hercules.controleestoque.model.ResultadoLote;
+import br.com.hercules.controleestoque.service.ImportacaoProdutoService;
+import br.com.hercules.controleestoque.service.ProdutoLoteService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Importa produtos lendo a entrada linha a linha. A thread da requisição interpreta as linhas e
+ * entrega blocos a uma fila limitada; uma tarefa consumidora grava cada bloco pelo
+ * {@link ProdutoLoteService}. Quando o banco não acompanha, a fila enche e a leitura da entrada
+ * para, então a memória usada depende do tamanho da fila e não do tamanho do arquivo.
+ */
+@Service
+public class ImportacaoProdutoServiceImpl implements ImportacaoProdutoService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportacaoProdutoServiceImpl.class);
+
+    private static final long INTERVALO_PROGRESSO = 100_000;
+
+    private final List<Linha> fimDaEntrada = new ArrayList<>();
+
+    private final ProdutoLoteService produtoLoteService;
+
+    private final ObjectMapper objectMapper;
+
+    private final AsyncTaskExecutor taskExecutor;
+
+    private final int tamanhoBloco;
+
+    private final int capacidadeFila;
+
+    private final int maximoRejeicoes;
+
+    public ImportacaoProdutoServiceImpl(ProdutoLoteService produtoLoteService, ObjectMapper objectMapper,
+                                        AsyncTaskExecutor taskExecutor,
+                                        @Value("${estoque.lote.tamanho:500}") int tamanhoBloco,
+                                        @Value("${estoque.importacao.capacidade-fila:4}") int capacidadeFila,
+                                        @Value("${estoque.importacao.maximo-rejeicoes:1000}") int maximoRejeicoes) {
+        this.produtoLoteService = produtoLoteService;
+        this.objectMapper = objectMapper;
+        this.taskExecutor = taskExecutor;
+        this.tamanhoBloco = tamanhoBloco;
+        this.capacidadeFila = capacidadeFila;
+        this.maximoRejeicoes = maximoRejeicoes;
+    }
+
+    @Override
+    public RelatorioImportacao importar(InputStream entrada, FormatoArquivo formato) {
+        Progresso progresso = new Progresso(maximoRejeicoes);
+        BlockingQueue<List<Linha>> fila = new ArrayBlockingQueue<>(capacidadeFila);
+        Future<?> consumidor = taskExecutor.submit(() -> consumir(fila, progresso));
+        try (BufferedReader leitor = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8))) {
+            ler(leitor, formato, fila, consumidor, progresso);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            enfileirar(fila, fimDaEntrada, consumidor);
+        }
+        aguardar(consumidor);
+        log.info("Importação concluída: {} linhas lidas, {} importadas, {} rejeitadas",
+                progresso.lidas.get(), progresso.importados.get(), progresso.rejeitados.get());
+        return progresso.relatorio();
+    }
+
+    private void ler(BufferedReader leitor, FormatoArquivo formato, BlockingQueue<List<Linha>> fila,
+                     Future<?> consumidor, Progresso progresso) throws IOException {
+        LeitorProduto leitorProduto = formato == FormatoArquivo.NDJSON ? new LeitorNdjson(objectMapper) : null;
+        List<Linha> bloco = new ArrayList<>(tamanhoBloco);
+        String linha;
+        long numero = 0;
+        while ((linha = leitor.readLine()) != null) {
+            numero++;
+            if (linha.isBlank()) {
+                continue;
+            }
+            if (leitorProduto == null) {
+                leitorProduto = new LeitorCsv(linha);
+                continue;
+            }
+            progresso.lidas.incrementAndGet();
+            try {
+                bloco.add(new Linha(numero, leitorProduto.ler(linha)));
+            } catch (LinhaInvalidaException ex) {
+                progresso.rejeitar(numero, ex.getMessage());
+            }
+            if (bloco.size() == tamanhoBloco) {
+                if (!enfileirar(fila, bloco, consumidor)) {
+                    return;
+                }
+                bloco = new ArrayList<>(tamanhoBloco);
+            }
+        }
+        if (!bloco.isEmpty()) {
+            enfileirar(fila, bloco, consumidor);
+        }
+    }
+
+    private void consumir(BlockingQueue<List<Linha>> fila, Progresso progresso) {
+        try {
+            List<Linha> bloco;
+            while ((bloco = fila.take()) != fimDaEntrada) {
+                List<Produto> produtos = new ArrayList<>(bloco.size());
+                for (Linha linha : bloco) {
+                    produtos.add(linha.produto());
+                }
+                List<ResultadoLote> resultados = produtoLoteService.criarEmLote(produtos);
+                for (int i = 0; i < resultados.size(); i++) {
+                    ResultadoLote resultado = resultados.get(i);
+                    if (resultado.status() == ResultadoLote.Status.CRIADO) {
+                        progresso.importados.incrementAndGet();
+                    } else {
+                        progresso.rejeitar(bloco.get(i).numero(), resultado.mensagem());
+                    }
+                }
+                progresso.registrarProgresso();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Importação interrompida", ex);
+        }
+    }
+
+    /**
+     * Bloqueia enquanto a fila estiver cheia. Retorna {@code false} se o consumidor terminou
+     * antes de receber o bloco, o que só acontece quando ele falha.
+     */
+    private boolean enfileirar(BlockingQueue<List<Linha>> fila, List<Linha> bloco, Future<?> consumidor) {
+        try {
+            while (!fila.offer(bloco, 1, TimeUnit.SECONDS)) {
+                if (consumidor.isDone()) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            consumidor.cancel(true);
+            throw new IllegalStateException("Importação interrompida", ex);
+        }
+    }
+
+    private static void aguardar(Future<?> consumidor) {
+        try {
+            consumidor.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            consumidor.cancel(true);
+            throw new IllegalStateException("Importação interrompida", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException("Falha na importação", ex.getCause());
+        }
+    }
+
+    private record Linha(long numero, Produto produto) {
+    }
+
+    private static final class Progresso {
+
+        private final AtomicLong lidas = new AtomicLong();
+
+        private final AtomicLong importados = new AtomicLong();
+
+        private final AtomicLong rejeitados = new AtomicLong();
+
+        private final AtomicInteger rejeicoesDetalhadas = new AtomicInteger();
+
+        private final ConcurrentLinkedQueue<RelatorioImportacao.Rejeicao> rejeicoes = new ConcurrentLinkedQueue<>();
+
+        private final int maximoRejeicoes;
+
+        private long proximoRegistro = INTERVALO_PROGRESSO;
+
+        Progresso(int maximoRejeicoes) {
+            this.maximoRejeicoes = maximoRejeicoes;
+        }
+
+        void rejeitar(long linha, String motivo) {
+            rejeitados.incrementAndGet();
+            if (rejeicoesDetalhadas.getAndIncrement() < maximoRejeicoes) {
+                rejeicoes.add(new RelatorioImportacao.Rejeicao(linha, motivo));
+            }
+        }
+
+        /**
+         * Chamado apenas pela tarefa consumidora.
+         */
+        void registrarProgresso() {
+            long processados = importados.get() + rejeitados.get();
+            if (processados >= proximoRegistro) {
+                log.info("Importação em andamento: {} linhas lidas, {} importadas, {} rejeitadas",
+                        lidas.get(), importados.get(), rejeitados.get());
+                proximoRegistro = processados + INTERVALO_PROGRESSO;
+            }
+        }
+
+        RelatorioImportacao relatorio() {
+            List<RelatorioImportacao.Rejeicao> detalhes = new ArrayList<>(rejeicoes);
+            detalhes.sort((a, b) -> Long.compare(a.linha(), b.linha()));
+            return new RelatorioImportacao(lidas.get(), importados.get(), rejeitados.get(),
+                    detalhes, rejeitados.get() > detalhes.size());
+        }
+    }
+
+    private interface LeitorProduto {
+
+        Produto ler(String linha) throws LinhaInvalidaException;
+    }
+
+    private static final class LinhaInvalidaException extends Exception {
+
+        LinhaInvalidaException(String message) {
+            super(message);
+        }
+    }
+
+    private static final class LeitorNdjson implements LeitorProduto {
+
+        private final ObjectMapper objectMapper;
+
+        LeitorNdjson(ObjectMapper objectMapper) {
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        public Produto ler(String linha) throws LinhaInvalidaException {
+            try {
+                return objectMapper.readValue(linha, Produto.class);
+            } catch (JsonProcessingException ex) {
+                throw new LinhaInvalidaException("JSON inválido: " + ex.getOriginalMessage());
+            }
+        }
+    }
+
+    /**
+     * CSV com cabeçalho contendo as colunas descricao, quantidade e preco, em qualquer ordem, e
+     * opcionalmente ponto_reposicao.
+     * O separador é ';' quando presente no cabeçalho (com vírgula decimal no preço) e ',' caso contrário.
+     * Campos podem estar entre aspas duplas, com aspas escapadas por duplicação.
+     */
+    private static final class LeitorCsv implements LeitorProduto {
+
+        private final char separador;
+
+        private final int colunaDescricao;
+
+        private final int colunaQuantidade;
+
+        private final int colunaPreco;
+
+        private final int colunaPontoReposicao;
+
+        private final int colunasNecessarias;
+
+        LeitorCsv(String cabecalho) {
+            String semBom = cabecalho.startsWith("\uFEFF") ? cabecalho.substring(1) : cabecalho;
+            this.separador = semBom.indexOf(';') >= 0 ? ';' : ',';
+            List<String> colunas = new ArrayList<>();
+            for (String coluna : dividir(semBom, separador)) {
+                colunas.add(coluna.trim().toLowerCase(Locale.ROOT));
+            }
+            this.colunaDescricao = colunas.indexOf("descricao");
+            this.colunaQuantidade = colunas.indexOf("quantidade");
+            this.colunaPreco = colunas.indexOf("preco");
+            this.colunaPontoReposicao = colunas.indexOf("ponto_reposicao");
+            if (colunaDescricao < 0 || colunaQuantidade < 0 || colunaPreco < 0) {
+                throw new InvalidRequestException("O cabeçalho CSV deve conter as colunas descricao, quantidade e preco!");
+            }
+            this.colunasNecessarias = Math.max(Math.max(colunaDescricao, colunaPontoReposicao),
+                    Math.max(colunaQuantidade, colunaPreco)) + 1;
+        }
+
+        @Override
+        public Produto ler(String linha) throws LinhaInvalidaException {
+            List<String> campos = dividir(linha, separador);
+            if (campos.size() < colunasNecessarias) {
+                throw new LinhaInvalidaException("Número de colunas inválido");
+            }
+            Produto produto = new Produto();
+            produto.setDescricao(campos.get(colunaDescricao).trim());
+            try {
+                produto.setQuantidade(Integer.parseInt(campos.get(colunaQuantidade).trim()));
+            } catch (NumberFormatException ex) {
+                throw new LinhaInvalidaException("Quantidade inválida: " + campos.get(colunaQuantidade));
+            }
+            String preco = campos.get(colunaPreco).trim();
+            try {
+                produto.setPreco(Double.parseDouble(separador == ';' ? preco.replace(',', '.') : preco));
+            } catch (NumberFormatException ex) {
+                throw new LinhaInvalidaException("Preço inválido: " + preco);
+            }
+            if (colunaPontoReposicao >= 0) {
+                try {
+                    produto.setPontoReposicao(Integer.parseInt(campos.get(colunaPontoReposicao).trim()));
+                } catch (NumberFormatException ex) {
+                    throw new LinhaInvalidaException("Ponto de reposição inválido: " + campos.get(colunaPontoReposicao));
+                }
+            }
+            return produto;
+        }
+
+        private static List<String> dividir(String linha, char separador) {
+            List<String> campos = new ArrayList<>();
+            StringBuilder campo = new StringBuilder();
+            boolean entreAspas = false;
+            for (int i = 0; i < linha.length(); i++) {
+                char c = linha.charAt(i);
+                if (entreAspas) {
+                    if (c == '"' && i + 1 < linha.length() && linha.charAt(i + 1) == '"') {
+                        campo.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        entreAspas = false;
+                    } else {
+                        campo.append(c);
+                    }
+                } else if (c == '"') {
+                    entreAspas = true;
+                } else if (c == separador) {
+                    campos.add(campo.toString());
+                    campo.setLength(0);
+                } else {
+                    campo.append(c);
+                }
+            }
+            campos.add(campo.toString());
+            return campos;
+        }
+    }
+}
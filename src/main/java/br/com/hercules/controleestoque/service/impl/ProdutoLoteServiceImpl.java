@@ -0,0 +1,340 @@
+package br.com.hercules.controleestoque.service.impl;
+
+import br.com.hercules.controleestoque.config.CacheConfig;
+import br.com.hercules.controleestoque.event.ProdutoAlteradoEvent;
+import br.com.hercules.controleestoque.model.AlteracaoParcialProduto;
+import br.com.hercules.controleestoque.model.PrecoProduto;
+import br.com.hercules.controleestoque.model.Produto;
+import br.com.hercules.controleestoque.model.ResultadoLote;
+import br.com.hercules.controleestoque.repository.ProdutoRepository;
+import br.com.hercules.controleestoque.service.ProdutoLoteService;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Processa lotes de produtos em blocos de {@code estoque.lote.tamanho} itens, cada bloco em sua
+ * própria transação. Os inserts e updates de um bloco são enviados em batch JDBC e o contexto de
+ * persistência é limpo ao fim de cada bloco, então a memória não cresce com o tamanho do lote.
+ * Uma falha de banco afeta apenas os itens do bloco em que ocorreu.
+ * <p>
+ * A reprecificação não lê os produtos antes: cada bloco é um UPDATE só do preço que devolve o
+ * estado anterior das linhas para os eventos, em um único comando no PostgreSQL. Um id repetido
+ * no bloco é atualizado uma vez, com o último preço.
+ */
+@Service
+public class ProdutoLoteServiceImpl implements ProdutoLoteService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProdutoLoteServiceImpl.class);
+
+    private final ProdutoRepository produtoRepository;
+
+    private final EntityManager entityManager;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final CacheManager cacheManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int tamanhoBloco;
+
+    public ProdutoLoteServiceImpl(ProdutoRepository produtoRepository, EntityManager entityManager,
+                                  ApplicationEventPublisher eventPublisher, CacheManager cacheManager,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${estoque.lote.tamanho:500}") int tamanhoBloco) {
+        this.produtoRepository = produtoRepository;
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+        this.cacheManager = cacheManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tamanhoBloco = tamanhoBloco;
+    }
+
+    @Override
+    public List<ResultadoLote> criarEmLote(List<Produto> produtos) {
+        List<ResultadoLote> resultados = new ArrayList<>(produtos.size());
+        for (int inicio = 0; inicio < produtos.size(); inicio += tamanhoBloco) {
+            List<Produto> bloco = produtos.subList(inicio, Math.min(inicio + tamanhoBloco, produtos.size()));
+            resultados.addAll(criarBloco(bloco, inicio));
+        }
+        return resultados;
+    }
+
+    @Override
+    public List<ResultadoLote> atualizarEmLote(List<Produto> produtos) {
+        List<ResultadoLote> resultados = new ArrayList<>(produtos.size());
+        for (int inicio = 0; inicio < produtos.size(); inicio += tamanhoBloco) {
+            List<Produto> bloco = produtos.subList(inicio, Math.min(inicio + tamanhoBloco, produtos.size()));
+            resultados.addAll(atualizarBloco(bloco, inicio));
+        }
+        return resultados;
+    }
+
+    @Override
+    public List<ResultadoLote> deletarEmLote(List<Long> ids) {
+        List<ResultadoLote> resultados = new ArrayList<>(ids.size());
+        for (int inicio = 0; inicio < ids.size(); inicio += tamanhoBloco) {
+            List<Long> bloco = ids.subList(inicio, Math.min(inicio + tamanhoBloco, ids.size()));
+            resultados.addAll(deletarBloco(bloco, inicio));
+        }
+        return resultados;
+    }
+
+    @Override
+    public List<ResultadoLote> reprecificarEmLote(List<PrecoProduto> precos) {
+        List<ResultadoLote> resultados = new ArrayList<>(precos.size());
+        for (int inicio = 0; inicio < precos.size(); inicio += tamanhoBloco) {
+            List<PrecoProduto> bloco = precos.subList(inicio, Math.min(inicio + tamanhoBloco, precos.size()));
+            resultados.addAll(reprecificarBloco(bloco, inicio));
+        }
+        return resultados;
+    }
+
+    private List<ResultadoLote> criarBloco(List<Produto> bloco, int deslocamento) {
+        ResultadoLote[] resultados = new ResultadoLote[bloco.size()];
+        List<Produto> validos = new ArrayList<>(bloco.size());
+        List<Integer> indicesValidos = new ArrayList<>(bloco.size());
+        for (int i = 0; i < bloco.size(); i++) {
+            Produto produto = bloco.get(i);
+            String erro = validar(produto);
+            if (erro != null) {
+                resultados[i] = ResultadoLote.falha(deslocamento + i, null, ResultadoLote.Status.INVALIDO, erro);
+            } else {
+                produto.setId(null);
+                validos.add(produto);
+                indicesValidos.add(i);
+            }
+        }
+        if (validos.isEmpty()) {
+            return List.of(resultados);
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                produtoRepository.saveAll(validos);
+                entityManager.flush();
+                entityManager.clear();
+                for (Produto produto : validos) {
+                    eventPublisher.publishEvent(ProdutoAlteradoEvent.criacao(produto));
+                }
+            });
+            for (int v = 0; v < validos.size(); v++) {
+                int i = indicesValidos.get(v);
+                resultados[i] = ResultadoLote.sucesso(deslocamento + i, validos.get(v).getId(), ResultadoLote.Status.CRIADO);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Falha ao criar bloco de {} produtos a partir do índice {}", validos.size(), deslocamento, ex);
+            for (int i : indicesValidos) {
+                resultados[i] = ResultadoLote.falha(deslocamento + i, null, ResultadoLote.Status.ERRO, mensagem(ex));
+            }
+        }
+        return List.of(resultados);
+    }
+
+    private List<ResultadoLote> atualizarBloco(List<Produto> bloco, int deslocamento) {
+        ResultadoLote[] resultados = new ResultadoLote[bloco.size()];
+        Set<Long> ids = new HashSet<>();
+        for (Produto produto : bloco) {
+            if (produto != null && produto.getId() != null) {
+                ids.add(produto.getId());
+            }
+        }
+        List<Integer> indicesAtualizados = new ArrayList<>(bloco.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Map<Long, Produto> existentes = new HashMap<>();
+                for (Produto produto : produtoRepository.findAllParaAlterar(ids)) {
+                    existentes.put(produto.getId(), produto);
+                }
+                Cache cache = cacheManager.getCache(CacheConfig.CACHE_PRODUTOS);
+                for (int i = 0; i < bloco.size(); i++) {
+                    Produto produtoAtualizado = bloco.get(i);
+                    String erro = validarAtualizacao(produtoAtualizado);
+                    Produto produtoExistente = erro == null ? existentes.get(produtoAtualizado.getId()) : null;
+                    if (erro == null && produtoExistente != null
+                            && produtoAtualizado.getQuantidade() < produtoExistente.getQuantidadeReservada()) {
+                        erro = "A quantidade não pode ficar abaixo das " + produtoExistente.getQuantidadeReservada()
+                                + " unidades reservadas";
+                    }
+                    if (erro != null) {
+                        resultados[i] = ResultadoLote.falha(deslocamento + i, idDe(produtoAtualizado), ResultadoLote.Status.INVALIDO, erro);
+                    } else if (produtoExistente == null) {
+                        resultados[i] = ResultadoLote.falha(deslocamento + i, produtoAtualizado.getId(),
+                                ResultadoLote.Status.NAO_ENCONTRADO, "Produto não encontrado!");
+                    } else {
+                        Produto produtoAnterior = new Produto(produtoExistente);
+                        produtoExistente.setDescricao(produtoAtualizado.getDescricao());
+                        produtoExistente.setQuantidade(produtoAtualizado.getQuantidade());
+                        produtoExistente.setPreco(produtoAtualizado.getPreco());
+                        produtoExistente.setPontoReposicao(produtoAtualizado.getPontoReposicao());
+                        cache.evict(produtoExistente.getId());
+                        // A cópia é feita antes do flush, que é quando o Hibernate incrementa a versão.
+                        Produto produtoAtual = new Produto(produtoExistente);
+                        produtoAtual.setVersao(produtoExistente.getVersao() + 1);
+                        eventPublisher.publishEvent(ProdutoAlteradoEvent.atualizacao(produtoAnterior, produtoAtual));
+                        indicesAtualizados.add(i);
+                    }
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+            for (int i : indicesAtualizados) {
+                resultados[i] = ResultadoLote.sucesso(deslocamento + i, bloco.get(i).getId(), ResultadoLote.Status.ATUALIZADO);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Falha ao atualizar bloco de {} produtos a partir do índice {}", bloco.size(), deslocamento, ex);
+            for (int i = 0; i < bloco.size(); i++) {
+                if (resultados[i] == null) {
+                    resultados[i] = ResultadoLote.falha(deslocamento + i, idDe(bloco.get(i)), ResultadoLote.Status.ERRO,
+                            mensagem(ex));
+                }
+            }
+        }
+        return List.of(resultados);
+    }
+
+    private List<ResultadoLote> deletarBloco(List<Long> bloco, int deslocamento) {
+        List<ResultadoLote> resultados = new ArrayList<>(bloco.size());
+        try {
+            Set<Long> removidos = transactionTemplate.execute(status -> {
+                List<Produto> existentes = produtoRepository.findAllParaAlterar(bloco);
+                Set<Long> ids = new HashSet<>();
+                for (Produto produto : existentes) {
+                    ids.add(produto.getId());
+                }
+                produtoRepository.deleteAllByIdInBatch(ids);
+                Cache cache = cacheManager.getCache(CacheConfig.CACHE_PRODUTOS);
+                for (Produto produto : existentes) {
+                    cache.evict(produto.getId());
+                    eventPublisher.publishEvent(ProdutoAlteradoEvent.remocao(produto.getId(), new Produto(produto)));
+                }
+                entityManager.clear();
+                return ids;
+            });
+            for (int i = 0; i < bloco.size(); i++) {
+                Long id = bloco.get(i);
+                resultados.add(removidos.contains(id)
+                        ? ResultadoLote.sucesso(deslocamento + i, id, ResultadoLote.Status.REMOVIDO)
+                        : ResultadoLote.falha(deslocamento + i, id, ResultadoLote.Status.NAO_ENCONTRADO, "Produto não encontrado!"));
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Falha ao remover bloco de {} produtos a partir do índice {}", bloco.size(), deslocamento, ex);
+            for (int i = 0; i < bloco.size(); i++) {
+                resultados.add(ResultadoLote.falha(deslocamento + i, bloco.get(i), ResultadoLote.Status.ERRO,
+                        mensagem(ex)));
+            }
+        }
+        return resultados;
+    }
+
+    private List<ResultadoLote> reprecificarBloco(List<PrecoProduto> bloco, int deslocamento) {
+        ResultadoLote[] resultados = new ResultadoLote[bloco.size()];
+        // Um id repetido no bloco fica com o último preço informado.
+        SortedMap<Long, Double> precos = new TreeMap<>();
+        List<Integer> indicesValidos = new ArrayList<>(bloco.size());
+        for (int i = 0; i < bloco.size(); i++) {
+            PrecoProduto preco = bloco.get(i);
+            String erro = validarPreco(preco);
+            if (erro != null) {
+                resultados[i] = ResultadoLote.falha(deslocamento + i, preco == null ? null : preco.id(), ResultadoLote.Status.INVALIDO, erro);
+            } else {
+                precos.put(preco.id(), preco.preco());
+                indicesValidos.add(i);
+            }
+        }
+        if (precos.isEmpty()) {
+            return List.of(resultados);
+        }
+        try {
+            Set<Long> atualizados = transactionTemplate.execute(status -> {
+                Map<Long, Produto> anteriores = produtoRepository.reprecificar(precos);
+                Cache cache = cacheManager.getCache(CacheConfig.CACHE_PRODUTOS);
+                anteriores.forEach((id, produtoAnterior) -> {
+                    cache.evict(id);
+                    Produto produtoAtual = new Produto(produtoAnterior);
+                    produtoAtual.setPreco(precos.get(id));
+                    produtoAtual.setVersao(produtoAnterior.getVersao() + 1);
+                    eventPublisher.publishEvent(ProdutoAlteradoEvent.atualizacaoParcial(produtoAnterior, produtoAtual,
+                            new AlteracaoParcialProduto(null, null, precos.get(id), null)));
+                });
+                return anteriores.keySet();
+            });
+            for (int i : indicesValidos) {
+                Long id = bloco.get(i).id();
+                resultados[i] = atualizados.contains(id)
+                        ? ResultadoLote.sucesso(deslocamento + i, id, ResultadoLote.Status.ATUALIZADO)
+                        : ResultadoLote.falha(deslocamento + i, id, ResultadoLote.Status.NAO_ENCONTRADO, "Produto não encontrado!");
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Falha ao reprecificar bloco de {} produtos a partir do índice {}", precos.size(), deslocamento, ex);
+            for (int i : indicesValidos) {
+                resultados[i] = ResultadoLote.falha(deslocamento + i, bloco.get(i).id(), ResultadoLote.Status.ERRO, mensagem(ex));
+            }
+        }
+        return List.of(resultados);
+    }
+
+    private static String validarPreco(PrecoProduto preco) {
+        if (preco == null) {
+            return "Preço não informado";
+        }
+        if (preco.id() == null) {
+            return "O id é obrigatório";
+        }
+        if (preco.preco() == null) {
+            return "O preço é obrigatório";
+        }
+        if (preco.preco() < 0) {
+            return "O preço não pode ser negativo";
+        }
+        return null;
+    }
+
+    private static String validarAtualizacao(Produto produto) {
+        if (produto != null && produto.getId() == null) {
+            return "O id é obrigatório";
+        }
+        return validar(produto);
+    }
+
+    private static Long idDe(Produto produto) {
+        return produto == null ? null : produto.getId();
+    }
+
+    private static String mensagem(RuntimeException ex) {
+        return NestedExceptionUtils.getMostSpecificCause(ex).getMessage();
+    }
+
+    private static String validar(Produto produto) {
+        if (produto == null) {
+            return "Produto não informado";
+        }
+        if (produto.getDescricao() == null || produto.getDescricao().isBlank()) {
+            return "A descrição é obrigatória";
+        }
+        if (produto.getQuantidade() < 0) {
+            return "A quantidade não pode ser negativa";
+        }
+        if (produto.getPontoReposicao() < 0) {
+            return "O ponto de reposição não pode ser negativo";
+        }
+        return null;
+    }
+}
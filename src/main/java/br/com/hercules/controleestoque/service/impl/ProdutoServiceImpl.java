@@ -1,57 +1,317 @@
 package br.com.hercules.controleestoque.service.impl;
 
+import br.com.hercules.controleestoque.busca.IndiceDescricaoProduto;
+import br.com.hercules.controleestoque.cache.CargaAgrupadaProdutos;
+import br.com.hercules.controleestoque.config.CacheConfig;
+import br.com.hercules.controleestoque.event.ProdutoAlteradoEvent;
+import br.com.hercules.controleestoque.exception.InsufficientStockException;
+import br.com.hercules.controleestoque.exception.InvalidRequestException;
+import br.com.hercules.controleestoque.exception.PreconditionFailedException;
 import br.com.hercules.controleestoque.exception.ResourceNotFoundException;
+import br.com.hercules.controleestoque.model.AlteracaoParcialProduto;
+import br.com.hercules.controleestoque.model.FiltroProdutos;
+import br.com.hercules.controleestoque.model.MovimentoEstoque;
 import br.com.hercules.controleestoque.model.Produto;
+import br.com.hercules.controleestoque.model.ResumoProduto;
 import br.com.hercules.controleestoque.repository.ProdutoRepository;
 import br.com.hercules.controleestoque.service.ProdutoService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class ProdutoServiceImpl implements ProdutoService {
 
     private final ProdutoRepository produtoRepository;
 
-    public ProdutoServiceImpl(ProdutoRepository produtoRepository) {
+    private final EntityManager entityManager;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final IndiceDescricaoProduto indiceDescricao;
+
+    private final CargaAgrupadaProdutos cargaAgrupada;
+
+    public ProdutoServiceImpl(ProdutoRepository produtoRepository, EntityManager entityManager,
+                              ApplicationEventPublisher eventPublisher, IndiceDescricaoProduto indiceDescricao,
+                              CargaAgrupadaProdutos cargaAgrupada) {
         this.produtoRepository = produtoRepository;
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+        this.indiceDescricao = indiceDescricao;
+        this.cargaAgrupada = cargaAgrupada;
     }
 
+    /**
+     * Lê da primária: o valor vai para o cache e, vindo de uma réplica atrasada, seria servido
+     * desatualizado até o TTL mesmo depois do evict pós-commit.
+     */
     @Override
+    @Transactional
+    @Cacheable(cacheNames = CacheConfig.CACHE_PRODUTOS, key = "#id", sync = true)
     public Produto produtoGetById(Long id) {
         return produtoRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Produto não encontrado!"));
     }
 
+    /**
+     * Sem transação própria: a consulta dos ids ausentes do cache abre uma curta, e quem espera a
+     * carga de outra requisição não segura conexão enquanto espera.
+     */
     @Override
+    public List<Produto> produtosGetByIds(List<Long> ids) {
+        return cargaAgrupada.buscar(ids);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<Produto> findAllProdutos() {
         return produtoRepository.findAll();
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public List<Produto> findProdutosAposId(Long ultimoId, int limite) {
+        return produtoRepository.findByIdGreaterThanOrderByIdAsc(ultimoId == null ? 0L : ultimoId, Limit.of(limite));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void percorrerProdutos(Consumer<Produto> consumidor) {
+        // O cursor precisa da transação aberta; cada entidade é desanexada após o uso
+        // para que o contexto de persistência não cresça com o tamanho da tabela.
+        try (Stream<Produto> produtos = produtoRepository.streamAllOrderById()) {
+            produtos.forEach(produto -> {
+                consumidor.accept(produto);
+                entityManager.detach(produto);
+            });
+        }
+    }
+
+    @Override
+    @CachePut(cacheNames = CacheConfig.CACHE_PRODUTOS, key = "#result.id")
     public Produto createProduto(Produto produtoToCreate) {
-        return produtoRepository.save(produtoToCreate);
+        Produto produtoCriado = produtoRepository.save(produtoToCreate);
+        eventPublisher.publishEvent(ProdutoAlteradoEvent.criacao(produtoCriado));
+        return produtoCriado;
     }
 
     @Override
-    public List<Produto> produtoGetByDescricao(String descricao) {
-        return produtoRepository.findByDescricaoContainingIgnoreCase(descricao);
+    @Transactional(readOnly = true)
+    public List<Produto> produtoGetByDescricao(String descricao, int limite) {
+        if (!indiceDescricao.isPronto()) {
+            return produtoRepository.findByDescricaoContainingIgnoreCase(descricao, Limit.of(limite));
+        }
+        List<Long> ids = indiceDescricao.buscar(descricao, limite);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Integer> posicoes = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            posicoes.put(ids.get(i), i);
+        }
+        List<Produto> produtos = new ArrayList<>(produtoRepository.findAllById(ids));
+        produtos.sort(Comparator.comparing(produto -> posicoes.get(produto.getId())));
+        return produtos;
+    }
+
+    /**
+     * Monta um único SELECT com os filtros informados, ordenado pelo campo pedido e pelo id para
+     * desempate, e projeta direto em {@link ResumoProduto}: nenhuma entidade entra no contexto de
+     * persistência. Os índices compostos (preco, id) e (quantidade, id) atendem intervalo e ordem
+     * juntos; o trecho de descrição usa o índice de trigramas sobre lower(descricao).
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<ResumoProduto> buscarProdutos(FiltroProdutos filtro) {
+        if (filtro.precoMinimo() != null && filtro.precoMaximo() != null && filtro.precoMinimo() > filtro.precoMaximo()) {
+            throw new InvalidRequestException("O preço mínimo não pode ser maior que o máximo!");
+        }
+        if (filtro.quantidadeMinima() != null && filtro.quantidadeMaxima() != null
+                && filtro.quantidadeMinima() > filtro.quantidadeMaxima()) {
+            throw new InvalidRequestException("A quantidade mínima não pode ser maior que a máxima!");
+        }
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ResumoProduto> consulta = criteriaBuilder.createQuery(ResumoProduto.class);
+        Root<Produto> produto = consulta.from(Produto.class);
+        consulta.select(criteriaBuilder.construct(ResumoProduto.class, produto.get("id"), produto.get("descricao"),
+                produto.get("quantidade"), produto.get("preco")));
+
+        List<Predicate> condicoes = new ArrayList<>();
+        if (filtro.descricao() != null && !filtro.descricao().isBlank()) {
+            condicoes.add(criteriaBuilder.like(criteriaBuilder.lower(produto.get("descricao")),
+                    "%" + escaparLike(filtro.descricao().strip().toLowerCase()) + "%", '\\'));
+        }
+        if (filtro.precoMinimo() != null) {
+            condicoes.add(criteriaBuilder.greaterThanOrEqualTo(produto.get("preco"), filtro.precoMinimo()));
+        }
+        if (filtro.precoMaximo() != null) {
+            condicoes.add(criteriaBuilder.lessThanOrEqualTo(produto.get("preco"), filtro.precoMaximo()));
+        }
+        if (filtro.quantidadeMinima() != null) {
+            condicoes.add(criteriaBuilder.greaterThanOrEqualTo(produto.get("quantidade"), filtro.quantidadeMinima()));
+        }
+        if (filtro.quantidadeMaxima() != null) {
+            condicoes.add(criteriaBuilder.lessThanOrEqualTo(produto.get("quantidade"), filtro.quantidadeMaxima()));
+        }
+        consulta.where(condicoes.toArray(Predicate[]::new));
+
+        List<Order> ordem = new ArrayList<>(2);
+        FiltroProdutos.Ordenacao ordenacao = filtro.ordenacao() == null ? FiltroProdutos.Ordenacao.ID : filtro.ordenacao();
+        Path<Object> campo = produto.get(ordenacao.atributo());
+        ordem.add(filtro.decrescente() ? criteriaBuilder.desc(campo) : criteriaBuilder.asc(campo));
+        if (ordenacao != FiltroProdutos.Ordenacao.ID) {
+            Path<Object> id = produto.get("id");
+            ordem.add(filtro.decrescente() ? criteriaBuilder.desc(id) : criteriaBuilder.asc(id));
+        }
+        consulta.orderBy(ordem);
+
+        return entityManager.createQuery(consulta)
+                .setMaxResults(filtro.limite())
+                .getResultList();
+    }
+
+    private static void validarReservada(Produto produtoExistente, int quantidade) {
+        if (quantidade < produtoExistente.getQuantidadeReservada()) {
+            throw new InsufficientStockException("A quantidade não pode ficar abaixo das "
+                    + produtoExistente.getQuantidadeReservada() + " unidades reservadas!");
+        }
+    }
+
+    private static String escaparLike(String texto) {
+        return texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
     }
 
+    /**
+     * Lê o produto com bloqueio: as reservas não mudam a versão, então só o bloqueio impede que uma
+     * reserva feita em paralelo fique acima da nova quantidade.
+     */
     @Override
-    public Produto atualizarProduto(Long id, Produto produtoAtualizado) {
-        Produto produtoExistente = produtoRepository.findById(id).orElseThrow( () -> new ResourceNotFoundException("Produto não encontrado!"));
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CACHE_PRODUTOS, key = "#id")
+    public Produto atualizarProduto(Long id, Produto produtoAtualizado, Long versaoEsperada) {
+        Produto produtoExistente = produtoRepository.findByIdParaAlterar(id).orElseThrow( () -> new ResourceNotFoundException("Produto não encontrado!"));
+        if (versaoEsperada != null && !versaoEsperada.equals(produtoExistente.getVersao())) {
+            throw new PreconditionFailedException("O produto foi alterado desde a última leitura!");
+        }
+        validarReservada(produtoExistente, produtoAtualizado.getQuantidade());
+        Produto produtoAnterior = new Produto(produtoExistente);
         produtoExistente.setDescricao(produtoAtualizado.getDescricao());
         produtoExistente.setQuantidade(produtoAtualizado.getQuantidade());
         produtoExistente.setPreco(produtoAtualizado.getPreco());
-        return produtoRepository.save(produtoExistente);
+        produtoExistente.setPontoReposicao(produtoAtualizado.getPontoReposicao());
+        Produto produtoSalvo = produtoRepository.save(produtoExistente);
+        eventPublisher.publishEvent(ProdutoAlteradoEvent.atualizacao(produtoAnterior, produtoSalvo));
+        return produtoSalvo;
 
     }
 
+    /**
+     * Aplica apenas os campos informados em um único UPDATE, sem ler o produto antes: a versão
+     * esperada e a reserva entram como condições do UPDATE, que devolve o estado anterior para o
+     * evento. Só quando nenhuma linha é alterada o produto é lido, para escolher o erro.
+     */
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CACHE_PRODUTOS, key = "#id")
+    public void atualizarParcialmente(Long id, AlteracaoParcialProduto alteracao, Long versaoEsperada) {
+        if (alteracao.vazia()) {
+            throw new InvalidRequestException("Informe ao menos um campo para atualizar!");
+        }
+        if (alteracao.descricao() != null && alteracao.descricao().isBlank()) {
+            throw new InvalidRequestException("A descrição não pode ficar em branco!");
+        }
+        if (alteracao.quantidade() != null && alteracao.quantidade() < 0) {
+            throw new InvalidRequestException("A quantidade não pode ser negativa!");
+        }
+        if (alteracao.pontoReposicao() != null && alteracao.pontoReposicao() < 0) {
+            throw new InvalidRequestException("O ponto de reposição não pode ser negativo!");
+        }
+        Produto produtoAnterior = produtoRepository.atualizarColunas(id, alteracao, versaoEsperada)
+                .orElseThrow(() -> falhaAtualizacaoParcial(id, alteracao, versaoEsperada));
+        eventPublisher.publishEvent(ProdutoAlteradoEvent.atualizacaoParcial(produtoAnterior,
+                aplicar(produtoAnterior, alteracao), alteracao));
+    }
+
+    private RuntimeException falhaAtualizacaoParcial(Long id, AlteracaoParcialProduto alteracao, Long versaoEsperada) {
+        Produto produtoExistente = produtoRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Produto não encontrado!"));
+        if (versaoEsperada != null && !versaoEsperada.equals(produtoExistente.getVersao())) {
+            return new PreconditionFailedException("O produto foi alterado desde a última leitura!");
+        }
+        if (alteracao.quantidade() != null) {
+            validarReservada(produtoExistente, alteracao.quantidade());
+        }
+        // A reserva que barrou o UPDATE foi liberada antes da leitura.
+        return new InsufficientStockException("A quantidade não pode ficar abaixo das unidades reservadas!");
+    }
+
+    private static Produto aplicar(Produto anterior, AlteracaoParcialProduto alteracao) {
+        Produto atual = new Produto(anterior);
+        if (alteracao.descricao() != null) {
+            atual.setDescricao(alteracao.descricao());
+        }
+        if (alteracao.quantidade() != null) {
+            atual.setQuantidade(alteracao.quantidade());
+        }
+        if (alteracao.preco() != null) {
+            atual.setPreco(alteracao.preco());
+        }
+        if (alteracao.pontoReposicao() != null) {
+            atual.setPontoReposicao(alteracao.pontoReposicao());
+        }
+        atual.setVersao(anterior.getVersao() + 1);
+        return atual;
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CACHE_PRODUTOS, key = "#id")
     public void deletarProduto(Long id) {
-        if(!produtoRepository.existsById(id)){
-            throw new ResourceNotFoundException("Produto não encontrado!");
+        Produto produto = produtoRepository.findByIdParaAlterar(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Produto não encontrado!"));
+        Produto produtoAnterior = new Produto(produto);
+        produtoRepository.delete(produto);
+        eventPublisher.publishEvent(ProdutoAlteradoEvent.remocao(id, produtoAnterior));
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CACHE_PRODUTOS, key = "#id")
+    public Produto movimentarEstoque(Long id, MovimentoEstoque movimento) {
+        if (movimento.tipo() == null || movimento.quantidade() <= 0) {
+            throw new InvalidRequestException("Informe o tipo e uma quantidade maior que zero!");
+        }
+        int delta = movimento.delta();
+        if (produtoRepository.ajustarQuantidade(id, delta) == 0) {
+            if (!produtoRepository.existsById(id)) {
+                throw new ResourceNotFoundException("Produto não encontrado!");
+            }
+            throw new InsufficientStockException("Estoque insuficiente!");
         }
-        produtoRepository.deleteById(id);
+        Produto produtoAtual = produtoRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Produto não encontrado!"));
+        Produto produtoAnterior = new Produto(produtoAtual);
+        produtoAnterior.setQuantidade(produtoAtual.getQuantidade() - delta);
+        produtoAnterior.setVersao(produtoAtual.getVersao() - 1);
+        eventPublisher.publishEvent(ProdutoAlteradoEvent.atualizacao(produtoAnterior, produtoAtual));
+        return produtoAtual;
     }
 }
@@ -0,0 +1,151 @@
+package br.com.hercules.controleestoque.service.impl;
+
+import br.com.hercules.controleestoque.config.CacheConfig;
+import br.com.hercules.controleestoque.event.ProdutoAlteradoEvent;
+import br.com.hercules.controleestoque.exception.InsufficientStockException;
+import br.com.hercules.controleestoque.exception.InvalidRequestException;
+import br.com.hercules.controleestoque.exception.ResourceNotFoundException;
+import br.com.hercules.controleestoque.model.DisponibilidadeProduto;
+import br.com.hercules.controleestoque.model.NovaReserva;
+import br.com.hercules.controleestoque.model.Produto;
+import br.com.hercules.controleestoque.model.ReservaEstoque;
+import br.com.hercules.controleestoque.repository.ProdutoRepository;
+import br.com.hercules.controleestoque.repository.ReservaEstoqueRepository;
+import br.com.hercules.controleestoque.reserva.ExpiracaoReservas;
+import br.com.hercules.controleestoque.service.ReservaEstoqueService;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Reservas sem ler o produto: reservar é um UPDATE condicional de {@code quantidade_reservada}
+ * seguido de um INSERT, e o lock da linha do produto dura só até o commit. A quantidade e a versão
+ * do produto só mudam na confirmação, que baixa quantidade e reserva no mesmo UPDATE.
+ */
+@Service
+public class ReservaEstoqueServiceImpl implements ReservaEstoqueService {
+
+    private final ProdutoRepository produtoRepository;
+
+    private final ReservaEstoqueRepository reservaRepository;
+
+    private final EntityManager entityManager;
+
+    private final ExpiracaoReservas expiracaoReservas;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Duration ttlPadrao;
+
+    private final Duration ttlMaximo;
+
+    private final Clock clock;
+
+    @Autowired
+    public ReservaEstoqueServiceImpl(ProdutoRepository produtoRepository, ReservaEstoqueRepository reservaRepository,
+                                     EntityManager entityManager, ExpiracaoReservas expiracaoReservas,
+                                     ApplicationEventPublisher eventPublisher,
+                                     @Value("${estoque.reservas.ttl:15m}") String ttlPadrao,
+                                     @Value("${estoque.reservas.ttl-maximo:2h}") String ttlMaximo) {
+        this(produtoRepository, reservaRepository, entityManager, expiracaoReservas, eventPublisher,
+                DurationStyle.detectAndParse(ttlPadrao), DurationStyle.detectAndParse(ttlMaximo), Clock.systemUTC());
+    }
+
+    public ReservaEstoqueServiceImpl(ProdutoRepository produtoRepository, ReservaEstoqueRepository reservaRepository,
+                                     EntityManager entityManager, ExpiracaoReservas expiracaoReservas,
+                                     ApplicationEventPublisher eventPublisher, Duration ttlPadrao, Duration ttlMaximo,
+                                     Clock clock) {
+        this.produtoRepository = produtoRepository;
+        this.reservaRepository = reservaRepository;
+        this.entityManager = entityManager;
+        this.expiracaoReservas = expiracaoReservas;
+        this.eventPublisher = eventPublisher;
+        this.ttlPadrao = ttlPadrao;
+        this.ttlMaximo = ttlMaximo;
+        this.clock = clock;
+    }
+
+    /**
+     * A expiração é agendada antes do commit; se a transação for desfeita, o vencimento não
+     * encontra a reserva e é ignorado.
+     */
+    @Override
+    @Transactional
+    public ReservaEstoque reservar(Long produtoId, NovaReserva novaReserva) {
+        if (novaReserva.quantidade() <= 0) {
+            throw new InvalidRequestException("A quantidade da reserva deve ser maior que zero!");
+        }
+        Duration ttl = novaReserva.ttlSegundos() == null ? ttlPadrao : Duration.ofSeconds(novaReserva.ttlSegundos());
+        if (ttl.isNegative() || ttl.isZero() || ttl.compareTo(ttlMaximo) > 0) {
+            throw new InvalidRequestException("O TTL da reserva deve estar entre 1 e " + ttlMaximo.toSeconds() + " segundos!");
+        }
+        if (produtoRepository.reservar(produtoId, novaReserva.quantidade()) == 0) {
+            if (!produtoRepository.existsById(produtoId)) {
+                throw new ResourceNotFoundException("Produto não encontrado!");
+            }
+            throw new InsufficientStockException("Estoque disponível insuficiente!");
+        }
+        Instant agora = clock.instant().truncatedTo(ChronoUnit.MICROS);
+        ReservaEstoque reserva = new ReservaEstoque(UUID.randomUUID(), produtoId, novaReserva.quantidade(), agora, agora.plus(ttl));
+        entityManager.persist(reserva);
+        expiracaoReservas.agendar(reserva.getId(), reserva.getExpiraEm());
+        return reserva;
+    }
+
+    @Override
+    @Transactional
+    public ReservaEstoque buscar(Long produtoId, UUID reservaId) {
+        return reservaRepository.findById(reservaId)
+                .filter(reserva -> reserva.getProdutoId().equals(produtoId))
+                .filter(reserva -> reserva.getExpiraEm().isAfter(clock.instant()))
+                .orElseThrow(() -> new ResourceNotFoundException("Reserva não encontrada!"));
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CACHE_PRODUTOS, key = "#produtoId")
+    public Produto confirmar(Long produtoId, UUID reservaId) {
+        ReservaEstoque reserva = buscar(produtoId, reservaId);
+        if (reservaRepository.removerAtiva(reservaId, clock.instant()) == 0) {
+            throw new ResourceNotFoundException("Reserva não encontrada!");
+        }
+        if (produtoRepository.confirmarReserva(produtoId, reserva.getQuantidade()) == 0) {
+            throw new InsufficientStockException("Estoque insuficiente para confirmar a reserva!");
+        }
+        Produto produtoAtual = produtoRepository.findById(produtoId).orElseThrow(() -> new ResourceNotFoundException("Produto não encontrado!"));
+        Produto produtoAnterior = new Produto(produtoAtual);
+        produtoAnterior.setQuantidade(produtoAtual.getQuantidade() + reserva.getQuantidade());
+        produtoAnterior.setVersao(produtoAtual.getVersao() - 1);
+        eventPublisher.publishEvent(ProdutoAlteradoEvent.atualizacao(produtoAnterior, produtoAtual));
+        return produtoAtual;
+    }
+
+    @Override
+    @Transactional
+    public void cancelar(Long produtoId, UUID reservaId) {
+        ReservaEstoque reserva = buscar(produtoId, reservaId);
+        if (reservaRepository.removerTodas(List.of(reservaId)) == 0) {
+            throw new ResourceNotFoundException("Reserva não encontrada!");
+        }
+        produtoRepository.liberarReserva(produtoId, reserva.getQuantidade());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public DisponibilidadeProduto disponibilidade(Long produtoId) {
+        return produtoRepository.findDisponibilidade(produtoId)
+                .orElseThrow(() -> new ResourceNotFoundException("Produto não encontrado!"));
+    }
+}
@@ -0,0 +1,10 @@
+-- Total de cada produto somado em todos os depósitos, ajustado a cada entrada ou saída em depósito,
+-- para que o estoque do produto por depósito não some as linhas de todas as partições a cada leitura.
+create table if not exists total_depositos_produto (
+    produto_id bigint primary key references produto (id) on delete cascade,
+    quantidade integer not null check (quantidade >= 0)
+);
+
+insert into total_depositos_produto (produto_id, quantidade)
+select produto_id, sum(quantidade) from estoque_deposito group by produto_id
+on conflict (produto_id) do nothing;
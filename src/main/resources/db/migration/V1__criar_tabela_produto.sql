@@ -0,0 +1,6 @@
+create table if not exists produto (
+    id bigint generated by default as identity primary key,
+    descricao varchar(255) not null,
+    quantidade integer not null,
+    preco float(53) not null
+);
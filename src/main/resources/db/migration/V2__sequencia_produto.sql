@@ -0,0 +1,7 @@
+-- Ids passam a vir de uma sequência com alocação em blocos de 50 (otimizador pooled do Hibernate),
+-- o que permite inserts em lote via JDBC. A sequência começa acima dos ids já existentes.
+create sequence if not exists produto_seq increment by 50;
+
+select setval('produto_seq', (select coalesce(max(id), 0) + 50 from produto));
+
+alter table produto alter column id drop identity if exists;
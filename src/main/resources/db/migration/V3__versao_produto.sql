@@ -0,0 +1,2 @@
+-- Versão para lock otimista e ETags; incrementada pelo Hibernate a cada atualização.
+alter table produto add column if not exists versao bigint not null default 0;
@@ -0,0 +1,5 @@
+-- Ponto de reposição por produto; 0 desliga o alerta de estoque baixo.
+alter table produto add column if not exists ponto_reposicao integer not null default 0;
+
+-- Índice parcial só com os produtos abaixo do ponto de reposição, usado na carga do monitor de estoque.
+create index if not exists idx_produto_abaixo_reposicao on produto (id) where quantidade < ponto_reposicao;
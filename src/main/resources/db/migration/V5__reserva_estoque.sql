@@ -0,0 +1,14 @@
+-- Unidades presas em reservas ativas; o disponível é quantidade - quantidade_reservada.
+alter table produto add column if not exists quantidade_reservada integer not null default 0;
+
+-- Reservas ativas. Confirmadas, canceladas e expiradas são removidas, ajustando quantidade_reservada.
+create table if not exists reserva_estoque (
+    id uuid primary key,
+    produto_id bigint not null references produto (id) on delete cascade,
+    quantidade integer not null,
+    criada_em timestamp(6) with time zone not null,
+    expira_em timestamp(6) with time zone not null
+);
+
+-- Varredura das reservas vencidas que nenhuma instância expirou.
+create index if not exists idx_reserva_estoque_expira_em on reserva_estoque (expira_em);
@@ -0,0 +1,8 @@
+-- Índices da busca filtrada (GET /produtos/busca). Com o id como segunda coluna, o mesmo índice
+-- atende o intervalo e a ordenação pelo campo com desempate por id, nos dois sentidos.
+create index if not exists idx_produto_preco_id on produto (preco, id);
+create index if not exists idx_produto_quantidade_id on produto (quantidade, id);
+
+-- Trecho de descrição (lower(descricao) like '%...%') por trigramas.
+create extension if not exists pg_trgm;
+create index if not exists idx_produto_descricao_trgm on produto using gin (lower(descricao) gin_trgm_ops);
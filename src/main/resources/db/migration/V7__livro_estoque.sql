@@ -0,0 +1,31 @@
+-- Livro de estoque: um lançamento por alteração de quantidade, só com inserts, particionado por mês
+-- de ocorrido_em. As partições mensais são criadas pela aplicação (ParticoesLivroEstoque); a padrão
+-- só recebe lançamentos fora delas. Sem chave estrangeira: o histórico sobrevive à remoção do produto.
+create sequence if not exists lancamento_estoque_seq increment by 50;
+
+create table if not exists lancamento_estoque (
+    id bigint not null,
+    produto_id bigint not null,
+    tipo varchar(16) not null,
+    variacao integer,
+    quantidade integer not null,
+    ocorrido_em timestamp(6) with time zone not null,
+    primary key (id, ocorrido_em)
+) partition by range (ocorrido_em);
+
+create table if not exists lancamento_estoque_padrao partition of lancamento_estoque default;
+
+create index if not exists idx_lancamento_estoque_produto on lancamento_estoque (produto_id, ocorrido_em);
+
+-- Fotografias periódicas da quantidade de cada produto alterado, ponto de partida das consultas por instante.
+create table if not exists saldo_estoque (
+    produto_id bigint not null,
+    instante timestamp(6) with time zone not null,
+    quantidade integer not null,
+    removido boolean not null,
+    primary key (produto_id, instante)
+);
+
+-- Os produtos existentes partem de uma fotografia no momento da migração.
+insert into saldo_estoque (produto_id, instante, quantidade, removido)
+select id, now(), quantidade, false from produto;
@@ -0,0 +1,22 @@
+-- Depósitos e o estoque de cada produto em cada um. estoque_deposito é particionada por lista de
+-- deposito_id: cada depósito ganha a sua partição ao ser criado (ParticoesEstoqueDeposito), e as
+-- consultas de um depósito só leem a dele; a padrão só recebe linhas de depósitos sem partição.
+-- produto.quantidade continua sendo o total do produto, ajustado a cada entrada ou saída em um depósito.
+create sequence if not exists deposito_seq increment by 50;
+
+create table if not exists deposito (
+    id bigint primary key,
+    nome varchar(255) not null unique
+);
+
+create table if not exists estoque_deposito (
+    deposito_id bigint not null references deposito (id),
+    produto_id bigint not null references produto (id) on delete cascade,
+    quantidade integer not null check (quantidade >= 0),
+    primary key (deposito_id, produto_id)
+) partition by list (deposito_id);
+
+create table if not exists estoque_deposito_padrao partition of estoque_deposito default;
+
+-- Estoque de um produto em todos os depósitos: uma busca por índice em cada partição.
+create index if not exists idx_estoque_deposito_produto on estoque_deposito (produto_id);
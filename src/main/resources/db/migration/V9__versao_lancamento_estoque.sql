@@ -0,0 +1,3 @@
+-- Versão do produto que o lançamento produziu: desempata lançamentos do mesmo produto no mesmo
+-- microssegundo. Nula nos lançamentos antigos, que na ordenação ficam atrás dos que a têm.
+alter table lancamento_estoque add column if not exists versao bigint;
@@ -0,0 +1,141 @@
+package br.com.hercules.controleestoque.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.lang.Nullable;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.util.MimeType;
+import org.springframework.web.reactive.config.BlockingExecutionConfigurer;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Map;
+
+/**
+ * Pilha reativa (perfil {@code reativo}): WebFlux no lugar do Spring MVC e R2DBC para as rotas de
+ * produto em {@code ProdutoRotasReativas}; JPA, Flyway e os demais recursos continuam sobre o
+ * DataSource.
+ * <p>
+ * O pool R2DBC e o seu gerenciador de transações não são beans: com um {@code ConnectionFactory}
+ * no contexto o Spring Boot deixa de criar o DataSource, e com dois {@code TransactionManager} os
+ * {@code @Transactional} sem qualificador não encontram o do JPA. O contexto só recebe o
+ * {@link DatabaseClient} e o {@link TransactionalOperator}, e o pool é fechado junto com esta configuração.
+ * <p>
+ * O driver do H2 é síncrono: a consulta, a resposta e a devolução da conexão rodam na thread que a
+ * recebeu do pool, e quem devolve entrega a próxima conexão na mesma pilha. Com muitas requisições
+ * simultâneas, uma thread do event loop acabava atendendo a fila inteira e parte delas ficava sem
+ * resposta; com o H2 as conexões são entregues numa thread do {@code boundedElastic}. O driver do
+ * PostgreSQL não bloqueia e dispensa o desvio.
+ * <p>
+ * Os controllers anotados, que continuam atendendo as demais rotas, são bloqueantes: rodam no
+ * executor de tarefas da aplicação, nunca nas threads do event loop.
+ */
+@Configuration
+@Profile("reativo")
+@EnableConfigurationProperties(R2dbcProperties.class)
+public class ReativoConfig implements WebFluxConfigurer, DisposableBean {
+
+    private final AsyncTaskExecutor taskExecutor;
+
+    private final ObjectMapper objectMapper;
+
+    private final ConnectionPool conexoes;
+
+    public ReativoConfig(AsyncTaskExecutor taskExecutor, ObjectMapper objectMapper, R2dbcProperties propriedades) {
+        this.taskExecutor = taskExecutor;
+        this.objectMapper = objectMapper;
+        ConnectionFactoryOptions.Builder opcoes = ConnectionFactoryOptions.parse(propriedades.getUrl()).mutate();
+        if (propriedades.getUsername() != null) {
+            opcoes.option(ConnectionFactoryOptions.USER, propriedades.getUsername());
+        }
+        if (propriedades.getPassword() != null) {
+            opcoes.option(ConnectionFactoryOptions.PASSWORD, propriedades.getPassword());
+        }
+        ConnectionFactoryOptions configuracao = opcoes.build();
+        ConnectionPoolConfiguration.Builder pool = ConnectionPoolConfiguration.builder(ConnectionFactories.get(configuracao))
+                .initialSize(propriedades.getPool().getInitialSize())
+                .maxSize(propriedades.getPool().getMaxSize())
+                .maxIdleTime(propriedades.getPool().getMaxIdleTime())
+                .name("r2dbc-produtos");
+        if ("h2".equals(configuracao.getValue(ConnectionFactoryOptions.DRIVER))) {
+            pool.customizer(builder -> builder.acquisitionScheduler(Schedulers.boundedElastic()));
+        }
+        this.conexoes = new ConnectionPool(pool.build());
+    }
+
+    /**
+     * Com o Tomcat também no classpath, o Spring Boot o escolheria para o WebFlux; o Netty atende
+     * com um event loop por núcleo.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean
+    public DatabaseClient databaseClientReativo() {
+        return DatabaseClient.create(conexoes);
+    }
+
+    @Bean
+    public TransactionalOperator transactionalOperatorReativo() {
+        return TransactionalOperator.create(new R2dbcTransactionManager(conexoes));
+    }
+
+    /**
+     * O WebFlux já registra o Smile quando está no classpath, mas não o CBOR. Os codecs próprios
+     * vêm antes dos padrão e, para {@code *}{@code /*}, vence o primeiro: o JSON é registrado de
+     * novo à frente do CBOR para continuar sendo o formato padrão.
+     */
+    @Override
+    public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
+        configurer.customCodecs().register(new Jackson2JsonEncoder(objectMapper));
+        configurer.customCodecs().register(new CborEncoder());
+        configurer.customCodecs().register(new Jackson2CborDecoder());
+    }
+
+    @Override
+    public void configureBlockingExecution(BlockingExecutionConfigurer configurer) {
+        configurer.setExecutor(taskExecutor);
+    }
+
+    @Override
+    public void destroy() {
+        conexoes.dispose();
+    }
+
+    /**
+     * O {@link Jackson2CborEncoder} só codifica valores isolados e recusa qualquer {@code Publisher},
+     * que é como os writers do WebFlux o chamam; aqui cada elemento vira um item CBOR.
+     */
+    private static class CborEncoder extends Jackson2CborEncoder {
+
+        @Override
+        public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory, ResolvableType elementType,
+                                       @Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
+            return Flux.from(inputStream).map(valor -> encodeValue(valor, bufferFactory, elementType, mimeType, hints));
+        }
+    }
+}
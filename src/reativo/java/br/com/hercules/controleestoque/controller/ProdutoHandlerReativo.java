@@ -0,0 +1,187 @@
+package br.com.hercules.controleestoque.controller;
+
+import br.com.hercules.controleestoque.exception.InvalidRequestException;
+import br.com.hercules.controleestoque.model.MovimentoEstoque;
+import br.com.hercules.controleestoque.model.Produto;
+import br.com.hercules.controleestoque.service.ProdutoServiceReativo;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.NotAcceptableStatusException;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+import static br.com.hercules.controleestoque.controller.ProdutoController.HEADER_PROXIMO_CURSOR;
+import static br.com.hercules.controleestoque.controller.ProdutoController.MEDIA_TYPE_NDJSON;
+import static br.com.hercules.controleestoque.controller.ProdutoController.MEDIA_TYPE_SMILE;
+
+/**
+ * Handlers das {@link ProdutoRotasReativas}: as mesmas validações, limites e cabeçalhos do
+ * {@link ProdutoController}, sobre o {@link ProdutoServiceReativo}.
+ */
+@Component
+@Profile("reativo")
+public class ProdutoHandlerReativo {
+
+    private static final int LIMITE_MAXIMO = 1000;
+
+    private static final List<MediaType> FORMATOS = List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR,
+            MediaType.parseMediaType(MEDIA_TYPE_SMILE));
+
+    private final ProdutoServiceReativo produtoService;
+
+    public ProdutoHandlerReativo(ProdutoServiceReativo produtoService) {
+        this.produtoService = produtoService;
+    }
+
+    public Mono<ServerResponse> getProdutos(ServerRequest request) {
+        int limite = inteiro(request, "limite", 100);
+        if (limite < 1) {
+            return Mono.error(new InvalidRequestException("O limite deve ser maior que zero!"));
+        }
+        int limiteEfetivo = Math.min(limite, LIMITE_MAXIMO);
+        Long cursor = CursorPaginacao.decodificar(request.queryParam("cursor").orElse(null));
+        return produtoService.findProdutosAposId(cursor, limiteEfetivo)
+                .collectList()
+                .flatMap(listaProdutos -> {
+                    var response = ServerResponse.ok().contentType(formato(request));
+                    if (listaProdutos.size() == limiteEfetivo) {
+                        Long ultimoId = listaProdutos.get(listaProdutos.size() - 1).getId();
+                        response.header(HEADER_PROXIMO_CURSOR, CursorPaginacao.codificar(ultimoId));
+                    }
+                    return response.bodyValue(listaProdutos);
+                });
+    }
+
+    public Mono<ServerResponse> getProdutosByIds(ServerRequest request) {
+        List<Long> ids = ids(request.queryParams().get("ids"));
+        if (ids.size() > LIMITE_MAXIMO) {
+            return Mono.error(new InvalidRequestException("Informe no máximo " + LIMITE_MAXIMO + " IDs!"));
+        }
+        return produtoService.produtosGetByIds(ids)
+                .collectList()
+                .flatMap(produtos -> ServerResponse.ok().contentType(formato(request)).bodyValue(produtos));
+    }
+
+    public Mono<ServerResponse> streamProdutos(ServerRequest request) {
+        return ServerResponse.ok()
+                .contentType(MediaType.parseMediaType(MEDIA_TYPE_NDJSON))
+                .body(produtoService.percorrerProdutos(), Produto.class);
+    }
+
+    public Mono<ServerResponse> getProdutoById(ServerRequest request) {
+        String ifNoneMatch = request.headers().firstHeader(HttpHeaders.IF_NONE_MATCH);
+        return produtoService.produtoGetById(id(request)).flatMap(produto -> {
+            if (EtagProduto.corresponde(ifNoneMatch, produto)) {
+                return ServerResponse.status(HttpStatus.NOT_MODIFIED).eTag(EtagProduto.de(produto)).build();
+            }
+            return ServerResponse.ok().eTag(EtagProduto.de(produto)).contentType(formato(request)).bodyValue(produto);
+        });
+    }
+
+    public Mono<ServerResponse> getProdutosByDescricao(ServerRequest request) {
+        String descricao = request.queryParam("descricao")
+                .orElseThrow(() -> new InvalidRequestException("Informe a descrição!"));
+        int limite = inteiro(request, "limite", 50);
+        if (limite < 1) {
+            return Mono.error(new InvalidRequestException("O limite deve ser maior que zero!"));
+        }
+        return produtoService.produtoGetByDescricao(descricao, Math.min(limite, LIMITE_MAXIMO))
+                .collectList()
+                .flatMap(produtos -> ServerResponse.ok().contentType(formato(request)).bodyValue(produtos));
+    }
+
+    public Mono<ServerResponse> saveProduto(ServerRequest request) {
+        return request.bodyToMono(Produto.class)
+                .flatMap(produtoService::createProduto)
+                .flatMap(produtoCreated -> {
+                    URI location = request.uriBuilder().path("/{id}").build(produtoCreated.getId());
+                    return ServerResponse.created(location).eTag(EtagProduto.de(produtoCreated))
+                            .contentType(formato(request)).bodyValue(produtoCreated);
+                });
+    }
+
+    public Mono<ServerResponse> atualizarProduto(ServerRequest request) {
+        Long id = id(request);
+        Long versaoEsperada = EtagProduto.versaoEsperada(request.headers().firstHeader(HttpHeaders.IF_MATCH));
+        return request.bodyToMono(Produto.class)
+                .flatMap(produto -> produtoService.atualizarProduto(id, produto, versaoEsperada))
+                .flatMap(produtoAtualizado -> ServerResponse.ok().eTag(EtagProduto.de(produtoAtualizado))
+                        .contentType(formato(request)).bodyValue(produtoAtualizado));
+    }
+
+    public Mono<ServerResponse> deletarProduto(ServerRequest request) {
+        return produtoService.deletarProduto(id(request))
+                .then(ServerResponse.noContent().build());
+    }
+
+    public Mono<ServerResponse> movimentarEstoque(ServerRequest request) {
+        Long id = id(request);
+        return request.bodyToMono(MovimentoEstoque.class)
+                .flatMap(movimento -> produtoService.movimentarEstoque(id, movimento))
+                .flatMap(produto -> ServerResponse.ok().eTag(EtagProduto.de(produto))
+                        .contentType(formato(request)).bodyValue(produto));
+    }
+
+    /**
+     * Formato da resposta conforme o Accept. O WebFlux.fn escreve com o primeiro codec capaz do tipo
+     * e só consulta o Accept entre os formatos dele; por isso a escolha é feita aqui. Sem Accept, JSON.
+     */
+    private static MediaType formato(ServerRequest request) {
+        List<MediaType> aceitos = request.headers().accept();
+        if (aceitos.isEmpty()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        for (MediaType aceito : aceitos) {
+            for (MediaType formato : FORMATOS) {
+                if (aceito.isCompatibleWith(formato)) {
+                    return formato;
+                }
+            }
+        }
+        throw new NotAcceptableStatusException(FORMATOS);
+    }
+
+    private static Long id(ServerRequest request) {
+        try {
+            return Long.valueOf(request.pathVariable("id"));
+        } catch (NumberFormatException ex) {
+            throw new InvalidRequestException("ID inválido!");
+        }
+    }
+
+    private static int inteiro(ServerRequest request, String nome, int padrao) {
+        try {
+            return request.queryParam(nome).map(Integer::parseInt).orElse(padrao);
+        } catch (NumberFormatException ex) {
+            throw new InvalidRequestException("Parâmetro " + nome + " inválido!");
+        }
+    }
+
+    /**
+     * Aceita, como o {@code @RequestParam List<Long>}, tanto {@code ids=1,2} quanto {@code ids=1&ids=2}.
+     */
+    private static List<Long> ids(List<String> valores) {
+        List<Long> ids = new ArrayList<>();
+        try {
+            for (String valor : valores) {
+                for (String id : valor.split(",", -1)) {
+                    if (id.isBlank()) {
+                        throw new InvalidRequestException("Informe ao menos um ID válido!");
+                    }
+                    ids.add(Long.valueOf(id.trim()));
+                }
+            }
+        } catch (NumberFormatException ex) {
+            throw new InvalidRequestException("Informe ao menos um ID válido!");
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,71 @@
+package br.com.hercules.controleestoque.controller;
+
+import br.com.hercules.controleestoque.exception.GlobalExceptionHandler;
+import br.com.hercules.controleestoque.exception.InsufficientStockException;
+import br.com.hercules.controleestoque.exception.InvalidRequestException;
+import br.com.hercules.controleestoque.exception.PreconditionFailedException;
+import br.com.hercules.controleestoque.exception.ResourceNotFoundException;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.queryParam;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * Rotas de produto da pilha reativa, com o mesmo contrato do {@link ProdutoController}, exceto pelo
+ * formato colunar, que só existe como conversor do Spring MVC. As rotas funcionais são consultadas
+ * antes dos controllers anotados; o que não casa aqui (PATCH, busca filtrada e consulta por POST)
+ * segue para o {@link ProdutoController}, no executor bloqueante.
+ * <p>
+ * As exceções são convertidas pelo próprio {@link GlobalExceptionHandler}, então status, corpo e
+ * métricas são os mesmos das rotas anotadas.
+ */
+@Configuration
+@Profile("reativo")
+public class ProdutoRotasReativas {
+
+    private static final String ID = "/produtos/{id:\\d+}";
+
+    @Bean
+    public RouterFunction<ServerResponse> rotasProduto(ProdutoHandlerReativo handler, GlobalExceptionHandler excecoes) {
+        return route()
+                .GET("/produtos", queryParam("ids", ids -> true), handler::getProdutosByIds)
+                .GET("/produtos", handler::getProdutos)
+                .GET("/produtos/stream", handler::streamProdutos)
+                .GET("/produtos/descricao", handler::getProdutosByDescricao)
+                .GET(ID, handler::getProdutoById)
+                .POST("/produtos", handler::saveProduto)
+                .PUT(ID, handler::atualizarProduto)
+                .DELETE(ID, handler::deletarProduto)
+                .POST(ID + "/movimentos", handler::movimentarEstoque)
+                .filter((request, next) -> Mono.defer(() -> next.handle(request))
+                        .onErrorResume(ex -> resposta(excecoes, ex)))
+                .build();
+    }
+
+    private static Mono<ServerResponse> resposta(GlobalExceptionHandler excecoes, Throwable ex) {
+        ResponseEntity<String> resposta;
+        if (ex instanceof ResourceNotFoundException naoEncontrado) {
+            resposta = excecoes.handleResourceNotFound(naoEncontrado);
+        } else if (ex instanceof InvalidRequestException invalida) {
+            resposta = excecoes.handleInvalidRequest(invalida);
+        } else if (ex instanceof InsufficientStockException insuficiente) {
+            resposta = excecoes.handleInsufficientStock(insuficiente);
+        } else if (ex instanceof PreconditionFailedException precondicao) {
+            resposta = excecoes.handlePreconditionFailed(precondicao);
+        } else if (ex instanceof OptimisticLockingFailureException conflito) {
+            resposta = excecoes.handleOptimisticLockingFailure(conflito);
+        } else {
+            return Mono.error(ex);
+        }
+        return ServerResponse.status(resposta.getStatusCode())
+                .headers(cabecalhos -> cabecalhos.addAll(resposta.getHeaders()))
+                .bodyValue(resposta.getBody());
+    }
+}
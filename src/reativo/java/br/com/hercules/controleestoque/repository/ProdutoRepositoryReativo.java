@@ -0,0 +1,166 @@
+package br.com.hercules.controleestoque.repository;
+
+import br.com.hercules.controleestoque.model.Produto;
+import io.r2dbc.spi.Readable;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+/**
+ * Acesso à tabela {@code produto} por R2DBC, para a pilha reativa. O SQL é escrito à mão, como no
+ * {@code ProdutoLoteServiceImpl}: a entidade é mapeada para JPA, e a versão, a sequência e a
+ * reserva seguem as mesmas regras dos UPDATEs do {@link ProdutoRepository}.
+ */
+@Repository
+@Profile("reativo")
+public class ProdutoRepositoryReativo {
+
+    private static final String COLUNAS = "id, descricao, quantidade, preco, ponto_reposicao, versao";
+
+    private final DatabaseClient databaseClient;
+
+    public ProdutoRepositoryReativo(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Mono<Produto> findById(Long id) {
+        return databaseClient.sql("select " + COLUNAS + " from produto where id = :id")
+                .bind("id", id)
+                .map(ProdutoRepositoryReativo::produto)
+                .one();
+    }
+
+    /**
+     * Bloqueia a linha até o fim da transação, para que a leitura que antecede um UPDATE ou DELETE
+     * seja o estado anterior publicado no evento.
+     */
+    public Mono<Produto> findByIdParaAlterar(Long id) {
+        return databaseClient.sql("select " + COLUNAS + " from produto where id = :id for update")
+                .bind("id", id)
+                .map(ProdutoRepositoryReativo::produto)
+                .one();
+    }
+
+    public Flux<Produto> findAllById(Collection<Long> ids) {
+        return databaseClient.sql("select " + COLUNAS + " from produto where id in (:ids)")
+                .bind("ids", ids)
+                .map(ProdutoRepositoryReativo::produto)
+                .all();
+    }
+
+    public Flux<Produto> findByIdGreaterThanOrderByIdAsc(Long id, int limite) {
+        return databaseClient.sql("select " + COLUNAS + " from produto where id > :id order by id limit :limite")
+                .bind("id", id)
+                .bind("limite", limite)
+                .map(ProdutoRepositoryReativo::produto)
+                .all();
+    }
+
+    /**
+     * Todos os produtos por id, entregues conforme a demanda de quem assina.
+     */
+    public Flux<Produto> findAllOrderById() {
+        return databaseClient.sql("select " + COLUNAS + " from produto order by id")
+                .map(ProdutoRepositoryReativo::produto)
+                .all();
+    }
+
+    /**
+     * @param trecho trecho já em minúsculas e com {@code \}, {@code %} e {@code _} escapados
+     */
+    public Flux<Produto> findByDescricaoContendo(String trecho, int limite) {
+        return databaseClient.sql("select " + COLUNAS + " from produto where lower(descricao) like :padrao escape '\\' " +
+                        "limit :limite")
+                .bind("padrao", "%" + trecho + "%")
+                .bind("limite", limite)
+                .map(ProdutoRepositoryReativo::produto)
+                .all();
+    }
+
+    public Mono<Boolean> existsById(Long id) {
+        return databaseClient.sql("select 1 from produto where id = :id")
+                .bind("id", id)
+                .map(linha -> Boolean.TRUE)
+                .first()
+                .defaultIfEmpty(Boolean.FALSE);
+    }
+
+    /**
+     * Insere com id da {@code produto_seq} e versão 0. Cada valor da sequência é usado como um id só;
+     * os blocos de 50 do Hibernate partem de valores que ele mesmo obteve, então não há colisão.
+     */
+    public Mono<Produto> insert(Produto produto) {
+        return databaseClient.sql("select nextval('produto_seq')")
+                .map(linha -> linha.get(0, Long.class))
+                .one()
+                .flatMap(id -> databaseClient.sql("insert into produto (id, descricao, quantidade, preco, ponto_reposicao, " +
+                                "quantidade_reservada, versao) values (:id, :descricao, :quantidade, :preco, :pontoReposicao, 0, 0)")
+                        .bind("id", id)
+                        .bind("descricao", produto.getDescricao())
+                        .bind("quantidade", produto.getQuantidade())
+                        .bind("preco", produto.getPreco())
+                        .bind("pontoReposicao", produto.getPontoReposicao())
+                        .fetch()
+                        .rowsUpdated()
+                        .map(linhas -> {
+                            Produto criado = new Produto(produto);
+                            criado.setId(id);
+                            criado.setVersao(0L);
+                            return criado;
+                        }));
+    }
+
+    /**
+     * Grava os campos editáveis se a versão ainda for {@code produto.getVersao()} e a nova quantidade
+     * não ficar abaixo do que está reservado, incrementando a versão.
+     *
+     * @return linhas atualizadas: 0 se o produto não existe, mudou de versão ou a quantidade é menor que a reserva
+     */
+    public Mono<Long> update(Produto produto) {
+        return databaseClient.sql("update produto set descricao = :descricao, quantidade = :quantidade, preco = :preco, " +
+                        "ponto_reposicao = :pontoReposicao, versao = versao + 1 where id = :id and versao = :versao " +
+                        "and quantidade_reservada <= :quantidade")
+                .bind("descricao", produto.getDescricao())
+                .bind("quantidade", produto.getQuantidade())
+                .bind("preco", produto.getPreco())
+                .bind("pontoReposicao", produto.getPontoReposicao())
+                .bind("id", produto.getId())
+                .bind("versao", produto.getVersao())
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> deleteById(Long id) {
+        return databaseClient.sql("delete from produto where id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Mesmo UPDATE atômico de {@link ProdutoRepository#ajustarQuantidade(Long, int)}.
+     *
+     * @return 0 quando o produto não existe ou o estoque é insuficiente
+     */
+    public Mono<Long> ajustarQuantidade(Long id, int delta) {
+        return databaseClient.sql("update produto set quantidade = quantidade + :delta, versao = versao + 1 " +
+                        "where id = :id and quantidade + :delta >= 0 " +
+                        "and (:delta >= 0 or quantidade + :delta >= quantidade_reservada)")
+                .bind("delta", delta)
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static Produto produto(Readable linha) {
+        Produto produto = new Produto(linha.get("id", Long.class), linha.get("descricao", String.class),
+                linha.get("quantidade", Integer.class), linha.get("preco", Double.class));
+        produto.setPontoReposicao(linha.get("ponto_reposicao", Integer.class));
+        produto.setVersao(linha.get("versao", Long.class));
+        return produto;
+    }
+}
@@ -0,0 +1,35 @@
+package br.com.hercules.controleestoque.service;
+
+import br.com.hercules.controleestoque.model.MovimentoEstoque;
+import br.com.hercules.controleestoque.model.Produto;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Variante não bloqueante do {@link ProdutoService} para a pilha reativa (perfil {@code reativo}),
+ * com as mesmas regras e exceções. Os erros chegam pelo sinal de erro do {@link Mono} ou {@link Flux}.
+ */
+public interface ProdutoServiceReativo {
+
+
+    public Mono<Produto> produtoGetById(Long id);
+
+    public Flux<Produto> produtosGetByIds(List<Long> ids);
+
+    public Flux<Produto> findProdutosAposId(Long ultimoId, int limite);
+
+    public Flux<Produto> percorrerProdutos();
+
+    public Mono<Produto> createProduto(Produto produtoToCreate);
+
+    public Flux<Produto> produtoGetByDescricao(String descricao, int limite);
+
+    public Mono<Produto> atualizarProduto(Long id, Produto produtoAtualizado, Long versaoEsperada);
+
+    public Mono<Void> deletarProduto(Long id);
+
+    public Mono<Produto> movimentarEstoque(Long id, MovimentoEstoque movimento);
+
+}
@@ -0,0 +1,173 @@
+package br.com.hercules.controleestoque.service.impl;
+
+import br.com.hercules.controleestoque.busca.IndiceDescricaoProduto;
+import br.com.hercules.controleestoque.event.ProdutoAlteradoEvent;
+import br.com.hercules.controleestoque.exception.InsufficientStockException;
+import br.com.hercules.controleestoque.exception.InvalidRequestException;
+import br.com.hercules.controleestoque.exception.PreconditionFailedException;
+import br.com.hercules.controleestoque.exception.ResourceNotFoundException;
+import br.com.hercules.controleestoque.model.MovimentoEstoque;
+import br.com.hercules.controleestoque.model.Produto;
+import br.com.hercules.controleestoque.repository.ProdutoRepositoryReativo;
+import br.com.hercules.controleestoque.service.ProdutoServiceReativo;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Implementação do {@link ProdutoServiceReativo} sobre R2DBC. As escritas rodam em uma transação
+ * do {@link TransactionalOperator} e publicam o {@link ProdutoAlteradoEvent} depois do commit,
+ * como os listeners esperam; fora de uma transação JPA eles executam na hora, na thread do driver,
+ * e nenhum deles faz I/O para eventos com o produto completo.
+ * <p>
+ * As leituras vão direto ao banco: o cache de produtos é preenchido pela pilha bloqueante, e aqui
+ * só é invalidado pelos eventos.
+ */
+@Service
+@Profile("reativo")
+public class ProdutoServiceReativoImpl implements ProdutoServiceReativo {
+
+    private final ProdutoRepositoryReativo produtoRepository;
+
+    private final TransactionalOperator transacao;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final IndiceDescricaoProduto indiceDescricao;
+
+    public ProdutoServiceReativoImpl(ProdutoRepositoryReativo produtoRepository, TransactionalOperator transacao,
+                                     ApplicationEventPublisher eventPublisher, IndiceDescricaoProduto indiceDescricao) {
+        this.produtoRepository = produtoRepository;
+        this.transacao = transacao;
+        this.eventPublisher = eventPublisher;
+        this.indiceDescricao = indiceDescricao;
+    }
+
+    @Override
+    public Mono<Produto> produtoGetById(Long id) {
+        return produtoRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Produto não encontrado!")));
+    }
+
+    @Override
+    public Flux<Produto> produtosGetByIds(List<Long> ids) {
+        List<Long> unicos = ids.stream().distinct().toList();
+        return produtoRepository.findAllById(unicos)
+                .collectMap(Produto::getId)
+                .flatMapIterable(encontrados -> unicos.stream().map(encontrados::get).filter(Objects::nonNull).toList());
+    }
+
+    @Override
+    public Flux<Produto> findProdutosAposId(Long ultimoId, int limite) {
+        return produtoRepository.findByIdGreaterThanOrderByIdAsc(ultimoId == null ? 0L : ultimoId, limite);
+    }
+
+    @Override
+    public Flux<Produto> percorrerProdutos() {
+        return produtoRepository.findAllOrderById();
+    }
+
+    @Override
+    public Mono<Produto> createProduto(Produto produtoToCreate) {
+        return produtoRepository.insert(produtoToCreate)
+                .as(transacao::transactional)
+                .doOnNext(produtoCriado -> eventPublisher.publishEvent(ProdutoAlteradoEvent.criacao(produtoCriado)));
+    }
+
+    @Override
+    public Flux<Produto> produtoGetByDescricao(String descricao, int limite) {
+        if (!indiceDescricao.isPronto()) {
+            return produtoRepository.findByDescricaoContendo(escaparLike(descricao.toLowerCase()), limite);
+        }
+        List<Long> ids = indiceDescricao.buscar(descricao, limite);
+        if (ids.isEmpty()) {
+            return Flux.empty();
+        }
+        Map<Long, Integer> posicoes = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            posicoes.put(ids.get(i), i);
+        }
+        return produtoRepository.findAllById(ids)
+                .collectSortedList((a, b) -> Integer.compare(posicoes.get(a.getId()), posicoes.get(b.getId())))
+                .flatMapIterable(produtos -> produtos);
+    }
+
+    private static String escaparLike(String texto) {
+        return texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    @Override
+    public Mono<Produto> atualizarProduto(Long id, Produto produtoAtualizado, Long versaoEsperada) {
+        return produtoRepository.findByIdParaAlterar(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Produto não encontrado!")))
+                .flatMap(produtoExistente -> {
+                    if (versaoEsperada != null && !versaoEsperada.equals(produtoExistente.getVersao())) {
+                        return Mono.error(new PreconditionFailedException("O produto foi alterado desde a última leitura!"));
+                    }
+                    Produto produtoNovo = new Produto(produtoExistente);
+                    produtoNovo.setDescricao(produtoAtualizado.getDescricao());
+                    produtoNovo.setQuantidade(produtoAtualizado.getQuantidade());
+                    produtoNovo.setPreco(produtoAtualizado.getPreco());
+                    produtoNovo.setPontoReposicao(produtoAtualizado.getPontoReposicao());
+                    return produtoRepository.update(produtoNovo).flatMap(linhas -> {
+                        if (linhas == 0) {
+                            // A linha está bloqueada desde a leitura, então a versão não mudou: o que
+                            // barrou o UPDATE foi a reserva acima da nova quantidade.
+                            return Mono.error(new InsufficientStockException("A quantidade não pode ficar abaixo das unidades reservadas!"));
+                        }
+                        produtoNovo.setVersao(produtoExistente.getVersao() + 1);
+                        return Mono.just(ProdutoAlteradoEvent.atualizacao(produtoExistente, produtoNovo));
+                    });
+                })
+                .as(transacao::transactional)
+                .doOnNext(eventPublisher::publishEvent)
+                .map(ProdutoAlteradoEvent::atual);
+    }
+
+    /**
+     * Lê o produto antes de removê-lo, na mesma transação, para que o evento leve o estado anterior.
+     */
+    @Override
+    public Mono<Void> deletarProduto(Long id) {
+        return produtoRepository.findByIdParaAlterar(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Produto não encontrado!")))
+                .flatMap(produtoAnterior -> produtoRepository.deleteById(id)
+                        .thenReturn(ProdutoAlteradoEvent.remocao(id, produtoAnterior)))
+                .as(transacao::transactional)
+                .doOnNext(eventPublisher::publishEvent)
+                .then();
+    }
+
+    @Override
+    public Mono<Produto> movimentarEstoque(Long id, MovimentoEstoque movimento) {
+        if (movimento.tipo() == null || movimento.quantidade() <= 0) {
+            return Mono.error(new InvalidRequestException("Informe o tipo e uma quantidade maior que zero!"));
+        }
+        int delta = movimento.delta();
+        return produtoRepository.ajustarQuantidade(id, delta)
+                .flatMap(linhas -> linhas > 0 ? produtoRepository.findById(id) : falhaAoMovimentar(id))
+                .map(produtoAtual -> {
+                    Produto produtoAnterior = new Produto(produtoAtual);
+                    produtoAnterior.setQuantidade(produtoAtual.getQuantidade() - delta);
+                    produtoAnterior.setVersao(produtoAtual.getVersao() - 1);
+                    return ProdutoAlteradoEvent.atualizacao(produtoAnterior, produtoAtual);
+                })
+                .as(transacao::transactional)
+                .doOnNext(eventPublisher::publishEvent)
+                .map(ProdutoAlteradoEvent::atual);
+    }
+
+    private Mono<Produto> falhaAoMovimentar(Long id) {
+        return produtoRepository.existsById(id).flatMap(existe -> Mono.error(existe
+                ? new InsufficientStockException("Estoque insuficiente!")
+                : new ResourceNotFoundException("Produto não encontrado!")));
+    }
+}
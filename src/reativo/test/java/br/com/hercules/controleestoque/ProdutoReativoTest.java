@@ -0,0 +1,129 @@
+package br.com.hercules.controleestoque;
+
+import br.com.hercules.controleestoque.model.Produto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.Base64;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:reativo;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.r2dbc.url=r2dbc:h2:mem:///reativo",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password="
+})
+@ActiveProfiles({"test", "reativo"})
+public class ProdutoReativoTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void deveCriarLerEPaginarProdutosComOMesmoContrato() {
+        //Dado (Given)
+        Produto criado = criar("Martelo", 5, 30.0);
+        Produto outro = criar("Alicate", 8, 25.0);
+
+        //Quando(When)
+        webTestClient.get().uri("/produtos/{id}", criado.getId()).exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"")
+                .expectBody(Produto.class).value(produto -> assertThat(produto.getDescricao()).isEqualTo("Martelo"));
+
+        //Então(Then)
+        webTestClient.get().uri("/produtos/{id}", criado.getId()).header(HttpHeaders.IF_NONE_MATCH, "W/\"0\"").exchange()
+                .expectStatus().isNotModified();
+        webTestClient.get().uri("/produtos?limite=1&cursor={cursor}", cursor(criado.getId() - 1)).exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("X-Proximo-Cursor", cursor(criado.getId()))
+                .expectBodyList(Produto.class).hasSize(1);
+        webTestClient.get().uri("/produtos?ids=" + outro.getId() + "," + criado.getId() + "," + outro.getId() + ",999999").exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Produto.class).value(produtos -> assertThat(produtos).extracting(Produto::getId)
+                        .containsExactly(outro.getId(), criado.getId()));
+        webTestClient.get().uri("/produtos").accept(MediaType.APPLICATION_CBOR).exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_CBOR);
+    }
+
+    @Test
+    void deveMapearErrosComoAsRotasAnotadas() {
+        //Dado (Given)
+        Produto criado = criar("Serrote", 2, 40.0);
+
+        //Quando(When)
+        webTestClient.get().uri("/produtos/999999").exchange()
+                .expectStatus().isNotFound()
+                .expectBody(String.class).isEqualTo("Produto não encontrado!");
+
+        //Então(Then)
+        webTestClient.post().uri("/produtos/{id}/movimentos", criado.getId())
+                .bodyValue(Map.of("tipo", "SAIDA", "quantidade", 3)).exchange()
+                .expectStatus().isEqualTo(422);
+        webTestClient.put().uri("/produtos/{id}", criado.getId()).header(HttpHeaders.IF_MATCH, "\"7\"")
+                .bodyValue(new Produto(null, "Serrote", 2, 45.0)).exchange()
+                .expectStatus().isEqualTo(412);
+        jdbcTemplate.update("update produto set quantidade_reservada = 2 where id = ?", criado.getId());
+        webTestClient.put().uri("/produtos/{id}", criado.getId())
+                .bodyValue(new Produto(null, "Serrote", 1, 40.0)).exchange()
+                .expectStatus().isEqualTo(422);
+        webTestClient.get().uri("/produtos?limite=0").exchange()
+                .expectStatus().isBadRequest();
+        webTestClient.delete().uri("/produtos/{id}", criado.getId()).exchange()
+                .expectStatus().isNoContent();
+        webTestClient.delete().uri("/produtos/{id}", criado.getId()).exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void deveAtenderAsRotasAnotadasEPublicarAsAlteracoes() {
+        //Dado (Given)
+        Produto criado = criar("Chave de fenda", 10, 12.0);
+
+        //Quando(When)
+        webTestClient.post().uri("/produtos/{id}/movimentos", criado.getId())
+                .bodyValue(Map.of("tipo", "ENTRADA", "quantidade", 5)).exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1\"");
+        webTestClient.patch().uri("/produtos/{id}", criado.getId()).contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("preco", 13.0)).exchange()
+                .expectStatus().isNoContent();
+
+        //Então(Then)
+        webTestClient.get().uri("/produtos/{id}", criado.getId()).exchange()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"2\"")
+                .expectBody(Produto.class).value(produto -> {
+                    assertThat(produto.getQuantidade()).isEqualTo(15);
+                    assertThat(produto.getPreco()).isEqualTo(13.0);
+                });
+        webTestClient.get().uri("/produtos/descricao?descricao=fenda").exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Produto.class).value(produtos -> assertThat(produtos).extracting(Produto::getId)
+                        .contains(criado.getId()));
+    }
+
+    private Produto criar(String descricao, int quantidade, double preco) {
+        return webTestClient.post().uri("/produtos").bodyValue(new Produto(null, descricao, quantidade, preco)).exchange()
+                .expectStatus().isCreated()
+                .expectHeader().exists(HttpHeaders.LOCATION)
+                .expectBody(Produto.class).returnResult().getResponseBody();
+    }
+
+    private static String cursor(Long ultimoId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(("id:" + ultimoId).getBytes());
+    }
+}
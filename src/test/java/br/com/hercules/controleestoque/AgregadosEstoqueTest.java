@@ -0,0 +1,162 @@
+package br.com.hercules.controleestoque;
+
+import br.com.hercules.controleestoque.busca.IndiceDescricaoProduto;
+import br.com.hercules.controleestoque.cache.CargaAgrupadaProdutos;
+import br.com.hercules.controleestoque.model.AlteracaoParcialProduto;
+import br.com.hercules.controleestoque.model.MovimentoEstoque;
+import br.com.hercules.controleestoque.model.Produto;
+import br.com.hercules.controleestoque.model.ResumoEstoque;
+import br.com.hercules.controleestoque.repository.ProdutoRepository;
+import br.com.hercules.controleestoque.resumo.AgregadosEstoque;
+import br.com.hercules.controleestoque.service.ProdutoService;
+import br.com.hercules.controleestoque.service.impl.ProdutoServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ProdutoServiceImpl.class, AgregadosEstoque.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class AgregadosEstoqueTest {
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private AgregadosEstoque agregadosEstoque;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private IndiceDescricaoProduto indiceDescricao;
+
+    @MockBean
+    private CargaAgrupadaProdutos cargaAgrupada;
+
+    @BeforeEach
+    void setUp(){
+        produtoRepository.deleteAllInBatch();
+        agregadosEstoque.reconciliar();
+    }
+
+    @Test
+    void deveAtualizarTotaisIncrementalmenteComValorExato(){
+        //Dado (Given)
+        Produto corda = new Produto(null, "Corda", 7, 0.1);
+        corda.setPontoReposicao(10);
+        produtoService.createProduto(corda);
+        Long violao = produtoService.createProduto(new Produto(null, "Violao", 3, 89.9)).getId();
+
+        //Quando(When)
+        produtoService.movimentarEstoque(violao, new MovimentoEstoque(MovimentoEstoque.Tipo.SAIDA, 3));
+        ResumoEstoque resumo = agregadosEstoque.resumo();
+
+        //Então(Then)
+        assertThat(resumo.pendenteReconciliacao()).isFalse();
+        assertThat(resumo.totalProdutos()).isEqualTo(2);
+        assertThat(resumo.quantidadeTotal()).isEqualTo(7);
+        assertThat(resumo.valorTotal()).isEqualTo(new BigDecimal("0.70"));
+        assertThat(resumo.produtosAbaixoDoPontoDeReposicao()).isEqualTo(1);
+        assertThat(resumo.produtosSemEstoque()).isEqualTo(1);
+        agregadosEstoque.reconciliar();
+        assertThat(agregadosEstoque.resumo()).usingRecursiveComparison().ignoringFields("reconciliadoEm").isEqualTo(resumo);
+    }
+
+    @Test
+    void deveAtualizarTotaisIncrementalmenteEmAtualizacaoParcialERemocao(){
+        //Dado (Given)
+        Long violao = produtoService.createProduto(new Produto(null, "Violao", 3, 89.9)).getId();
+        Long corda = produtoService.createProduto(new Produto(null, "Corda", 7, 0.1)).getId();
+
+        //Quando(When)
+        produtoService.atualizarParcialmente(violao, new AlteracaoParcialProduto(null, null, 100.0, null), null);
+        produtoService.deletarProduto(corda);
+
+        //Então(Then)
+        ResumoEstoque resumo = agregadosEstoque.resumo();
+        assertThat(resumo.pendenteReconciliacao()).isFalse();
+        assertThat(resumo.totalProdutos()).isEqualTo(1);
+        assertThat(resumo.quantidadeTotal()).isEqualTo(3);
+        assertThat(resumo.valorTotal()).isEqualTo(new BigDecimal("300.00"));
+    }
+
+    @Test
+    void reconciliacaoNaoDeveEsperarCommitEmAndamento() throws Exception {
+        //Dado (Given)
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+
+        //Quando(When)
+        transacao.executeWithoutResult(status -> {
+            produtoService.createProduto(new Produto(null, "Violao", 3, 10.0));
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    assertThat(executor.submit(agregadosEstoque::reconciliar))
+                            .succeedsWithin(Duration.ofSeconds(10));
+                }
+            });
+        });
+        executor.shutdown();
+
+        //Então(Then)
+        assertThat(agregadosEstoque.resumo().totalProdutos()).isEqualTo(1);
+        assertThat(agregadosEstoque.resumo().quantidadeTotal()).isEqualTo(3);
+        agregadosEstoque.reconciliar();
+        assertThat(agregadosEstoque.resumo().quantidadeTotal()).isEqualTo(3);
+    }
+
+    @Test
+    void naoDeveContarDuasVezesAlteracoesConfirmadasDuranteReconciliacao() throws Exception {
+        //Dado (Given)
+        Long violao = produtoService.createProduto(new Produto(null, "Violao", 0, 10.0)).getId();
+        agregadosEstoque.reconciliar();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> tarefas = new ArrayList<>();
+
+        //Quando(When)
+        for (int t = 0; t < 4; t++) {
+            tarefas.add(executor.submit(() -> {
+                for (int i = 0; i < 100; i++) {
+                    produtoService.movimentarEstoque(violao, new MovimentoEstoque(MovimentoEstoque.Tipo.ENTRADA, 1));
+                }
+            }));
+        }
+        while (tarefas.stream().anyMatch(tarefa -> !tarefa.isDone())) {
+            agregadosEstoque.reconciliar();
+        }
+        for (Future<?> tarefa : tarefas) {
+            tarefa.get();
+        }
+        executor.shutdown();
+
+        //Então(Then)
+        assertThat(agregadosEstoque.resumo().quantidadeTotal()).isEqualTo(400);
+        assertThat(agregadosEstoque.resumo().valorTotal()).isEqualTo(new BigDecimal("4000.00"));
+    }
+}
@@ -0,0 +1,105 @@
+package br.com.hercules.controleestoque;
+
+import br.com.hercules.controleestoque.aquecimento.AquecimentoAplicacao;
+import br.com.hercules.controleestoque.config.CacheConfig;
+import br.com.hercules.controleestoque.model.Produto;
+import br.com.hercules.controleestoque.repository.ProdutoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class AquecimentoAplicacaoTest {
+
+    @Mock
+    private ProdutoRepository produtoRepository;
+
+    @Mock
+    private ConfigurableApplicationContext contexto;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    private Path diretorio;
+
+    private CacheManager cacheManager;
+
+    private ApplicationReadyEvent evento;
+
+    @BeforeEach
+    void setUp(){
+        MockitoAnnotations.openMocks(this);
+        cacheManager = new CacheConfig().cacheManager(100, "10m", false);
+        evento = new ApplicationReadyEvent(new SpringApplication(), new String[0], contexto, Duration.ZERO);
+    }
+
+    @Test
+    void deveCarregarNoCacheOsProdutosGravadosNoArquivo() throws IOException {
+        //Dado (Given)
+        Path arquivo = diretorio.resolve("quentes.txt");
+        Files.write(arquivo, List.of("7", "3"));
+        when(produtoRepository.findAllById(List.of(7L, 3L))).thenReturn(List.of(
+                new Produto(7L, "Cabo", 1, 5.0), new Produto(3L, "Violao", 2, 700)));
+
+        //Quando(When)
+        aquecimento(arquivo).aquecer(evento);
+
+        //Então(Then)
+        assertThat(cacheManager.getCache(CacheConfig.CACHE_PRODUTOS).get(7L, Produto.class).getDescricao()).isEqualTo("Cabo");
+        assertThat(cacheManager.getCache(CacheConfig.CACHE_PRODUTOS).get(3L, Produto.class)).isNotNull();
+        verify(produtoRepository, never()).findByIdGreaterThanOrderByIdAsc(any(), any());
+        ArgumentCaptor<TransactionDefinition> definicao = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definicao.capture());
+        assertThat(definicao.getValue().isReadOnly()).isFalse();
+    }
+
+    @Test
+    void deveUsarPrimeirosIdsSemArquivo(){
+        //Dado (Given)
+        when(produtoRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(10))).thenReturn(List.of(new Produto(1L, "Cabo", 1, 5.0)));
+
+        //Quando(When)
+        aquecimento(diretorio.resolve("inexistente.txt")).aquecer(evento);
+
+        //Então(Then)
+        assertThat(cacheManager.getCache(CacheConfig.CACHE_PRODUTOS).get(1L)).isNotNull();
+    }
+
+    @Test
+    void deveGravarProdutosMaisAcessadosAoEncerrar() throws IOException {
+        //Dado (Given)
+        Path arquivo = diretorio.resolve("quentes.txt");
+        cacheManager.getCache(CacheConfig.CACHE_PRODUTOS).put(5L, new Produto(5L, "Cabo", 1, 5.0));
+        cacheManager.getCache(CacheConfig.CACHE_PRODUTOS).put(9L, new Produto(9L, "Violao", 2, 700));
+
+        //Quando(When)
+        aquecimento(arquivo).gravarChavesQuentes();
+
+        //Então(Then)
+        assertThat(Files.readAllLines(arquivo)).containsExactlyInAnyOrder("5", "9");
+    }
+
+    private AquecimentoAplicacao aquecimento(Path arquivo){
+        return new AquecimentoAplicacao(produtoRepository, cacheManager, transactionManager, true, 10, 0, "1s", arquivo.toString());
+    }
+}
@@ -0,0 +1,121 @@
+package br.com.hercules.controleestoque;
+
+import br.com.hercules.controleestoque.busca.IndiceDescricaoProduto;
+import br.com.hercules.controleestoque.cache.CargaAgrupadaProdutos;
+import br.com.hercules.controleestoque.exception.InvalidRequestException;
+import br.com.hercules.controleestoque.model.FiltroProdutos;
+import br.com.hercules.controleestoque.model.Produto;
+import br.com.hercules.controleestoque.model.ResumoProduto;
+import br.com.hercules.controleestoque.repository.ProdutoRepository;
+import br.com.hercules.controleestoque.service.ProdutoService;
+import br.com.hercules.controleestoque.service.impl.ProdutoServiceImpl;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@ActiveProfiles("test")
+@Import(ProdutoServiceImpl.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class BuscaProdutosTest {
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private IndiceDescricaoProduto indiceDescricao;
+
+    @MockBean
+    private CargaAgrupadaProdutos cargaAgrupada;
+
+    private Statistics estatisticas;
+
+    @BeforeEach
+    void setUp(){
+        produtoRepository.deleteAllInBatch();
+        produtoRepository.saveAll(List.of(
+                new Produto(null, "Parafuso inox 10mm", 500, 0.5),
+                new Produto(null, "Parafuso zincado 8mm", 0, 0.3),
+                new Produto(null, "Porca inox M10", 120, 0.4),
+                new Produto(null, "Arruela 100% inox", 80, 0.1),
+                new Produto(null, "Parafuso_sextavado", 40, 1.2)));
+        estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+    }
+
+    @Test
+    void deveCombinarFiltrosOrdenarELimitarEmUmaUnicaConsulta(){
+        //Dado (Given)
+        FiltroProdutos filtro = new FiltroProdutos("PARAFUSO", 0.2, 2.0, 1, null,
+                FiltroProdutos.Ordenacao.PRECO, true, 10);
+
+        //Quando(When)
+        List<ResumoProduto> resultado = produtoService.buscarProdutos(filtro);
+
+        //Então(Then)
+        assertThat(resultado).extracting(ResumoProduto::descricao)
+                .containsExactly("Parafuso_sextavado", "Parafuso inox 10mm");
+        assertThat(resultado.get(0).quantidade()).isEqualTo(40);
+        assertThat(resultado.get(0).preco()).isEqualTo(1.2);
+        assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(estatisticas.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void deveOrdenarPorQuantidadeEAplicarLimite(){
+        //Quando(When)
+        List<ResumoProduto> resultado = produtoService.buscarProdutos(new FiltroProdutos(null, null, null, null, null,
+                FiltroProdutos.Ordenacao.QUANTIDADE, false, 3));
+
+        //Então(Then)
+        assertThat(resultado).extracting(ResumoProduto::quantidade).containsExactly(0, 40, 80);
+    }
+
+    @Test
+    void deveTratarCuringasDaDescricaoComoTexto(){
+        //Quando(When)
+        List<ResumoProduto> porcentagem = produtoService.buscarProdutos(filtroPorDescricao("100%"));
+        List<ResumoProduto> sublinhado = produtoService.buscarProdutos(filtroPorDescricao("uso_"));
+
+        //Então(Then)
+        assertThat(porcentagem).extracting(ResumoProduto::descricao).containsExactly("Arruela 100% inox");
+        assertThat(sublinhado).extracting(ResumoProduto::descricao).containsExactly("Parafuso_sextavado");
+    }
+
+    @Test
+    void deveRejeitarFaixaInvertida(){
+        //Quando(When)
+        InvalidRequestException exception = assertThrows(InvalidRequestException.class,
+                () -> produtoService.buscarProdutos(new FiltroProdutos(null, 2.0, 1.0, null, null, null, false, 10)));
+
+        //Então(Then)
+        assertThat(exception.getMessage()).isEqualTo("O preço mínimo não pode ser maior que o máximo!");
+    }
+
+    private static FiltroProdutos filtroPorDescricao(String descricao) {
+        return new FiltroProdutos(descricao, null, null, null, null, null, false, 10);
+    }
+}
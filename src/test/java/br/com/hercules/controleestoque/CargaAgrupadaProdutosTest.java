@@ -0,0 +1,126 @@
+package br.com.hercules.controleestoque;
+
+import br.com.hercules.controleestoque.cache.CargaAgrupadaProdutos;
+import br.com.hercules.controleestoque.config.CacheConfig;
+import br.com.hercules.controleestoque.event.ProdutoAlteradoEvent;
+import br.com.hercules.controleestoque.model.Produto;
+import br.com.hercules.controleestoque.repository.ProdutoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CargaAgrupadaProdutosTest {
+
+    @Mock
+    private ProdutoRepository produtoRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CaffeineCacheManager cacheManager;
+
+    private Cache cache;
+
+    private CargaAgrupadaProdutos cargaAgrupada;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new CaffeineCacheManager(CacheConfig.CACHE_PRODUTOS);
+        cache = cacheManager.getCache(CacheConfig.CACHE_PRODUTOS);
+        cargaAgrupada = new CargaAgrupadaProdutos(produtoRepository, transactionManager, cacheManager);
+    }
+
+    @Test
+    void deveBuscarAusentesDoCacheComUmaConsultaNaOrdemPedida() {
+        //Dado (Given)
+        Produto emCache = new Produto(2L, "Baixo", 3, 2500);
+        cache.put(2L, emCache);
+        when(produtoRepository.findAllById(List.of(3L, 1L, 4L)))
+                .thenReturn(List.of(new Produto(1L, "Guitarra", 5, 3000), new Produto(3L, "Bateria", 1, 8000)));
+
+        //Quando(When)
+        List<Produto> produtos = cargaAgrupada.buscar(List.of(3L, 1L, 2L, 3L, 4L));
+
+        //Então(Then)
+        assertThat(produtos).extracting(Produto::getId).containsExactly(3L, 1L, 2L);
+        assertThat(produtos.get(2)).isSameAs(emCache);
+        verify(produtoRepository, times(1)).findAllById(any());
+        assertThat(cache.get(1L)).isNotNull();
+        assertThat(cache.get(3L)).isNotNull();
+        assertThat(cache.get(4L)).isNull();
+    }
+
+    @Test
+    void buscasConcorrentesDoMesmoIdDevemCompartilharUmaConsulta() throws Exception {
+        //Dado (Given)
+        CountDownLatch consultaIniciada = new CountDownLatch(1);
+        CountDownLatch liberarConsulta = new CountDownLatch(1);
+        AtomicInteger consultas = new AtomicInteger();
+        when(produtoRepository.findAllById(any())).thenAnswer(invocacao -> {
+            if (consultas.incrementAndGet() == 1) {
+                consultaIniciada.countDown();
+                liberarConsulta.await(10, TimeUnit.SECONDS);
+            }
+            return List.of(new Produto(1L, "Guitarra", 5, 3000));
+        });
+        CompletableFuture<List<Produto>> primeira = CompletableFuture.supplyAsync(() -> cargaAgrupada.buscar(List.of(1L)));
+        assertThat(consultaIniciada.await(10, TimeUnit.SECONDS)).isTrue();
+
+        //Quando(When)
+        AtomicReference<List<Produto>> resultadoSegunda = new AtomicReference<>();
+        Thread segunda = new Thread(() -> resultadoSegunda.set(cargaAgrupada.buscar(List.of(1L))));
+        segunda.start();
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (segunda.getState() != Thread.State.WAITING && System.nanoTime() < limite) {
+            Thread.onSpinWait();
+        }
+        assertThat(segunda.getState()).isEqualTo(Thread.State.WAITING);
+        liberarConsulta.countDown();
+        segunda.join(TimeUnit.SECONDS.toMillis(10));
+
+        //Então(Then)
+        assertThat(primeira.get(10, TimeUnit.SECONDS)).extracting(Produto::getId).containsExactly(1L);
+        assertThat(resultadoSegunda.get()).extracting(Produto::getId).containsExactly(1L);
+        assertThat(consultas.get()).isEqualTo(1);
+    }
+
+    @Test
+    void naoDeveGravarNoCacheCargaAlteradaDuranteAConsulta() throws Exception {
+        //Dado (Given)
+        CountDownLatch consultaIniciada = new CountDownLatch(1);
+        CountDownLatch liberarConsulta = new CountDownLatch(1);
+        Produto antigo = new Produto(1L, "Guitarra", 5, 3000);
+        when(produtoRepository.findAllById(any())).thenAnswer(invocacao -> {
+            consultaIniciada.countDown();
+            liberarConsulta.await(10, TimeUnit.SECONDS);
+            return List.of(antigo);
+        });
+        CompletableFuture<List<Produto>> busca = CompletableFuture.supplyAsync(() -> cargaAgrupada.buscar(List.of(1L)));
+        assertThat(consultaIniciada.await(10, TimeUnit.SECONDS)).isTrue();
+
+        //Quando(When)
+        cargaAgrupada.aoAlterarProduto(ProdutoAlteradoEvent.atualizacao(antigo, new Produto(1L, "Guitarra", 4, 3000)));
+        liberarConsulta.countDown();
+
+        //Então(Then)
+        assertThat(busca.get(10, TimeUnit.SECONDS)).containsExactly(antigo);
+        assertThat(cache.get(1L)).isNull();
+    }
+}
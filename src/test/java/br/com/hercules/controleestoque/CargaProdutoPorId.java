@@ -0,0 +1,145 @@
+package br.com.hercules.controleestoque;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Teste de carga de {@code GET /produtos/{id}} com clientes em laço fechado: cada cliente envia a
+ * próxima requisição assim que recebe a resposta anterior. Não roda no {@code mvn test}; serve para
+ * comparar a aplicação com e sem {@code spring.threads.virtual.enabled}.
+ * <p>
+ * Uso, com a aplicação no ar e produtos de id 1 a N cadastrados:
+ * <pre>
+ * mvn -B test-compile
+ * java -cp target/test-classes br.com.hercules.controleestoque.CargaProdutoPorId \
+ *     http://localhost:8080 [ids=10000] [clientes=2000] [aquecimentoSegundos=10] [duracaoSegundos=30]
+ * </pre>
+ * Os clientes entram aos poucos na primeira metade do aquecimento, para não estourar a fila de
+ * conexões pendentes do servidor. Imprime vazão, erros e percentis de latência coletados apenas após o aquecimento.
+ */
+public class CargaProdutoPorId {
+
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length == 0) {
+            System.err.println("Uso: CargaProdutoPorId <url-base> [ids] [clientes] [aquecimentoSegundos] [duracaoSegundos]");
+            System.exit(1);
+        }
+        String urlBase = args[0];
+        int ids = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        int clientes = args.length > 2 ? Integer.parseInt(args[2]) : 2_000;
+        long aquecimento = Duration.ofSeconds(args.length > 3 ? Long.parseLong(args[3]) : 10).toNanos();
+        long duracao = Duration.ofSeconds(args.length > 4 ? Long.parseLong(args[4]) : 30).toNanos();
+
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        long inicio = System.nanoTime();
+        long inicioMedicao = inicio + aquecimento;
+        long fim = inicioMedicao + duracao;
+        AtomicLong erros = new AtomicLong();
+        CountDownLatch concluidos = new CountDownLatch(clientes);
+        List<Cliente> todos = new ArrayList<>(clientes);
+        for (int i = 0; i < clientes; i++) {
+            LockSupport.parkNanos(inicio + aquecimento / 2 * i / clientes - System.nanoTime());
+            Cliente cliente = new Cliente(httpClient, urlBase, ids, inicioMedicao, fim, erros, concluidos);
+            todos.add(cliente);
+            cliente.enviar();
+        }
+        concluidos.await();
+
+        long[] latencias = todos.stream().flatMapToLong(cliente -> Arrays.stream(cliente.latencias, 0, cliente.total)).toArray();
+        Arrays.sort(latencias);
+        double segundos = duracao / 1e9;
+        System.out.printf("clientes=%d duracao=%.0fs requisicoes=%d erros=%d%n", clientes, segundos, latencias.length, erros.get());
+        System.out.printf("vazao=%.1f req/s%n", latencias.length / segundos);
+        System.out.printf("p50=%.2fms p99=%.2fms p99.9=%.2fms max=%.2fms%n",
+                percentil(latencias, 0.50), percentil(latencias, 0.99), percentil(latencias, 0.999),
+                latencias.length == 0 ? 0 : latencias[latencias.length - 1] / 1e6);
+    }
+
+    private static double percentil(long[] ordenadas, double percentil) {
+        if (ordenadas.length == 0) {
+            return 0;
+        }
+        int indice = (int) Math.ceil(percentil * ordenadas.length) - 1;
+        return ordenadas[Math.max(indice, 0)] / 1e6;
+    }
+
+    /**
+     * As respostas de um cliente chegam uma de cada vez, então as latências são gravadas sem sincronização.
+     */
+    private static final class Cliente {
+
+        private final HttpClient httpClient;
+
+        private final String urlBase;
+
+        private final int ids;
+
+        private final long inicioMedicao;
+
+        private final long fim;
+
+        private final AtomicLong erros;
+
+        private final CountDownLatch concluidos;
+
+        private long[] latencias = new long[1024];
+
+        private int total;
+
+        Cliente(HttpClient httpClient, String urlBase, int ids, long inicioMedicao, long fim,
+                AtomicLong erros, CountDownLatch concluidos) {
+            this.httpClient = httpClient;
+            this.urlBase = urlBase;
+            this.ids = ids;
+            this.inicioMedicao = inicioMedicao;
+            this.fim = fim;
+            this.erros = erros;
+            this.concluidos = concluidos;
+        }
+
+        void enviar() {
+            long inicio = System.nanoTime();
+            if (inicio >= fim) {
+                concluidos.countDown();
+                return;
+            }
+            long id = ThreadLocalRandom.current().nextLong(1, ids + 1L);
+            HttpRequest request = HttpRequest.newBuilder(URI.create(urlBase + "/produtos/" + id))
+                    .timeout(Duration.ofSeconds(30))
+                    .GET()
+                    .build();
+            httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, ex) -> {
+                        long termino = System.nanoTime();
+                        if (inicio >= inicioMedicao && termino <= fim) {
+                            if (ex != null || response.statusCode() != 200) {
+                                erros.incrementAndGet();
+                            } else {
+                                registrar(termino - inicio);
+                            }
+                        }
+                        enviar();
+                    });
+        }
+
+        private void registrar(long latencia) {
+            if (total == latencias.length) {
+                latencias = Arrays.copyOf(latencias, total * 2);
+            }
+            latencias[total++] = latencia;
+        }
+    }
+}
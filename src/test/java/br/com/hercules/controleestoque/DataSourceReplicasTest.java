@@ -0,0 +1,113 @@
+package br.com.hercules.controleestoque;
+
+import br.com.hercules.controleestoque.config.DataSourceReplicas;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+public class DataSourceReplicasTest {
+
+    @Mock
+    private DataSource primaria;
+
+    @Mock
+    private DataSource replica1;
+
+    @Mock
+    private DataSource replica2;
+
+    @Mock
+    private Connection conexaoPrimaria;
+
+    @Mock
+    private Connection conexao1;
+
+    @Mock
+    private Connection conexao2;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        MockitoAnnotations.openMocks(this);
+        when(primaria.getConnection()).thenReturn(conexaoPrimaria);
+        when(replica1.getConnection()).thenReturn(conexao1);
+        when(replica2.getConnection()).thenReturn(conexao2);
+        when(conexao1.isValid(anyInt())).thenReturn(true);
+        when(conexao2.isValid(anyInt())).thenReturn(true);
+    }
+
+    @Test
+    void deveAlternarEntreReplicas() throws SQLException {
+        //Dado (Given)
+        DataSourceReplicas replicas = replicas(DataSourceReplicas.Estrategia.ROUND_ROBIN);
+
+        //Quando(When)
+        List<Connection> conexoes = List.of(replicas.getConnection(), replicas.getConnection(), replicas.getConnection());
+
+        //Então(Then)
+        assertThat(conexoes).containsExactly(conexao1, conexao2, conexao1);
+        verifyNoInteractions(primaria);
+    }
+
+    @Test
+    void deveIsolarReplicaComFalhaEUsarAsDemais() throws SQLException {
+        //Dado (Given)
+        when(replica1.getConnection()).thenThrow(new SQLException("fora do ar"));
+        DataSourceReplicas replicas = replicas(DataSourceReplicas.Estrategia.ROUND_ROBIN);
+
+        //Quando(When)
+        List<Connection> conexoes = List.of(replicas.getConnection(), replicas.getConnection(), replicas.getConnection());
+
+        //Então(Then)
+        assertThat(conexoes).containsOnly(conexao2);
+        verify(replica1, times(1)).getConnection();
+    }
+
+    @Test
+    void deveUsarPrimariaSemReplicaDisponivel() throws SQLException {
+        //Dado (Given)
+        when(replica1.getConnection()).thenThrow(new SQLException("fora do ar"));
+        when(replica2.getConnection()).thenThrow(new SQLException("fora do ar"));
+        DataSourceReplicas replicas = replicas(DataSourceReplicas.Estrategia.ROUND_ROBIN);
+
+        //Quando(When)
+        Connection conexao = replicas.getConnection();
+
+        //Então(Then)
+        assertThat(conexao).isSameAs(conexaoPrimaria);
+        assertThat(meterRegistry.counter("estoque.datasource.replica.fallback").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void deveEscolherReplicaDeMenorLatencia() throws SQLException {
+        //Dado (Given)
+        when(replica1.getConnection()).thenAnswer(invocacao -> {
+            Thread.sleep(20);
+            return conexao1;
+        });
+        DataSourceReplicas replicas = replicas(DataSourceReplicas.Estrategia.MENOR_LATENCIA);
+
+        //Quando(When)
+        replicas.medirLatencias();
+
+        //Então(Then)
+        assertThat(replicas.getConnection()).isSameAs(conexao2);
+        assertThat(replicas.getConnection()).isSameAs(conexao2);
+    }
+
+    private DataSourceReplicas replicas(DataSourceReplicas.Estrategia estrategia){
+        return new DataSourceReplicas(List.of(replica1, replica2), primaria, estrategia, Duration.ofMinutes(1), meterRegistry);
+    }
+}
@@ -0,0 +1,229 @@
+package br.com.hercules.controleestoque;
+
+import br.com.hercules.controleestoque.busca.IndiceDescricaoProduto;
+import br.com.hercules.controleestoque.cache.CargaAgrupadaProdutos;
+import br.com.hercules.controleestoque.deposito.ParticoesEstoqueDeposito;
+import br.com.hercules.controleestoque.exception.InsufficientStockException;
+import br.com.hercules.controleestoque.exception.InvalidRequestException;
+import br.com.hercules.controleestoque.exception.ResourceNotFoundException;
+import br.com.hercules.controleestoque.model.EstoqueDeposito;
+import br.com.hercules.controleestoque.model.EstoqueProdutoDepositos;
+import br.com.hercules.controleestoque.model.MovimentoEstoque;
+import br.com.hercules.controleestoque.model.NovaReserva;
+import br.com.hercules.controleestoque.model.NovoDeposito;
+import br.com.hercules.controleestoque.model.Produto;
+import br.com.hercules.controleestoque.model.TransferenciaEstoque;
+import br.com.hercules.controleestoque.repository.DepositoRepository;
+import br.com.hercules.controleestoque.repository.EstoqueDepositoRepository;
+import br.com.hercules.controleestoque.repository.ProdutoRepository;
+import br.com.hercules.controleestoque.repository.ReservaEstoqueRepository;
+import br.com.hercules.controleestoque.repository.TotalDepositosProdutoRepository;
+import br.com.hercules.controleestoque.reserva.ExpiracaoReservas;
+import br.com.hercules.controleestoque.service.DepositoService;
+import br.com.hercules.controleestoque.service.ReservaEstoqueService;
+import br.com.hercules.controleestoque.service.impl.DepositoServiceImpl;
+import br.com.hercules.controleestoque.service.impl.ProdutoServiceImpl;
+import br.com.hercules.controleestoque.service.impl.ReservaEstoqueServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ProdutoServiceImpl.class, DepositoServiceImpl.class, ParticoesEstoqueDeposito.class, ReservaEstoqueServiceImpl.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class DepositoEstoqueTest {
+
+    @Autowired
+    private DepositoService depositoService;
+
+    @Autowired
+    private ReservaEstoqueService reservaEstoqueService;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private DepositoRepository depositoRepository;
+
+    @Autowired
+    private EstoqueDepositoRepository estoqueRepository;
+
+    @Autowired
+    private TotalDepositosProdutoRepository totalRepository;
+
+    @Autowired
+    private ReservaEstoqueRepository reservaRepository;
+
+    @MockBean
+    private IndiceDescricaoProduto indiceDescricao;
+
+    @MockBean
+    private CargaAgrupadaProdutos cargaAgrupada;
+
+    @MockBean
+    private ExpiracaoReservas expiracaoReservas;
+
+    private Long norte;
+
+    private Long sul;
+
+    @BeforeEach
+    void setUp() {
+        estoqueRepository.deleteAllInBatch();
+        reservaRepository.deleteAllInBatch();
+        depositoRepository.deleteAllInBatch();
+        totalRepository.deleteAllInBatch();
+        produtoRepository.deleteAllInBatch();
+        norte = depositoService.criarDeposito(new NovoDeposito("Norte")).getId();
+        sul = depositoService.criarDeposito(new NovoDeposito("Sul")).getId();
+    }
+
+    @Test
+    void deveManterTotalDoProdutoAcadaMovimentoNosDepositos() {
+        //Dado (Given)
+        Long id = produtoRepository.save(new Produto(null, "Violao", 5, 700)).getId();
+        Long outro = produtoRepository.save(new Produto(null, "Cabo", 0, 10)).getId();
+
+        //Quando(When)
+        depositoService.movimentar(norte, id, new MovimentoEstoque(MovimentoEstoque.Tipo.ENTRADA, 10));
+        depositoService.movimentar(sul, id, new MovimentoEstoque(MovimentoEstoque.Tipo.ENTRADA, 4));
+        depositoService.movimentar(sul, outro, new MovimentoEstoque(MovimentoEstoque.Tipo.ENTRADA, 2));
+        EstoqueDeposito norteAposSaida = depositoService.movimentar(norte, id, new MovimentoEstoque(MovimentoEstoque.Tipo.SAIDA, 3));
+
+        //Então(Then)
+        assertThat(norteAposSaida.getQuantidade()).isEqualTo(7);
+        EstoqueProdutoDepositos estoque = depositoService.estoqueDoProduto(id);
+        assertThat(estoque.total()).isEqualTo(11);
+        assertThat(estoque.quantidadeProduto()).isEqualTo(16);
+        assertThat(totalRepository.findById(outro).orElseThrow().getQuantidade()).isEqualTo(2);
+        assertThat(estoque.depositos()).extracting(EstoqueDeposito::getDepositoId, EstoqueDeposito::getQuantidade)
+                .containsExactly(tuple(norte, 7), tuple(sul, 4));
+        assertThat(produtoRepository.findById(id).orElseThrow().getVersao()).isEqualTo(3);
+        assertThat(depositoService.estoqueDoDeposito(sul, null, 10)).extracting(EstoqueDeposito::getProdutoId)
+                .containsExactly(id, outro);
+        assertThat(depositoService.estoqueDoDeposito(sul, id, 10)).extracting(EstoqueDeposito::getProdutoId)
+                .containsExactly(outro);
+    }
+
+    @Test
+    void saidaSemEstoqueNoDepositoOuComprometidaPorReservaNaoDeveAlterarNada() {
+        //Dado (Given)
+        Long id = produtoRepository.save(new Produto(null, "Violao", 0, 700)).getId();
+        depositoService.movimentar(norte, id, new MovimentoEstoque(MovimentoEstoque.Tipo.ENTRADA, 5));
+        reservaEstoqueService.reservar(id, new NovaReserva(4, null));
+
+        //Quando(When)
+        assertThrows(InsufficientStockException.class,
+                () -> depositoService.movimentar(sul, id, new MovimentoEstoque(MovimentoEstoque.Tipo.SAIDA, 1)));
+        assertThrows(InsufficientStockException.class,
+                () -> depositoService.movimentar(norte, id, new MovimentoEstoque(MovimentoEstoque.Tipo.SAIDA, 2)));
+
+        //Então(Then)
+        EstoqueProdutoDepositos estoque = depositoService.estoqueDoProduto(id);
+        assertThat(estoque.depositos()).extracting(EstoqueDeposito::getQuantidade).containsExactly(5);
+        assertThat(estoque.total()).isEqualTo(5);
+        assertThat(produtoRepository.findById(id).orElseThrow().getQuantidade()).isEqualTo(5);
+        assertThrows(ResourceNotFoundException.class,
+                () -> depositoService.movimentar(norte, 999_999L, new MovimentoEstoque(MovimentoEstoque.Tipo.ENTRADA, 1)));
+        assertThrows(InvalidRequestException.class, () -> depositoService.criarDeposito(new NovoDeposito("Norte")));
+    }
+
+    @Test
+    void transferenciaDeveMoverUnidadesSemAlterarOTotalOuNadaSeFaltarEstoque() {
+        //Dado (Given)
+        Long id = produtoRepository.save(new Produto(null, "Violao", 0, 700)).getId();
+        depositoService.movimentar(sul, id, new MovimentoEstoque(MovimentoEstoque.Tipo.ENTRADA, 8));
+
+        //Quando(When)
+        List<EstoqueDeposito> transferido = depositoService.transferir(new TransferenciaEstoque(id, sul, norte, 5));
+        assertThrows(InsufficientStockException.class,
+                () -> depositoService.transferir(new TransferenciaEstoque(id, sul, norte, 4)));
+        depositoService.transferir(new TransferenciaEstoque(id, norte, sul, 1));
+
+        //Então(Then)
+        assertThat(transferido).extracting(EstoqueDeposito::getDepositoId, EstoqueDeposito::getQuantidade)
+                .containsExactly(tuple(sul, 3), tuple(norte, 5));
+        EstoqueProdutoDepositos estoque = depositoService.estoqueDoProduto(id);
+        assertThat(estoque.total()).isEqualTo(8);
+        assertThat(estoque.quantidadeProduto()).isEqualTo(8);
+        assertThat(estoque.depositos()).extracting(EstoqueDeposito::getDepositoId, EstoqueDeposito::getQuantidade)
+                .containsExactly(tuple(norte, 4), tuple(sul, 4));
+        assertThrows(InvalidRequestException.class,
+                () -> depositoService.transferir(new TransferenciaEstoque(id, sul, sul, 1)));
+    }
+
+    @Test
+    void entradasConcorrentesDevemCriarALinhaDoDepositoUmaUnicaVez() throws Exception {
+        //Dado (Given)
+        Long id = produtoRepository.save(new Produto(null, "Cabo", 0, 10)).getId();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        //Quando(When)
+        List<Future<?>> tarefas = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            tarefas.add(executor.submit(() -> {
+                for (int j = 0; j < 25; j++) {
+                    depositoService.movimentar(norte, id, new MovimentoEstoque(MovimentoEstoque.Tipo.ENTRADA, 1));
+                }
+            }));
+        }
+        for (Future<?> tarefa : tarefas) {
+            tarefa.get();
+        }
+        executor.shutdown();
+
+        //Então(Then)
+        EstoqueProdutoDepositos estoque = depositoService.estoqueDoProduto(id);
+        assertThat(estoque.total()).isEqualTo(100);
+        assertThat(estoque.depositos()).extracting(EstoqueDeposito::getDepositoId, EstoqueDeposito::getQuantidade)
+                .containsExactly(tuple(norte, 100));
+    }
+
+    @Test
+    void transferenciasCruzadasConcorrentesDevemPreservarAsQuantidades() throws Exception {
+        //Dado (Given)
+        Long id = produtoRepository.save(new Produto(null, "Violao", 0, 700)).getId();
+        depositoService.movimentar(norte, id, new MovimentoEstoque(MovimentoEstoque.Tipo.ENTRADA, 100));
+        depositoService.movimentar(sul, id, new MovimentoEstoque(MovimentoEstoque.Tipo.ENTRADA, 100));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        //Quando(When)
+        List<Future<?>> tarefas = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            TransferenciaEstoque transferencia = i % 2 == 0
+                    ? new TransferenciaEstoque(id, norte, sul, 1)
+                    : new TransferenciaEstoque(id, sul, norte, 1);
+            tarefas.add(executor.submit(() -> {
+                for (int j = 0; j < 25; j++) {
+                    depositoService.transferir(transferencia);
+                }
+            }));
+        }
+        for (Future<?> tarefa : tarefas) {
+            tarefa.get();
+        }
+        executor.shutdown();
+
+        //Então(Then)
+        EstoqueProdutoDepositos estoque = depositoService.estoqueDoProduto(id);
+        assertThat(estoque.total()).isEqualTo(200);
+        assertThat(estoque.depositos()).extracting(EstoqueDeposito::getQuantidade).containsExactly(100, 100);
+    }
+}
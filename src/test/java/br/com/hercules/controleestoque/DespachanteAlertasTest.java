@@ -0,0 +1,90 @@
+package br.com.hercules.controleestoque;
+
+import br.com.hercules.controleestoque.alerta.DespachanteAlertas;
+import br.com.hercules.controleestoque.model.AlertaEstoque;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Instant;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DespachanteAlertasTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private final BlockingQueue<JsonNode> recebidos = new LinkedBlockingQueue<>();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private HttpServer webhook;
+
+    private DespachanteAlertas despachante;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        webhook = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        webhook.createContext("/alertas", exchange -> {
+            recebidos.add(objectMapper.readTree(exchange.getRequestBody()));
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        webhook.start();
+    }
+
+    @AfterEach
+    void tearDown(){
+        if (despachante != null) {
+            despachante.parar();
+        }
+        webhook.stop(0);
+    }
+
+    @Test
+    void deveEnviarAlertasAoWebhook() throws InterruptedException {
+        //Dado (Given)
+        despachante = new DespachanteAlertas(objectMapper, meterRegistry, 10,
+                "http://127.0.0.1:" + webhook.getAddress().getPort() + "/alertas", 1000, 2, 100);
+        despachante.iniciar();
+
+        //Quando(When)
+        despachante.publicar(alerta(7L));
+
+        //Então(Then)
+        JsonNode lote = recebidos.poll(5, TimeUnit.SECONDS);
+        assertThat(lote).isNotNull();
+        assertThat(lote.isArray()).isTrue();
+        assertThat(lote.get(0).get("produtoId").asLong()).isEqualTo(7L);
+        assertThat(lote.get(0).get("tipo").asText()).isEqualTo("ABAIXO_DO_PONTO_DE_REPOSICAO");
+    }
+
+    @Test
+    void deveDescartarAlertasQuandoFilaEstaCheia(){
+        //Dado (Given)
+        despachante = new DespachanteAlertas(objectMapper, meterRegistry, 2, "", 1000, 2, 100);
+
+        //Quando(When)
+        for (long id = 1; id <= 5; id++) {
+            despachante.publicar(alerta(id));
+        }
+
+        //Então(Then)
+        assertThat(meterRegistry.counter("estoque.alertas.descartados").count()).isEqualTo(3.0);
+    }
+
+    private static AlertaEstoque alerta(Long produtoId){
+        return new AlertaEstoque(AlertaEstoque.Tipo.ABAIXO_DO_PONTO_DE_REPOSICAO, produtoId, "Produto " + produtoId,
+                1, 10, Instant.parse("2024-01-01T00:00:00Z"));
+    }
+}
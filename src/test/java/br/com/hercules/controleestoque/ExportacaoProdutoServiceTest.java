@@ -0,0 +1,89 @@
+package br.com.hercules.controleestoque;
+
+import br.com.hercules.controleestoque.model.FormatoArquivo;
+import br.com.hercules.controleestoque.model.Produto;
+import br.com.hercules.controleestoque.repository.ProdutoRepository;
+import br.com.hercules.controleestoque.service.ExportacaoProdutoService;
+import br.com.hercules.controleestoque.service.impl.ExportacaoProdutoServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.AutoConfigureJson;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureJson
+@ActiveProfiles("test")
+@Import(ExportacaoProdutoServiceImpl.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ExportacaoProdutoServiceTest {
+
+    @Autowired
+    private ExportacaoProdutoService exportacaoProdutoService;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Long idViolao;
+
+    private Long idCapa;
+
+    @BeforeEach
+    void setUp(){
+        produtoRepository.deleteAllInBatch();
+        idViolao = produtoRepository.save(new Produto(null, "Violão", 10, 700)).getId();
+        idCapa = produtoRepository.save(new Produto(null, "Capa \"luxo\", preta", 3, 89.9)).getId();
+    }
+
+    @Test
+    void deveExportarCsvEscapandoCampos(){
+        //When
+        String csv = exportar(FormatoArquivo.CSV, false);
+
+        //Then
+        assertThat(csv).isEqualTo("id,descricao,quantidade,preco,ponto_reposicao\n"
+                + idViolao + ",Violão,10,700.0,0\n"
+                + idCapa + ",\"Capa \"\"luxo\"\", preta\",3,89.9,0\n");
+    }
+
+    @Test
+    void deveExportarNdjsonComGzip() throws IOException {
+        //When
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        exportacaoProdutoService.exportar(FormatoArquivo.NDJSON, true, saida);
+        String ndjson;
+        try (GZIPInputStream entrada = new GZIPInputStream(new ByteArrayInputStream(saida.toByteArray()))) {
+            ndjson = new String(entrada.readAllBytes(), StandardCharsets.UTF_8);
+        }
+
+        //Then
+        String[] linhas = ndjson.split("\n");
+        assertThat(linhas).hasSize(2);
+        Produto capa = objectMapper.readValue(linhas[1], Produto.class);
+        assertThat(capa.getId()).isEqualTo(idCapa);
+        assertThat(capa.getDescricao()).isEqualTo("Capa \"luxo\", preta");
+        assertThat(capa.getPreco()).isEqualTo(89.9);
+    }
+
+    private String exportar(FormatoArquivo formato, boolean gzip) {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        exportacaoProdutoService.exportar(formato, gzip, saida);
+        return saida.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,108 @@
+package br.com.hercules.controleestoque;
+
+import br.com.hercules.controleestoque.event.FeedAlteracoesProduto;
+import br.com.hercules.controleestoque.event.ProdutoAlteradoEvent;
+import br.com.hercules.controleestoque.model.AlteracaoProduto;
+import br.com.hercules.controleestoque.model.Produto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SyncTaskExecutor;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FeedAlteracoesProdutoTest {
+
+    private static final Clock RELOGIO = Clock.fixed(Instant.parse("2024-01-01T00:00:00Z"), ZoneOffset.UTC);
+
+    private FeedAlteracoesProduto feed;
+
+    private long inicio;
+
+    @BeforeEach
+    void setUp(){
+        feed = new FeedAlteracoesProduto(new SyncTaskExecutor(), 4, 1000, RELOGIO);
+        inicio = feed.proximaSequencia();
+    }
+
+    @Test
+    void deveEntregarAlteracoesEmOrdemAPartirDaSequenciaInformada(){
+        //Dado (Given)
+        alterar(1L);
+        alterar(2L);
+        alterar(3L);
+
+        //Quando(When)
+        FeedAlteracoesProduto.Leitura leitura = feed.ler(inicio + 1, 10);
+
+        //Então(Then)
+        assertThat(leitura.perdidas()).isFalse();
+        assertThat(leitura.alteracoes()).extracting(AlteracaoProduto::id).containsExactly(2L, 3L);
+        assertThat(leitura.proxima()).isEqualTo(inicio + 3);
+    }
+
+    @Test
+    void deveCopiarEstadoDoProdutoNoMomentoDaAlteracao(){
+        //Dado (Given)
+        Produto produto = new Produto(1L, "Cabo", 10, 5.0);
+        feed.aoAlterarProduto(ProdutoAlteradoEvent.criacao(produto));
+
+        //Quando(When)
+        produto.setQuantidade(0);
+
+        //Então(Then)
+        assertThat(feed.ler(inicio, 10).alteracoes().get(0).produto().getQuantidade()).isEqualTo(10);
+    }
+
+    @Test
+    void deveSinalizarPerdaQuandoBufferDaAVolta(){
+        //Dado (Given)
+        for (long id = 1; id <= 6; id++) {
+            alterar(id);
+        }
+
+        //Quando(When)
+        FeedAlteracoesProduto.Leitura leitura = feed.ler(inicio, 10);
+
+        //Então(Then)
+        assertThat(leitura.perdidas()).isTrue();
+        assertThat(leitura.alteracoes()).extracting(AlteracaoProduto::id).containsExactly(3L, 4L, 5L, 6L);
+    }
+
+    @Test
+    void deveSinalizarPerdaParaSequenciaDeOutraExecucao(){
+        //Dado (Given)
+        alterar(1L);
+
+        //Quando(When)
+        FeedAlteracoesProduto.Leitura anterior = feed.ler(42, 10);
+        FeedAlteracoesProduto.Leitura futura = feed.ler(inicio + 100, 10);
+
+        //Então(Then)
+        assertThat(anterior.perdidas()).isTrue();
+        assertThat(futura.perdidas()).isTrue();
+        assertThat(futura.alteracoes()).extracting(AlteracaoProduto::id).containsExactly(1L);
+    }
+
+    @Test
+    void deveRespeitarMaximoPorLeitura(){
+        //Dado (Given)
+        alterar(1L);
+        alterar(2L);
+        alterar(3L);
+
+        //Quando(When)
+        FeedAlteracoesProduto.Leitura leitura = feed.ler(inicio, 2);
+
+        //Então(Then)
+        assertThat(leitura.alteracoes()).hasSize(2);
+        assertThat(feed.ler(leitura.proxima(), 2).alteracoes()).extracting(AlteracaoProduto::id).containsExactly(3L);
+    }
+
+    private void alterar(Long id){
+        feed.aoAlterarProduto(ProdutoAlteradoEvent.remocao(id, null));
+    }
+}
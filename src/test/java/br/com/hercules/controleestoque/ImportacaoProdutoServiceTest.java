@@ -0,0 +1,152 @@
+package br.com.hercules.controleestoque;
+
+import br.com.hercules.controleestoque.exception.InvalidRequestException;
+import br.com.hercules.controleestoque.model.FormatoArquivo;
+import br.com.hercules.controleestoque.model.Produto;
+import br.com.hercules.controleestoque.model.RelatorioImportacao;
+import br.com.hercules.controleestoque.model.ResultadoLote;
+import br.com.hercules.controleestoque.service.ImportacaoProdutoService;
+import br.com.hercules.controleestoque.service.ProdutoLoteService;
+import br.com.hercules.controleestoque.service.impl.ImportacaoProdutoServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+public class ImportacaoProdutoServiceTest {
+
+    @Mock
+    private ProdutoLoteService produtoLoteService;
+
+    private ImportacaoProdutoService importacaoProdutoService;
+
+    private final List<Produto> produtosGravados = new ArrayList<>();
+
+    @BeforeEach
+    void setUp(){
+        MockitoAnnotations.openMocks(this);
+        importacaoProdutoService = new ImportacaoProdutoServiceImpl(produtoLoteService, new ObjectMapper(),
+                new SimpleAsyncTaskExecutor(), 2, 1, 10);
+        when(produtoLoteService.criarEmLote(anyList())).thenAnswer(invocation -> {
+            List<Produto> produtos = invocation.getArgument(0);
+            List<ResultadoLote> resultados = new ArrayList<>();
+            for (int i = 0; i < produtos.size(); i++) {
+                Produto produto = produtos.get(i);
+                if (produto.getDescricao().isBlank()) {
+                    resultados.add(ResultadoLote.falha(i, null, ResultadoLote.Status.INVALIDO, "A descrição é obrigatória"));
+                } else {
+                    produtosGravados.add(produto);
+                    resultados.add(ResultadoLote.sucesso(i, (long) produtosGravados.size(), ResultadoLote.Status.CRIADO));
+                }
+            }
+            return resultados;
+        });
+    }
+
+    @Test
+    void deveImportarCsvComPontoEVirgulaEVirgulaDecimal(){
+        //Given
+        String csv = """
+                preco;descricao;quantidade
+                1299,90;"Violão ""Folk"" Tagima";4
+                89,5;Capa;10
+
+                """;
+
+        //When
+        RelatorioImportacao relatorio = importacaoProdutoService.importar(entrada(csv), FormatoArquivo.CSV);
+
+        //Then
+        assertThat(relatorio.linhasLidas()).isEqualTo(2);
+        assertThat(relatorio.importados()).isEqualTo(2);
+        assertThat(relatorio.rejeitados()).isZero();
+        assertThat(produtosGravados.get(0).getDescricao()).isEqualTo("Violão \"Folk\" Tagima");
+        assertThat(produtosGravados.get(0).getPreco()).isEqualTo(1299.90);
+        assertThat(produtosGravados.get(1).getQuantidade()).isEqualTo(10);
+    }
+
+    @Test
+    void deveRejeitarLinhasInvalidasInformandoONumeroDaLinha(){
+        //Given
+        String csv = """
+                descricao,quantidade,preco
+                Violao,10,700
+                Guitarra,muitas,1500
+                ,1,10
+                Baixo,2
+                Teclado,3,2500
+                """;
+
+        //When
+        RelatorioImportacao relatorio = importacaoProdutoService.importar(entrada(csv), FormatoArquivo.CSV);
+
+        //Then
+        assertThat(relatorio.linhasLidas()).isEqualTo(5);
+        assertThat(relatorio.importados()).isEqualTo(2);
+        assertThat(relatorio.rejeitados()).isEqualTo(3);
+        assertThat(relatorio.rejeicoes()).extracting(RelatorioImportacao.Rejeicao::linha).containsExactly(3L, 4L, 5L);
+        assertThat(relatorio.rejeicoesTruncadas()).isFalse();
+    }
+
+    @Test
+    void deveImportarNdjsonEmBlocos(){
+        //Given
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 7; i++) {
+            ndjson.append("{\"descricao\":\"Produto ").append(i).append("\",\"quantidade\":1,\"preco\":2.5}\n");
+        }
+        ndjson.append("{nao e json}\n");
+
+        //When
+        RelatorioImportacao relatorio = importacaoProdutoService.importar(entrada(ndjson.toString()), FormatoArquivo.NDJSON);
+
+        //Then
+        assertThat(relatorio.importados()).isEqualTo(7);
+        assertThat(relatorio.rejeitados()).isEqualTo(1);
+        assertThat(relatorio.rejeicoes().get(0).linha()).isEqualTo(8);
+        verify(produtoLoteService, times(4)).criarEmLote(anyList());
+    }
+
+    @Test
+    void deveLimitarRejeicoesDetalhadas(){
+        //Given
+        StringBuilder csv = new StringBuilder("descricao,quantidade,preco\n");
+        for (int i = 0; i < 15; i++) {
+            csv.append("Produto,x,1\n");
+        }
+
+        //When
+        RelatorioImportacao relatorio = importacaoProdutoService.importar(entrada(csv.toString()), FormatoArquivo.CSV);
+
+        //Then
+        assertThat(relatorio.rejeitados()).isEqualTo(15);
+        assertThat(relatorio.rejeicoes()).hasSize(10);
+        assertThat(relatorio.rejeicoesTruncadas()).isTrue();
+    }
+
+    @Test
+    void deveLancarExcecaoQuandoCabecalhoCsvInvalido(){
+        RuntimeException exception = assertThrows(InvalidRequestException.class,
+                () -> importacaoProdutoService.importar(entrada("nome,qtd\nViolao,1\n"), FormatoArquivo.CSV));
+
+        assertThat(exception.getMessage()).contains("descricao, quantidade e preco");
+        verify(produtoLoteService, never()).criarEmLote(anyList());
+    }
+
+    private static InputStream entrada(String conteudo) {
+        return new ByteArrayInputStream(conteudo.getBytes(StandardCharsets.UTF_8));
+    }
+}
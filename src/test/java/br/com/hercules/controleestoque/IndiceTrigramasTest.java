@@ -0,0 +1,87 @@
+package br.com.hercules.controleestoque;
+
+import br.com.hercules.controleestoque.busca.IndiceTrigramas;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class IndiceTrigramasTest {
+
+    private IndiceTrigramas indice;
+
+    @BeforeEach
+    void setUp(){
+        indice = new IndiceTrigramas();
+        indice.indexar(1L, "Violão Acústico Giannini");
+        indice.indexar(2L, "Capa para violão");
+        indice.indexar(3L, "Guitarra Fender Stratocaster");
+        indice.indexar(4L, "Violino 4/4");
+    }
+
+    @Test
+    void deveBuscarIgnorandoAcentosEMaiusculas(){
+        assertThat(indice.buscar("VIOLAO", 10)).containsExactly(1L, 2L);
+        assertThat(indice.buscar("acustico", 10)).containsExactly(1L);
+    }
+
+    @Test
+    void deveOrdenarPorRelevancia(){
+        //Given
+        indice.indexar(5L, "Encordoamento violão aço");
+
+        //When
+        List<Long> resultado = indice.buscar("violão", 10);
+
+        //Then
+        assertThat(resultado).containsExactly(1L, 2L, 5L);
+    }
+
+    @Test
+    void deveExigirSubstringCompletaENaoApenasTrigramas(){
+        assertThat(indice.buscar("viol fender", 10)).isEmpty();
+    }
+
+    @Test
+    void deveRespeitarLimite(){
+        assertThat(indice.buscar("vio", 2)).containsExactly(4L, 1L);
+    }
+
+    @Test
+    void deveBuscarTermosCurtos(){
+        assertThat(indice.buscar("4/", 10)).containsExactly(4L);
+    }
+
+    @Test
+    void deveAtualizarERemoverDocumentos(){
+        //When
+        indice.indexar(3L, "Guitarra Gibson Les Paul");
+        indice.remover(4L);
+
+        //Then
+        assertThat(indice.buscar("fender", 10)).isEmpty();
+        assertThat(indice.buscar("gibson", 10)).containsExactly(3L);
+        assertThat(indice.buscar("violino", 10)).isEmpty();
+        assertThat(indice.tamanho()).isEqualTo(3);
+    }
+
+    @Test
+    void deveManterResultadosAposCompactacao(){
+        //Given
+        for (long id = 100; id < 3100; id++) {
+            indice.indexar(id, "Palheta " + id);
+        }
+
+        //When
+        for (long id = 100; id < 3100; id++) {
+            indice.remover(id);
+        }
+
+        //Then
+        assertThat(indice.tamanho()).isEqualTo(4);
+        assertThat(indice.buscar("violão", 10)).containsExactly(1L, 2L);
+        assertThat(indice.buscar("palheta", 10)).isEmpty();
+    }
+}
@@ -0,0 +1,149 @@
+package br.com.hercules.controleestoque;
+
+import br.com.hercules.controleestoque.exception.ServiceOverloadedException;
+import br.com.hercules.controleestoque.exception.TooManyRequestsException;
+import br.com.hercules.controleestoque.limite.BaldeTokens;
+import br.com.hercules.controleestoque.limite.LimiteConcorrenciaAdaptativo;
+import br.com.hercules.controleestoque.limite.LimitesRequisicaoInterceptor;
+import br.com.hercules.controleestoque.limite.PropriedadesLimites;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class LimitesRequisicaoTest {
+
+    private static final long SEGUNDO = TimeUnit.SECONDS.toNanos(1);
+
+    private static final long MILISSEGUNDO = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    public void baldeDeveAceitarRajadaEDepoisATaxa() {
+        //Dado (Given)
+        BaldeTokens balde = new BaldeTokens(10, 5, 0);
+
+        //Quando(When)
+        int aceitas = 0;
+        while (balde.consumir(0) == 0) {
+            aceitas++;
+        }
+
+        //Então(Then)
+        assertThat(aceitas).isEqualTo(5);
+        assertThat(balde.consumir(0)).isEqualTo(SEGUNDO / 10);
+        assertThat(balde.consumir(SEGUNDO / 10)).isZero();
+        assertThat(balde.consumir(SEGUNDO / 10)).isPositive();
+        assertThat(balde.consumir(SEGUNDO)).isZero();
+    }
+
+    @Test
+    public void limiteDeveCairComLatenciaAltaECrescerSoQuandoUsado() {
+        //Dado (Given)
+        LimiteConcorrenciaAdaptativo limite = new LimiteConcorrenciaAdaptativo(10, 2, 20, 100 * MILISSEGUNDO, 0.5, 0);
+        for (int i = 0; i < 10; i++) {
+            assertThat(limite.adquirir()).isTrue();
+        }
+        assertThat(limite.adquirir()).isFalse();
+
+        //Quando(When)
+        limite.liberar(500 * MILISSEGUNDO, 0);
+        limite.liberar(500 * MILISSEGUNDO, 1);
+
+        //Então(Then)
+        assertThat(limite.getLimite()).isEqualTo(5);
+        assertThat(limite.getEmAndamento()).isEqualTo(8);
+        assertThat(limite.adquirir()).isFalse();
+
+        for (int i = 0; i < 8; i++) {
+            limite.liberar(10 * MILISSEGUNDO, SEGUNDO);
+        }
+        assertThat(limite.getEmAndamento()).isZero();
+        int aposReducao = limite.getLimite();
+        for (int i = 0; i < 50; i++) {
+            assertThat(limite.adquirir()).isTrue();
+            limite.liberar(10 * MILISSEGUNDO, SEGUNDO);
+        }
+        assertThat(limite.getLimite()).isEqualTo(aposReducao);
+        for (int rodada = 0; rodada < 20; rodada++) {
+            int ocupadas = 0;
+            while (limite.adquirir()) {
+                ocupadas++;
+            }
+            for (int i = 0; i < ocupadas; i++) {
+                limite.liberar(10 * MILISSEGUNDO, SEGUNDO);
+            }
+        }
+        assertThat(limite.getLimite()).isGreaterThan(aposReducao).isLessThanOrEqualTo(20);
+    }
+
+    @Test
+    public void interceptorDeveLimitarPorClienteERejeitarComRetryAfter() {
+        //Dado (Given)
+        AtomicLong relogio = new AtomicLong();
+        PropriedadesLimites propriedades = propriedades(new PropriedadesLimites.Endpoint("GET", "/produtos",
+                1, 2, 20, 1, 0, Duration.ofMillis(250), 0.9));
+        LimitesRequisicaoInterceptor interceptor = new LimitesRequisicaoInterceptor(propriedades, new SimpleMeterRegistry(), relogio::get);
+
+        //Quando(When)
+        boolean primeira = interceptor.preHandle(requisicao("/produtos", "10.0.0.1", null), new MockHttpServletResponse(), null);
+        boolean segunda = interceptor.preHandle(requisicao("/produtos", "10.0.0.1", null), new MockHttpServletResponse(), null);
+
+        //Então(Then)
+        assertThat(primeira).isTrue();
+        assertThat(segunda).isTrue();
+        assertThatThrownBy(() -> interceptor.preHandle(requisicao("/produtos", "10.0.0.1", null), new MockHttpServletResponse(), null))
+                .isInstanceOf(TooManyRequestsException.class)
+                .extracting(ex -> ((TooManyRequestsException) ex).getSegundosParaNovaTentativa())
+                .isEqualTo(1L);
+        assertThat(interceptor.preHandle(requisicao("/produtos", "10.0.0.1", "chave-a"), new MockHttpServletResponse(), null)).isTrue();
+        assertThat(interceptor.preHandle(requisicao("/produtos", "10.0.0.2", null), new MockHttpServletResponse(), null)).isTrue();
+        assertThat(interceptor.preHandle(requisicao("/produtos/{id}", "10.0.0.1", null), new MockHttpServletResponse(), null)).isTrue();
+        relogio.set(SEGUNDO);
+        assertThat(interceptor.preHandle(requisicao("/produtos", "10.0.0.1", null), new MockHttpServletResponse(), null)).isTrue();
+    }
+
+    @Test
+    public void interceptorDeveDescartarQuandoLimiteDeConcorrenciaEstiverOcupado() {
+        //Dado (Given)
+        AtomicLong relogio = new AtomicLong();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PropriedadesLimites propriedades = propriedades(new PropriedadesLimites.Endpoint("GET", "/produtos",
+                0, 0, 1, 1, 4, Duration.ofMillis(250), 0.9));
+        LimitesRequisicaoInterceptor interceptor = new LimitesRequisicaoInterceptor(propriedades, meterRegistry, relogio::get);
+        MockHttpServletRequest emAndamento = requisicao("/produtos", "10.0.0.1", null);
+        interceptor.preHandle(emAndamento, new MockHttpServletResponse(), null);
+
+        //Quando(When)
+        assertThatThrownBy(() -> interceptor.preHandle(requisicao("/produtos", "10.0.0.2", null), new MockHttpServletResponse(), null))
+                .isInstanceOf(ServiceOverloadedException.class);
+        interceptor.afterCompletion(emAndamento, new MockHttpServletResponse(), null, null);
+
+        //Então(Then)
+        assertThat(interceptor.preHandle(requisicao("/produtos", "10.0.0.2", null), new MockHttpServletResponse(), null)).isTrue();
+        assertThat(meterRegistry.get(LimitesRequisicaoInterceptor.METRICA).tag("resultado", "admitida").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get(LimitesRequisicaoInterceptor.METRICA).tag("resultado", "concorrencia").counter().count()).isEqualTo(1);
+    }
+
+    private static PropriedadesLimites propriedades(PropriedadesLimites.Endpoint endpoint) {
+        return new PropriedadesLimites(true, "X-API-Key", 1000, Duration.ofMinutes(10), List.of(endpoint));
+    }
+
+    private static MockHttpServletRequest requisicao(String padrao, String ip, String chaveApi) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", padrao);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, padrao);
+        request.setRemoteAddr(ip);
+        if (chaveApi != null) {
+            request.addHeader("X-API-Key", chaveApi);
+        }
+        return request;
+    }
+}
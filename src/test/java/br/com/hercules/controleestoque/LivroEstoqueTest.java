@@ -0,0 +1,169 @@
+package br.com.hercules.controleestoque;
+
+import br.com.hercules.controleestoque.busca.IndiceDescricaoProduto;
+import br.com.hercules.controleestoque.cache.CargaAgrupadaProdutos;
+import br.com.hercules.controleestoque.exception.ResourceNotFoundException;
+import br.com.hercules.controleestoque.livro.LivroEstoque;
+import br.com.hercules.controleestoque.model.AlteracaoParcialProduto;
+import br.com.hercules.controleestoque.model.LancamentoEstoque;
+import br.com.hercules.controleestoque.model.MovimentoEstoque;
+import br.com.hercules.controleestoque.model.Produto;
+import br.com.hercules.controleestoque.repository.LancamentoEstoqueRepository;
+import br.com.hercules.controleestoque.repository.ProdutoRepository;
+import br.com.hercules.controleestoque.repository.SaldoEstoqueRepository;
+import br.com.hercules.controleestoque.service.ProdutoService;
+import br.com.hercules.controleestoque.service.impl.ProdutoServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(ProdutoServiceImpl.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class LivroEstoqueTest {
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private LivroEstoque livroEstoque;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private LancamentoEstoqueRepository lancamentoRepository;
+
+    @Autowired
+    private SaldoEstoqueRepository saldoRepository;
+
+    @Autowired
+    private ReservaEstoqueTest.RelogioAjustavel relogio;
+
+    @MockBean
+    private IndiceDescricaoProduto indiceDescricao;
+
+    @MockBean
+    private CargaAgrupadaProdutos cargaAgrupada;
+
+    @BeforeEach
+    void setUp() {
+        livroEstoque.gravarPendentes();
+        lancamentoRepository.deleteAllInBatch();
+        saldoRepository.deleteAllInBatch();
+        produtoRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void deveRegistrarCadaAlteracaoDeQuantidadeEResponderPorInstante() {
+        //Dado (Given)
+        Instant antes = relogio.instant();
+        relogio.avancar(Duration.ofSeconds(1));
+        Long id = produtoService.createProduto(new Produto(null, "Violao", 10, 700)).getId();
+        Instant criado = relogio.instant();
+        relogio.avancar(Duration.ofSeconds(1));
+        produtoService.movimentarEstoque(id, new MovimentoEstoque(MovimentoEstoque.Tipo.SAIDA, 3));
+        Instant movimentado = relogio.instant();
+        relogio.avancar(Duration.ofSeconds(1));
+        produtoService.atualizarProduto(id, new Produto(null, "Violao folk", 7, 700), null);
+        relogio.avancar(Duration.ofSeconds(1));
+        produtoService.atualizarParcialmente(id, new AlteracaoParcialProduto(null, 20, null, null), null);
+        Instant ajustado = relogio.instant();
+        relogio.avancar(Duration.ofSeconds(1));
+        produtoService.deletarProduto(id);
+        Instant removido = relogio.instant();
+
+        //Quando(When)
+        livroEstoque.gravarPendentes();
+
+        //Então(Then)
+        assertThat(lancamentoRepository.findAll()).extracting(LancamentoEstoque::getTipo, LancamentoEstoque::getVariacao,
+                        LancamentoEstoque::getQuantidade, LancamentoEstoque::getVersao)
+                .containsExactlyInAnyOrder(
+                        tuple(LancamentoEstoque.Tipo.CRIACAO, 10, 10, 0L),
+                        tuple(LancamentoEstoque.Tipo.ATUALIZACAO, -3, 7, 1L),
+                        tuple(LancamentoEstoque.Tipo.ATUALIZACAO, 13, 20, 3L),
+                        tuple(LancamentoEstoque.Tipo.REMOCAO, -20, 0, 4L));
+        assertThrows(ResourceNotFoundException.class, () -> livroEstoque.estoqueEm(id, antes));
+        assertThat(livroEstoque.estoqueEm(id, criado).quantidade()).isEqualTo(10);
+        assertThat(livroEstoque.estoqueEm(id, movimentado.plusMillis(500)).quantidade()).isEqualTo(7);
+        assertThat(livroEstoque.estoqueEm(id, ajustado).quantidade()).isEqualTo(20);
+        assertThrows(ResourceNotFoundException.class, () -> livroEstoque.estoqueEm(id, removido));
+    }
+
+    @Test
+    void deveDesempatarLancamentosNoMesmoInstantePelaVersao() {
+        //Dado (Given)
+        Long id = produtoService.createProduto(new Produto(null, "Afinador", 5, 40)).getId();
+        Instant instante = relogio.instant();
+        livroEstoque.gravarPendentes();
+        lancamentoRepository.deleteAllInBatch();
+
+        //Quando(When)
+        lancamentoRepository.saveAll(List.of(
+                new LancamentoEstoque(id, LancamentoEstoque.Tipo.ATUALIZACAO, 4, 9, instante, 2L),
+                new LancamentoEstoque(id, LancamentoEstoque.Tipo.ATUALIZACAO, -1, 5, instante, 1L)));
+        relogio.avancar(Duration.ofMinutes(10));
+
+        //Então(Then)
+        assertThat(livroEstoque.estoqueEm(id, instante).quantidade()).isEqualTo(9);
+        assertThat(livroEstoque.fotografar()).isEqualTo(1);
+        assertThat(saldoRepository.findFirstByProdutoIdAndInstanteLessThanEqualOrderByInstanteDesc(id, relogio.instant())
+                .orElseThrow().getQuantidade()).isEqualTo(9);
+    }
+
+    @Test
+    void fotografiaDevePreservarQuantidadeEServirDePontoDePartida() {
+        //Dado (Given)
+        Long id = produtoService.createProduto(new Produto(null, "Cabo", 5, 10)).getId();
+        produtoService.movimentarEstoque(id, new MovimentoEstoque(MovimentoEstoque.Tipo.ENTRADA, 4));
+        livroEstoque.gravarPendentes();
+        relogio.avancar(Duration.ofMinutes(10));
+
+        //Quando(When)
+        int fotografados = livroEstoque.fotografar();
+        lancamentoRepository.deleteAllInBatch();
+        produtoService.movimentarEstoque(id, new MovimentoEstoque(MovimentoEstoque.Tipo.SAIDA, 2));
+        livroEstoque.gravarPendentes();
+
+        //Então(Then)
+        assertThat(fotografados).isEqualTo(1);
+        assertThat(livroEstoque.fotografar()).isZero();
+        assertThat(livroEstoque.estoqueEm(id, relogio.instant().minus(Duration.ofMinutes(4))).quantidade()).isEqualTo(9);
+        assertThat(livroEstoque.estoqueEm(id, relogio.instant()).quantidade()).isEqualTo(7);
+    }
+
+    @TestConfiguration
+    static class Configuracao {
+
+        @Bean
+        ReservaEstoqueTest.RelogioAjustavel relogio() {
+            return new ReservaEstoqueTest.RelogioAjustavel();
+        }
+
+        @Bean
+        LivroEstoque livroEstoque(LancamentoEstoqueRepository lancamentoRepository, SaldoEstoqueRepository saldoRepository,
+                                  PlatformTransactionManager transactionManager, ReservaEstoqueTest.RelogioAjustavel relogio) {
+            return new LivroEstoque(lancamentoRepository, saldoRepository, transactionManager, new SimpleMeterRegistry(), 1000, relogio);
+        }
+    }
+}
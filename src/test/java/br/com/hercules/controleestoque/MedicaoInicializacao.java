@@ -0,0 +1,157 @@
+package br.com.hercules.controleestoque;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Mede quanto tempo uma nova instância leva para atender bem: inicia a aplicação com o comando
+ * informado e, a partir desse instante, reporta quando o readiness fica UP, quando a primeira
+ * requisição de {@code GET /produtos/{id}} é respondida e quando o p99, medido em janelas de um
+ * segundo, se estabiliza. Não roda no {@code mvn test}; serve para comparar jar comum, CDS, AOT e
+ * aquecimento.
+ * <p>
+ * O p99 é considerado estável a partir da primeira janela em que ele e todas as seguintes ficam
+ * abaixo de 1,5 vez a mediana dos p99 do último terço da medição.
+ * <pre>
+ * mvn -B test-compile
+ * java -cp target/test-classes br.com.hercules.controleestoque.MedicaoInicializacao \
+ *     http://localhost:8080 [ids=10000] [clientes=8] [duracaoSegundos=60] -- java -jar target/controleestoque-0.0.1-SNAPSHOT.jar
+ * </pre>
+ * A saída da aplicação vai para {@code target/medicao-inicializacao.log}.
+ */
+public class MedicaoInicializacao {
+
+    public static void main(String[] args) throws Exception {
+        int separador = Arrays.asList(args).indexOf("--");
+        if (separador < 1 || separador == args.length - 1) {
+            System.err.println("Uso: MedicaoInicializacao <url-base> [ids] [clientes] [duracaoSegundos] -- <comando da aplicação>");
+            System.exit(1);
+        }
+        String urlBase = args[0];
+        int ids = separador > 1 ? Integer.parseInt(args[1]) : 10_000;
+        int clientes = separador > 2 ? Integer.parseInt(args[2]) : 8;
+        int segundos = separador > 3 ? Integer.parseInt(args[3]) : 60;
+        List<String> comando = Arrays.asList(args).subList(separador + 1, args.length);
+
+        HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        long inicio = System.nanoTime();
+        Process aplicacao = new ProcessBuilder(comando)
+                .redirectErrorStream(true)
+                .redirectOutput(new File("target/medicao-inicializacao.log"))
+                .start();
+        try {
+            long pronto = aguardar(httpClient, URI.create(urlBase + "/actuator/health/readiness"), aplicacao);
+            long primeira = aguardar(httpClient, URI.create(urlBase + "/produtos/1"), aplicacao);
+            long[][] janelas = medir(httpClient, urlBase, ids, clientes, segundos);
+            long inicioCarga = System.nanoTime() - Duration.ofSeconds(segundos).toNanos();
+
+            double[] p99 = Arrays.stream(janelas).mapToDouble(janela -> percentil(janela, 0.99)).toArray();
+            double[] finais = Arrays.copyOfRange(p99, p99.length - Math.max(p99.length / 3, 1), p99.length);
+            Arrays.sort(finais);
+            double referencia = finais[finais.length / 2];
+            int estavel = p99.length - 1;
+            while (estavel > 0 && p99[estavel - 1] <= referencia * 1.5) {
+                estavel--;
+            }
+            System.out.printf("readiness UP: %d ms%n", milis(pronto - inicio));
+            System.out.printf("primeira requisição: %d ms%n", milis(primeira - inicio));
+            System.out.printf("p99 estável (%.2f ms): %d ms%n", referencia, milis(inicioCarga - inicio) + estavel * 1000L);
+            System.out.printf("p99 por segundo (ms): %s%n", Arrays.toString(Arrays.stream(p99)
+                    .mapToObj(valor -> String.format("%.1f", valor)).toArray()));
+            System.out.printf("requisições: %d%n", Arrays.stream(janelas).mapToLong(janela -> janela.length).sum());
+        } finally {
+            aplicacao.destroy();
+            aplicacao.waitFor();
+        }
+    }
+
+    /**
+     * Repete o GET até receber 200 e retorna o instante da resposta.
+     */
+    private static long aguardar(HttpClient httpClient, URI uri, Process aplicacao) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(5)).GET().build();
+        while (aplicacao.isAlive()) {
+            try {
+                if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return System.nanoTime();
+                }
+            } catch (IOException ex) {
+                // Servidor ainda não aceita conexões.
+            }
+            Thread.sleep(20);
+        }
+        throw new IllegalStateException("A aplicação encerrou antes de responder " + uri);
+    }
+
+    /**
+     * Clientes em laço fechado; retorna as latências de cada janela de um segundo, ordenadas.
+     */
+    private static long[][] medir(HttpClient httpClient, String urlBase, int ids, int clientes, int segundos)
+            throws InterruptedException {
+        long inicio = System.nanoTime();
+        long fim = inicio + Duration.ofSeconds(segundos).toNanos();
+        List<List<long[]>> porCliente = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int c = 0; c < clientes; c++) {
+            List<long[]> amostras = new ArrayList<>();
+            porCliente.add(amostras);
+            Thread thread = new Thread(() -> {
+                while (System.nanoTime() < fim) {
+                    long id = ThreadLocalRandom.current().nextLong(1, ids + 1L);
+                    HttpRequest request = HttpRequest.newBuilder(URI.create(urlBase + "/produtos/" + id))
+                            .timeout(Duration.ofSeconds(10)).GET().build();
+                    long envio = System.nanoTime();
+                    try {
+                        httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                        amostras.add(new long[]{envio - inicio, System.nanoTime() - envio});
+                    } catch (IOException ex) {
+                        amostras.add(new long[]{envio - inicio, Duration.ofSeconds(10).toNanos()});
+                    } catch (InterruptedException ex) {
+                        return;
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long[][] janelas = new long[segundos][];
+        List<List<Long>> porJanela = new ArrayList<>();
+        for (int s = 0; s < segundos; s++) {
+            porJanela.add(new ArrayList<>());
+        }
+        for (List<long[]> amostras : porCliente) {
+            for (long[] amostra : amostras) {
+                int janela = (int) Math.min(amostra[0] / 1_000_000_000L, segundos - 1);
+                porJanela.get(janela).add(amostra[1]);
+            }
+        }
+        for (int s = 0; s < segundos; s++) {
+            janelas[s] = porJanela.get(s).stream().mapToLong(Long::longValue).sorted().toArray();
+        }
+        return janelas;
+    }
+
+    private static double percentil(long[] ordenadas, double percentil) {
+        if (ordenadas.length == 0) {
+            return 0;
+        }
+        int indice = (int) Math.ceil(percentil * ordenadas.length) - 1;
+        return ordenadas[Math.max(indice, 0)] / 1e6;
+    }
+
+    private static long milis(long nanos) {
+        return Duration.ofNanos(nanos).toMillis();
+    }
+}
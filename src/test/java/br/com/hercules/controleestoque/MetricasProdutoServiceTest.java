@@ -0,0 +1,66 @@
+package br.com.hercules.controleestoque;
+
+import br.com.hercules.controleestoque.exception.ResourceNotFoundException;
+import br.com.hercules.controleestoque.metricas.MetricasProdutoService;
+import br.com.hercules.controleestoque.model.Produto;
+import br.com.hercules.controleestoque.service.ProdutoService;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+public class MetricasProdutoServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ProdutoService produtoService;
+
+    private ProdutoService proxy;
+
+    @BeforeEach
+    void setUp(){
+        meterRegistry = new SimpleMeterRegistry();
+        produtoService = mock(ProdutoService.class);
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(produtoService);
+        proxyFactory.addAspect(new MetricasProdutoService(meterRegistry));
+        proxy = proxyFactory.getProxy();
+    }
+
+    @Test
+    void deveRegistrarTempoPorMetodo(){
+        //Given
+        when(produtoService.produtoGetById(1L)).thenReturn(new Produto(1L, "Violão", 10, 700));
+
+        //When
+        proxy.produtoGetById(1L);
+        proxy.produtoGetById(1L);
+
+        //Then
+        Timer timer = meterRegistry.get(MetricasProdutoService.METRICA)
+                .tag("metodo", "produtoGetById")
+                .tag("excecao", "none")
+                .timer();
+        assertThat(timer.count()).isEqualTo(2);
+    }
+
+    @Test
+    void deveRegistrarFalhaComTipoDaExcecao(){
+        //Given
+        when(produtoService.produtoGetById(99L)).thenThrow(new ResourceNotFoundException("Produto não encontrado!"));
+
+        //When
+        assertThrows(ResourceNotFoundException.class, () -> proxy.produtoGetById(99L));
+
+        //Then
+        Timer timer = meterRegistry.get(MetricasProdutoService.METRICA)
+                .tag("metodo", "produtoGetById")
+                .tag("excecao", "ResourceNotFoundException")
+                .timer();
+        assertThat(timer.count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,181 @@
+package br.com.hercules.controleestoque;
+
+import br.com.hercules.controleestoque.alerta.DespachanteAlertas;
+import br.com.hercules.controleestoque.alerta.MonitorEstoqueBaixo;
+import br.com.hercules.controleestoque.event.ProdutoAlteradoEvent;
+import br.com.hercules.controleestoque.model.AlertaEstoque;
+import br.com.hercules.controleestoque.model.AlteracaoParcialProduto;
+import br.com.hercules.controleestoque.model.Produto;
+import br.com.hercules.controleestoque.model.ProdutoEmRisco;
+import br.com.hercules.controleestoque.repository.ProdutoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+public class MonitorEstoqueBaixoTest {
+
+    @Mock
+    private ProdutoRepository produtoRepository;
+
+    @Mock
+    private DespachanteAlertas despachante;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private MonitorEstoqueBaixo monitor;
+
+    @BeforeEach
+    void setUp(){
+        MockitoAnnotations.openMocks(this);
+        monitor = new MonitorEstoqueBaixo(produtoRepository, despachante, transactionManager, new SyncTaskExecutor());
+    }
+
+    @Test
+    void deveCarregarProdutosEmRiscoOrdenadosPorCriticidade(){
+        //Dado (Given)
+        when(produtoRepository.findAbaixoDoPontoDeReposicao()).thenReturn(List.of(
+                produto(1L, 8, 10, 0L),
+                produto(2L, 1, 10, 0L),
+                produto(3L, 2, 20, 0L)));
+
+        //Quando(When)
+        monitor.iniciarCarga();
+
+        //Então(Then)
+        assertThat(monitor.isPronto()).isTrue();
+        assertThat(monitor.listar(10)).extracting(ProdutoEmRisco::id).containsExactly(3L, 2L, 1L);
+        assertThat(monitor.listar(2)).hasSize(2);
+        verifyNoInteractions(despachante);
+    }
+
+    @Test
+    void deveAlertarQuandoProdutoFicaAbaixoDoPontoDeReposicao(){
+        //Dado (Given)
+        carregarVazio();
+
+        //Quando(When)
+        monitor.aoAlterarProduto(ProdutoAlteradoEvent.atualizacao(produto(1L, 12, 10, 0L), produto(1L, 9, 10, 1L)));
+
+        //Então(Then)
+        AlertaEstoque alerta = alertaPublicado();
+        assertThat(alerta.tipo()).isEqualTo(AlertaEstoque.Tipo.ABAIXO_DO_PONTO_DE_REPOSICAO);
+        assertThat(alerta.produtoId()).isEqualTo(1L);
+        assertThat(alerta.quantidade()).isEqualTo(9);
+        assertThat(monitor.listar(10)).extracting(ProdutoEmRisco::id).containsExactly(1L);
+    }
+
+    @Test
+    void naoDeveAlertarNovamenteEnquantoProdutoContinuaEmRisco(){
+        //Dado (Given)
+        carregarVazio();
+        monitor.aoAlterarProduto(ProdutoAlteradoEvent.atualizacao(produto(1L, 12, 10, 0L), produto(1L, 9, 10, 1L)));
+
+        //Quando(When)
+        monitor.aoAlterarProduto(ProdutoAlteradoEvent.atualizacao(produto(1L, 9, 10, 1L), produto(1L, 5, 10, 2L)));
+
+        //Então(Then)
+        verify(despachante, times(1)).publicar(any());
+        assertThat(monitor.listar(10)).extracting(ProdutoEmRisco::quantidade).containsExactly(5);
+    }
+
+    @Test
+    void deveAlertarNormalizacaoAoRepor(){
+        //Dado (Given)
+        carregarVazio();
+        monitor.aoAlterarProduto(ProdutoAlteradoEvent.atualizacao(produto(1L, 12, 10, 0L), produto(1L, 9, 10, 1L)));
+        reset(despachante);
+
+        //Quando(When)
+        monitor.aoAlterarProduto(ProdutoAlteradoEvent.atualizacao(produto(1L, 9, 10, 1L), produto(1L, 30, 10, 2L)));
+
+        //Então(Then)
+        assertThat(alertaPublicado().tipo()).isEqualTo(AlertaEstoque.Tipo.NORMALIZADO);
+        assertThat(monitor.listar(10)).isEmpty();
+    }
+
+    @Test
+    void deveIgnorarProdutoForaDeRiscoSemConsultarBanco(){
+        //Dado (Given)
+        carregarVazio();
+
+        //Quando(When)
+        monitor.aoAlterarProduto(ProdutoAlteradoEvent.atualizacao(produto(1L, 12, 10, 0L), produto(1L, 11, 10, 1L)));
+        monitor.aoAlterarProduto(ProdutoAlteradoEvent.atualizacaoParcial(produto(1L, 11, 10, 1L), produto(1L, 11, 10, 2L),
+                new AlteracaoParcialProduto("Novo", null, 10.0, null)));
+
+        //Então(Then)
+        verifyNoInteractions(despachante);
+        verify(produtoRepository, never()).findById(any());
+        assertThat(monitor.listar(10)).isEmpty();
+    }
+
+    @Test
+    void deveAvaliarAtualizacaoParcialDeQuantidadeSemConsultarBanco(){
+        //Dado (Given)
+        carregarVazio();
+
+        //Quando(When)
+        monitor.aoAlterarProduto(ProdutoAlteradoEvent.atualizacaoParcial(produto(1L, 12, 10, 3L), produto(1L, 3, 10, 4L),
+                new AlteracaoParcialProduto(null, 3, null, null)));
+
+        //Então(Then)
+        assertThat(alertaPublicado().tipo()).isEqualTo(AlertaEstoque.Tipo.ABAIXO_DO_PONTO_DE_REPOSICAO);
+        assertThat(monitor.listar(10)).extracting(ProdutoEmRisco::versao).containsExactly(4L);
+        verify(produtoRepository, never()).findById(any());
+    }
+
+    @Test
+    void deveDescartarEventoComVersaoAnteriorAConhecida(){
+        //Dado (Given)
+        carregarVazio();
+        monitor.aoAlterarProduto(ProdutoAlteradoEvent.atualizacao(produto(1L, 9, 10, 4L), produto(1L, 2, 10, 5L)));
+
+        //Quando(When)
+        monitor.aoAlterarProduto(ProdutoAlteradoEvent.atualizacao(produto(1L, 12, 10, 3L), produto(1L, 9, 10, 4L)));
+
+        //Então(Then)
+        assertThat(monitor.listar(10)).extracting(ProdutoEmRisco::quantidade).containsExactly(2);
+    }
+
+    @Test
+    void deveRetirarProdutoRemovidoSemAlertar(){
+        //Dado (Given)
+        when(produtoRepository.findAbaixoDoPontoDeReposicao()).thenReturn(List.of(produto(1L, 1, 10, 0L)));
+        monitor.iniciarCarga();
+
+        //Quando(When)
+        monitor.aoAlterarProduto(ProdutoAlteradoEvent.remocao(1L, produto(1L, 1, 10, 0L)));
+
+        //Então(Then)
+        assertThat(monitor.listar(10)).isEmpty();
+        verifyNoInteractions(despachante);
+    }
+
+    private void carregarVazio(){
+        when(produtoRepository.findAbaixoDoPontoDeReposicao()).thenReturn(List.of());
+        monitor.iniciarCarga();
+    }
+
+    private AlertaEstoque alertaPublicado(){
+        ArgumentCaptor<AlertaEstoque> captor = ArgumentCaptor.forClass(AlertaEstoque.class);
+        verify(despachante).publicar(captor.capture());
+        return captor.getValue();
+    }
+
+    private static Produto produto(Long id, int quantidade, int pontoReposicao, Long versao){
+        Produto produto = new Produto(id, "Produto " + id, quantidade, 10.0);
+        produto.setPontoReposicao(pontoReposicao);
+        produto.setVersao(versao);
+        return produto;
+    }
+}
@@ -0,0 +1,110 @@
+package br.com.hercules.controleestoque;
+
+import br.com.hercules.controleestoque.model.Produto;
+import br.com.hercules.controleestoque.repository.ProdutoRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class MovimentoEstoqueConcorrenciaTest {
+
+    private static final int THREADS = 32;
+
+    private static final int MOVIMENTOS_POR_THREAD = 100;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void naoDevePerderAtualizacoesComEscritoresConcorrentes() throws Exception {
+        //Given
+        Long id = produtoRepository.save(new Produto(null, "Cabo P10", 1000, 30)).getId();
+        AtomicInteger saldoEsperado = new AtomicInteger(1000);
+
+        //When
+        executarConcorrentemente(thread -> {
+            int delta = thread % 2 == 0 ? 3 : -2;
+            if (ajustar(id, delta)) {
+                saldoEsperado.addAndGet(delta);
+            }
+        });
+
+        //Then
+        assertThat(saldoEsperado.get()).isEqualTo(1000 + (THREADS / 2) * MOVIMENTOS_POR_THREAD);
+        assertThat(produtoRepository.findById(id).orElseThrow().getQuantidade()).isEqualTo(saldoEsperado.get());
+    }
+
+    @Test
+    void naoDevePermitirEstoqueNegativoComSaidasConcorrentes() throws Exception {
+        //Given
+        Long id = produtoRepository.save(new Produto(null, "Palheta", 500, 2)).getId();
+        AtomicInteger saidasAceitas = new AtomicInteger();
+
+        //When
+        executarConcorrentemente(thread -> {
+            if (ajustar(id, -1)) {
+                saidasAceitas.incrementAndGet();
+            }
+        });
+
+        //Then
+        assertThat(saidasAceitas.get()).isEqualTo(500);
+        assertThat(produtoRepository.findById(id).orElseThrow().getQuantidade()).isZero();
+    }
+
+    private boolean ajustar(Long id, int delta) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Integer linhas = transactionTemplate.execute(status -> produtoRepository.ajustarQuantidade(id, delta));
+        return linhas != null && linhas == 1;
+    }
+
+    private void executarConcorrentemente(Movimento movimento) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<?>> tarefas = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                tarefas.add(executor.submit(() -> {
+                    largada.await();
+                    for (int i = 0; i < MOVIMENTOS_POR_THREAD; i++) {
+                        movimento.executar(thread);
+                    }
+                    return null;
+                }));
+            }
+            largada.countDown();
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Movimento {
+        void executar(int thread);
+    }
+}
@@ -0,0 +1,130 @@
+package br.com.hercules.controleestoque;
+
+import br.com.hercules.controleestoque.busca.IndiceDescricaoProduto;
+import br.com.hercules.controleestoque.cache.CargaAgrupadaProdutos;
+import br.com.hercules.controleestoque.exception.InsufficientStockException;
+import br.com.hercules.controleestoque.exception.PreconditionFailedException;
+import br.com.hercules.controleestoque.exception.ResourceNotFoundException;
+import br.com.hercules.controleestoque.model.AlteracaoParcialProduto;
+import br.com.hercules.controleestoque.model.Produto;
+import br.com.hercules.controleestoque.repository.ProdutoRepository;
+import br.com.hercules.controleestoque.service.ProdutoService;
+import br.com.hercules.controleestoque.service.impl.ProdutoServiceImpl;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@ActiveProfiles("test")
+@Import(ProdutoServiceImpl.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ProdutoAtualizacaoParcialTest {
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private IndiceDescricaoProduto indiceDescricao;
+
+    @MockBean
+    private CargaAgrupadaProdutos cargaAgrupada;
+
+    @SpyBean
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics estatisticas;
+
+    private Long id;
+
+    @BeforeEach
+    void setUp(){
+        produtoRepository.deleteAllInBatch();
+        id = produtoRepository.save(new Produto(null, "Violao", 10, 700)).getId();
+        estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+    }
+
+    @Test
+    void deveAlterarSomenteOPrecoComUmUnicoUpdateSemLeitura(){
+        //When
+        produtoService.atualizarParcialmente(id, new AlteracaoParcialProduto(null, null, 750.0, null), 0L);
+
+        //Then
+        assertThat(estatisticas.getPrepareStatementCount()).isZero();
+        verify(jdbcTemplate, times(1)).query(anyString(), ArgumentMatchers.<RowMapper<Produto>>any(), any(Object[].class));
+        Produto produto = produtoRepository.findById(id).orElseThrow();
+        assertThat(produto.getPreco()).isEqualTo(750.0);
+        assertThat(produto.getDescricao()).isEqualTo("Violao");
+        assertThat(produto.getQuantidade()).isEqualTo(10);
+        assertThat(produto.getVersao()).isEqualTo(1L);
+    }
+
+    @Test
+    void atualizacaoCompletaDeveLerOProdutoAntes(){
+        //When
+        produtoService.atualizarProduto(id, new Produto(id, "Violao", 10, 750), null);
+
+        //Then
+        assertThat(estatisticas.getPrepareStatementCount()).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    void deveLancarExcecaoQuandoVersaoDivergir(){
+        //When
+        RuntimeException exception = assertThrows(PreconditionFailedException.class,
+                () -> produtoService.atualizarParcialmente(id, new AlteracaoParcialProduto(null, 3, null, null), 5L));
+
+        //Then
+        assertThat(exception.getMessage()).isEqualTo("O produto foi alterado desde a última leitura!");
+        assertThat(produtoRepository.findById(id).orElseThrow().getQuantidade()).isEqualTo(10);
+    }
+
+    @Test
+    void deveLancarExcecaoQuandoQuantidadeFicarAbaixoDaReservada(){
+        //Given
+        jdbcTemplate.update("update produto set quantidade_reservada = 4 where id = ?", id);
+
+        //When
+        RuntimeException exception = assertThrows(InsufficientStockException.class,
+                () -> produtoService.atualizarParcialmente(id, new AlteracaoParcialProduto(null, 3, null, null), null));
+
+        //Then
+        assertThat(exception.getMessage()).isEqualTo("A quantidade não pode ficar abaixo das 4 unidades reservadas!");
+        assertThat(produtoRepository.findById(id).orElseThrow().getQuantidade()).isEqualTo(10);
+    }
+
+    @Test
+    void deveLancarExcecaoQuandoProdutoNaoExistir(){
+        assertThrows(ResourceNotFoundException.class,
+                () -> produtoService.atualizarParcialmente(id + 1000, new AlteracaoParcialProduto("Baixo", null, null, null), null));
+    }
+}
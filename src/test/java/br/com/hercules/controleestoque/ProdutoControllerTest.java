@@ -1,9 +1,15 @@
 package br.com.hercules.controleestoque;
 
 import br.com.hercules.controleestoque.controller.ProdutoController;
+import br.com.hercules.controleestoque.exception.InvalidRequestException;
+import br.com.hercules.controleestoque.exception.PreconditionFailedException;
 import br.com.hercules.controleestoque.exception.ResourceNotFoundException;
+import br.com.hercules.controleestoque.model.AlteracaoParcialProduto;
+import br.com.hercules.controleestoque.model.MovimentoEstoque;
 import br.com.hercules.controleestoque.model.Produto;
 import br.com.hercules.controleestoque.service.ProdutoService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -16,7 +22,10 @@ import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.function.Consumer;
 
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -39,6 +48,7 @@ public class ProdutoControllerTest {
         MockHttpServletRequest request = new MockHttpServletRequest();
         RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
         produto = new Produto(1L, "Produto Teste", 10, 100);
+        produto.setVersao(0L);
     }
 
     @Test
@@ -48,7 +58,7 @@ public class ProdutoControllerTest {
         when(produtoService.produtoGetById(1L)).thenReturn(produto);
 
         //when
-        ResponseEntity<Produto> response = produtoController.getProdutoById(1L);
+        ResponseEntity<Produto> response = produtoController.getProdutoById(1L, null);
 
         //then
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -63,7 +73,7 @@ public class ProdutoControllerTest {
 
         //when
         ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class,
-                ()-> produtoController.getProdutoById(999L));
+                ()-> produtoController.getProdutoById(999L, null));
 
         //then
         assertEquals("Produto não encontrado!", exception.getMessage());
@@ -71,6 +81,65 @@ public class ProdutoControllerTest {
         verify(produtoService, times(1)).produtoGetById(999L);
     }
 
+    @Test
+    void deveRetornarNaoModificadoQuandoEtagCorresponder(){
+        //Given
+        when(produtoService.produtoGetById(1L)).thenReturn(produto);
+
+        //when
+        ResponseEntity<Produto> response = produtoController.getProdutoById(1L, "W/\"9\", \"0\"");
+
+        //then
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals("\"0\"", response.getHeaders().getETag());
+        assertNull(response.getBody());
+    }
+
+    @Test
+    void deveRetornarProdutoComEtagQuandoVersaoMudou(){
+        //Given
+        when(produtoService.produtoGetById(1L)).thenReturn(produto);
+
+        //when
+        ResponseEntity<Produto> response = produtoController.getProdutoById(1L, "\"-1\"");
+
+        //then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"0\"", response.getHeaders().getETag());
+        assertEquals(produto, response.getBody());
+    }
+
+    @Test
+    void deveRetornarPrimeiraPaginaComCursorDaProximaPagina(){
+        //Given
+        Produto produto2 = new Produto(2L, "Produto Teste 2", 5, 50);
+        when(produtoService.findProdutosAposId(null, 2)).thenReturn(List.of(produto, produto2));
+
+        //when
+        ResponseEntity<List<Produto>> response = produtoController.getProdutos(null, 2);
+
+        //then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(2, response.getBody().size());
+        String cursor = response.getHeaders().getFirst("X-Proximo-Cursor");
+        assertNotNull(cursor);
+
+        when(produtoService.findProdutosAposId(2L, 2)).thenReturn(List.of());
+        ResponseEntity<List<Produto>> proximaPagina = produtoController.getProdutos(cursor, 2);
+        assertTrue(proximaPagina.getBody().isEmpty());
+        assertNull(proximaPagina.getHeaders().getFirst("X-Proximo-Cursor"));
+    }
+
+    @Test
+    void deveRetornarExcecaoQuandoCursorInvalido(){
+
+        InvalidRequestException exception = assertThrows(InvalidRequestException.class,
+                ()-> produtoController.getProdutos("nao-e-um-cursor", 10));
+
+        assertEquals("Cursor inválido!", exception.getMessage());
+        verifyNoInteractions(produtoService);
+    }
+
     @Test
     void deveRetornarProdutosPorNome(){
         //Given
@@ -79,10 +148,10 @@ public class ProdutoControllerTest {
         Produto produto2 =new Produto(3L,"Guitarra Fender",10,15000);
         List<Produto> produtos;
         produtos = List.of(produto1, produto2);
-        when(produtoService.produtoGetByDescricao(descricao)).thenReturn(produtos);
+        when(produtoService.produtoGetByDescricao(descricao, 50)).thenReturn(produtos);
 
         //when
-        ResponseEntity<List<Produto>> response = produtoController.getProdutosByDescricao(descricao);
+        ResponseEntity<List<Produto>> response = produtoController.getProdutosByDescricao(descricao, 50);
 
         //then
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -113,10 +182,10 @@ public class ProdutoControllerTest {
     void deveAtualizarProdutoComSucesso(){
 
         //Giver
-        when(produtoService.atualizarProduto(1L, produto)).thenReturn(produto);
+        when(produtoService.atualizarProduto(1L, produto, null)).thenReturn(produto);
 
         //when
-        ResponseEntity<Produto> response = produtoController.atualizarProduto(1L, produto);
+        ResponseEntity<Produto> response = produtoController.atualizarProduto(1L, produto, null);
 
         //then
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -126,24 +195,103 @@ public class ProdutoControllerTest {
         assertEquals(produto.getQuantidade(), response.getBody().getQuantidade());
         assertEquals(produto.getPreco(), response.getBody().getPreco());
 
-        verify(produtoService, times(1)).atualizarProduto(1L, produto);
+        verify(produtoService, times(1)).atualizarProduto(1L, produto, null);
+
+    }
+
+    @Test
+    void deveRepassarVersaoDoIfMatchAoAtualizar(){
+        //Given
+        when(produtoService.atualizarProduto(1L, produto, 0L)).thenReturn(produto);
+
+        //when
+        ResponseEntity<Produto> response = produtoController.atualizarProduto(1L, produto, "\"0\"");
+
+        //then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"0\"", response.getHeaders().getETag());
+    }
 
+    @Test
+    void deveRetornarExcecaoQuandoIfMatchForFraco(){
+        //when
+        PreconditionFailedException exception = assertThrows(PreconditionFailedException.class,
+                ()-> produtoController.atualizarProduto(1L, produto, "W/\"0\""));
+
+        //then
+        assertEquals("If-Match inválido!", exception.getMessage());
+        verifyNoInteractions(produtoService);
+    }
+
+    @Test
+    void deveAtualizarParcialmenteERetornarEtagDaNovaVersao() throws Exception {
+        //Given
+        JsonNode patch = new ObjectMapper().readTree("{\"preco\": 120.5}");
+
+        //when
+        ResponseEntity<Void> response = produtoController.atualizarProdutoParcialmente(1L, patch, "\"3\"");
+
+        //then
+        assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+        assertEquals("\"4\"", response.getHeaders().getETag());
+        verify(produtoService).atualizarParcialmente(1L, new AlteracaoParcialProduto(null, null, 120.5, null), 3L);
+    }
+
+    @Test
+    void deveRetornarExcecaoQuandoPatchRemoverCampo() throws Exception {
+        //Given
+        JsonNode patch = new ObjectMapper().readTree("{\"descricao\": null}");
+
+        //when
+        InvalidRequestException exception = assertThrows(InvalidRequestException.class,
+                ()-> produtoController.atualizarProdutoParcialmente(1L, patch, null));
+
+        //then
+        assertEquals("A descrição deve ser um texto!", exception.getMessage());
+        verifyNoInteractions(produtoService);
+    }
+
+    @Test
+    void deveExportarUmProdutoPorLinhaSemSeparadorEntreLinhas() throws Exception {
+        //Given
+        Produto outro = new Produto(2L, "Outro Produto", 5, 20);
+        outro.setVersao(0L);
+        doAnswer(invocacao -> {
+            Consumer<Produto> consumidor = invocacao.getArgument(0);
+            consumidor.accept(produto);
+            consumidor.accept(outro);
+            return null;
+        }).when(produtoService).percorrerProdutos(any());
+        ProdutoController controller = new ProdutoController(produtoService, new ObjectMapper());
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        //when
+        controller.streamProdutos().getBody().writeTo(saida);
+
+        //then
+        String[] linhas = saida.toString(StandardCharsets.UTF_8).split("\n", -1);
+        assertEquals(3, linhas.length);
+        assertTrue(linhas[0].startsWith("{"));
+        assertTrue(linhas[1].startsWith("{"));
+        assertEquals(1L, new ObjectMapper().readTree(linhas[0]).get("id").asLong());
+        assertEquals(2L, new ObjectMapper().readTree(linhas[1]).get("id").asLong());
+        assertEquals("", linhas[2]);
     }
 
     @Test
     void deveRetornarExcecaoQuandoAtualizarProdutoInexistente(){
 
         //Given
-        when(produtoService.atualizarProduto(999L, produto)).thenThrow(new ResourceNotFoundException("Produto não encontrado!"));
+        when(produtoService.atualizarProduto(999L, produto, null)).thenThrow(new ResourceNotFoundException("Produto não encontrado!"));
 
         //when
         ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class,
-                ()-> produtoController.atualizarProduto(999L, produto));
+                ()-> produtoController.atualizarProduto(999L, produto, null));
 
         //then
         assertEquals("Produto não encontrado!", exception.getMessage());
 
-        verify(produtoService, times(1)).atualizarProduto(999L, produto);
+        verify(produtoService, times(1)).atualizarProduto(999L, produto, null);
     }
 
     @Test
@@ -170,4 +318,20 @@ public class ProdutoControllerTest {
         verify(produtoService, times(1)).deletarProduto(999L);
     }
 
+    @Test
+    void deveMovimentarEstoqueComSucesso(){
+        //Given
+        MovimentoEstoque movimento = new MovimentoEstoque(MovimentoEstoque.Tipo.ENTRADA, 5);
+        Produto produtoMovimentado = new Produto(1L, "Produto Teste", 15, 100);
+        produtoMovimentado.setVersao(1L);
+        when(produtoService.movimentarEstoque(1L, movimento)).thenReturn(produtoMovimentado);
+
+        //when
+        ResponseEntity<Produto> response = produtoController.movimentarEstoque(1L, movimento);
+
+        //then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(15, response.getBody().getQuantidade());
+    }
+
 }
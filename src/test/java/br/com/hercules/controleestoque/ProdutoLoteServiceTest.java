@@ -0,0 +1,122 @@
+package br.com.hercules.controleestoque;
+
+import br.com.hercules.controleestoque.config.CacheConfig;
+import br.com.hercules.controleestoque.model.PrecoProduto;
+import br.com.hercules.controleestoque.model.Produto;
+import br.com.hercules.controleestoque.model.ResultadoLote;
+import br.com.hercules.controleestoque.repository.ProdutoRepository;
+import br.com.hercules.controleestoque.service.ProdutoLoteService;
+import br.com.hercules.controleestoque.service.impl.ProdutoLoteServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ProdutoLoteServiceImpl.class, CacheConfig.class})
+@TestPropertySource(properties = "estoque.lote.tamanho=2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ProdutoLoteServiceTest {
+
+    @Autowired
+    private ProdutoLoteService produtoLoteService;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @BeforeEach
+    void setUp(){
+        produtoRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void deveCriarProdutosEmBlocosERetornarResultadoPorItem(){
+        //Given
+        List<Produto> produtos = Arrays.asList(
+                new Produto(null, "Violao", 10, 700),
+                new Produto(null, "", 1, 10),
+                new Produto(null, "Guitarra", 5, 1500),
+                new Produto(null, "Baixo", 2, 2000),
+                null);
+
+        //When
+        List<ResultadoLote> resultados = produtoLoteService.criarEmLote(produtos);
+
+        //Then
+        assertThat(resultados).extracting(ResultadoLote::status).containsExactly(
+                ResultadoLote.Status.CRIADO, ResultadoLote.Status.INVALIDO, ResultadoLote.Status.CRIADO,
+                ResultadoLote.Status.CRIADO, ResultadoLote.Status.INVALIDO);
+        assertThat(resultados).extracting(ResultadoLote::indice).containsExactly(0, 1, 2, 3, 4);
+        assertThat(resultados.get(0).id()).isNotNull();
+        assertThat(produtoRepository.count()).isEqualTo(3);
+    }
+
+    @Test
+    void deveAtualizarProdutosEmLote(){
+        //Given
+        Long id = produtoRepository.save(new Produto(null, "Violao", 10, 700)).getId();
+
+        //When
+        List<ResultadoLote> resultados = produtoLoteService.atualizarEmLote(List.of(
+                new Produto(id, "Violao Eletrico", 8, 900),
+                new Produto(id + 1000, "Inexistente", 1, 1),
+                new Produto(null, "Sem id", 1, 1)));
+
+        //Then
+        assertThat(resultados).extracting(ResultadoLote::status).containsExactly(
+                ResultadoLote.Status.ATUALIZADO, ResultadoLote.Status.NAO_ENCONTRADO, ResultadoLote.Status.INVALIDO);
+        Produto atualizado = produtoRepository.findById(id).orElseThrow();
+        assertThat(atualizado.getDescricao()).isEqualTo("Violao Eletrico");
+        assertThat(atualizado.getQuantidade()).isEqualTo(8);
+    }
+
+    @Test
+    void deveDeletarProdutosEmLote(){
+        //Given
+        Long id1 = produtoRepository.save(new Produto(null, "Violao", 10, 700)).getId();
+        Long id2 = produtoRepository.save(new Produto(null, "Guitarra", 5, 1500)).getId();
+
+        //When
+        List<ResultadoLote> resultados = produtoLoteService.deletarEmLote(List.of(id1, 999_999L, id2));
+
+        //Then
+        assertThat(resultados).extracting(ResultadoLote::status).containsExactly(
+                ResultadoLote.Status.REMOVIDO, ResultadoLote.Status.NAO_ENCONTRADO, ResultadoLote.Status.REMOVIDO);
+        assertThat(produtoRepository.count()).isZero();
+    }
+
+    @Test
+    void deveReprecificarProdutosEmLote(){
+        //Given
+        Long id1 = produtoRepository.save(new Produto(null, "Violao", 10, 700)).getId();
+        Long id2 = produtoRepository.save(new Produto(null, "Guitarra", 5, 1500)).getId();
+
+        //When
+        List<ResultadoLote> resultados = produtoLoteService.reprecificarEmLote(List.of(
+                new PrecoProduto(id1, 750.0),
+                new PrecoProduto(999_999L, 10.0),
+                new PrecoProduto(id2, -1.0),
+                new PrecoProduto(id2, 1600.0)));
+
+        //Then
+        assertThat(resultados).extracting(ResultadoLote::status).containsExactly(
+                ResultadoLote.Status.ATUALIZADO, ResultadoLote.Status.NAO_ENCONTRADO,
+                ResultadoLote.Status.INVALIDO, ResultadoLote.Status.ATUALIZADO);
+        Produto violao = produtoRepository.findById(id1).orElseThrow();
+        assertThat(violao.getPreco()).isEqualTo(750.0);
+        assertThat(violao.getQuantidade()).isEqualTo(10);
+        assertThat(violao.getVersao()).isEqualTo(1L);
+        assertThat(produtoRepository.findById(id2).orElseThrow().getPreco()).isEqualTo(1600.0);
+    }
+}
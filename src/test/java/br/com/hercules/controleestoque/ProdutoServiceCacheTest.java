@@ -0,0 +1,110 @@
+package br.com.hercules.controleestoque;
+
+import br.com.hercules.controleestoque.busca.IndiceDescricaoProduto;
+import br.com.hercules.controleestoque.cache.CargaAgrupadaProdutos;
+import br.com.hercules.controleestoque.config.CacheConfig;
+import br.com.hercules.controleestoque.model.Produto;
+import br.com.hercules.controleestoque.repository.ProdutoRepository;
+import br.com.hercules.controleestoque.service.ProdutoService;
+import br.com.hercules.controleestoque.service.impl.ProdutoServiceImpl;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringJUnitConfig({CacheConfig.class, ProdutoServiceImpl.class})
+public class ProdutoServiceCacheTest {
+
+    @MockBean
+    private ProdutoRepository produtoRepository;
+
+    @MockBean
+    private EntityManager entityManager;
+
+    @MockBean
+    private IndiceDescricaoProduto indiceDescricao;
+
+    @MockBean
+    private CargaAgrupadaProdutos cargaAgrupada;
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp(){
+        cacheManager.getCache(CacheConfig.CACHE_PRODUTOS).clear();
+    }
+
+    @Test
+    void deveBuscarProdutoNoBancoApenasUmaVez(){
+        //Given
+        Produto produto = new Produto(1L, "Violao", 10, 700);
+        when(produtoRepository.findById(1L)).thenReturn(Optional.of(produto));
+
+        //When
+        produtoService.produtoGetById(1L);
+        Produto resultado = produtoService.produtoGetById(1L);
+
+        //Then
+        assertThat(resultado).isSameAs(produto);
+        verify(produtoRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void deveInvalidarCacheAoAtualizarProduto(){
+        //Given
+        Produto produto = new Produto(1L, "Violao", 10, 700);
+        when(produtoRepository.findById(1L)).thenReturn(Optional.of(produto));
+        when(produtoRepository.findByIdParaAlterar(1L)).thenReturn(Optional.of(produto));
+        when(produtoRepository.save(any(Produto.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        produtoService.produtoGetById(1L);
+
+        //When
+        produtoService.atualizarProduto(1L, new Produto(1L, "Guitarra", 5, 1500), null);
+        produtoService.produtoGetById(1L);
+
+        //Then
+        verify(produtoRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void deveInvalidarCacheAoDeletarProduto(){
+        //Given
+        when(produtoRepository.findById(1L)).thenReturn(Optional.of(new Produto(1L, "Violao", 10, 700)));
+        when(produtoRepository.findByIdParaAlterar(1L)).thenReturn(Optional.of(new Produto(1L, "Violao", 10, 700)));
+        produtoService.produtoGetById(1L);
+
+        //When
+        produtoService.deletarProduto(1L);
+
+        //Then
+        assertThat(cacheManager.getCache(CacheConfig.CACHE_PRODUTOS).get(1L)).isNull();
+    }
+
+    @Test
+    void deveCachearProdutoCriado(){
+        //Given
+        Produto produto = new Produto(7L, "Teclado", 3, 2500);
+        when(produtoRepository.save(produto)).thenReturn(produto);
+
+        //When
+        produtoService.createProduto(produto);
+        Produto resultado = produtoService.produtoGetById(7L);
+
+        //Then
+        assertThat(resultado).isSameAs(produto);
+        verify(produtoRepository, never()).findById(7L);
+    }
+}
@@ -1,15 +1,23 @@
 package br.com.hercules.controleestoque;
 
+import br.com.hercules.controleestoque.busca.IndiceDescricaoProduto;
+import br.com.hercules.controleestoque.event.ProdutoAlteradoEvent;
+import br.com.hercules.controleestoque.exception.InsufficientStockException;
+import br.com.hercules.controleestoque.exception.PreconditionFailedException;
 import br.com.hercules.controleestoque.exception.ResourceNotFoundException;
+import br.com.hercules.controleestoque.model.MovimentoEstoque;
 import br.com.hercules.controleestoque.model.Produto;
 import br.com.hercules.controleestoque.repository.ProdutoRepository;
 import br.com.hercules.controleestoque.service.ProdutoService;
 import br.com.hercules.controleestoque.service.impl.ProdutoServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 
 import java.util.Collection;
 import java.util.Collections;
@@ -25,6 +33,12 @@ public class ProdutoServiceTest {
     @Mock
     private ProdutoRepository produtoRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private IndiceDescricaoProduto indiceDescricao;
+
     @InjectMocks
     private ProdutoServiceImpl produtoService;
 
@@ -77,23 +91,45 @@ public class ProdutoServiceTest {
         assertThat(excecao.getMessage()).isEqualTo("Produto não encontrado!");
     }
 
+    @Test
+    void deveBuscarPaginaDeProdutosAposId(){
+        //Given
+        List<Produto> produtos = List.of(new Produto(11L, "Baixo", 1, 2000));
+        when(produtoRepository.findByIdGreaterThanOrderByIdAsc(10L, Limit.of(5))).thenReturn(produtos);
+
+        //When
+        List<Produto> resultado = produtoService.findProdutosAposId(10L, 5);
+
+        //Then
+        assertThat(resultado).containsExactlyElementsOf(produtos);
+    }
+
+    @Test
+    void deveBuscarPrimeiraPaginaQuandoNaoHouverCursor(){
+        //When
+        produtoService.findProdutosAposId(null, 5);
+
+        //Then
+        verify(produtoRepository, times(1)).findByIdGreaterThanOrderByIdAsc(0L, Limit.of(5));
+    }
+
     @Test
     void deveExcluirProdutoPorId(){
         //Given
-        when(produtoRepository.existsById(1L)).thenReturn(true);
-        doNothing().when(produtoRepository).deleteById(1L);
+        Produto produto = new Produto(1L, "Violao", 10, 700);
+        when(produtoRepository.findByIdParaAlterar(1L)).thenReturn(Optional.of(produto));
 
         //when
         produtoService.deletarProduto(1L);
 
         //then
-        verify(produtoRepository, times(1)).deleteById(1L);
+        verify(produtoRepository, times(1)).delete(produto);
     }
 
     @Test
     void deveLancarExcecaoAoDeletarProdutoInexistente(){
         //Given
-        when(produtoRepository.existsById(99L)).thenReturn(false);
+        when(produtoRepository.findByIdParaAlterar(99L)).thenReturn(Optional.empty());
 
         //when
         RuntimeException exception = assertThrows(ResourceNotFoundException.class, () -> produtoService.deletarProduto(99L));
@@ -109,12 +145,12 @@ public class ProdutoServiceTest {
         Long id = 1L;
         Produto produtoExistente = new Produto(id, "Violao", 10, 1300);
         Produto produtoAtualizado = new Produto(id, "Guitarra", 5, 1500);
-        when(produtoRepository.findById(id)).thenReturn(Optional.of(produtoExistente));
+        when(produtoRepository.findByIdParaAlterar(id)).thenReturn(Optional.of(produtoExistente));
         when(produtoRepository.save(any(Produto.class))).thenReturn(produtoAtualizado);
 
 
         //when
-        Produto resultado = produtoService.atualizarProduto(id,produtoAtualizado);
+        Produto resultado = produtoService.atualizarProduto(id,produtoAtualizado, null);
 
         //then
         assertThat(resultado.getDescricao()).isEqualTo("Guitarra");
@@ -123,15 +159,49 @@ public class ProdutoServiceTest {
         verify(produtoRepository, times(1)).save(produtoExistente);
     }
 
+    @Test
+    void deveLancarExcecaoQuandoVersaoEsperadaDivergir(){
+        //Given
+        Produto produtoExistente = new Produto(1L, "Violao", 10, 1300);
+        produtoExistente.setVersao(4L);
+        when(produtoRepository.findByIdParaAlterar(1L)).thenReturn(Optional.of(produtoExistente));
+
+        //when
+        RuntimeException exception = assertThrows(PreconditionFailedException.class,
+                () -> produtoService.atualizarProduto(1L, new Produto(1L, "Guitarra", 5, 1500), 3L));
+
+        //then
+        assertThat(exception.getMessage()).isEqualTo("O produto foi alterado desde a última leitura!");
+        verify(produtoRepository, never()).save(any(Produto.class));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void deveRecusarQuantidadeAbaixoDaReservadaAoAtualizarProduto(){
+        //Given
+        Produto produtoExistente = mock(Produto.class);
+        when(produtoExistente.getQuantidadeReservada()).thenReturn(6);
+        when(produtoRepository.findByIdParaAlterar(1L)).thenReturn(Optional.of(produtoExistente));
+
+        //when
+        RuntimeException exception = assertThrows(InsufficientStockException.class,
+                () -> produtoService.atualizarProduto(1L, new Produto(1L, "Violao", 5, 1300), null));
+
+        //then
+        assertThat(exception.getMessage()).isEqualTo("A quantidade não pode ficar abaixo das 6 unidades reservadas!");
+        verify(produtoRepository, never()).save(any(Produto.class));
+        verifyNoInteractions(eventPublisher);
+    }
+
     @Test
     void deveLancarExcecaoAtualizarProdutoInexistente(){
         //Given
         Long id = 99L;
         Produto produtoAtualizado= new Produto(id,"Nova descricao", 10, 20);
-        when(produtoRepository.findById(id)).thenReturn(Optional.empty());
+        when(produtoRepository.findByIdParaAlterar(id)).thenReturn(Optional.empty());
 
         //when
-        RuntimeException exception = assertThrows(ResourceNotFoundException.class, () -> produtoService.atualizarProduto(id,produtoAtualizado));
+        RuntimeException exception = assertThrows(ResourceNotFoundException.class, () -> produtoService.atualizarProduto(id,produtoAtualizado, null));
 
         //then
         assertThat(exception.getMessage()).isEqualTo("Produto não encontrado!");
@@ -146,10 +216,10 @@ public class ProdutoServiceTest {
                 new Produto(2L,"Guitarra Gibson",3,15000)
         );
 
-        when(produtoRepository.findByDescricaoContainingIgnoreCase(descricao)).thenReturn(produtos);
+        when(produtoRepository.findByDescricaoContainingIgnoreCase(descricao, Limit.of(10))).thenReturn(produtos);
 
         //When
-        List<Produto> resultado = produtoService.produtoGetByDescricao(descricao);
+        List<Produto> resultado = produtoService.produtoGetByDescricao(descricao, 10);
 
         //then
         assertThat(resultado).isNotEmpty();
@@ -157,22 +227,106 @@ public class ProdutoServiceTest {
         assertThat(resultado.get(0).getDescricao()).contains("Fender");
         assertThat(resultado.get(1).getDescricao()).contains("Gibson");
 
-        verify(produtoRepository,times(1)).findByDescricaoContainingIgnoreCase(descricao);
+        verify(produtoRepository,times(1)).findByDescricaoContainingIgnoreCase(descricao, Limit.of(10));
     }
 
     @Test
     void deveRetornarListaVaziaQuandoNaoEncontrarProdutos(){
         //Given
         String descricao ="Piano";
-        when(produtoRepository.findByDescricaoContainingIgnoreCase(descricao)).thenReturn(Collections.emptyList());
+        when(produtoRepository.findByDescricaoContainingIgnoreCase(descricao, Limit.of(10))).thenReturn(Collections.emptyList());
 
         //When
-        List<Produto> resultado = produtoService.produtoGetByDescricao(descricao);
+        List<Produto> resultado = produtoService.produtoGetByDescricao(descricao, 10);
 
         //then
         assertThat(resultado).isEmpty();
-        verify(produtoRepository,times(1)).findByDescricaoContainingIgnoreCase(descricao);
+        verify(produtoRepository,times(1)).findByDescricaoContainingIgnoreCase(descricao, Limit.of(10));
+
+    }
+
+    @Test
+    void deveBuscarProdutoPorDescricaoNoIndiceNaOrdemDeRelevancia(){
+        //Given
+        Produto fender = new Produto(1L,"Guitarra Fender",2,10000);
+        Produto gibson = new Produto(2L,"Guitarra Gibson",3,15000);
+        when(indiceDescricao.isPronto()).thenReturn(true);
+        when(indiceDescricao.buscar("guitarra", 10)).thenReturn(List.of(2L, 1L));
+        when(produtoRepository.findAllById(List.of(2L, 1L))).thenReturn(List.of(fender, gibson));
+
+        //When
+        List<Produto> resultado = produtoService.produtoGetByDescricao("guitarra", 10);
+
+        //then
+        assertThat(resultado).containsExactly(gibson, fender);
+        verify(produtoRepository, never()).findByDescricaoContainingIgnoreCase(any(), any());
+    }
+
+    @Test
+    void devePublicarEventoAoAtualizarProduto(){
+        //Given
+        Produto produtoExistente = new Produto(1L, "Violao", 10, 1300);
+        when(produtoRepository.findByIdParaAlterar(1L)).thenReturn(Optional.of(produtoExistente));
+        when(produtoRepository.save(any(Produto.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        //When
+        produtoService.atualizarProduto(1L, new Produto(1L, "Violao Eletrico", 8, 1500), null);
+
+        //then
+        ArgumentCaptor<ProdutoAlteradoEvent> captor = ArgumentCaptor.forClass(ProdutoAlteradoEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertThat(captor.getValue().tipo()).isEqualTo(ProdutoAlteradoEvent.Tipo.ATUALIZACAO);
+        assertThat(captor.getValue().anterior().getDescricao()).isEqualTo("Violao");
+        assertThat(captor.getValue().atual().getDescricao()).isEqualTo("Violao Eletrico");
+    }
+
+    @Test
+    void deveMovimentarEstoqueComUpdateAtomico(){
+        //Given
+        when(produtoRepository.ajustarQuantidade(1L, -3)).thenReturn(1);
+        Produto produtoAtual = new Produto(1L, "Violao", 7, 700);
+        produtoAtual.setVersao(5L);
+        when(produtoRepository.findById(1L)).thenReturn(Optional.of(produtoAtual));
+
+        //When
+        Produto resultado = produtoService.movimentarEstoque(1L, new MovimentoEstoque(MovimentoEstoque.Tipo.SAIDA, 3));
 
+        //Then
+        assertThat(resultado.getQuantidade()).isEqualTo(7);
+        verify(produtoRepository, never()).save(any(Produto.class));
+        ArgumentCaptor<ProdutoAlteradoEvent> captor = ArgumentCaptor.forClass(ProdutoAlteradoEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertThat(captor.getValue().anterior().getQuantidade()).isEqualTo(10);
+        assertThat(captor.getValue().anterior().getVersao()).isEqualTo(4L);
+    }
+
+    @Test
+    void deveLancarExcecaoQuandoEstoqueInsuficiente(){
+        //Given
+        when(produtoRepository.ajustarQuantidade(1L, -30)).thenReturn(0);
+        when(produtoRepository.existsById(1L)).thenReturn(true);
+
+        //When
+        RuntimeException exception = assertThrows(InsufficientStockException.class,
+                () -> produtoService.movimentarEstoque(1L, new MovimentoEstoque(MovimentoEstoque.Tipo.SAIDA, 30)));
+
+        //Then
+        assertThat(exception.getMessage()).isEqualTo("Estoque insuficiente!");
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void deveLancarExcecaoAoMovimentarProdutoInexistente(){
+        //Given
+        when(produtoRepository.ajustarQuantidade(99L, 5)).thenReturn(0);
+        when(produtoRepository.existsById(99L)).thenReturn(false);
+
+        //When
+        RuntimeException exception = assertThrows(ResourceNotFoundException.class,
+                () -> produtoService.movimentarEstoque(99L, new MovimentoEstoque(MovimentoEstoque.Tipo.ENTRADA, 5)));
+
+        //Then
+        assertThat(exception.getMessage()).isEqualTo("Produto não encontrado!");
     }
 
 }
@@ -0,0 +1,80 @@
+package br.com.hercules.controleestoque;
+
+import br.com.hercules.controleestoque.model.Produto;
+import br.com.hercules.controleestoque.serializacao.ProdutosColunaresHttpMessageConverter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+import static br.com.hercules.controleestoque.serializacao.ProdutosColunaresHttpMessageConverter.COLUNAR_CBOR;
+import static br.com.hercules.controleestoque.serializacao.ProdutosColunaresHttpMessageConverter.COLUNAR_JSON;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ProdutosColunaresHttpMessageConverterTest {
+
+    private static final Type LISTA_PRODUTOS = new ParameterizedTypeReference<List<Produto>>() {
+    }.getType();
+
+    private final ProdutosColunaresHttpMessageConverter converter = new ProdutosColunaresHttpMessageConverter();
+
+    @Test
+    public void deveEscreverUmArrayPorCampo() throws IOException {
+        //Dado (Given)
+        Produto violao = new Produto(1L, "Violao", 10, 700.0);
+        Produto cabo = new Produto(2L, "Cabo", 3, 5.5);
+        cabo.setPontoReposicao(5);
+        cabo.setVersao(2L);
+        MockHttpOutputMessage saida = new MockHttpOutputMessage();
+
+        //Quando(When)
+        converter.write(List.of(violao, cabo), LISTA_PRODUTOS, COLUNAR_JSON, saida);
+
+        //Então(Then)
+        assertThat(saida.getHeaders().getContentType()).isEqualTo(COLUNAR_JSON);
+        JsonNode colunas = new ObjectMapper().readTree(saida.getBodyAsBytes());
+        assertThat(colunas.get("total").asInt()).isEqualTo(2);
+        assertThat(colunas.get("id").toString()).isEqualTo("[1,2]");
+        assertThat(colunas.get("descricao").toString()).isEqualTo("[\"Violao\",\"Cabo\"]");
+        assertThat(colunas.get("quantidade").toString()).isEqualTo("[10,3]");
+        assertThat(colunas.get("preco").toString()).isEqualTo("[700.0,5.5]");
+        assertThat(colunas.get("pontoReposicao").toString()).isEqualTo("[0,5]");
+        assertThat(colunas.get("versao").toString()).isEqualTo("[null,2]");
+    }
+
+    @Test
+    public void deveEscreverEmCborQuandoNegociado() throws IOException {
+        //Dado (Given)
+        MockHttpOutputMessage saida = new MockHttpOutputMessage();
+
+        //Quando(When)
+        converter.write(List.of(new Produto(7L, "Corda", 1, 12.0)), LISTA_PRODUTOS, COLUNAR_CBOR, saida);
+
+        //Então(Then)
+        JsonNode colunas = new ObjectMapper(new CBORFactory()).readTree(saida.getBodyAsBytes());
+        assertThat(colunas.get("id").get(0).asLong()).isEqualTo(7L);
+        assertThat(colunas.get("descricao").get(0).asText()).isEqualTo("Corda");
+    }
+
+    @Test
+    public void naoDeveSeOferecerParaCuringaNemParaOutrosTipos() {
+        //Dado (Given)
+        Type listaTextos = new ParameterizedTypeReference<List<String>>() {
+        }.getType();
+
+        //Quando(When) / Então(Then)
+        assertThat(converter.canWrite(LISTA_PRODUTOS, List.class, COLUNAR_JSON)).isTrue();
+        assertThat(converter.canWrite(LISTA_PRODUTOS, List.class, MediaType.ALL)).isFalse();
+        assertThat(converter.canWrite(LISTA_PRODUTOS, List.class, null)).isFalse();
+        assertThat(converter.canWrite(LISTA_PRODUTOS, List.class, MediaType.APPLICATION_JSON)).isFalse();
+        assertThat(converter.canWrite(listaTextos, List.class, COLUNAR_JSON)).isFalse();
+        assertThat(converter.canRead(LISTA_PRODUTOS, null, COLUNAR_JSON)).isFalse();
+    }
+}
@@ -0,0 +1,268 @@
+package br.com.hercules.controleestoque;
+
+import br.com.hercules.controleestoque.busca.IndiceDescricaoProduto;
+import br.com.hercules.controleestoque.cache.CargaAgrupadaProdutos;
+import br.com.hercules.controleestoque.exception.InsufficientStockException;
+import br.com.hercules.controleestoque.exception.ResourceNotFoundException;
+import br.com.hercules.controleestoque.model.AlteracaoParcialProduto;
+import br.com.hercules.controleestoque.model.DisponibilidadeProduto;
+import br.com.hercules.controleestoque.model.NovaReserva;
+import br.com.hercules.controleestoque.model.Produto;
+import br.com.hercules.controleestoque.model.ReservaEstoque;
+import br.com.hercules.controleestoque.repository.ProdutoRepository;
+import br.com.hercules.controleestoque.repository.ReservaEstoqueRepository;
+import br.com.hercules.controleestoque.reserva.ExpiracaoReservas;
+import br.com.hercules.controleestoque.service.ProdutoService;
+import br.com.hercules.controleestoque.service.ReservaEstoqueService;
+import br.com.hercules.controleestoque.service.impl.ProdutoServiceImpl;
+import br.com.hercules.controleestoque.service.impl.ReservaEstoqueServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(ProdutoServiceImpl.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ReservaEstoqueTest {
+
+    @Autowired
+    private ReservaEstoqueService reservaEstoqueService;
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @MockBean
+    private IndiceDescricaoProduto indiceDescricao;
+
+    @MockBean
+    private CargaAgrupadaProdutos cargaAgrupada;
+
+    @Autowired
+    private ExpiracaoReservas expiracaoReservas;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private ReservaEstoqueRepository reservaRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private RelogioAjustavel relogio;
+
+    @BeforeEach
+    void setUp() {
+        reservaRepository.deleteAllInBatch();
+        produtoRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void deveReservarSemBaixarQuantidadeEProtegerReservaDeSaidas() {
+        //Dado (Given)
+        Long id = produtoRepository.save(new Produto(null, "Violao", 10, 700)).getId();
+
+        //Quando(When)
+        reservaEstoqueService.reservar(id, new NovaReserva(7, null));
+
+        //Então(Then)
+        assertThat(reservaEstoqueService.disponibilidade(id)).isEqualTo(new DisponibilidadeProduto(id, 10, 7, 3));
+        assertThat(produtoRepository.findById(id).orElseThrow().getVersao()).isZero();
+        assertThrows(InsufficientStockException.class, () -> reservaEstoqueService.reservar(id, new NovaReserva(4, null)));
+        assertThat(ajustar(id, -4)).isZero();
+        assertThat(ajustar(id, -3)).isEqualTo(1);
+        assertThrows(ResourceNotFoundException.class, () -> reservaEstoqueService.reservar(999_999L, new NovaReserva(1, null)));
+    }
+
+    @Test
+    void deveConfirmarUmaUnicaVezBaixandoQuantidadeEReserva() {
+        //Dado (Given)
+        Long id = produtoRepository.save(new Produto(null, "Cabo", 10, 5)).getId();
+        ReservaEstoque reserva = reservaEstoqueService.reservar(id, new NovaReserva(4, null));
+
+        //Quando(When)
+        Produto produto = reservaEstoqueService.confirmar(id, reserva.getId());
+
+        //Então(Then)
+        assertThat(produto.getQuantidade()).isEqualTo(6);
+        assertThat(produto.getVersao()).isEqualTo(1L);
+        assertThat(reservaEstoqueService.disponibilidade(id)).isEqualTo(new DisponibilidadeProduto(id, 6, 0, 6));
+        assertThrows(ResourceNotFoundException.class, () -> reservaEstoqueService.confirmar(id, reserva.getId()));
+        assertThrows(ResourceNotFoundException.class, () -> reservaEstoqueService.cancelar(id, reserva.getId()));
+    }
+
+    @Test
+    void naoDeveDeixarAtualizacoesBaixaremAQuantidadeAbaixoDaReserva() {
+        //Dado (Given)
+        Long id = produtoRepository.save(new Produto(null, "Pedal", 10, 300)).getId();
+        reservaEstoqueService.reservar(id, new NovaReserva(7, null));
+
+        //Quando(When)
+        assertThrows(InsufficientStockException.class,
+                () -> produtoService.atualizarProduto(id, new Produto(id, "Pedal", 6, 300), null));
+        assertThrows(InsufficientStockException.class,
+                () -> produtoService.atualizarParcialmente(id, new AlteracaoParcialProduto(null, 5, null, null), null));
+        produtoService.atualizarParcialmente(id, new AlteracaoParcialProduto(null, 7, null, null), null);
+
+        //Então(Then)
+        assertThat(reservaEstoqueService.disponibilidade(id)).isEqualTo(new DisponibilidadeProduto(id, 7, 7, 0));
+    }
+
+    @Test
+    void deveDevolverUnidadesAoCancelar() {
+        //Dado (Given)
+        Long id = produtoRepository.save(new Produto(null, "Corda", 3, 12)).getId();
+        ReservaEstoque reserva = reservaEstoqueService.reservar(id, new NovaReserva(3, null));
+
+        //Quando(When)
+        reservaEstoqueService.cancelar(id, reserva.getId());
+
+        //Então(Then)
+        assertThat(reservaEstoqueService.disponibilidade(id)).isEqualTo(new DisponibilidadeProduto(id, 3, 0, 3));
+        assertThat(reservaRepository.count()).isZero();
+    }
+
+    @Test
+    void deveExpirarReservasVencidasPelaFila() throws Exception {
+        //Dado (Given)
+        Long id = produtoRepository.save(new Produto(null, "Palheta", 10, 2)).getId();
+        ReservaEstoque curta = reservaEstoqueService.reservar(id, new NovaReserva(2, 60L));
+        ReservaEstoque longa = reservaEstoqueService.reservar(id, new NovaReserva(5, 600L));
+
+        //Quando(When)
+        relogio.avancar(Duration.ofSeconds(61));
+        expiracaoReservas.iniciar();
+        try {
+            long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (reservaRepository.existsById(curta.getId()) && System.nanoTime() < limite) {
+                Thread.sleep(20);
+            }
+        } finally {
+            expiracaoReservas.parar();
+        }
+
+        //Então(Then)
+        assertThat(reservaRepository.existsById(curta.getId())).isFalse();
+        assertThat(reservaEstoqueService.disponibilidade(id)).isEqualTo(new DisponibilidadeProduto(id, 10, 5, 5));
+        assertThrows(ResourceNotFoundException.class, () -> reservaEstoqueService.confirmar(id, curta.getId()));
+        assertThat(expiracaoReservas.expirar(List.of(curta.getId(), longa.getId()))).isZero();
+    }
+
+    @Test
+    void naoDeveReservarAlemDoDisponivelComReservasConcorrentes() throws Exception {
+        //Dado (Given)
+        Long id = produtoRepository.save(new Produto(null, "Afinador", 500, 40)).getId();
+        AtomicInteger aceitas = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+
+        //Quando(When)
+        try {
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int thread = 0; thread < 32; thread++) {
+                tarefas.add(executor.submit(() -> {
+                    for (int i = 0; i < 25; i++) {
+                        try {
+                            reservaEstoqueService.reservar(id, new NovaReserva(1, null));
+                            aceitas.incrementAndGet();
+                        } catch (InsufficientStockException ex) {
+                            // disponível esgotado
+                        }
+                    }
+                }));
+            }
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        //Então(Then)
+        assertThat(aceitas.get()).isEqualTo(500);
+        assertThat(reservaRepository.count()).isEqualTo(500);
+        assertThat(reservaEstoqueService.disponibilidade(id)).isEqualTo(new DisponibilidadeProduto(id, 500, 500, 0));
+    }
+
+    private int ajustar(Long id, int delta) {
+        Integer linhas = new TransactionTemplate(transactionManager).execute(status -> produtoRepository.ajustarQuantidade(id, delta));
+        return linhas == null ? 0 : linhas;
+    }
+
+    static class RelogioAjustavel extends Clock {
+
+        private volatile Instant agora = Instant.parse("2024-01-01T00:00:00Z");
+
+        void avancar(Duration duracao) {
+            agora = agora.plus(duracao);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return agora;
+        }
+    }
+
+    @TestConfiguration
+    static class Configuracao {
+
+        @Bean
+        RelogioAjustavel relogio() {
+            return new RelogioAjustavel();
+        }
+
+        @Bean
+        ExpiracaoReservas expiracaoReservas(ReservaEstoqueRepository reservaRepository, ProdutoRepository produtoRepository,
+                                            PlatformTransactionManager transactionManager, RelogioAjustavel relogio) {
+            return new ExpiracaoReservas(reservaRepository, produtoRepository, transactionManager, new SimpleMeterRegistry(), relogio);
+        }
+
+        @Bean
+        ReservaEstoqueServiceImpl reservaEstoqueService(ProdutoRepository produtoRepository, ReservaEstoqueRepository reservaRepository,
+                                                        EntityManager entityManager, ExpiracaoReservas expiracaoReservas,
+                                                        ApplicationEventPublisher eventPublisher, RelogioAjustavel relogio) {
+            return new ReservaEstoqueServiceImpl(produtoRepository, reservaRepository, entityManager, expiracaoReservas,
+                    eventPublisher, Duration.ofMinutes(15), Duration.ofHours(2), relogio);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package br.com.hercules.controleestoque;
+
+import br.com.hercules.controleestoque.model.Produto;
+import br.com.hercules.controleestoque.service.ProdutoService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Primária e réplica são dois bancos H2 independentes, sem replicação entre eles: o que cada
+ * leitura enxerga mostra para qual banco ela foi enviada.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:primaria;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "estoque.datasource.replicas.urls=" + RoteamentoReplicasTest.URL_REPLICA,
+        "estoque.busca.indice.habilitado=false"
+})
+@ActiveProfiles("test")
+public class RoteamentoReplicasTest {
+
+    static final String URL_REPLICA = "jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1;INIT=RUNSCRIPT FROM 'classpath:replica-teste.sql'";
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    private final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(URL_REPLICA, "sa", ""));
+
+    @BeforeEach
+    void setUp(){
+        replica.update("delete from produto");
+    }
+
+    @Test
+    void deveGravarNaPrimariaELerConsultasNaReplica(){
+        //Dado (Given)
+        Long id = produtoService.createProduto(new Produto(null, "Violao", 10, 700)).getId();
+        replica.update("insert into produto (id, descricao, quantidade, preco, ponto_reposicao, versao) values (?, ?, ?, ?, ?, ?)",
+                999L, "Somente na replica", 1, 10.0, 0, 0L);
+
+        //Quando(When)
+        List<Produto> listagem = produtoService.findAllProdutos();
+        Produto porId = produtoService.produtoGetById(id);
+
+        //Então(Then)
+        assertThat(listagem).extracting(Produto::getDescricao).containsExactly("Somente na replica");
+        assertThat(porId.getDescricao()).isEqualTo("Violao");
+    }
+
+    @Test
+    void deveAtualizarLendoDaPrimaria(){
+        //Dado (Given)
+        Long id = produtoService.createProduto(new Produto(null, "Cabo", 5, 10)).getId();
+
+        //Quando(When)
+        Produto atualizado = produtoService.atualizarProduto(id, new Produto(null, "Cabo P10", 6, 12), null);
+
+        //Então(Then)
+        assertThat(atualizado.getVersao()).isEqualTo(1L);
+        assertThat(produtoService.findProdutosAposId(0L, 10)).isEmpty();
+    }
+}
@@ -0,0 +1,10 @@
+-- Schema da réplica H2 usada em RoteamentoReplicasTest; na primária o Hibernate gera o schema.
+create table if not exists produto (
+    id bigint primary key,
+    descricao varchar(255) not null,
+    quantidade integer not null,
+    preco float(53) not null,
+    ponto_reposicao integer not null,
+    quantidade_reservada integer not null default 0,
+    versao bigint not null
+);